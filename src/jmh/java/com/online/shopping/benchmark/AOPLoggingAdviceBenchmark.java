@@ -0,0 +1,61 @@
+package com.online.shopping.benchmark;
+
+import com.online.shopping.advice.AOPLoggingAdvice;
+import com.online.shopping.entity.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per call overhead of {@link AOPLoggingAdvice}: the same method is called directly and through the
+ * logging proxy for every logging mode. Log output is discarded (see logback-test.xml).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AOPLoggingAdviceBenchmark {
+
+    @Param({"FULL", "TIMING", "OFF"})
+    private AOPLoggingAdvice.Mode mode;
+
+    @Param({"1", "20"})
+    private int pageSize;
+
+    private CatalogLookup target;
+
+    private CatalogLookup advised;
+
+    @Setup
+    public void setup() {
+        target = new CatalogLookup(BenchmarkData.products(100));
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvisor(new AOPLoggingAdvice(mode, List.of("com.online.shopping.benchmark"), 1.0, 2048).advisor());
+        advised = (CatalogLookup) proxyFactory.getProxy();
+    }
+
+    @Benchmark
+    public List<Product> direct() {
+        return target.page(1, pageSize);
+    }
+
+    @Benchmark
+    public List<Product> advised() {
+        return advised.page(1, pageSize);
+    }
+}
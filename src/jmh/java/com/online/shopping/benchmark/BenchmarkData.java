@@ -0,0 +1,44 @@
+package com.online.shopping.benchmark;
+
+import com.online.shopping.entity.Attributes;
+import com.online.shopping.entity.Category;
+import com.online.shopping.entity.Inventory;
+import com.online.shopping.entity.Price;
+import com.online.shopping.entity.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic catalog shared by the benchmarks, generated from a fixed seed so every run measures the same data.
+ */
+final class BenchmarkData {
+
+    static final String CATEGORY_NAME = "electronics";
+
+    private BenchmarkData() {
+    }
+
+    static Category category() {
+        return new Category("CATEG00001", CATEGORY_NAME);
+    }
+
+    /**
+     * @param size number of products
+     * @return products of one category, about 10% of them without sellable inventory
+     */
+    static List<Product> products(int size) {
+        SplittableRandom random = new SplittableRandom(42);
+        Category category = category();
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int available = random.nextInt(100);
+            int reserved = random.nextInt(10) == 0 ? available : random.nextInt(Math.max(1, available));
+            products.add(new Product(String.format("P%09d", i), "product " + i, "brand " + random.nextInt(50),
+                    "description of product " + i, new Price("INR", random.nextInt(100_000) / 100.0),
+                    new Inventory(available + 10, available, reserved), List.of(new Attributes("color", "black")), category));
+        }
+        return products;
+    }
+}
@@ -0,0 +1,23 @@
+package com.online.shopping.benchmark;
+
+import com.online.shopping.entity.Product;
+
+import java.util.List;
+
+/**
+ * Plain component in a package matched by the {@link com.online.shopping.advice.AOPLoggingAdvice} pointcut,
+ * the benchmark calls it directly and through the logging proxy.
+ */
+public class CatalogLookup {
+
+    private final List<Product> products;
+
+    public CatalogLookup(List<Product> products) {
+        this.products = products;
+    }
+
+    public List<Product> page(int pageNo, int pageSize) {
+        int from = Math.min(products.size(), (pageNo - 1) * pageSize);
+        return products.subList(from, Math.min(products.size(), from + pageSize));
+    }
+}
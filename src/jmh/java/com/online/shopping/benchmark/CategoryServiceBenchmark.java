@@ -0,0 +1,81 @@
+package com.online.shopping.benchmark;
+
+import com.online.shopping.cache.CategoryColumnIndex;
+import com.online.shopping.cache.CategoryRegistry;
+import com.online.shopping.dto.ResponseModalDTO;
+import com.online.shopping.repository.CategoryRepository;
+import com.online.shopping.repository.ProductRepository;
+import com.online.shopping.repository.memory.InMemoryCategoryRepository;
+import com.online.shopping.repository.memory.InMemoryProductRepository;
+import com.online.shopping.repository.memory.InMemoryStore;
+import com.online.shopping.service.CategoryService;
+import com.online.shopping.util.UlidIdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Category page: inventory filter, sort and pagination of {@link CategoryService#getCategoryProduct} over
+ * catalogs from 100 to 1M products, with the repositories of the in-memory storage backend. columnIndex=false measures the
+ * repository query, columnIndex=true the page answered by the loaded {@link CategoryColumnIndex}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CategoryServiceBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    private int size;
+
+    @Param({"price", "inventory"})
+    private String sortBy;
+
+    @Param({"asc", "desc"})
+    private String sortOrder;
+
+    @Param({"false", "true"})
+    private boolean columnIndex;
+
+    private CategoryService categoryService;
+
+    @Setup
+    public void setup() {
+        InMemoryStore store = new InMemoryStore(null);
+        CategoryRepository categoryRepository = new InMemoryCategoryRepository(store);
+        ProductRepository productRepository = new InMemoryProductRepository(store);
+        categoryRepository.insert(BenchmarkData.category());
+        productRepository.insert(BenchmarkData.products(size));
+        CategoryColumnIndex categoryColumnIndex = new CategoryColumnIndex(productRepository, 1000);
+        if (columnIndex) {
+            categoryColumnIndex.refresh();
+        }
+        categoryService = new CategoryService(categoryRepository, productRepository, new UlidIdGenerator(),
+                new CategoryRegistry(categoryRepository, Duration.ofSeconds(5)), categoryColumnIndex, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public ResponseModalDTO firstPage() {
+        return categoryService.getCategoryProduct(BenchmarkData.CATEGORY_NAME, sortBy, sortOrder, 1, 20, null, Map.of());
+    }
+
+    @Benchmark
+    public ResponseModalDTO middlePage() {
+        return categoryService.getCategoryProduct(BenchmarkData.CATEGORY_NAME, sortBy, sortOrder, Math.max(1, size / 40), 20, null, Map.of());
+    }
+}
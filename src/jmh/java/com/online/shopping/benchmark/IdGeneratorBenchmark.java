@@ -0,0 +1,55 @@
+package com.online.shopping.benchmark;
+
+import com.online.shopping.util.IdGenerator;
+import com.online.shopping.util.UlidIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UlidIdGenerator} compared with the previous id generation, a new SecureRandom per call drawing
+ * one character at a time (see {@link OnlineShoppingAppUtilityBenchmark} for the current random ids).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    private static final String LEGACY_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+
+    private final IdGenerator ulidIdGenerator = new UlidIdGenerator();
+
+    @Benchmark
+    public String ulid() {
+        return ulidIdGenerator.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String ulidContended() {
+        return ulidIdGenerator.nextId();
+    }
+
+    @Benchmark
+    public String legacyRandom() {
+        SecureRandom random = new SecureRandom();
+        StringBuilder sb = new StringBuilder(10);
+        for (int i = 0; i < 10; i++) {
+            sb.append(LEGACY_ALPHABET.charAt(random.nextInt(LEGACY_ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package com.online.shopping.benchmark;
+
+import com.online.shopping.util.OnlineShoppingAppUtility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Id generation used for every new product, category and user.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OnlineShoppingAppUtilityBenchmark {
+
+    @Param({"10"})
+    private int length;
+
+    @Benchmark
+    public String generateUserId() {
+        return OnlineShoppingAppUtility.generateUserId(length);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateUserIdContended() {
+        return OnlineShoppingAppUtility.generateUserId(length);
+    }
+}
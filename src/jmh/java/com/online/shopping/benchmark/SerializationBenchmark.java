@@ -0,0 +1,65 @@
+package com.online.shopping.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.online.shopping.dto.CategoryResponseDTO;
+import com.online.shopping.dto.DataResponse;
+import com.online.shopping.dto.Header;
+import com.online.shopping.dto.ProductResponseDTO;
+import com.online.shopping.dto.ResponseModalDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the category page response and of the error/status envelope.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private ResponseModalDTO responseModalDTO;
+
+    private DataResponse<String> dataResponse;
+
+    @Setup
+    public void setup() {
+        CategoryResponseDTO categoryResponseDTO = new CategoryResponseDTO();
+        categoryResponseDTO.setId(BenchmarkData.category().getId());
+        categoryResponseDTO.setCategoryName(BenchmarkData.CATEGORY_NAME);
+        ProductResponseDTO productResponseDTO = new ProductResponseDTO();
+        productResponseDTO.setProducts(BenchmarkData.products(pageSize));
+        responseModalDTO = new ResponseModalDTO(categoryResponseDTO, productResponseDTO);
+        dataResponse = new DataResponse<>(new Header("Resource Not Found", "404", "5f0c8a1e2b3d4c5e"),
+                "category electronics  is not available in database !", new ArrayList<>());
+    }
+
+    @Benchmark
+    public byte[] responseModalDTO() throws Exception {
+        return mapper.writeValueAsBytes(responseModalDTO);
+    }
+
+    @Benchmark
+    public byte[] dataResponse() throws Exception {
+        return mapper.writeValueAsBytes(dataResponse);
+    }
+}
@@ -0,0 +1,169 @@
+package com.online.shopping.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Results of one traffic step, per scenario and in total.
+ * <p>
+ * 1. The latency of a request runs from its scheduled arrival to the end of its response body, so a request delayed
+ * by a busy client or a saturated application is measured with its waiting time (no coordinated omission).
+ * 2. Latencies are recorded in microseconds, with 3 significant digits, for every arrival including the errors: a
+ * timed out or failed request at the time it failed, a dropped arrival at the request timeout. Only a request not
+ * sent (failure of the load test itself) is left out, so the percentiles include the slowest shoppers.
+ * 3. Errors are counted by kind: HTTP status of 400 and above, timeout, I/O failure, request not sent and arrival
+ * dropped because max-in-flight requests were running. The error rate is errors / arrivals.
+ */
+final class LatencyReport {
+
+    private static final String TOTAL = "total";
+
+    private final int rate;
+
+    private final long durationNanos;
+
+    private final Map<String, Stats> scenarios = new ConcurrentHashMap<>();
+
+    private final Stats total = new Stats();
+
+    private volatile long maxArrivalLagNanos;
+
+    LatencyReport(int rate, long durationNanos) {
+        this.rate = rate;
+        this.durationNanos = durationNanos;
+    }
+
+    void success(String scenario, long latencyNanos) {
+        stats(scenario).success(latencyNanos);
+        total.success(latencyNanos);
+    }
+
+    void error(String scenario, long latencyNanos, String kind) {
+        stats(scenario).error(latencyNanos, kind);
+        total.error(latencyNanos, kind);
+    }
+
+    // single arrival thread
+    void arrivalLag(long lagNanos) {
+        if (lagNanos > maxArrivalLagNanos) {
+            maxArrivalLagNanos = lagNanos;
+        }
+    }
+
+    long arrivals() {
+        return total.arrivals();
+    }
+
+    long errors() {
+        return total.errors();
+    }
+
+    /**
+     * Method to print the step as a table, one line per scenario then the total, latencies in milliseconds.
+     * @param out
+     */
+    void print(PrintStream out) {
+        double seconds = durationNanos / 1e9;
+        out.printf("%nTarget rate %d req/s over %.0f s, achieved %.1f arrivals/s, max arrival lag %.2f ms%n", rate, seconds,
+                total.arrivals() / seconds, maxArrivalLagNanos / 1e6);
+        String format = "%-26s %9s %10s %8s %9s %9s %9s %9s  %s%n";
+        out.printf(format, "scenario", "requests", "ok req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms", "error kinds");
+        new TreeMap<>(scenarios).forEach((name, stats) -> stats.print(out, format, name, seconds));
+        total.print(out, format, TOTAL, seconds);
+    }
+
+    /**
+     * @return the step as a JSON tree, latencies in milliseconds
+     */
+    Map<String, Object> toJson() {
+        double seconds = durationNanos / 1e9;
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("targetRate", rate);
+        json.put("durationSeconds", seconds);
+        json.put("achievedArrivalRate", total.arrivals() / seconds);
+        json.put("maxArrivalLagMs", maxArrivalLagNanos / 1e6);
+        Map<String, Object> perScenario = new LinkedHashMap<>();
+        new TreeMap<>(scenarios).forEach((name, stats) -> perScenario.put(name, stats.toJson(seconds)));
+        json.put("scenarios", perScenario);
+        json.put(TOTAL, total.toJson(seconds));
+        return json;
+    }
+
+    private Stats stats(String scenario) {
+        return scenarios.computeIfAbsent(scenario, name -> new Stats());
+    }
+
+    private static final class Stats {
+
+        private final Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+
+        private final LongAdder successes = new LongAdder();
+
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        void success(long latencyNanos) {
+            successes.increment();
+            record(latencyNanos);
+        }
+
+        void error(long latencyNanos, String kind) {
+            errors.computeIfAbsent(kind, k -> new LongAdder()).increment();
+            if (latencyNanos >= 0) {
+                record(latencyNanos);
+            }
+        }
+
+        long errors() {
+            return errors.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+
+        long arrivals() {
+            return successes.sum() + errors();
+        }
+
+        private void record(long latencyNanos) {
+            long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), latencies.getHighestTrackableValue());
+            latencies.recordValue(Math.max(1, micros));
+        }
+
+        private double percentileMillis(double percentile) {
+            return latencies.getTotalCount() == 0 ? 0 : latencies.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        void print(PrintStream out, String format, String name, double seconds) {
+            long arrivals = arrivals();
+            Map<String, Long> kinds = new TreeMap<>();
+            errors.forEach((kind, count) -> kinds.put(kind, count.sum()));
+            out.printf(format, name, arrivals, String.format("%.1f", successes.sum() / seconds),
+                    String.format("%.2f%%", arrivals == 0 ? 0 : 100.0 * errors() / arrivals),
+                    String.format("%.2f", percentileMillis(50)), String.format("%.2f", percentileMillis(99)),
+                    String.format("%.2f", percentileMillis(99.9)), String.format("%.2f", latencies.getMaxValue() / 1000.0),
+                    kinds.isEmpty() ? "" : kinds.toString());
+        }
+
+        Map<String, Object> toJson(double seconds) {
+            long arrivals = arrivals();
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("requests", arrivals);
+            json.put("throughput", successes.sum() / seconds);
+            json.put("errorRate", arrivals == 0 ? 0 : (double) errors() / arrivals);
+            Map<String, Long> kinds = new TreeMap<>();
+            errors.forEach((kind, count) -> kinds.put(kind, count.sum()));
+            json.put("errors", kinds);
+            json.put("p50Ms", percentileMillis(50));
+            json.put("p99Ms", percentileMillis(99));
+            json.put("p999Ms", percentileMillis(99.9));
+            json.put("maxMs", latencies.getMaxValue() / 1000.0);
+            json.put("meanMs", latencies.getTotalCount() == 0 ? 0 : latencies.getMean() / 1000.0);
+            return json;
+        }
+    }
+}
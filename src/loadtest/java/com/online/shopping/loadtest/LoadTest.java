@@ -0,0 +1,134 @@
+package com.online.shopping.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.online.shopping.OnlineShoppingECommerceProjectApplication;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * End to end load test of the application, run offline (see the loadtest Maven profile).
+ * <p>
+ * 1. An in-process MongoDB stand-in (mongo-java-server, in memory) is started on a loopback port and seeded with
+ * the synthetic catalog.
+ * 2. The application is started on a random loopback port against it, with its own configuration otherwise; its log
+ * is written to target/loadtest/application.log.
+ * 3. After a warm-up, every rate is run as a step of open-model traffic, whose results are printed and written to
+ * the JSON report.
+ * The stand-in and the load generator share the machine with the application: compare the results of runs on
+ * the same machine, they are not the capacity of a production MongoDB deployment.
+ */
+public final class LoadTest {
+
+    private static final String DATABASE = "online_shopping_loadtest";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // MongoDB stand-in and seeding logs, until the application starts with logback-loadtest.xml
+        System.setProperty("logback.configurationFile", "logback-loadtest-startup.xml");
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        // devtools is on the test classpath, its restart class loader would run a second copy of the application
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        TrafficMix mix = TrafficMix.parse(options.mix);
+        SyntheticCatalog catalog = new SyntheticCatalog(options.products, options.categories, options.users, options.seed);
+
+        MongoServer mongoServer = new MongoServer(new MemoryBackend());
+        mongoServer.bind("127.0.0.1", 0);
+        String mongoUri = "mongodb://127.0.0.1:" + mongoServer.getLocalAddress().getPort() + "/" + DATABASE;
+        ConfigurableApplicationContext context = null;
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "loadtest-http");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        try {
+            long seedStart = System.nanoTime();
+            try (MongoClient mongoClient = MongoClients.create(mongoUri)) {
+                catalog.seed(new MongoTemplate(mongoClient, DATABASE));
+            }
+            System.out.printf("Seeded %d products, %d categories and %d users in %d ms%n", options.products,
+                    options.categories, options.users, (System.nanoTime() - seedStart) / 1_000_000);
+
+            context = SpringApplication.run(OnlineShoppingECommerceProjectApplication.class, applicationArgs(options, mongoUri));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            System.out.println("Application started on port " + port + ", traffic mix " + mix.weights());
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(options.timeout)
+                    .executor(httpExecutor)
+                    .build();
+            Workload workload = new Workload(URI.create("http://127.0.0.1:" + port), catalog, options.timeout, options.seed);
+            OpenModelDriver driver = new OpenModelDriver(client, workload, mix, options.maxInFlight, options.timeout,
+                    options.seed);
+
+            if (!options.warmup.isZero()) {
+                LatencyReport warmup = driver.run(options.rates.get(0), options.warmup);
+                System.out.printf("Warm-up: %d requests, %d errors%n", warmup.arrivals(), warmup.errors());
+            }
+            List<Map<String, Object>> steps = new ArrayList<>();
+            for (int rate : options.rates) {
+                LatencyReport report = driver.run(rate, options.duration);
+                report.print(System.out);
+                steps.add(report.toJson());
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("products", options.products);
+            result.put("categories", options.categories);
+            result.put("users", options.users);
+            result.put("mix", mix.weights());
+            result.put("applicationProperties", options.applicationProperties);
+            result.put("steps", steps);
+            if (options.report.getParent() != null) {
+                Files.createDirectories(options.report.getParent());
+            }
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(options.report.toFile(), result);
+            System.out.println("\nReport written to " + options.report.toAbsolutePath());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            httpExecutor.shutdownNow();
+            mongoServer.shutdownNow();
+        }
+    }
+
+    /**
+     * @param options
+     * @param mongoUri
+     * @return the application configuration of the load test, then the --properties of the command line
+     */
+    private static String[] applicationArgs(LoadTestOptions options, String mongoUri) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.address", "127.0.0.1");
+        properties.put("server.port", "0");
+        properties.put("spring.data.mongodb.uri", mongoUri);
+        properties.put("eureka.client.enabled", "false");
+        properties.put("app.inventory.deltas.journal.directory", "target/loadtest/inventory-deltas");
+        properties.put("logging.config", "classpath:logback-loadtest.xml");
+        properties.put("logging.file.name", "target/loadtest/application.log");
+        properties.putAll(options.applicationProperties);
+        return properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+    }
+}
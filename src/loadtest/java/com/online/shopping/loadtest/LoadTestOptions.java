@@ -0,0 +1,91 @@
+package com.online.shopping.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load test settings, parsed from "name=value" arguments. Arguments starting with "--" are Spring Boot properties
+ * passed to the application under test (e.g. --app.logging.aop.mode=TIMING).
+ * <p>
+ * rates          : arrival rates (requests per second), one measured step per rate, default 100
+ * duration       : length of every measured step (ISO-8601 duration), default PT30S
+ * warmup         : unmeasured traffic at the first rate before the steps, default PT10S
+ * mix            : traffic mix, a preset (browse, write, all) or "scenario:weight,...", default browse
+ * products       : seeded products, default 20000
+ * categories     : seeded categories, default 20
+ * users          : seeded users, default 200
+ * timeout        : request timeout, a request still running is an error, default PT10S
+ * max-in-flight  : requests running at once, an arrival beyond it is dropped and counted as an error, default 2000
+ * seed           : random seed of the catalog and of the traffic, default 42
+ * report         : JSON report file, default target/loadtest-result.json
+ */
+final class LoadTestOptions {
+
+    final List<Integer> rates;
+    final Duration duration;
+    final Duration warmup;
+    final String mix;
+    final int products;
+    final int categories;
+    final int users;
+    final Duration timeout;
+    final int maxInFlight;
+    final long seed;
+    final Path report;
+    final Map<String, String> applicationProperties;
+
+    private LoadTestOptions(Map<String, String> options, Map<String, String> applicationProperties) {
+        this.rates = new ArrayList<>();
+        for (String rate : options.getOrDefault("rates", "100").split(",")) {
+            rates.add(positive("rates", Integer.parseInt(rate.trim())));
+        }
+        this.duration = Duration.parse(options.getOrDefault("duration", "PT30S"));
+        this.warmup = Duration.parse(options.getOrDefault("warmup", "PT10S"));
+        this.mix = options.getOrDefault("mix", "browse");
+        this.products = positive("products", Integer.parseInt(options.getOrDefault("products", "20000")));
+        this.categories = positive("categories", Integer.parseInt(options.getOrDefault("categories", "20")));
+        this.users = positive("users", Integer.parseInt(options.getOrDefault("users", "200")));
+        this.timeout = Duration.parse(options.getOrDefault("timeout", "PT10S"));
+        this.maxInFlight = positive("max-in-flight", Integer.parseInt(options.getOrDefault("max-in-flight", "2000")));
+        this.seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        this.report = Path.of(options.getOrDefault("report", "target/loadtest-result.json"));
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * @param args name=value options and --spring.property=value application properties
+     * @return
+     */
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        Map<String, String> applicationProperties = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected name=value, got '" + arg + "'");
+            }
+            String name = arg.substring(0, separator);
+            String value = arg.substring(separator + 1);
+            if (name.startsWith("--")) {
+                applicationProperties.put(name.substring(2), value);
+            } else {
+                options.put(name, value);
+            }
+        }
+        return new LoadTestOptions(options, applicationProperties);
+    }
+
+    private static int positive(String name, int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be greater than 0");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,116 @@
+package com.online.shopping.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model traffic: requests arrive on a Poisson process at the target rate whatever the response times, like
+ * independent shoppers, instead of a fixed number of clients waiting for their previous response (closed model)
+ * which slows down with the application and hides its queueing.
+ * <p>
+ * 1. One arrival thread sleeps until the scheduled time of the next arrival, picks its scenario from the mix and
+ * sends it asynchronously. An arrival late on its schedule is sent at once, the lag is reported.
+ * 2. When max-in-flight requests are running, the arrival is dropped and counted as an error, with the request
+ * timeout as its latency, instead of waiting.
+ * 3. After the last arrival, the step waits for the running requests, at most the request timeout.
+ */
+final class OpenModelDriver {
+
+    private final HttpClient client;
+
+    private final Workload workload;
+
+    private final TrafficMix mix;
+
+    private final int maxInFlight;
+
+    private final Duration timeout;
+
+    private final SplittableRandom random;
+
+    OpenModelDriver(HttpClient client, Workload workload, TrafficMix mix, int maxInFlight, Duration timeout, long seed) {
+        this.client = client;
+        this.workload = workload;
+        this.mix = mix;
+        this.maxInFlight = maxInFlight;
+        this.timeout = timeout;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Method to run one traffic step.
+     * @param rate arrivals per second
+     * @param duration arrival window
+     * @return the results of the step
+     * @throws InterruptedException
+     */
+    LatencyReport run(int rate, Duration duration) throws InterruptedException {
+        LatencyReport report = new LatencyReport(rate, duration.toNanos());
+        AtomicInteger inFlight = new AtomicInteger();
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / (double) rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long next = start;
+        while (next < end) {
+            long wait = next - System.nanoTime();
+            while (wait > 0) {
+                LockSupport.parkNanos(wait);
+                wait = next - System.nanoTime();
+            }
+            report.arrivalLag(-wait);
+            send(mix.next(random), next, report, inFlight);
+            next += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+        }
+        long deadline = System.nanoTime() + timeout.toNanos() + TimeUnit.SECONDS.toNanos(1);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return report;
+    }
+
+    private void send(Scenario scenario, long arrival, LatencyReport report, AtomicInteger inFlight) {
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            // counted at the timeout, the shopper waits at least that long for a response that never comes
+            report.error(scenario.name(), timeout.toNanos(), "dropped");
+            return;
+        }
+        HttpRequest request;
+        try {
+            request = scenario.request().apply(workload);
+        } catch (RuntimeException e) {
+            inFlight.decrementAndGet();
+            report.error(scenario.name(), -1, "not sent");
+            return;
+        }
+        HttpResponse.BodyHandler<?> bodyHandler = scenario.onSuccess() == null
+                ? HttpResponse.BodyHandlers.discarding() : HttpResponse.BodyHandlers.ofString();
+        client.sendAsync(request, bodyHandler).whenComplete((response, failure) -> {
+            try {
+                long latency = System.nanoTime() - arrival;
+                if (failure != null) {
+                    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                            ? failure.getCause() : failure;
+                    report.error(scenario.name(), latency, cause instanceof HttpTimeoutException ? "timeout" : "io");
+                } else if (response.statusCode() >= 400) {
+                    report.error(scenario.name(), latency, "http " + response.statusCode());
+                } else {
+                    if (scenario.onSuccess() != null) {
+                        scenario.onSuccess().accept(workload, (String) response.body());
+                    }
+                    report.success(scenario.name(), latency);
+                }
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+}
@@ -0,0 +1,18 @@
+package com.online.shopping.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * One kind of request of the traffic, reported under its name (e.g. product.byId).
+ * @param name
+ * @param request builds the next request, called by the arrival thread only
+ * @param onSuccess reads the body of a successful response (e.g. the id of a created product), null to discard it
+ */
+record Scenario(String name, Function<Workload, HttpRequest> request, BiConsumer<Workload, String> onSuccess) {
+
+    Scenario(String name, Function<Workload, HttpRequest> request) {
+        this(name, request, null);
+    }
+}
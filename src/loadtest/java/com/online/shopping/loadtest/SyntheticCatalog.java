@@ -0,0 +1,115 @@
+package com.online.shopping.loadtest;
+
+import com.online.shopping.entity.Attributes;
+import com.online.shopping.entity.Category;
+import com.online.shopping.entity.Inventory;
+import com.online.shopping.entity.Price;
+import com.online.shopping.entity.Product;
+import com.online.shopping.entity.UserInfo;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic catalog of the load test, generated from a fixed seed so every run measures the same data.
+ * <p>
+ * 1. Products are spread evenly over the categories, with a colour and a size attribute and about 10% of them
+ * without sellable inventory.
+ * 2. The last tenth of the products is only used by the delete traffic, so the reads never ask for a deleted product.
+ */
+final class SyntheticCatalog {
+
+    static final List<String> COLOURS = List.of("black", "white", "red", "blue");
+    static final List<String> SIZES = List.of("S", "M", "L", "XL");
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private final int products;
+    private final int categories;
+    private final int users;
+    private final long seed;
+
+    SyntheticCatalog(int products, int categories, int users, long seed) {
+        this.products = products;
+        this.categories = categories;
+        this.users = users;
+        this.seed = seed;
+    }
+
+    /**
+     * @return number of products read and updated by the traffic, the products after them are deleted by the traffic
+     */
+    int readableProducts() {
+        return products - deletableProducts();
+    }
+
+    int deletableProducts() {
+        return products / 10;
+    }
+
+    int categories() {
+        return categories;
+    }
+
+    static String productId(int index) {
+        return String.format("LOADTEST-P%08d", index);
+    }
+
+    static String categoryName(int index) {
+        return String.format("category-%03d", index);
+    }
+
+    static Category category(int index) {
+        return new Category(String.format("LOADTEST-C%05d", index), categoryName(index));
+    }
+
+    /**
+     * @param index
+     * @param random
+     * @return a product of the category index % categories
+     */
+    Product product(int index, SplittableRandom random) {
+        int available = random.nextInt(100);
+        int reserved = random.nextInt(10) == 0 ? available : random.nextInt(Math.max(1, available));
+        return new Product(productId(index), "product " + index, "brand " + random.nextInt(50),
+                "description of product " + index, new Price("INR", 100 + random.nextInt(100_000) / 100.0),
+                new Inventory(available + 10, available, reserved),
+                List.of(new Attributes("colour", COLOURS.get(random.nextInt(COLOURS.size()))),
+                        new Attributes("size", SIZES.get(random.nextInt(SIZES.size())))),
+                category(index % categories));
+    }
+
+    /**
+     * Method to insert the categories, products and users, in batches.
+     * @param mongoTemplate
+     */
+    void seed(MongoTemplate mongoTemplate) {
+        List<Category> seededCategories = new ArrayList<>(categories);
+        for (int i = 0; i < categories; i++) {
+            seededCategories.add(category(i));
+        }
+        mongoTemplate.insert(seededCategories, Category.class);
+
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Product> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 0; i < products; i++) {
+            batch.add(product(i, random));
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                mongoTemplate.insert(batch, Product.class);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            mongoTemplate.insert(batch, Product.class);
+        }
+
+        List<UserInfo> seededUsers = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            seededUsers.add(new UserInfo(String.format("LOADTEST-U%06d", i), "user " + i, "user" + i + "@example.com",
+                    "password " + i, "USER"));
+        }
+        mongoTemplate.insert(seededUsers, UserInfo.class);
+    }
+}
@@ -0,0 +1,86 @@
+package com.online.shopping.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Weighted choice of the scenario of every arrival.
+ * <p>
+ * Presets :
+ * browse : storefront traffic, mostly product and category reads with a trickle of writes
+ * write  : catalog administration, half of the requests change products, categories or users
+ * all    : every scenario with the same weight
+ * A custom mix is a list of "scenario:weight", e.g. "product.byId:80,category.page:20".
+ */
+final class TrafficMix {
+
+    private static final Map<String, String> PRESETS = Map.of(
+            "browse", "product.byId:30,category.page:25,category.filteredPage:8,product.page:8,product.cursorPage:5,"
+                    + "product.byCategory:5,product.byCategoryStream:2,product.pageStream:2,user.list:1,"
+                    + "product.create:5,product.update:4,product.delete:2,user.create:1,category.create:0.5,"
+                    + "product.bulkImport:0.5,product.priceUpdate:0.5,product.export:0.1",
+            "write", "product.byId:20,category.page:20,product.page:5,product.byCategory:5,"
+                    + "product.create:15,product.update:15,product.delete:5,product.bulkImport:3,product.priceUpdate:2,"
+                    + "category.create:2,user.create:5,user.list:3");
+
+    private final Map<String, Double> weights;
+
+    private final List<Scenario> scenarios = new ArrayList<>();
+
+    private final double[] cumulativeWeights;
+
+    private TrafficMix(Map<String, Double> weights) {
+        this.weights = weights;
+        this.cumulativeWeights = new double[weights.size()];
+        double total = 0;
+        for (Map.Entry<String, Double> entry : weights.entrySet()) {
+            total += entry.getValue();
+            cumulativeWeights[scenarios.size()] = total;
+            scenarios.add(Workload.SCENARIOS.get(entry.getKey()));
+        }
+    }
+
+    /**
+     * @param mix preset name or "scenario:weight,..."
+     * @return
+     */
+    static TrafficMix parse(String mix) {
+        Map<String, Double> weights = new LinkedHashMap<>();
+        if ("all".equals(mix)) {
+            Workload.SCENARIOS.keySet().forEach(name -> weights.put(name, 1.0));
+            return new TrafficMix(weights);
+        }
+        for (String entry : PRESETS.getOrDefault(mix, mix).split(",")) {
+            String[] scenarioWeight = entry.trim().split(":");
+            if (scenarioWeight.length != 2 || !Workload.SCENARIOS.containsKey(scenarioWeight[0])) {
+                throw new IllegalArgumentException("Unknown mix entry '" + entry + "', expected a preset " + PRESETS.keySet()
+                        + ", all, or scenario:weight with a scenario of " + Workload.SCENARIOS.keySet());
+            }
+            double weight = Double.parseDouble(scenarioWeight[1]);
+            if (weight > 0) {
+                weights.put(scenarioWeight[0], weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The traffic mix '" + mix + "' has no scenario with a positive weight");
+        }
+        return new TrafficMix(weights);
+    }
+
+    Map<String, Double> weights() {
+        return weights;
+    }
+
+    Scenario next(SplittableRandom random) {
+        double point = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (point < cumulativeWeights[i]) {
+                return scenarios.get(i);
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+}
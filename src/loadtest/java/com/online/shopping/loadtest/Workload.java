@@ -0,0 +1,194 @@
+package com.online.shopping.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.online.shopping.dto.BulkPriceUpdateDTO;
+import com.online.shopping.entity.Product;
+import com.online.shopping.entity.UserInfo;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Requests of the traffic: every endpoint of the ProductController, CategoryController and UserController, with
+ * parameters drawn from the synthetic catalog.
+ * <p>
+ * 1. Reads ask for seeded products and categories only, so a not found is an error of the application.
+ * 2. Products created by the traffic are deleted first, then the deletable seeded products.
+ * 3. Created categories and users get names unique to the run.
+ * 4. Cursor pages follow the nextCursor of the previous responses, like shoppers scrolling on, and start again from
+ * the first page when no cursor is waiting.
+ */
+final class Workload {
+
+    static final Map<String, Scenario> SCENARIOS = new LinkedHashMap<>();
+
+    private static final int BULK_IMPORT_SIZE = 20;
+
+    static {
+        // ProductController
+        add(new Scenario("product.byId", w -> w.get("/v1/api/products/" + w.readableProductId())));
+        add(new Scenario("product.byCategory", w -> w.get("/v1/api/categories/" + w.categoryName()
+                + "/products?fields=name,price,inventory")));
+        add(new Scenario("product.byCategoryStream", w -> w.get("/v1/api/categories/" + w.categoryName()
+                + "/products?stream=true&fields=name,price,inventory")));
+        add(new Scenario("product.page", w -> w.get("/v1/api/products?sortBy=name&pagesize=20&pageNo="
+                + w.random.nextInt(50))));
+        add(new Scenario("product.cursorPage", Workload::cursorPage, Workload::nextCursor));
+        add(new Scenario("product.pageStream", w -> w.get("/v1/api/products?stream=true&sortBy=name&pagesize=100&pageNo="
+                + w.random.nextInt(10))));
+        add(new Scenario("product.export", w -> w.request("/v1/api/admin/products/export?gzip=true")
+                .header("Accept-Encoding", "gzip").GET().build()));
+        add(new Scenario("product.create", w -> w.send("POST", "/v1/api/admin/products", w.newProduct()),
+                Workload::created));
+        add(new Scenario("product.bulkImport", Workload::bulkImport));
+        add(new Scenario("product.update", w -> {
+            int index = w.random.nextInt(w.catalog.readableProducts());
+            return w.send("PUT", "/v1/api/admin/products/" + SyntheticCatalog.productId(index),
+                    w.catalog.product(index, w.random));
+        }));
+        add(new Scenario("product.delete", w -> w.request("/v1/api/admin/products/" + w.deletableProductId())
+                .DELETE().build()));
+        add(new Scenario("product.priceUpdate", w -> w.send("PATCH", "/v1/api/admin/products/prices",
+                new BulkPriceUpdateDTO(w.categoryName(), null, BulkPriceUpdateDTO.PriceOperation.PERCENT,
+                        w.random.nextBoolean() ? 1.0 : -1.0, null))));
+        // CategoryController
+        add(new Scenario("category.page", w -> w.get("/v1/categories/" + w.categoryName() + "/products/?pageSize=20"
+                + "&sortBy=" + (w.random.nextBoolean() ? "price" : "inventory")
+                + "&sortOrder=" + (w.random.nextBoolean() ? "asc" : "desc")
+                + "&pageNo=" + (1 + w.random.nextInt(5)))));
+        add(new Scenario("category.filteredPage", w -> w.get("/v1/categories/" + w.categoryName()
+                + "/products/?sortBy=price&pageSize=20&attr.colour="
+                + SyntheticCatalog.COLOURS.get(w.random.nextInt(SyntheticCatalog.COLOURS.size()))
+                + "&attr.size=" + SyntheticCatalog.SIZES.get(w.random.nextInt(SyntheticCatalog.SIZES.size())))));
+        add(new Scenario("category.create", w -> w.request("/v1/categories/loadtest-" + w.runId + "-"
+                + w.sequence.incrementAndGet() + "/products/").POST(HttpRequest.BodyPublishers.noBody()).build()));
+        // UserController
+        add(new Scenario("user.create", w -> {
+            long n = w.sequence.incrementAndGet();
+            return w.send("POST", "/v1/api/users", new UserInfo(null, "loadtest " + w.runId + " " + n,
+                    "loadtest" + n + "@example.com", "password " + n, "USER"));
+        }));
+        add(new Scenario("user.list", w -> w.get("/v1/api/users")));
+    }
+
+    private final URI baseUri;
+    private final SyntheticCatalog catalog;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SplittableRandom random;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Queue<String> createdProductIds = new ConcurrentLinkedQueue<>();
+    private final Queue<String> nextCursors = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger deletedSeededProducts = new AtomicInteger();
+
+    Workload(URI baseUri, SyntheticCatalog catalog, Duration timeout, long seed) {
+        this.baseUri = baseUri;
+        this.catalog = catalog;
+        this.timeout = timeout;
+        this.random = new SplittableRandom(seed);
+    }
+
+    private static void add(Scenario scenario) {
+        SCENARIOS.put(scenario.name(), scenario);
+    }
+
+    private String readableProductId() {
+        return SyntheticCatalog.productId(random.nextInt(catalog.readableProducts()));
+    }
+
+    private String categoryName() {
+        return SyntheticCatalog.categoryName(random.nextInt(catalog.categories()));
+    }
+
+    private String deletableProductId() {
+        String created = createdProductIds.poll();
+        if (created != null) {
+            return created;
+        }
+        int index = deletedSeededProducts.getAndIncrement();
+        if (index >= catalog.deletableProducts()) {
+            throw new IllegalStateException("No product left to delete, create more products or seed more products");
+        }
+        return SyntheticCatalog.productId(catalog.readableProducts() + index);
+    }
+
+    private Product newProduct() {
+        Product product = catalog.product(random.nextInt(catalog.readableProducts()), random);
+        product.setId(null);
+        product.setName("loadtest product " + sequence.incrementAndGet());
+        return product;
+    }
+
+    private void created(String body) {
+        try {
+            createdProductIds.add(objectMapper.readTree(body).path("id").asText());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest cursorPage() {
+        String cursor = nextCursors.poll();
+        return get("/v1/api/products?pagingMode=cursor&sortBy=price&pagesize=20"
+                + (cursor == null ? "" : "&after=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8)));
+    }
+
+    private void nextCursor(String body) {
+        try {
+            JsonNode cursor = objectMapper.readTree(body).path("nextCursor");
+            if (cursor.isTextual()) {
+                nextCursors.add(cursor.asText());
+            }
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest bulkImport() {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < BULK_IMPORT_SIZE; i++) {
+            ndjson.append(json(newProduct())).append('\n');
+        }
+        return request("/v1/api/admin/products/bulk")
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(ndjson.toString()))
+                .build();
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, Object body) {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json(body)))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(timeout);
+    }
+
+    private String json(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,40 +1,296 @@
 package com.online.shopping.advice;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.online.shopping.config.Generated;
-import org.aspectj.lang.ProceedingJoinPoint;
-import org.aspectj.lang.annotation.Around;
-import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Pointcut;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.AspectJExpressionPointcutAdvisor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-@Aspect
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.BaseStream;
+import java.util.stream.Collectors;
+
+/**
+ * Centralized method logging for the application packages.
+ * 1. mode FULL logs the timing and the JSON request/response payloads, TIMING logs only the timing, OFF disables it.
+ * 2. Only the methods of the configured packages (and their sub-packages) are intercepted: the pointcut of the
+ *    {@link #advisor()} is built from them, the other beans are not proxied at all. With mode OFF no advisor is
+ *    declared (see {@link com.online.shopping.config.AOPLoggingConfiguration}).
+ * 3. Payloads are serialized only when the payload logger is enabled at DEBUG and the call is sampled, and the
+ *    serialization stops as soon as the configured length is reached. The payload logger is routed to an asynchronous
+ *    appender (logback-spring.xml), the timing lines are written synchronously.
+ */
 @Component
 @Generated
-public class AOPLoggingAdvice {
+public class AOPLoggingAdvice implements MethodInterceptor {
+
+    public enum Mode {
+        FULL, TIMING, OFF
+    }
+
+    static final String PAYLOAD_LOGGER = "com.online.shopping.advice.AOPLoggingAdvice.payload";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+
+    // values which cannot (or must not) be serialized, only their type is logged
+    private static final List<Class<?>> UNLOGGABLE_TYPES = List.of(InputStream.class, OutputStream.class, Reader.class,
+            Writer.class, BaseStream.class, ServletRequest.class, ServletResponse.class, WebRequest.class,
+            StreamingResponseBody.class, Publisher.class);
+
     Logger log = LoggerFactory.getLogger(AOPLoggingAdvice.class);
+    Logger payloadLog = LoggerFactory.getLogger(PAYLOAD_LOGGER);
+
+    private final Mode mode;
+    private final List<String> packages;
+    private final double sampleRate;
+    private final int maxPayloadLength;
+
+    public AOPLoggingAdvice(@Value("${app.logging.aop.mode:FULL}") Mode mode,
+                            @Value("${app.logging.aop.packages:com.online.shopping}") List<String> packages,
+                            @Value("${app.logging.aop.sample-rate:1.0}") double sampleRate,
+                            @Value("${app.logging.aop.max-payload-length:2048}") int maxPayloadLength) {
+        this.mode = mode;
+        this.packages = packages;
+        this.sampleRate = sampleRate;
+        this.maxPayloadLength = maxPayloadLength;
+    }
 
-    @Pointcut(value = " execution(* com.online.shopping.*.*.*(..) )")
-    public void pointCut() {
+    /**
+     * @return advisor applying this advice to the methods of the configured packages
+     */
+    public AspectJExpressionPointcutAdvisor advisor() {
+        AspectJExpressionPointcutAdvisor advisor = new AspectJExpressionPointcutAdvisor();
+        advisor.setExpression(pointcutExpression(packages));
+        advisor.setAdvice(this);
+        return advisor;
     }
 
-    @Around("pointCut()")
-    public Object appLogger(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
-        ObjectMapper mapper = new ObjectMapper();
-        String className = proceedingJoinPoint.getTarget().getClass().toString();
-        String methodName = proceedingJoinPoint.getSignature().getName();
-        Object[] objArray = proceedingJoinPoint.getArgs();
+    /**
+     * @param packages
+     * @return pointcut matching the methods of the classes of the packages and their sub-packages
+     */
+    static String pointcutExpression(List<String> packages) {
+        return packages.stream()
+                .map(String::trim)
+                .filter(pkg -> !pkg.isEmpty())
+                .map(pkg -> "within(" + pkg + "..*)")
+                .collect(Collectors.joining(" || "));
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (mode == Mode.OFF) {
+            return invocation.proceed();
+        }
+        String className = invocation.getMethod().getDeclaringClass().getName();
+        String methodName = invocation.getMethod().getName();
 
-        log.info("Initiated the method call. Class : [" + className + "] | Invoked method is : [ " + methodName + "() ] | Input RequestBody: ["
-                + mapper.writeValueAsString(objArray) + "].");
+        boolean logPayload = mode == Mode.FULL && payloadLog.isDebugEnabled()
+                && (sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+        if (logPayload) {
+            payloadLog.debug("Initiated the method call. Class : [" + className + "] | Invoked method is : [ " + methodName
+                    + "() ] | Input RequestBody: [" + toJson(invocation.getArguments()) + "].");
+        }
 
-        Object obj = proceedingJoinPoint.proceed();
+        long start = System.nanoTime();
+        Object obj;
+        try {
+            obj = invocation.proceed();
+        } catch (Throwable t) {
+            if (log.isInfoEnabled()) {
+                log.info("Failed the method call. Class : [" + className + "] | Invoked method is : [ " + methodName
+                        + "() ] | Time taken : [ " + elapsedMillis(start) + " ms ] | Exception : [ " + t.getClass().getName() + " ].");
+            }
+            throw t;
+        }
+        if (log.isInfoEnabled()) {
+            log.info("Completed the method call. Class : [" + className + "] | Invoked method is : [ " + methodName
+                    + "() ] | Time taken : [ " + elapsedMillis(start) + " ms ].");
+        }
 
-        log.info("Completed the method call. Class : [" + className + "] | Invoked method is : [ " + methodName + "() ] | Response Body: [ "
-                + mapper.writeValueAsString(obj) + " ].");
+        if (logPayload) {
+            payloadLog.debug("Completed the method call. Class : [" + className + "] | Invoked method is : [ " + methodName
+                    + "() ] | Response Body: [ " + toJson(obj) + " ].");
+        }
         return obj;
+    }
+
+    private static double elapsedMillis(long start) {
+        return (System.nanoTime() - start) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Serialize a payload to JSON, stopping as soon as the configured length is reached.
+     * Logging must never break the call, any serialization failure is logged as the type name.
+     * @param value
+     * @return
+     */
+    String toJson(Object value) {
+        if (value instanceof Object[] args) {
+            Object[] loggable = new Object[args.length];
+            for (int i = 0; i < args.length; i++) {
+                loggable[i] = isUnloggable(args[i]) ? "<" + args[i].getClass().getName() + ">" : args[i];
+            }
+            value = loggable;
+        } else if (isUnloggable(value)) {
+            return "<" + value.getClass().getName() + ">";
+        }
+        BoundedWriter writer = new BoundedWriter(maxPayloadLength);
+        try {
+            MAPPER.writeValue(new BoundedGenerator(MAPPER.getFactory().createGenerator(writer), writer), value);
+            return writer.toString();
+        } catch (Exception e) {
+            if (writer.isTruncated()) {
+                return writer + "...(truncated)";
+            }
+            return "<unserializable " + (value == null ? "null" : value.getClass().getName()) + ">";
+        }
+    }
+
+    private static boolean isUnloggable(Object value) {
+        if (value == null) {
+            return false;
+        }
+        for (Class<?> type : UNLOGGABLE_TYPES) {
+            if (type.isInstance(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writer keeping at most maxLength characters, it aborts the serialization once the limit is exceeded.
+     */
+    private static final class BoundedWriter extends Writer {
+
+        private final StringBuilder buffer = new StringBuilder();
+        private final int maxLength;
+        private boolean truncated;
+
+        private BoundedWriter(int maxLength) {
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            int remaining = maxLength - buffer.length();
+            if (len > remaining) {
+                buffer.append(cbuf, off, Math.max(remaining, 0));
+                truncated = true;
+                throw new IOException("payload limit reached");
+            }
+            buffer.append(cbuf, off, len);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        boolean isTruncated() {
+            return truncated;
+        }
+
+        int length() {
+            return buffer.length();
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+    }
+
+    /**
+     * Generator checking the length written so far before every name and value: once the characters buffered by the
+     * generator reach the limit they are flushed to the {@link BoundedWriter}, which keeps the allowed part and aborts
+     * the serialization, instead of serializing the rest of the payload into the generator buffer.
+     */
+    private static final class BoundedGenerator extends JsonGeneratorDelegate {
+
+        private final BoundedWriter writer;
+
+        private BoundedGenerator(JsonGenerator delegate, BoundedWriter writer) {
+            super(delegate, false);
+            this.writer = writer;
+        }
+
+        @Override
+        public void writeStartArray(Object forValue, int size) throws IOException {
+            checkLimit();
+            super.writeStartArray(forValue, size);
+        }
+
+        @Override
+        public void writeStartObject(Object forValue) throws IOException {
+            checkLimit();
+            super.writeStartObject(forValue);
+        }
+
+        @Override
+        public void writeFieldName(String name) throws IOException {
+            checkLimit();
+            super.writeFieldName(name);
+        }
+
+        @Override
+        public void writeFieldName(SerializableString name) throws IOException {
+            checkLimit();
+            super.writeFieldName(name);
+        }
+
+        @Override
+        public void writeString(String text) throws IOException {
+            checkLimit();
+            super.writeString(text);
+        }
+
+        @Override
+        public void writeNumber(int v) throws IOException {
+            checkLimit();
+            super.writeNumber(v);
+        }
+
+        @Override
+        public void writeNumber(long v) throws IOException {
+            checkLimit();
+            super.writeNumber(v);
+        }
+
+        @Override
+        public void writeNumber(double v) throws IOException {
+            checkLimit();
+            super.writeNumber(v);
+        }
 
+        private void checkLimit() throws IOException {
+            if (writer.length() + delegate.getOutputBuffered() > writer.maxLength) {
+                delegate.flush();
+            }
+        }
     }
 }
@@ -0,0 +1,278 @@
+package com.online.shopping.cache;
+
+import com.online.shopping.entity.Product;
+import com.online.shopping.event.ProductChangedEvent;
+import com.online.shopping.event.ProductsChangedEvent;
+import com.online.shopping.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static com.online.shopping.util.OnlineShoppingAppConstants.SORT_BY_INVENTORY;
+import static com.online.shopping.util.OnlineShoppingAppConstants.SORT_BY_PRICE;
+import static com.online.shopping.util.OnlineShoppingAppConstants.SORT_ORDER_DESC;
+
+/**
+ * In-memory columnar index of the category pages: for every category the price, available and reserved quantity of
+ * its products are kept in primitive arrays presorted by price and by available inventory ({@link CategoryColumns}),
+ * so the ids of a sellable page sorted by price or inventory are found without querying MongoDB. The attribute
+ * values of the products are kept in per-category bitmaps ({@link CategoryFacets}) for the attribute filters and
+ * facet counts.
+ * <p>
+ * 1. The index is loaded when the application starts and reloaded every app.categories.columns.refresh-interval,
+ * which also picks up the writes made through other instances. Until then the ids of a page may include a product sold
+ * out through another instance, so the page is read with the sellable guard (ProductRepository#findSellableByIds).
+ * 2. The product writes of this instance are applied right away from the product change events. The events received
+ * while a reload reads the collection are replayed on the reloaded index.
+ * 3. Reads of the columns never lock. A write, or a batch of writes of a bulk path ({@link ProductsChangedEvent}),
+ * replaces the columns of every category it touched with one merge pass and updates their attribute bitmaps in place.
+ * 4. Until the first load completes, {@link #findSellableIds} answers null and the caller queries MongoDB.
+ * 5. After a warm start from the catalog snapshot (see {@link com.online.shopping.snapshot.CatalogWarmStart}), the
+ * snapshot replaces the load at startup.
+ */
+@Component
+@Slf4j
+public class CategoryColumnIndex {
+
+    static final List<String> COLUMN_FIELDS = List.of("id", "price", "inventory", "category", "attributes");
+
+    private final ProductRepository productRepository;
+
+    private final int loadBatchSize;
+
+    private volatile Map<String, CategoryColumns> categories = new ConcurrentHashMap<>();
+
+    private volatile Map<String, CategoryFacets> facets = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded;
+
+    private final AtomicBoolean warmStarted = new AtomicBoolean();
+
+    // events received while a reload reads the collection, null when no reload is running
+    private List<ProductChangedEvent> pendingEvents;
+
+    public CategoryColumnIndex(ProductRepository productRepository,
+                               @Value("${app.categories.columns.load-batch-size:1000}") int loadBatchSize) {
+        this.productRepository = productRepository;
+        this.loadBatchSize = loadBatchSize;
+    }
+
+    /**
+     * Method to find the ids of one page of sellable products of a category.
+     * @param categoryName matched case-insensitively
+     * @param sortBy price / inventory
+     * @param sortOrder asc / desc
+     * @param offset number of sellable products to skip
+     * @param limit page size
+     * @param attributeFilters attribute name -> accepted values, empty for no filter
+     * @return the ids of the page in order, null when the index cannot answer (not loaded yet or other sort key)
+     */
+    public List<String> findSellableIds(String categoryName, String sortBy, String sortOrder, long offset, int limit,
+                                        Map<String, List<String>> attributeFilters) {
+        boolean byPrice = SORT_BY_PRICE.equalsIgnoreCase(sortBy);
+        if (!loaded || !(byPrice || SORT_BY_INVENTORY.equalsIgnoreCase(sortBy))) {
+            return null;
+        }
+        String category = key(categoryName);
+        CategoryColumns columns = categories.get(category);
+        CategoryFacets categoryFacets = facets.get(category);
+        if (columns == null || categoryFacets == null || limit < 1) {
+            return List.of();
+        }
+        Predicate<String> included = null;
+        if (!attributeFilters.isEmpty()) {
+            RoaringBitmap matched = categoryFacets.match(attributeFilters);
+            if (matched.isEmpty()) {
+                return List.of();
+            }
+            included = id -> categoryFacets.contains(matched, id);
+        }
+        String[] page = new String[limit];
+        int found = columns.sellablePage(byPrice, !SORT_ORDER_DESC.equalsIgnoreCase(sortOrder), offset, page, included);
+        return Arrays.asList(page).subList(0, found);
+    }
+
+    /**
+     * Method to count the sellable products of a category per attribute value, see {@link CategoryFacets#counts}.
+     * @param categoryName matched case-insensitively
+     * @param attributeFilters attribute name -> accepted values, empty for no filter
+     * @return attribute name -> attribute value -> count, null when the index is not loaded yet
+     */
+    public Map<String, Map<String, Integer>> facetCounts(String categoryName, Map<String, List<String>> attributeFilters) {
+        if (!loaded) {
+            return null;
+        }
+        CategoryFacets categoryFacets = facets.get(key(categoryName));
+        return categoryFacets == null ? Map.of() : categoryFacets.counts(attributeFilters);
+    }
+
+    /**
+     * Method to check whether a category contains at least one product, regardless of its inventory.
+     * @param categoryName
+     * @return the answer, null when the index is not loaded yet
+     */
+    public Boolean hasProducts(String categoryName) {
+        return loaded ? categories.containsKey(key(categoryName)) : null;
+    }
+
+    /**
+     * Method to report the number of products and the estimated heap size of the columns and of the attribute
+     * bitmaps of every category.
+     * @return keyed by the lower-cased category name
+     */
+    public Map<String, Map<String, Long>> memoryReport() {
+        Map<String, Map<String, Long>> report = new TreeMap<>();
+        Map<String, CategoryFacets> currentFacets = facets;
+        categories.forEach((category, columns) -> {
+            CategoryFacets categoryFacets = currentFacets.get(category);
+            report.put(category, Map.of("products", (long) columns.size(), "estimatedBytes", columns.estimatedBytes(),
+                    "facetEstimatedBytes", categoryFacets == null ? 0L : categoryFacets.estimatedBytes()));
+        });
+        return report;
+    }
+
+    /**
+     * @return whether the index has been loaded once
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        onProductsChanged(new ProductsChangedEvent(List.of(event)));
+    }
+
+    @EventListener
+    public synchronized void onProductsChanged(ProductsChangedEvent event) {
+        apply(categories, facets, event.getChanges());
+        if (pendingEvents != null) {
+            pendingEvents.addAll(event.getChanges());
+        }
+    }
+
+    /**
+     * Method to load the products of the catalog snapshot, in place of the load from the DB at startup.
+     * @param products
+     */
+    public void warmStart(Collection<Product> products) {
+        load(products::stream);
+        warmStarted.set(loaded);
+    }
+
+    /**
+     * Reload the index from the DB, runs at startup (unless warm started) and then every
+     * app.categories.columns.refresh-interval. A failed reload keeps the current index.
+     */
+    @Scheduled(fixedDelayString = "${app.categories.columns.refresh-interval:PT5M}")
+    public void refresh() {
+        if (warmStarted.getAndSet(false)) {
+            return;
+        }
+        load(() -> productRepository.streamAll(loadBatchSize, COLUMN_FIELDS));
+    }
+
+    private void load(Supplier<Stream<Product>> source) {
+        long start = System.nanoTime();
+        synchronized (this) {
+            pendingEvents = new ArrayList<>();
+        }
+        try {
+            Map<String, List<Product>> productsByCategory = new HashMap<>();
+            try (Stream<Product> products = source.get()) {
+                products.filter(product -> product.getCategory() != null && product.getCategory().getName() != null)
+                        .forEach(product -> productsByCategory
+                                .computeIfAbsent(key(product.getCategory().getName()), k -> new ArrayList<>()).add(product));
+            }
+            Map<String, CategoryColumns> reloaded = new ConcurrentHashMap<>();
+            Map<String, CategoryFacets> reloadedFacets = new ConcurrentHashMap<>();
+            productsByCategory.forEach((category, products) -> {
+                reloaded.put(category, CategoryColumns.of(products));
+                reloadedFacets.put(category, CategoryFacets.of(products));
+            });
+            synchronized (this) {
+                apply(reloaded, reloadedFacets, pendingEvents);
+                facets = reloadedFacets;
+                categories = reloaded;
+                loaded = true;
+            }
+            log.debug("Loaded " + reloaded.size() + " categories in the category column index in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh the category column index, keeping " + categories.size() + " categories", e);
+        } finally {
+            synchronized (this) {
+                pendingEvents = null;
+            }
+        }
+    }
+
+    /**
+     * Method to apply a batch of product changes: the columns of every touched category are rebuilt once, by a merge
+     * of the written products, and its attribute bitmaps are updated in place.
+     * @param categories
+     * @param facets
+     * @param changes in write order, the last change of a product wins
+     */
+    private static void apply(Map<String, CategoryColumns> categories, Map<String, CategoryFacets> facets,
+                              List<ProductChangedEvent> changes) {
+        Map<String, Set<String>> removedByCategory = new HashMap<>();
+        Map<String, Map<String, Product>> addedByCategory = new HashMap<>();
+        for (ProductChangedEvent change : changes) {
+            if (change.getCategoryNames() == null) {
+                continue;
+            }
+            Product product = change.getProduct();
+            String productCategory = product == null || product.getCategory() == null
+                    || product.getCategory().getName() == null ? null : key(product.getCategory().getName());
+            for (String categoryName : change.getCategoryNames()) {
+                String category = key(categoryName);
+                removedByCategory.computeIfAbsent(category, k -> new HashSet<>()).add(change.getProductId());
+                Map<String, Product> added = addedByCategory.computeIfAbsent(category, k -> new LinkedHashMap<>());
+                if (category.equals(productCategory)) {
+                    added.put(change.getProductId(), product);
+                } else {
+                    added.remove(change.getProductId());
+                }
+            }
+        }
+        removedByCategory.forEach((category, removed) -> {
+            Collection<Product> added = addedByCategory.get(category).values();
+            categories.compute(category, (k, columns) -> {
+                CategoryColumns updated = (columns == null ? CategoryColumns.EMPTY : columns).merge(removed, added);
+                return updated.size() == 0 ? null : updated;
+            });
+            facets.compute(category, (k, categoryFacets) -> {
+                CategoryFacets updated = categoryFacets == null ? new CategoryFacets() : categoryFacets;
+                removed.forEach(updated::remove);
+                added.forEach(updated::add);
+                return updated.size() == 0 ? null : updated;
+            });
+        });
+    }
+
+    // the category queries match the name case-insensitively
+    private static String key(String categoryName) {
+        return categoryName.toLowerCase(Locale.ROOT);
+    }
+}
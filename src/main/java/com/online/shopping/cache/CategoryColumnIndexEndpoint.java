@@ -0,0 +1,27 @@
+package com.online.shopping.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint /actuator/categorycolumns reporting, per category, the number of products held by the
+ * {@link CategoryColumnIndex} and the estimated heap size of their columns.
+ */
+@Component
+@Endpoint(id = "categorycolumns")
+public class CategoryColumnIndexEndpoint {
+
+    private final CategoryColumnIndex categoryColumnIndex;
+
+    public CategoryColumnIndexEndpoint(CategoryColumnIndex categoryColumnIndex) {
+        this.categoryColumnIndex = categoryColumnIndex;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Long>> categories() {
+        return categoryColumnIndex.memoryReport();
+    }
+}
@@ -0,0 +1,201 @@
+package com.online.shopping.cache;
+
+import com.online.shopping.entity.Product;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Immutable columnar copy of the products of one category: the id, price amount, available and reserved quantities
+ * of every product are stored in primitive arrays, once in (price, id) order and once in (available, id) order.
+ * <p>
+ * A category page is a sequential scan of the arrays of the requested order, skipping the products which are not
+ * sellable (available not greater than reserved). The scan reads no entity and allocates nothing but the page.
+ * A batch of writes returns a new instance with the written products removed and their new state merged at their
+ * sorted positions, one copy of the arrays per batch (copy on write).
+ */
+final class CategoryColumns {
+
+    static final CategoryColumns EMPTY = new CategoryColumns(SortedColumns.empty(true), SortedColumns.empty(false));
+
+    // estimated JVM sizes (64-bit JVM with compressed oops) used for the memory report
+    private static final long ARRAY_HEADER_BYTES = 16;
+    private static final long REFERENCE_BYTES = 4;
+    private static final long STRING_OVERHEAD_BYTES = 40;
+
+    private final SortedColumns byPrice;
+
+    private final SortedColumns byInventory;
+
+    private CategoryColumns(SortedColumns byPrice, SortedColumns byInventory) {
+        this.byPrice = byPrice;
+        this.byInventory = byInventory;
+    }
+
+    /**
+     * Method to build the columns of a category from its products.
+     * @param products products of the category, with at least their id, price and inventory
+     * @return
+     */
+    static CategoryColumns of(Collection<Product> products) {
+        return new CategoryColumns(SortedColumns.of(products, true), SortedColumns.of(products, false));
+    }
+
+    int size() {
+        return byPrice.ids.length;
+    }
+
+    /**
+     * Method to copy the ids of one page of sellable products.
+     * @param byPrice price order, available inventory order otherwise
+     * @param ascending
+     * @param offset number of sellable products to skip
+     * @param page receives the ids, its length is the page size
+     * @param included further condition on the product ids (attribute filters), null for none
+     * @return number of ids copied to the page
+     */
+    int sellablePage(boolean byPrice, boolean ascending, long offset, String[] page, Predicate<String> included) {
+        return (byPrice ? this.byPrice : byInventory).sellablePage(ascending, offset, page, included);
+    }
+
+    /**
+     * Method to apply a batch of writes with a single merge pass over each order.
+     * @param removed ids of the products to remove, the written products included
+     * @param added new state of the written products belonging to the category
+     * @return the columns after the writes
+     */
+    CategoryColumns merge(Set<String> removed, Collection<Product> added) {
+        return new CategoryColumns(byPrice.merge(removed, added), byInventory.merge(removed, added));
+    }
+
+    /**
+     * @return estimated heap size of the columns, the id strings are shared by the two orders
+     */
+    long estimatedBytes() {
+        long bytes = byPrice.estimatedBytes() + byInventory.estimatedBytes();
+        for (String id : byPrice.ids) {
+            bytes += STRING_OVERHEAD_BYTES + id.length();
+        }
+        return bytes;
+    }
+
+    private static final class SortedColumns {
+
+        private final boolean byPrice;
+        private final String[] ids;
+        private final double[] prices;
+        private final int[] available;
+        private final int[] reserved;
+
+        private SortedColumns(boolean byPrice, String[] ids, double[] prices, int[] available, int[] reserved) {
+            this.byPrice = byPrice;
+            this.ids = ids;
+            this.prices = prices;
+            this.available = available;
+            this.reserved = reserved;
+        }
+
+        static SortedColumns empty(boolean byPrice) {
+            return new SortedColumns(byPrice, new String[0], new double[0], new int[0], new int[0]);
+        }
+
+        static SortedColumns of(Collection<Product> products, boolean byPrice) {
+            Product[] sorted = sorted(products, byPrice);
+            SortedColumns columns = new SortedColumns(byPrice, new String[sorted.length], new double[sorted.length],
+                    new int[sorted.length], new int[sorted.length]);
+            for (int i = 0; i < sorted.length; i++) {
+                columns.set(i, sorted[i]);
+            }
+            return columns;
+        }
+
+        int sellablePage(boolean ascending, long offset, String[] page, Predicate<String> included) {
+            int length = ids.length;
+            long skipped = 0;
+            int found = 0;
+            for (int k = 0; k < length && found < page.length; k++) {
+                int i = ascending ? k : length - 1 - k;
+                if (available[i] > reserved[i] && (included == null || included.test(ids[i]))) {
+                    if (skipped < offset) {
+                        skipped++;
+                    } else {
+                        page[found++] = ids[i];
+                    }
+                }
+            }
+            return found;
+        }
+
+        SortedColumns merge(Set<String> removed, Collection<Product> added) {
+            Product[] sorted = sorted(added, byPrice);
+            int kept = 0;
+            for (String id : ids) {
+                if (!removed.contains(id)) {
+                    kept++;
+                }
+            }
+            int length = kept + sorted.length;
+            SortedColumns columns = new SortedColumns(byPrice, new String[length], new double[length],
+                    new int[length], new int[length]);
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < length; k++) {
+                while (i < ids.length && removed.contains(ids[i])) {
+                    i++;
+                }
+                if (j < sorted.length && (i == ids.length || compare(i, sorted[j]) > 0)) {
+                    columns.set(k, sorted[j++]);
+                } else {
+                    copy(i++, columns, k, 1);
+                }
+            }
+            return columns;
+        }
+
+        long estimatedBytes() {
+            return 4 * ARRAY_HEADER_BYTES + (long) ids.length * (REFERENCE_BYTES + Double.BYTES + 2 * Integer.BYTES);
+        }
+
+        // order of the product at position i relative to the given product
+        private int compare(int i, Product product) {
+            int compare = byPrice ? Double.compare(prices[i], price(product)) : Integer.compare(available[i], available(product));
+            return compare != 0 ? compare : ids[i].compareTo(product.getId());
+        }
+
+        private void set(int i, Product product) {
+            ids[i] = product.getId();
+            prices[i] = price(product);
+            available[i] = available(product);
+            reserved[i] = product.getInventory() == null ? 0 : product.getInventory().getReserved();
+        }
+
+        private void copy(int from, SortedColumns target, int to, int length) {
+            System.arraycopy(ids, from, target.ids, to, length);
+            System.arraycopy(prices, from, target.prices, to, length);
+            System.arraycopy(available, from, target.available, to, length);
+            System.arraycopy(reserved, from, target.reserved, to, length);
+        }
+    }
+
+    private static Product[] sorted(Collection<Product> products, boolean byPrice) {
+        Comparator<Product> order = byPrice
+                ? Comparator.comparingDouble(CategoryColumns::price)
+                : Comparator.comparingInt(CategoryColumns::available);
+        Product[] sorted = products.toArray(new Product[0]);
+        Arrays.sort(sorted, order.thenComparing(Product::getId));
+        return sorted;
+    }
+
+    // MongoDB orders a missing price or inventory first
+    private static double price(Product product) {
+        return product.getPrice() == null || product.getPrice().getAmount() == null
+                ? Double.NEGATIVE_INFINITY : product.getPrice().getAmount();
+    }
+
+    private static int available(Product product) {
+        return product.getInventory() == null ? Integer.MIN_VALUE : product.getInventory().getAvailable();
+    }
+}
@@ -0,0 +1,208 @@
+package com.online.shopping.cache;
+
+import com.online.shopping.entity.Attributes;
+import com.online.shopping.entity.Product;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Attribute bitmaps of the products of one category: every product gets an ordinal and, for every attribute value
+ * (e.g. color=red), a bitmap holds the ordinals of the products having it. A further bitmap holds the sellable
+ * products (available greater than reserved).
+ * <p>
+ * 1. Values of the same attribute are OR-ed, attributes are AND-ed: attr.color=red&attr.color=blue&attr.size=M matches
+ * the sellable products which are red or blue, and of size M.
+ * 2. The facet count of a value is the number of sellable products having it which match the filters on the other
+ * attributes, so the counts of a filtered attribute still show its alternatives.
+ * 3. Ordinals are not reused until the next reload. Writes take the write lock, reads the read lock; the bitmaps
+ * never leave this class, only copies or counts do.
+ */
+final class CategoryFacets {
+
+    // estimated size of an id -> ordinal entry (node, boxed ordinal), the id strings are shared with the columns
+    private static final long ORDINAL_ENTRY_BYTES = 48;
+
+    private final Map<String, Integer> ordinals = new ConcurrentHashMap<>();
+
+    // attribute name -> attribute value -> ordinals
+    private final Map<String, Map<String, RoaringBitmap>> bitmaps = new TreeMap<>();
+
+    private final RoaringBitmap sellable = new RoaringBitmap();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int nextOrdinal;
+
+    /**
+     * Method to build the bitmaps of a category from its products.
+     * @param products products of the category, with at least their id, inventory and attributes
+     * @return
+     */
+    static CategoryFacets of(List<Product> products) {
+        CategoryFacets facets = new CategoryFacets();
+        products.forEach(facets::add);
+        facets.bitmaps.values().forEach(values -> values.values().forEach(RoaringBitmap::runOptimize));
+        facets.sellable.runOptimize();
+        return facets;
+    }
+
+    int size() {
+        return ordinals.size();
+    }
+
+    /**
+     * Method to add (or replace) a product.
+     * @param product
+     */
+    void add(Product product) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(product.getId());
+            if (ordinal == null) {
+                ordinal = nextOrdinal++;
+                ordinals.put(product.getId(), ordinal);
+            } else {
+                clear(ordinal);
+            }
+            if (product.getInventory() != null && product.getInventory().getAvailable() > product.getInventory().getReserved()) {
+                sellable.add(ordinal);
+            }
+            if (product.getAttributes() != null) {
+                for (Attributes attribute : product.getAttributes()) {
+                    if (attribute.getName() != null && attribute.getValue() != null) {
+                        bitmaps.computeIfAbsent(attribute.getName(), name -> new TreeMap<>())
+                                .computeIfAbsent(attribute.getValue(), value -> new RoaringBitmap())
+                                .add(ordinal);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Method to remove a product.
+     * @param productId
+     */
+    void remove(String productId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(productId);
+            if (ordinal != null) {
+                clear(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Method to find the sellable products matching the attribute filters.
+     * @param filters attribute name -> accepted values
+     * @return a copy, owned by the caller
+     */
+    RoaringBitmap match(Map<String, List<String>> filters) {
+        lock.readLock().lock();
+        try {
+            return matchExcept(filters, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param matched result of {@link #match(Map)}
+     * @param productId
+     * @return whether the product is one of the matched products
+     */
+    boolean contains(RoaringBitmap matched, String productId) {
+        Integer ordinal = ordinals.get(productId);
+        return ordinal != null && matched.contains(ordinal);
+    }
+
+    /**
+     * Method to count, for every attribute value, the sellable products having it and matching the filters on the
+     * other attributes.
+     * @param filters attribute name -> accepted values
+     * @return attribute name -> attribute value -> count, values without products are left out
+     */
+    Map<String, Map<String, Integer>> counts(Map<String, List<String>> filters) {
+        lock.readLock().lock();
+        try {
+            Map<String, Map<String, Integer>> counts = new TreeMap<>();
+            RoaringBitmap allFilters = matchExcept(filters, null);
+            for (Map.Entry<String, Map<String, RoaringBitmap>> attribute : bitmaps.entrySet()) {
+                RoaringBitmap base = filters.containsKey(attribute.getKey())
+                        ? matchExcept(filters, attribute.getKey()) : allFilters;
+                Map<String, Integer> values = new TreeMap<>();
+                attribute.getValue().forEach((value, products) -> {
+                    int count = RoaringBitmap.andCardinality(products, base);
+                    if (count > 0) {
+                        values.put(value, count);
+                    }
+                });
+                if (!values.isEmpty()) {
+                    counts.put(attribute.getKey(), values);
+                }
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return estimated heap size of the bitmaps and of the ordinals
+     */
+    long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = sellable.getSizeInBytes();
+            for (Map<String, RoaringBitmap> values : bitmaps.values()) {
+                for (RoaringBitmap products : values.values()) {
+                    bytes += products.getSizeInBytes();
+                }
+            }
+            return bytes + ordinals.size() * ORDINAL_ENTRY_BYTES;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // caller holds a lock
+    private RoaringBitmap matchExcept(Map<String, List<String>> filters, String excludedAttribute) {
+        RoaringBitmap matched = sellable.clone();
+        for (Map.Entry<String, List<String>> filter : filters.entrySet()) {
+            if (filter.getKey().equals(excludedAttribute)) {
+                continue;
+            }
+            Map<String, RoaringBitmap> values = bitmaps.getOrDefault(filter.getKey(), Map.of());
+            RoaringBitmap accepted = new RoaringBitmap();
+            for (String value : filter.getValue()) {
+                RoaringBitmap products = values.get(value);
+                if (products != null) {
+                    accepted.or(products);
+                }
+            }
+            matched.and(accepted);
+        }
+        return matched;
+    }
+
+    // caller holds the write lock
+    private void clear(int ordinal) {
+        sellable.remove(ordinal);
+        bitmaps.values().forEach(values -> values.values().removeIf(products -> {
+            products.remove(ordinal);
+            return products.isEmpty();
+        }));
+        bitmaps.values().removeIf(Map::isEmpty);
+    }
+}
@@ -0,0 +1,88 @@
+package com.online.shopping.cache;
+
+import com.online.shopping.event.ProductChangedEvent;
+import com.online.shopping.event.ProductsChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.online.shopping.config.CacheConfiguration.CATEGORY_PRODUCTS_CACHE;
+
+/**
+ * Removes the cached category pages of every category touched by a product write, once per category for a batch.
+ * Runs before the other listeners, so the ETag stamps (EtagRegistry) only move once the pages are gone.
+ * Entries are keyed "category|generation|sortBy|sortOrder|pageNo|pageSize|fields|attributeFilters" (see
+ * CategoryService), so all the sort, page, field selection and attribute filter variants of a category are dropped
+ * together.
+ * <p>
+ * The generation of a category is moved forward by every write before the eviction. The key of a page is computed
+ * before the page is read, so a page read before a write and cached after its eviction is stored under the previous
+ * generation, where no later request looks for it.
+ */
+@Component
+@Slf4j
+public class CategoryProductCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    // lower-cased category name -> generation, moved forward by every write of a product of the category
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+
+    public CategoryProductCacheInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * @param categoryName matched case-insensitively
+     * @return the current generation of the cached pages of the category, part of their cache key
+     */
+    public long generation(String categoryName) {
+        return categoryName == null ? 0 : generations.getOrDefault(categoryName.toLowerCase(Locale.ROOT), 0L);
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onProductChanged(ProductChangedEvent event) {
+        onProductsChanged(new ProductsChangedEvent(List.of(event)));
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onProductsChanged(ProductsChangedEvent event) {
+        Set<String> categoryKeys = new HashSet<>();
+        for (ProductChangedEvent change : event.getChanges()) {
+            if (change.getCategoryNames() != null) {
+                change.getCategoryNames().forEach(categoryName -> categoryKeys.add(categoryName.toLowerCase(Locale.ROOT)));
+            }
+        }
+        categoryKeys.forEach(categoryKey -> generations.merge(categoryKey, 1L, Long::sum));
+        Cache cache = cacheManager.getCache(CATEGORY_PRODUCTS_CACHE);
+        if (cache == null) {
+            return;
+        }
+        for (String categoryKey : categoryKeys) {
+            evictCategory(cache, categoryKey);
+        }
+    }
+
+    private void evictCategory(Cache cache, String categoryName) {
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+            String prefix = categoryName + "|";
+            nativeCache.asMap().keySet().removeIf(key -> key instanceof String k && k.regionMatches(true, 0, prefix, 0, prefix.length()));
+            log.debug("Evicted the cached pages of category " + categoryName);
+        } else {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.online.shopping.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.online.shopping.entity.Category;
+import com.online.shopping.repository.CategoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory copy of the categories collection, used instead of a database round trip for every category lookup.
+ * <p>
+ * 1. Reads go to an immutable snapshot published through a volatile field, they never lock.
+ * 2. The snapshot is loaded when the application starts and reloaded every app.categories.refresh-interval,
+ * categories saved by this instance are added to it right away.
+ * 3. A name missing from the snapshot is looked up in the database, so a category created by another instance is
+ * found before the next reload. A name that is not there either is remembered as unknown for
+ * app.categories.negative-ttl, so repeated lookups of an unknown name cost one database hit per TTL.
+ * The writes check the database instead (see {@link #findStoredByName}), never the negative cache.
+ * 4. After a warm start from the catalog snapshot (see {@link com.online.shopping.snapshot.CatalogWarmStart}), the
+ * snapshot replaces the load at startup.
+ */
+@Component
+@Slf4j
+public class CategoryRegistry {
+
+    private static final long MAX_UNKNOWN_NAMES = 10_000;
+
+    private final CategoryRepository categoryRepository;
+
+    private final Cache<String, Boolean> unknownNames;
+
+    private volatile Map<String, Category> categoriesByName = Map.of();
+
+    private volatile boolean loaded;
+
+    private final AtomicBoolean warmStarted = new AtomicBoolean();
+
+    public CategoryRegistry(CategoryRepository categoryRepository,
+                            @Value("${app.categories.negative-ttl:PT5S}") Duration negativeTtl) {
+        this.categoryRepository = categoryRepository;
+        this.unknownNames = Caffeine.newBuilder()
+                .maximumSize(MAX_UNKNOWN_NAMES)
+                .expireAfterWrite(negativeTtl)
+                .build();
+    }
+
+    /**
+     * Method to find a category by its exact name.
+     * @param categoryName
+     * @return the category, empty when it does not exist
+     */
+    public Optional<Category> findByName(String categoryName) {
+        Category category = categoriesByName.get(categoryName);
+        if (category != null) {
+            return Optional.of(category);
+        }
+        if (categoryName == null || unknownNames.getIfPresent(categoryName) != null) {
+            return Optional.empty();
+        }
+        Optional<Category> stored = categoryRepository.findByName(categoryName);
+        if (stored.isPresent()) {
+            register(stored.get());
+        } else {
+            unknownNames.put(categoryName, Boolean.TRUE);
+        }
+        return stored;
+    }
+
+    /**
+     * Method to find a category by its exact name before creating it: a name missing from the snapshot is always
+     * looked up in the database, it may have just been created by another instance.
+     * @param categoryName
+     * @return the category, empty when it does not exist. A category found in the database is registered.
+     */
+    public Optional<Category> findStoredByName(String categoryName) {
+        Category category = categoriesByName.get(categoryName);
+        if (category != null || categoryName == null) {
+            return Optional.ofNullable(category);
+        }
+        Optional<Category> stored = categoryRepository.findByName(categoryName);
+        stored.ifPresent(this::register);
+        return stored;
+    }
+
+    /**
+     * Method to add a category saved to the DB to the snapshot.
+     * @param category
+     */
+    public synchronized void register(Category category) {
+        if (category.getName() == null) {
+            return;
+        }
+        Map<String, Category> categories = new HashMap<>(categoriesByName);
+        categories.put(category.getName(), category);
+        categoriesByName = Map.copyOf(categories);
+        unknownNames.invalidate(category.getName());
+    }
+
+    /**
+     * @return whether the categories have been loaded once
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Method to load the categories of the catalog snapshot, in place of the load from the DB at startup.
+     * @param categories
+     */
+    public void warmStart(Collection<Category> categories) {
+        load(categories);
+        warmStarted.set(true);
+    }
+
+    /**
+     * Reload the snapshot from the DB, runs at startup (unless warm started) and then every
+     * app.categories.refresh-interval. A failed reload keeps the current snapshot.
+     */
+    @Scheduled(fixedDelayString = "${app.categories.refresh-interval:PT1M}")
+    public void refresh() {
+        if (warmStarted.getAndSet(false)) {
+            return;
+        }
+        try {
+            load(categoryRepository.findAll());
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh the category registry, keeping " + categoriesByName.size() + " categories", e);
+        }
+    }
+
+    private void load(Collection<Category> categories) {
+        Map<String, Category> byName = new HashMap<>();
+        for (Category category : categories) {
+            if (category.getName() != null) {
+                byName.putIfAbsent(category.getName(), category);
+            }
+        }
+        synchronized (this) {
+            categoriesByName = Map.copyOf(byName);
+            loaded = true;
+        }
+        unknownNames.invalidateAll();
+        log.debug("Loaded " + byName.size() + " categories in the category registry");
+    }
+}
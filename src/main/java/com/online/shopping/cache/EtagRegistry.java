@@ -0,0 +1,178 @@
+package com.online.shopping.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.online.shopping.entity.Product;
+import com.online.shopping.event.ProductChangedEvent;
+import com.online.shopping.event.ProductsChangedEvent;
+import com.online.shopping.util.IdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Strong ETags of the product and category reads, so a client polling an unchanged resource gets a 304 answer
+ * without the product being read from MongoDB or serialized.
+ * <p>
+ * 1. A product ETag is the hash of its JSON representation. It is remembered once the product has been read and
+ * forgotten when the product is written, so the next matching If-None-Match is answered from memory. A write leaves
+ * a stamp of the write clock in place of the ETag, and a read that started before the stamp does not store its ETag,
+ * so a read overtaken by a concurrent write never brings back the ETag of the previous version.
+ * 2. A category page ETag is the hash of a change stamp of the category and of the page parameters. The stamp is
+ * replaced whenever a product of the category is written (after the cached pages have been evicted).
+ * 3. Both are kept for app.etags.ttl at most, which bounds how long a write made through another instance can go
+ * unnoticed, like the category page cache.
+ */
+@Component
+@Slf4j
+public class EtagRegistry {
+
+    private static final long MAX_PRODUCTS = 100_000;
+
+    private static final long MAX_CATEGORIES = 10_000;
+
+    private final ObjectMapper objectMapper;
+
+    private final IdGenerator idGenerator;
+
+    private final AtomicLong writeClock = new AtomicLong();
+
+    private final Cache<String, ProductEtag> productEtags;
+
+    private final Cache<String, String> categoryStamps;
+
+    public EtagRegistry(ObjectMapper objectMapper, IdGenerator idGenerator,
+                        @Value("${app.etags.ttl:PT60S}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.idGenerator = idGenerator;
+        this.productEtags = Caffeine.newBuilder().maximumSize(MAX_PRODUCTS).expireAfterWrite(ttl).build();
+        this.categoryStamps = Caffeine.newBuilder().maximumSize(MAX_CATEGORIES).expireAfterWrite(ttl).build();
+    }
+
+    /**
+     * Method to get the ETag of a product without reading it.
+     * @param productId
+     * @return the ETag, null when the product has not been read since its last change
+     */
+    public String findProductEtag(String productId) {
+        ProductEtag known = productEtags.getIfPresent(productId);
+        return known == null ? null : known.etag();
+    }
+
+    /**
+     * Method to get the stamp to pass to {@link #productEtag}, taken before the product is read from the DB.
+     * @return
+     */
+    public long readStamp() {
+        return writeClock.get();
+    }
+
+    /**
+     * Method to compute the ETag of a product read from the DB, remembered unless the product has been written
+     * since the read started.
+     * @param product
+     * @param readStamp {@link #readStamp()} taken before the read
+     * @return
+     */
+    public String productEtag(Product product, long readStamp) {
+        try {
+            String etag = DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(product));
+            productEtags.asMap().compute(product.getId(), (id, known) ->
+                    known != null && known.stamp() > readStamp ? known : new ProductEtag(etag, readStamp));
+            return etag;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize product " + product.getId(), e);
+        }
+    }
+
+    /**
+     * Method to get the ETag of a category page.
+     * @param categoryName
+     * @param pageParameters every request parameter the page depends on
+     * @return
+     */
+    public String categoryEtag(String categoryName, Object... pageParameters) {
+        String stamp = categoryStamps.get(categoryKey(categoryName), key -> idGenerator.nextId());
+        StringBuilder version = new StringBuilder(stamp);
+        for (Object parameter : pageParameters) {
+            version.append('|').append(parameter);
+        }
+        return DigestUtils.md5DigestAsHex(version.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Forget the ETags of a written product and of its categories. Runs after the category page cache eviction,
+     * so a new stamp is never paired with an evicted page.
+     * @param event
+     */
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onProductChanged(ProductChangedEvent event) {
+        onProductsChanged(new ProductsChangedEvent(List.of(event)));
+    }
+
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onProductsChanged(ProductsChangedEvent event) {
+        long stamp = writeClock.incrementAndGet();
+        for (ProductChangedEvent change : event.getChanges()) {
+            productEtags.put(change.getProductId(), new ProductEtag(null, stamp));
+            if (change.getCategoryNames() != null) {
+                for (String categoryName : change.getCategoryNames()) {
+                    categoryStamps.invalidate(categoryKey(categoryName));
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to check whether the If-None-Match header of a GET request lists the given ETag. The * wildcard is not
+     * matched here: without a read it is not known whether the resource exists, so the request is answered once read,
+     * where Spring MVC matches * against the representation found.
+     * @param request
+     * @param etag unquoted ETag
+     * @return true when the client copy is current and a 304 can be answered
+     */
+    public static boolean isNotModified(WebRequest request, String etag) {
+        String[] headers = request.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (headers == null) {
+            return false;
+        }
+        String quoted = '"' + etag + '"';
+        for (String header : headers) {
+            for (String candidate : header.split(",")) {
+                String value = candidate.trim();
+                if (value.startsWith("W/")) {
+                    value = value.substring(2);
+                }
+                if (value.equals(quoted)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // etag null for a product written since its last read, stamp of the write clock at the read or the write
+    private record ProductEtag(String etag, long stamp) {
+    }
+
+    // the category reads match the name case-insensitively
+    private static String categoryKey(String categoryName) {
+        return categoryName.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,22 @@
+package com.online.shopping.config;
+
+import com.online.shopping.advice.AOPLoggingAdvice;
+import org.springframework.aop.Advisor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Declares the advisor of the {@link AOPLoggingAdvice}, its pointcut only matches the packages of
+ * app.logging.aop.packages. With app.logging.aop.mode OFF there is no advisor, so no bean is proxied for the logging.
+ */
+@Configuration
+@Generated
+public class AOPLoggingConfiguration {
+
+    @Bean
+    @ConditionalOnExpression("'${app.logging.aop.mode:FULL}' != 'OFF'")
+    public Advisor aopLoggingAdvisor(AOPLoggingAdvice aopLoggingAdvice) {
+        return aopLoggingAdvice.advisor();
+    }
+}
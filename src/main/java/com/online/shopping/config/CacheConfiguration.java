@@ -0,0 +1,16 @@
+package com.online.shopping.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the Spring cache abstraction. The caches themselves (Caffeine, size and TTL bounded) are declared in
+ * application.yml under spring.cache so that their hit/miss/eviction statistics are published through actuator.
+ */
+@Configuration
+@EnableCaching
+@Generated
+public class CacheConfiguration {
+
+    public static final String CATEGORY_PRODUCTS_CACHE = "categoryProducts";
+}
@@ -0,0 +1,22 @@
+package com.online.shopping.config;
+
+import com.online.shopping.util.IdGenerator;
+import com.online.shopping.util.UlidIdGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Declares the application wide {@link IdGenerator}, time ordered ULIDs by default.
+ * Another generator is plugged in by declaring an {@link IdGenerator} bean.
+ */
+@Configuration
+@Generated
+public class IdGeneratorConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(IdGenerator.class)
+    public IdGenerator idGenerator() {
+        return new UlidIdGenerator();
+    }
+}
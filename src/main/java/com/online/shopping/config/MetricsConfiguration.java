@@ -0,0 +1,35 @@
+package com.online.shopping.config;
+
+import com.online.shopping.metrics.MongoCommandDocumentsListener;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Application metrics, scraped by Prometheus on /actuator/prometheus.
+ * <p>
+ * 1. Every endpoint is timed by Spring Boot (http.server.requests).
+ * 2. The services annotated with @Timed are timed per method (app.service).
+ * 3. The MongoDB commands are timed by Spring Boot (mongodb.driver.commands) and their document counts are
+ * recorded by {@link MongoCommandDocumentsListener}.
+ * The percentile histograms of these timers are enabled in application.yml (management.metrics.distribution).
+ */
+@Configuration
+@Generated
+public class MetricsConfiguration {
+
+    public static final String SERVICE_TIMER = "app.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandDocumentsCustomizer(MeterRegistry meterRegistry) {
+        MongoCommandDocumentsListener listener = new MongoCommandDocumentsListener(meterRegistry);
+        return settings -> settings.addCommandListener(listener);
+    }
+}
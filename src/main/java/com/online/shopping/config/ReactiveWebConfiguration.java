@@ -0,0 +1,22 @@
+package com.online.shopping.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reactive read stack ('reactive' profile). Tomcat is also on the classpath for the default servlet stack and would
+ * be picked by Spring Boot for WebFlux too, so the reactive mode is pinned to Reactor Netty: the requests are served
+ * by a few event loop threads and the responses are written as the reactive MongoDB driver emits the documents.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Generated
+public class ReactiveWebConfiguration {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
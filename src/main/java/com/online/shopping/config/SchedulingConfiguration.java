@@ -0,0 +1,13 @@
+package com.online.shopping.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs, such as the periodic reload of the category registry.
+ */
+@Configuration
+@EnableScheduling
+@Generated
+public class SchedulingConfiguration {
+}
@@ -0,0 +1,65 @@
+package com.online.shopping.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Opt-in virtual thread mode (app.threads.virtual.enabled=true, Java 21 or newer).
+ * <p>
+ * 1. Tomcat runs every request on a new virtual thread instead of its bounded platform thread pool, so requests
+ * blocked on MongoDB no longer hold a pooled thread. Concurrency is then bounded by server.tomcat.max-connections
+ * and by the MongoDB connection pool.
+ * 2. The application task executor (MVC async requests, @Async methods) also starts one virtual thread per task.
+ * <p>
+ * The project still compiles for Java 17, so the virtual thread API is looked up reflectively and the application
+ * fails to start with a clear message when the mode is enabled on an older JVM.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual.enabled", havingValue = "true")
+@Generated
+@Slf4j
+public class VirtualThreadConfiguration {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        ThreadFactory threadFactory = virtualThreadFactory("http-vt-");
+        Executor executor = command -> threadFactory.newThread(command).start();
+        log.info("Tomcat requests are handled on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("task-vt-");
+        executor.setThreadFactory(virtualThreadFactory("task-vt-"));
+        return executor;
+    }
+
+    /**
+     * Equivalent of Thread.ofVirtual().name(prefix, 0).factory() on Java 21.
+     * @param prefix thread name prefix, followed by a counter
+     * @return factory of unstarted virtual threads
+     */
+    static ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            throw new IllegalStateException("app.threads.virtual.enabled=true requires Java 21 or newer, running on Java "
+                    + Runtime.version(), e);
+        }
+    }
+}
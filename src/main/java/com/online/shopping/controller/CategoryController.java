@@ -1,11 +1,13 @@
 package com.online.shopping.controller;
 
 
+import com.online.shopping.cache.EtagRegistry;
 import com.online.shopping.dto.DataResponse;
 import com.online.shopping.dto.ResponseModalDTO;
 import com.online.shopping.entity.Category;
 import com.online.shopping.entity.Product;
 import com.online.shopping.service.CategoryService;
+import com.online.shopping.util.AttributeFilters;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,24 +18,33 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.constraints.Min;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.Map;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/v1/categories")
 @Tag(name = "Category Controller", description = "Category API Documentation Details")
 public class CategoryController {
     private Logger logger = LoggerFactory.getLogger(CategoryController.class);
 
-    @Autowired
     private CategoryService categoryService;
 
-    public CategoryController(CategoryService categoryService) {
+    private EtagRegistry etagRegistry;
+
+    public CategoryController(CategoryService categoryService, EtagRegistry etagRegistry) {
         this.categoryService = categoryService;
+        this.etagRegistry = etagRegistry;
     }
 
-    @Operation(summary = "Retrieve a Product by category", description = "Get a Product object by specifying its category. The response is List of Product object with id, name,brand,description,price,inventary and attributes")
+    @Operation(summary = "Retrieve a Product by category", description = "Get a Product object by specifying its category. The response is List of Product object with id, name,brand,description,price,inventary and attributes. A request parameter prefixed with attr. filters on a product attribute (e.g. attr.color=red&attr.size=M, repeat a parameter to accept several values), the other parameters are ignored, and the response carries the product count of every attribute value (facets)")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Find List of Product ", content = {
                     @Content(schema = @Schema(implementation = Product.class), mediaType = "application/json")}),
@@ -46,11 +57,21 @@ public class CategoryController {
                                                  @Parameter(description = "Sort Using inventory availability / price", example = "price") @RequestParam(value = "sortBy", defaultValue = "inventory") String sortBy,
                                                  @Parameter(description = "Sorting Order", example = "asc/desc") @RequestParam(value = "sortOrder", defaultValue = "asc") String sortOrder,
                                                  @Parameter(description = "Page Number", example = "Min value is 1") @RequestParam(value = "pageNo", defaultValue = "1") @Min(1) int pageNo,
-                                                 @Parameter(description = "Page Size", example = "10") @RequestParam(value = "pageSize", defaultValue = "10") int pageSize) {
+                                                 @Parameter(description = "Page Size", example = "10") @RequestParam(value = "pageSize", defaultValue = "10") int pageSize,
+                                                 @Parameter(description = "Comma separated product fields to return, all fields when absent", example = "name,price,inventory") @RequestParam(value = "fields", required = false) String fields,
+                                                 @Parameter(hidden = true) @RequestParam MultiValueMap<String, String> parameters,
+                                                 WebRequest request) {
         logger.info("Entering in CategoryController getCategoryProducts() method");
-        ResponseModalDTO responseModalDTO = categoryService.getCategoryProduct(categoryName, sortBy, sortOrder, pageNo, pageSize);
+        Map<String, List<String>> attributeFilters = AttributeFilters.parse(parameters);
+        String etag = etagRegistry.categoryEtag(categoryName, sortBy, sortOrder, pageNo, pageSize, fields, attributeFilters);
+        if (EtagRegistry.isNotModified(request, etag)) {
+            logger.info("Exiting from CategoryController getCategoryProducts() method, not modified");
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        ResponseModalDTO responseModalDTO = categoryService.getCategoryProduct(categoryName, sortBy, sortOrder, pageNo, pageSize,
+                fields, attributeFilters);
         logger.info("Exiting from CategoryController getCategoryProducts() method");
-        return ResponseEntity.ok(responseModalDTO);
+        return ResponseEntity.ok().eTag(etag).body(responseModalDTO);
     }
 
     @Operation(summary = "Save Category in DB", description = "save a Category object by specifying Category name. The response is Category object with id, name")
@@ -0,0 +1,91 @@
+package com.online.shopping.controller;
+
+import com.online.shopping.dto.DataResponse;
+import com.online.shopping.dto.InventoryDeltaDTO;
+import com.online.shopping.dto.InventoryDeltaResponseDTO;
+import com.online.shopping.dto.InventoryRequestDTO;
+import com.online.shopping.dto.InventoryResponseDTO;
+import com.online.shopping.inventory.InventoryDeltaBuffer;
+import com.online.shopping.service.InventoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/v1/api")
+@Tag(name = "Inventory Controller", description = "Inventory Reservation Documentation Details")
+@Slf4j
+public class InventoryController {
+
+    private InventoryService inventoryService;
+
+    private InventoryDeltaBuffer inventoryDeltaBuffer;
+
+    public InventoryController(InventoryService inventoryService, InventoryDeltaBuffer inventoryDeltaBuffer) {
+        this.inventoryService = inventoryService;
+        this.inventoryDeltaBuffer = inventoryDeltaBuffer;
+    }
+
+    @Operation(summary = "Reserve, release or commit the inventory of a Product", description = "Atomically apply an inventory operation (reserve/release/commit) on a Product by specifying its id and the quantity. The response is the updated inventory.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Updated inventory ", content = {
+                    @Content(schema = @Schema(implementation = InventoryResponseDTO.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "400", description = "Insufficient inventory / Unknown operation ", content = {
+                    @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error ", content = {
+                    @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")})})
+    @PostMapping("/inventory/products/{id}/{operation}")
+    public ResponseEntity<InventoryResponseDTO> updateInventory(@Parameter(description = "Product Id", example = "26 character ULID") @PathVariable("id") String productId,
+                                                                @Parameter(description = "Inventory operation", example = "reserve/release/commit") @PathVariable("operation") String operation,
+                                                                @Parameter(description = "Quantity", example = "1") @RequestParam(value = "quantity", defaultValue = "1") int quantity) {
+        log.info("Entering in InventoryController updateInventory() method");
+        InventoryResponseDTO response = inventoryService.updateInventory(productId, InventoryService.toOperation(operation), quantity);
+        log.info("Exiting from InventoryController updateInventory() method");
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @Operation(summary = "Reserve, release or commit the inventory of a cart", description = "Apply an inventory operation (reserve/release/commit) on all the lines of a cart in one call. Either every line is applied or none. The response is the updated inventory of every product.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Updated inventories ", content = {
+                    @Content(schema = @Schema(implementation = InventoryResponseDTO.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "400", description = "Insufficient inventory / Unknown operation ", content = {
+                    @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error ", content = {
+                    @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")})})
+    @PostMapping("/inventory/{operation}")
+    public ResponseEntity<List<InventoryResponseDTO>> updateCartInventory(@Parameter(description = "Inventory operation", example = "reserve/release/commit") @PathVariable("operation") String operation,
+                                                                          @RequestBody List<InventoryRequestDTO> lines) {
+        log.info("Entering in InventoryController updateCartInventory() method");
+        List<InventoryResponseDTO> response = inventoryService.updateInventory(InventoryService.toOperation(operation), lines);
+        log.info("Exiting from InventoryController updateCartInventory() method");
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @Operation(summary = "Send inventory deltas of the warehouse feed", description = "Add (positive delta) or remove (negative delta) units to the total and available inventory of Products. The deltas are journaled and summed per product in memory, the net change is stored by a periodic bulk flush (within a second by default).")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Deltas accepted ", content = {
+                    @Content(schema = @Schema(implementation = InventoryDeltaResponseDTO.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "400", description = "Missing product id / Invalid delta ", content = {
+                    @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error ", content = {
+                    @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")})})
+    @PostMapping("/inventory/deltas")
+    public ResponseEntity<InventoryDeltaResponseDTO> addInventoryDeltas(@RequestBody List<InventoryDeltaDTO> deltas) {
+        log.info("Entering in InventoryController addInventoryDeltas() method");
+        InventoryDeltaResponseDTO response = inventoryDeltaBuffer.add(deltas);
+        log.info("Exiting from InventoryController addInventoryDeltas() method");
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+}
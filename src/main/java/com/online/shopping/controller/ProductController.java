@@ -1,7 +1,15 @@
 package com.online.shopping.controller;
 
+import com.online.shopping.cache.EtagRegistry;
+import com.online.shopping.dto.BulkImportResponseDTO;
+import com.online.shopping.dto.BulkPriceUpdateDTO;
+import com.online.shopping.dto.BulkPriceUpdateResponseDTO;
+import com.online.shopping.dto.CursorPageDTO;
 import com.online.shopping.dto.DataResponse;
 import com.online.shopping.entity.Product;
+import com.online.shopping.service.ProductExportService;
+import com.online.shopping.service.ProductImportService;
+import com.online.shopping.service.ProductPriceService;
 import com.online.shopping.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,15 +18,25 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/v1/api")
 @Tag(name = "Product Controller", description = "Product Documentation Details")
 @Slf4j
@@ -26,8 +44,22 @@ public class ProductController {
 
     private ProductService productService;
 
-    public ProductController(ProductService productService) {
+    private ProductImportService productImportService;
+
+    private ProductExportService productExportService;
+
+    private ProductPriceService productPriceService;
+
+    private EtagRegistry etagRegistry;
+
+    public ProductController(ProductService productService, ProductImportService productImportService,
+                             ProductExportService productExportService, ProductPriceService productPriceService,
+                             EtagRegistry etagRegistry) {
         this.productService = productService;
+        this.productImportService = productImportService;
+        this.productExportService = productExportService;
+        this.productPriceService = productPriceService;
+        this.etagRegistry = etagRegistry;
     }
 
     @Operation(summary = "Save Product in DB", description = "save a Product object by specifying Product details. The response is Product object with id, name,brand,description,price and inventary, attributes.")
@@ -44,6 +76,54 @@ public class ProductController {
         return new ResponseEntity<>(savedProduct, HttpStatus.CREATED);
     }
 
+    @Operation(summary = "Save Products in DB in bulk", description = "save a large list of Product objects sent as NDJSON (one product per line) or as a JSON array. The body is parsed incrementally and written with bulk inserts. The response is the per item result summary.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Products are processed ", content = {
+                    @Content(schema = @Schema(implementation = BulkImportResponseDTO.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error ", content = {
+                    @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")})})
+    @PostMapping(value = "/admin/products/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<BulkImportResponseDTO> createProductsInBulk(HttpServletRequest request) throws IOException {
+        log.info("Entering in ProductController createProductsInBulk() method");
+        BulkImportResponseDTO response = productImportService.importProducts(request.getInputStream());
+        log.info("Exiting from ProductController createProductsInBulk() method");
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @Operation(summary = "Export all Products", description = "Stream every Product object as NDJSON (one product per line) straight from the database cursor. Set gzip=true to receive a gzip encoded body.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Products are exported ", content = {
+                    @Content(schema = @Schema(implementation = Product.class), mediaType = "application/x-ndjson")}),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error ", content = {
+                    @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")})})
+    @GetMapping(value = "/admin/products/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportProducts(@Parameter(description = "Compress the body with gzip", example = "false") @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+                               HttpServletResponse response) throws IOException {
+        log.info("Entering in ProductController exportProducts() method");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        productExportService.exportProducts(response.getOutputStream(), gzip);
+        log.info("Exiting from ProductController exportProducts() method");
+    }
+
+    @Operation(summary = "Update the price of Products in bulk", description = "Change the price of every Product of a category and/or having the given attribute values: SET, ADD or PERCENT change of the amount (rounded to 2 decimals, never below 1.00) and/or a new currency. The response is the number of matched and modified products.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Prices are updated ", content = {
+                    @Content(schema = @Schema(implementation = BulkPriceUpdateResponseDTO.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "400", description = "Bad Request ", content = {
+                    @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error ", content = {
+                    @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")})})
+    @PatchMapping("/admin/products/prices")
+    public ResponseEntity<BulkPriceUpdateResponseDTO> updatePrices(@RequestBody BulkPriceUpdateDTO request) {
+        log.info("Entering in ProductController updatePrices() method");
+        BulkPriceUpdateResponseDTO response = productPriceService.updatePrices(request);
+        log.info("Exiting from ProductController updatePrices() method");
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @Operation(summary = "Update a Product by Id", description = "Update a Product object by specifying its id.The response is Product object with id, name,brand,description,price,inventary and attributes")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Update Product object ", content = {
@@ -54,7 +134,7 @@ public class ProductController {
                     @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")})})
 
     @PutMapping("/admin/products/{id}")
-    public ResponseEntity<Product> updateProduct(@Parameter(description = "Product Id", example = "10 digit alphanumeric value") @PathVariable("id") String productId,
+    public ResponseEntity<Product> updateProduct(@Parameter(description = "Product Id", example = "26 character ULID") @PathVariable("id") String productId,
                                                  @Valid @RequestBody Product product) {
         log.info("Entering in ProductController updateProduct() method");
         Product savedProduct = productService.updateProduct(productId, product);
@@ -72,7 +152,7 @@ public class ProductController {
                     @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")})})
 
     @DeleteMapping("/admin/products/{id}")
-    public ResponseEntity<String> deleteProduct(@Parameter(description = "Product Id", example = "10 digit alphanumeric value") @PathVariable("id") String productId) {
+    public ResponseEntity<String> deleteProduct(@Parameter(description = "Product Id", example = "26 character ULID") @PathVariable("id") String productId) {
         log.info("Entering in ProductController deleteProduct() method");
         productService.deleteProduct(productId);
         log.info("Exiting from ProductController deleteProduct() method");
@@ -90,14 +170,44 @@ public class ProductController {
             @ApiResponse(responseCode = "500", description = "Internal Server Error ", content = {
                     @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")})})
     @GetMapping("/categories/{category}/products")
-    public ResponseEntity<List<Product>> getProductByCategory(@PathVariable String category) throws Exception {
+    public ResponseEntity<List<Product>> getProductByCategory(@PathVariable String category,
+            @Parameter(description = "Comma separated product fields to return, all fields when absent", example = "name,price,inventory") @RequestParam(value = "fields", required = false) String fields,
+            WebRequest request) throws Exception {
         log.info("Entering in ProductController getProductByCategory() method");
-        List<Product> savedProduct = productService.getProductByCategory(category);
+        String etag = etagRegistry.categoryEtag(category, "all", fields);
+        if (EtagRegistry.isNotModified(request, etag)) {
+            log.info("Exiting from ProductController getProductByCategory() method, not modified");
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        List<Product> savedProduct = productService.getProductByCategory(category, fields);
         log.info("Exiting from ProductController getProductByCategory() method");
-        return new ResponseEntity<>(savedProduct, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(etag).body(savedProduct);
     }
 
 
+    @Operation(summary = "Stream the Products of a category", description = "Same as the category listing, but the Products are written as a JSON array straight from the database cursor, in a chunked response: the first bytes are sent before the whole category is read.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stream of Products ", content = {
+                    @Content(schema = @Schema(implementation = Product.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "404", description = "Resource Not Found Exception ", content = {
+                    @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error ", content = {
+                    @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")})})
+    @GetMapping(value = "/categories/{category}/products", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamProductByCategory(@PathVariable String category,
+            @Parameter(description = "Comma separated product fields to return, all fields when absent", example = "name,price,inventory") @RequestParam(value = "fields", required = false) String fields,
+            WebRequest request) {
+        log.info("Entering in ProductController streamProductByCategory() method");
+        String etag = etagRegistry.categoryEtag(category, "all", fields);
+        if (EtagRegistry.isNotModified(request, etag)) {
+            log.info("Exiting from ProductController streamProductByCategory() method, not modified");
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        Stream<Product> products = productExportService.streamProductsByCategory(category, fields);
+        log.info("Exiting from ProductController streamProductByCategory() method");
+        return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON).body(jsonArray(products));
+    }
+
     // Get products By Id
     @Operation(summary = "Retrieve a Product by Id", description = "Get a Product object by specifying its id. The response is Product object with id, name,brand,description,price,inventary and attributes")
     @ApiResponses({
@@ -108,11 +218,19 @@ public class ProductController {
             @ApiResponse(responseCode = "500", description = "Internal Server Error ", content = {
                     @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")})})
     @GetMapping("/products/{id}")
-    public ResponseEntity<Product> getProductById(@Parameter(description = "Product Id", example = "10 digit alphanumeric value") @PathVariable("id") String productId) {
+    public ResponseEntity<Product> getProductById(@Parameter(description = "Product Id", example = "26 character ULID") @PathVariable("id") String productId,
+                                                  WebRequest request) {
         log.info("Entering in ProductController getProductById() method");
+        String knownEtag = etagRegistry.findProductEtag(productId);
+        if (knownEtag != null && EtagRegistry.isNotModified(request, knownEtag)) {
+            log.info("Exiting from ProductController getProductById() method, not modified");
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(knownEtag).build();
+        }
+        long readStamp = etagRegistry.readStamp();
         Product savedProduct = productService.getProductById(productId);
         log.info("Exiting from ProductController getProductById() method");
-        return new ResponseEntity<>(savedProduct, HttpStatus.OK);
+        // a request matching the ETag of the product just read is answered with 304 by Spring MVC
+        return ResponseEntity.ok().eTag(etagRegistry.productEtag(savedProduct, readStamp)).body(savedProduct);
     }
 
 
@@ -126,15 +244,51 @@ public class ProductController {
             @ApiResponse(responseCode = "500", description = "Internal Server Error ", content = {
                     @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")})})
     @GetMapping("/products")
-    public ResponseEntity<List<Product>> getProductByCategoryWithPagination(
+    public ResponseEntity<?> getProductByCategoryWithPagination(
             @Parameter(description = "Sort Using product name", example = "name") @RequestParam(value = "sortBy", defaultValue = "name") String sortBy,
             @Parameter(description = "Page Number", example = "0") @RequestParam(value = "pageNo", defaultValue = "0") int pageNo,
             @Parameter(description = "Page Size", example = "10") @RequestParam(value = "pagesize", defaultValue = "10") int pagesize,
-            @Parameter(description = "Sorting Order", example = "asc/desc") @RequestParam(value = "sortOrder", defaultValue = "asc") String sortOrder) {
+            @Parameter(description = "Sorting Order", example = "asc/desc") @RequestParam(value = "sortOrder", defaultValue = "asc") String sortOrder,
+            @Parameter(description = "Paging mode, cursor returns a nextCursor token instead of using page numbers", example = "offset/cursor") @RequestParam(value = "pagingMode", defaultValue = "offset") String pagingMode,
+            @Parameter(description = "Cursor of the previous page (cursor paging mode)") @RequestParam(value = "after", required = false) String after,
+            @Parameter(description = "Comma separated product fields to return, all fields when absent", example = "name,price,inventory") @RequestParam(value = "fields", required = false) String fields) {
         log.info("Entering in ProductController getProductByCategoryWithPagination() method");
-        List<Product> savedProduct = productService.getProductByCategoryWithPaging(sortBy, pageNo, pagesize);
+        if ("cursor".equalsIgnoreCase(pagingMode) || after != null) {
+            CursorPageDTO cursorPage = productService.getProductsAfterCursor(sortBy, sortOrder, after, pagesize, fields);
+            log.info("Exiting from ProductController getProductByCategoryWithPagination() method");
+            return new ResponseEntity<>(cursorPage, HttpStatus.OK);
+        }
+        List<Product> savedProduct = productService.getProductByCategoryWithPaging(sortBy, pageNo, pagesize, fields);
         log.info("Exiting from ProductController getProductByCategoryWithPagination() method");
         return new ResponseEntity<>(savedProduct, HttpStatus.OK);
     }
 
+    @Operation(summary = "Stream a page of Products", description = "Same as the offset paging listing, but the page is written as a JSON array straight from the database cursor, in a chunked response: a large page is never held in memory.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stream of Products ", content = {
+                    @Content(schema = @Schema(implementation = Product.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "404", description = "Resource Not Found Exception ", content = {
+                    @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error ", content = {
+                    @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")})})
+    @GetMapping(value = "/products", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamProductsWithPagination(
+            @Parameter(description = "Sort Using product name", example = "name") @RequestParam(value = "sortBy", defaultValue = "name") String sortBy,
+            @Parameter(description = "Page Number", example = "0") @RequestParam(value = "pageNo", defaultValue = "0") int pageNo,
+            @Parameter(description = "Page Size", example = "10") @RequestParam(value = "pagesize", defaultValue = "10") int pagesize,
+            @Parameter(description = "Comma separated product fields to return, all fields when absent", example = "name,price,inventory") @RequestParam(value = "fields", required = false) String fields) {
+        log.info("Entering in ProductController streamProductsWithPagination() method");
+        Stream<Product> products = productExportService.streamProductPage(sortBy, pageNo, pagesize, fields);
+        log.info("Exiting from ProductController streamProductsWithPagination() method");
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(jsonArray(products));
+    }
+
+    /**
+     * The products are written as a JSON array on an MVC async thread, as the cursor returns them.
+     * @param products open cursor, closed once written
+     * @return
+     */
+    private StreamingResponseBody jsonArray(Stream<Product> products) {
+        return out -> productExportService.writeJsonArray(products, out);
+    }
 }
@@ -0,0 +1,59 @@
+package com.online.shopping.controller;
+
+import com.online.shopping.dto.DataResponse;
+import com.online.shopping.entity.Product;
+import com.online.shopping.service.ProductSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Product search, served from memory so it is available on both the servlet and the reactive stack.
+ */
+@RestController
+@RequestMapping("/v1/api")
+@Tag(name = "Product Search Controller", description = "Product Search Documentation Details")
+@Slf4j
+public class ProductSearchController {
+
+    private ProductSearchService productSearchService;
+
+    public ProductSearchController(ProductSearchService productSearchService) {
+        this.productSearchService = productSearchService;
+    }
+
+    @Operation(summary = "Search Products", description = "Full-text search over the product name, brand, description and attribute values. Every word of the query must match a product word or the beginning of one. The response is the ranked List of Product object with id, name,brand,description,price,inventary and attributes")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Find List of Product ", content = {
+                    @Content(schema = @Schema(implementation = Product.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "400", description = "Bad Request / No product matches the query ", content = {
+                    @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error ", content = {
+                    @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")})})
+    @GetMapping("/products/search")
+    public ResponseEntity<List<Product>> searchProducts(
+            @Parameter(description = "Search query", example = "apple lap") @RequestParam(value = "q") String query,
+            @Parameter(description = "Only the products with available inventory", example = "true") @RequestParam(value = "inStock", defaultValue = "false") boolean inStock,
+            @Parameter(description = "Sort by relevance / price", example = "relevance") @RequestParam(value = "sortBy", defaultValue = "relevance") String sortBy,
+            @Parameter(description = "Price sorting Order", example = "asc/desc") @RequestParam(value = "sortOrder", defaultValue = "asc") String sortOrder,
+            @Parameter(description = "Page Number", example = "0") @RequestParam(value = "pageNo", defaultValue = "0") int pageNo,
+            @Parameter(description = "Page Size", example = "10") @RequestParam(value = "pagesize", defaultValue = "10") int pagesize) {
+        log.info("Entering in ProductSearchController searchProducts() method");
+        List<Product> products = productSearchService.searchProducts(query, inStock, sortBy, sortOrder, pageNo, pagesize);
+        log.info("Exiting from ProductSearchController searchProducts() method");
+        return new ResponseEntity<>(products, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,55 @@
+package com.online.shopping.controller;
+
+import com.online.shopping.dto.DataResponse;
+import com.online.shopping.dto.ResponseModalDTO;
+import com.online.shopping.entity.Product;
+import com.online.shopping.service.ReactiveCatalogService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Category page served by WebFlux ('reactive' profile). Same path, parameters and payload as
+ * {@link CategoryController#getCategoryProducts}.
+ */
+@RestController
+@RequestMapping("/v1/categories")
+@Tag(name = "Category Controller", description = "Category API Documentation Details")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCategoryController {
+    private Logger logger = LoggerFactory.getLogger(ReactiveCategoryController.class);
+
+    private ReactiveCatalogService catalogService;
+
+    public ReactiveCategoryController(ReactiveCatalogService catalogService) {
+        this.catalogService = catalogService;
+    }
+
+    @Operation(summary = "Retrieve a Product by category", description = "Get a Product object by specifying its category. The response is List of Product object with id, name,brand,description,price,inventary and attributes")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Find List of Product ", content = {
+                    @Content(schema = @Schema(implementation = Product.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "404", description = "Resource Not Found Exception ", content = {
+                    @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error ", content = {
+                    @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")})})
+    @GetMapping("{categoryName}/products/")
+    public Mono<ResponseModalDTO> getCategoryProducts(@PathVariable("categoryName") String categoryName,
+                                                      @Parameter(description = "Sort Using inventory availability / price", example = "price") @RequestParam(value = "sortBy", defaultValue = "inventory") String sortBy,
+                                                      @Parameter(description = "Sorting Order", example = "asc/desc") @RequestParam(value = "sortOrder", defaultValue = "asc") String sortOrder,
+                                                      @Parameter(description = "Page Number", example = "Min value is 1") @RequestParam(value = "pageNo", defaultValue = "1") int pageNo,
+                                                      @Parameter(description = "Page Size", example = "10") @RequestParam(value = "pageSize", defaultValue = "10") int pageSize,
+                                                      @Parameter(description = "Comma separated product fields to return, all fields when absent", example = "name,price,inventory") @RequestParam(value = "fields", required = false) String fields) {
+        logger.info("Entering in ReactiveCategoryController getCategoryProducts() method");
+        return catalogService.getCategoryProduct(categoryName, sortBy, sortOrder, pageNo, pageSize, fields);
+    }
+}
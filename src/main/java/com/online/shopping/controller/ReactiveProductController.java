@@ -0,0 +1,74 @@
+package com.online.shopping.controller;
+
+import com.online.shopping.dto.DataResponse;
+import com.online.shopping.entity.Product;
+import com.online.shopping.service.ReactiveCatalogService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+/**
+ * Product catalog reads served by WebFlux ('reactive' profile). Same paths, parameters and payloads as
+ * {@link ProductController}; the lists are streamed as a JSON array, or as NDJSON with Accept: application/x-ndjson.
+ */
+@RestController
+@RequestMapping("/v1/api")
+@Tag(name = "Product Controller", description = "Product Documentation Details")
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveProductController {
+
+    private ReactiveCatalogService catalogService;
+
+    public ReactiveProductController(ReactiveCatalogService catalogService) {
+        this.catalogService = catalogService;
+    }
+
+    @Operation(summary = "Retrieve a Product by category", description = "Get a Product object by specifying its category. The response is List of Product object with id, name,brand,description,price,inventary and attributes")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Find List of Product ", content = {
+                    @Content(schema = @Schema(implementation = Product.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "404", description = "Resource Not Found Exception ", content = {
+                    @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error ", content = {
+                    @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")})})
+    @GetMapping("/categories/{category}/products")
+    public Flux<Product> getProductByCategory(@PathVariable String category,
+            @Parameter(description = "Comma separated product fields to return, all fields when absent", example = "name,price,inventory") @RequestParam(value = "fields", required = false) String fields) {
+        log.info("Entering in ReactiveProductController getProductByCategory() method");
+        return catalogService.getProductByCategory(category, fields);
+    }
+
+    @Operation(summary = "Retrieve a Product by category with pagination and sorting ", description = "Get a Product object by specifying its category. The response is List of Product object with id, name,brand,description,price,inventary and attributes")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Find List of Product ", content = {
+                    @Content(schema = @Schema(implementation = Product.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "404", description = "Resource Not Found Exception ", content = {
+                    @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")}),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error ", content = {
+                    @Content(schema = @Schema(implementation = DataResponse.class), mediaType = "application/json")})})
+    @GetMapping("/products")
+    public Publisher<?> getProductByCategoryWithPagination(
+            @Parameter(description = "Sort Using product name", example = "name") @RequestParam(value = "sortBy", defaultValue = "name") String sortBy,
+            @Parameter(description = "Page Number", example = "0") @RequestParam(value = "pageNo", defaultValue = "0") int pageNo,
+            @Parameter(description = "Page Size", example = "10") @RequestParam(value = "pagesize", defaultValue = "10") int pagesize,
+            @Parameter(description = "Sorting Order", example = "asc/desc") @RequestParam(value = "sortOrder", defaultValue = "asc") String sortOrder,
+            @Parameter(description = "Paging mode, cursor returns a nextCursor token instead of using page numbers", example = "offset/cursor") @RequestParam(value = "pagingMode", defaultValue = "offset") String pagingMode,
+            @Parameter(description = "Cursor of the previous page (cursor paging mode)") @RequestParam(value = "after", required = false) String after,
+            @Parameter(description = "Comma separated product fields to return, all fields when absent", example = "name,price,inventory") @RequestParam(value = "fields", required = false) String fields) {
+        log.info("Entering in ReactiveProductController getProductByCategoryWithPagination() method");
+        if ("cursor".equalsIgnoreCase(pagingMode) || after != null) {
+            return catalogService.getProductsAfterCursor(sortBy, sortOrder, after, pagesize, fields);
+        }
+        return catalogService.getProductByCategoryWithPaging(sortBy, pageNo, pagesize, fields);
+    }
+}
@@ -0,0 +1,22 @@
+package com.online.shopping.dto;
+
+import com.online.shopping.config.Generated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Generated
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkImportItemDTO {
+
+    public enum Status {
+        IMPORTED, FAILED
+    }
+
+    private int index;  // position of the item in the request body, starting at 0
+    private String id;
+    private Status status;
+    private String message;
+}
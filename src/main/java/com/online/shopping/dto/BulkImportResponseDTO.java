@@ -0,0 +1,21 @@
+package com.online.shopping.dto;
+
+import com.online.shopping.config.Generated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Generated
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkImportResponseDTO {
+
+    private int received;
+    private int imported;
+    private int failed;
+    private List<BulkImportItemDTO> items = new ArrayList<>();
+}
@@ -0,0 +1,35 @@
+package com.online.shopping.dto;
+
+import com.online.shopping.config.Generated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Generated
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkPriceUpdateDTO {
+
+    /**
+     * Price amount changes, the new amount is rounded half up to 2 decimals and never goes below the minimum amount.
+     * SET     : amount = value
+     * ADD     : amount += value (value may be negative)
+     * PERCENT : amount *= 1 + value / 100 (value may be negative)
+     */
+    public enum PriceOperation {
+        SET, ADD, PERCENT
+    }
+
+    // products to change : category name (case-insensitive) and/or attribute name -> accepted values
+    private String category;
+    private Map<String, List<String>> attributes;
+
+    // change to apply : amount operation and its value, and/or the new currency
+    private PriceOperation operation;
+    private Double value;
+    private String currency;
+}
@@ -0,0 +1,16 @@
+package com.online.shopping.dto;
+
+import com.online.shopping.config.Generated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Generated
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkPriceUpdateResponseDTO {
+
+    private long matched;
+    private long modified;
+}
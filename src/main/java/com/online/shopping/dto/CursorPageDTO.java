@@ -0,0 +1,20 @@
+package com.online.shopping.dto;
+
+import com.online.shopping.config.Generated;
+import com.online.shopping.entity.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Generated
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageDTO {
+
+    private List<Product> products;
+    private String nextCursor;  // opaque token to pass as "after" for the next page, null on the last page
+    private boolean hasNext;
+}
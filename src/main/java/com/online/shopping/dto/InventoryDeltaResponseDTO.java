@@ -0,0 +1,16 @@
+package com.online.shopping.dto;
+
+import com.online.shopping.config.Generated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Generated
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventoryDeltaResponseDTO {
+
+    private int acceptedProducts;  // products changed by the request
+    private int pendingProducts;  // products waiting for the next flush
+}
@@ -0,0 +1,21 @@
+package com.online.shopping.dto;
+
+import com.online.shopping.config.Generated;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Generated
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventoryRequestDTO {
+
+    @NotBlank(message = "productId is mandatory should not be empty")
+    private String productId;
+
+    @Min(value = 1, message = "quantity must be greater than or equal to 1")
+    private int quantity;
+}
@@ -0,0 +1,17 @@
+package com.online.shopping.dto;
+
+import com.online.shopping.config.Generated;
+import com.online.shopping.entity.Inventory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Generated
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventoryResponseDTO {
+
+    private String productId;
+    private Inventory inventory;
+}
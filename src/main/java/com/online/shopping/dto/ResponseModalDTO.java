@@ -1,10 +1,13 @@
 package com.online.shopping.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.online.shopping.config.Generated;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @Generated
 @AllArgsConstructor
@@ -14,6 +17,15 @@ public class ResponseModalDTO {
     private CategoryResponseDTO categoryResponseDTO;
     private ProductResponseDTO productResponseDTO;
 
+    // attribute name -> attribute value -> number of sellable products, absent while the facets are not loaded
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Map<String, Integer>> facets;
+
+    public ResponseModalDTO(CategoryResponseDTO categoryResponseDTO, ProductResponseDTO productResponseDTO) {
+        this.categoryResponseDTO = categoryResponseDTO;
+        this.productResponseDTO = productResponseDTO;
+    }
+
     public CategoryResponseDTO getCategoryResponseDTO() {
         return categoryResponseDTO;
     }
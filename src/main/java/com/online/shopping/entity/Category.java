@@ -3,16 +3,21 @@ package com.online.shopping.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.annotation.AccessType;
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.util.Locale;
+
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 @Document(collection = "categories")
 @Schema(description = "Category Entity class")
 public class Category {
@@ -21,7 +26,38 @@ public class Category {
     @JsonIgnore
     private String id;
 
-    @Indexed(name = "product_category_index", expireAfterSeconds = 432000)
+    // unique in the categories collection, see CategoryNameIndex
     @NotBlank(message = "category is mandatory should not be empty")
     private String name;
+
+    // lower-cased name, stored so the case-insensitive category lookups are plain index seeks; always derived from
+    // the name when written, the stored value is never read back
+    @JsonIgnore
+    @AccessType(AccessType.Type.PROPERTY)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private String key;
+
+    public Category(String id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public String getKey() {
+        return keyOf(name);
+    }
+
+    void setKey(String key) {
+        // derived from the name
+    }
+
+    /**
+     * @param categoryName
+     * @return the key matching the category name whatever its case, null for a null name
+     */
+    public static String keyOf(String categoryName) {
+        return categoryName == null ? null : categoryName.toLowerCase(Locale.ROOT);
+    }
 }
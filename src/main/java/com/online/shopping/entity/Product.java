@@ -25,7 +25,18 @@ import static com.online.shopping.util.OnlineShoppingAppConstants.PRODUCT;
 @Document(collection = PRODUCT)
 @Schema(description = "PRODUCT Entity class")
 @CompoundIndexes({
-        @CompoundIndex(name = "name_brand_category_index", def = "{'name' : 1, 'brand':1, 'category.name': 1}")})
+        @CompoundIndex(name = "name_brand_category_index", def = "{'name' : 1, 'brand':1, 'category.name': 1}"),
+        @CompoundIndex(name = "category_price_index", def = "{'category.name' : 1, 'price.amount' : 1, '_id' : 1}",
+                collation = "{'locale' : 'en', 'strength' : 2}"),
+        @CompoundIndex(name = "category_inventory_index", def = "{'category.name' : 1, 'inventory.available' : 1, '_id' : 1}",
+                collation = "{'locale' : 'en', 'strength' : 2}"),
+        @CompoundIndex(name = "category_key_id_index", def = "{'category.key' : 1, '_id' : 1}"),
+        @CompoundIndex(name = "category_key_price_index", def = "{'category.key' : 1, 'price.amount' : 1, '_id' : 1}"),
+        @CompoundIndex(name = "category_key_inventory_index", def = "{'category.key' : 1, 'inventory.available' : 1, '_id' : 1}"),
+        @CompoundIndex(name = "name_id_index", def = "{'product_name' : 1, '_id' : 1}"),
+        @CompoundIndex(name = "brand_id_index", def = "{'brand' : 1, '_id' : 1}"),
+        @CompoundIndex(name = "price_id_index", def = "{'price.amount' : 1, '_id' : 1}"),
+        @CompoundIndex(name = "last_modified_index", def = "{'last_modified' : 1}")})
 public class Product {
 
     @Id
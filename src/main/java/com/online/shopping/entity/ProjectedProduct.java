@@ -0,0 +1,22 @@
+package com.online.shopping.entity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.Hidden;
+
+import java.util.Collection;
+
+/**
+ * A {@link Product} read with a field projection (fields= request parameter, sparse fieldset). The properties that
+ * were not selected are not read, so they are omitted from its JSON instead of being serialized as null or as empty
+ * attributes. A product read whole is a plain {@link Product} and keeps all its properties in the JSON.
+ */
+@Hidden
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProjectedProduct extends Product {
+
+    @Override
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public Collection<Attributes> getAttributes() {
+        return super.getAttributes();
+    }
+}
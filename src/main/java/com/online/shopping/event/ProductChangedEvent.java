@@ -0,0 +1,29 @@
+package com.online.shopping.event;
+
+import com.online.shopping.config.Generated;
+import com.online.shopping.entity.Product;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Set;
+
+/**
+ * Published by the product write paths after the change has been stored in MongoDB.
+ * Read caches and in-memory indexes listen to it to refresh the affected categories.
+ */
+@Getter
+@ToString
+@Generated
+@AllArgsConstructor
+public class ProductChangedEvent {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final ChangeType changeType;
+    private final String productId;
+    private final Product product;  // state after the change, null for a deleted product
+    private final Set<String> categoryNames;  // categories the product belonged to before and after the change
+}
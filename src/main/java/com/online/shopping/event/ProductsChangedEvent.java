@@ -0,0 +1,21 @@
+package com.online.shopping.event;
+
+import com.online.shopping.config.Generated;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Published by the bulk product write paths (import, price update, inventory deltas, cart lines) once per written
+ * batch, in place of one {@link ProductChangedEvent} per product, so the listeners apply the whole batch at once.
+ */
+@Getter
+@ToString
+@Generated
+@AllArgsConstructor
+public class ProductsChangedEvent {
+
+    private final List<ProductChangedEvent> changes;  // in write order, a later change of a product supersedes the earlier ones
+}
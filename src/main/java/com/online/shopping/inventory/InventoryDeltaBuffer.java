@@ -0,0 +1,374 @@
+package com.online.shopping.inventory;
+
+import com.online.shopping.dto.InventoryDeltaDTO;
+import com.online.shopping.dto.InventoryDeltaResponseDTO;
+import com.online.shopping.entity.Product;
+import com.online.shopping.event.ProductChangedEvent;
+import com.online.shopping.event.ProductsChangedEvent;
+import com.online.shopping.exception.CustomException;
+import com.online.shopping.repository.ProductRepository;
+import com.online.shopping.repository.ProductRepositoryCustom.InventoryIncrement;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-coalescing buffer of the inventory deltas sent by the warehouse feed (e.g. +12 units of a product received,
+ * -3 units written off), so a hot product costs one MongoDB update per flush instead of one per delta.
+ * <p>
+ * 1. A delta is journaled (when a journal directory is set), then added to the counter of its product: a
+ * {@link LongAdder} per product, so concurrent deltas of the same product do not contend on a lock or a CAS loop. The
+ * request returns once its deltas are forced to the disk, by a force shared with the concurrent requests.
+ * 2. The net change of every product is flushed every flush-interval, or as soon as batch-size products are pending,
+ * with unordered bulk writes of $inc on the total and available units. Products whose net change is 0 are not written.
+ * 3. A flush rotates the journal and drains the counters while the deltas are held back (write lock), then writes
+ * without blocking them. The older journal segments are deleted once written; failed deltas, and after an error the
+ * deltas not yet written, go back into the counters and the journal, so the next flush retries them once.
+ * 4. The journal left by a crash is replayed into the counters at startup. A crash between the MongoDB write and the
+ * segment deletion replays already written deltas: the delivery is at least once.
+ * 5. Deltas of unknown products are dropped by the flush. A negative delta which would leave fewer available than
+ * reserved units is rejected: dropped, logged and counted (app.inventory.deltas.rejected).
+ */
+@Component
+@Slf4j
+public class InventoryDeltaBuffer {
+
+    static final int MAX_DELTA = 1_000_000;
+
+    private final ProductRepository productRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int batchSize;
+
+    private final InventoryDeltaJournal journal;
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    // deltas share the read lock, the drain of a flush takes the write lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final ScheduledExecutorService flusher;
+
+    private final Counter receivedDeltas;
+
+    private final Counter rejectedDeltas;
+
+    /**
+     * Constructor Injection - All Argument Constructor
+     * @param productRepository
+     * @param eventPublisher
+     * @param meterRegistry
+     * @param flushInterval
+     * @param batchSize
+     * @param journalDirectory none when blank
+     * @param fsync
+     * @throws IOException
+     */
+    public InventoryDeltaBuffer(ProductRepository productRepository, ApplicationEventPublisher eventPublisher,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.inventory.deltas.flush-interval:PT1S}") Duration flushInterval,
+                                @Value("${app.inventory.deltas.batch-size:500}") int batchSize,
+                                @Value("${app.inventory.deltas.journal.directory:}") Path journalDirectory,
+                                @Value("${app.inventory.deltas.journal.fsync:true}") boolean fsync) throws IOException {
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        if (journalDirectory == null || journalDirectory.toString().isBlank()) {
+            this.journal = null;
+            log.warn("The inventory deltas are not journaled, the deltas not yet flushed are lost by a crash");
+        } else {
+            this.journal = new InventoryDeltaJournal(journalDirectory, fsync);
+        }
+        Map<String, Long> replayed = journal == null ? Map.of() : journal.replay();
+        replayed.forEach((productId, delta) -> {
+            if (delta != 0) {
+                counters.computeIfAbsent(productId, id -> new LongAdder()).add(delta);
+            }
+        });
+        if (!replayed.isEmpty()) {
+            log.info("Replayed the journaled inventory deltas of " + counters.size() + " products");
+        }
+        this.receivedDeltas = Counter.builder("app.inventory.deltas.received")
+                .description("Inventory deltas received")
+                .register(meterRegistry);
+        this.rejectedDeltas = Counter.builder("app.inventory.deltas.rejected")
+                .description("Net inventory deltas rejected because they would leave fewer available than reserved units")
+                .register(meterRegistry);
+        Gauge.builder("app.inventory.deltas.pending", counters, Map::size)
+                .description("Products with inventory deltas not yet flushed")
+                .register(meterRegistry);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-delta-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Method to accept inventory deltas, they are stored by a later flush.
+     * @param deltas
+     * @return the number of products changed by the request and the number of products waiting for a flush
+     */
+    public InventoryDeltaResponseDTO add(List<InventoryDeltaDTO> deltas) {
+        log.info("Entering in InventoryDeltaBuffer add() method...");
+        Map<String, Long> coalesced = coalesce(deltas);
+        try {
+            long sequence;
+            lock.readLock().lock();
+            try {
+                sequence = journal == null ? 0 : journal.append(coalesced);
+                coalesced.forEach((productId, delta) -> counters.computeIfAbsent(productId, id -> new LongAdder()).add(delta));
+            } finally {
+                lock.readLock().unlock();
+            }
+            // forced once for all the concurrent requests, without holding back a flush
+            if (journal != null) {
+                journal.sync(sequence);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to journal the inventory deltas", e);
+        }
+        receivedDeltas.increment(deltas.size());
+        int pending = counters.size();
+        if (pending >= batchSize && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushQuietly);
+        }
+        log.info("Exiting from InventoryDeltaBuffer add() method...");
+        return new InventoryDeltaResponseDTO(coalesced.size(), pending);
+    }
+
+    /**
+     * Method to write the net change of every product with pending deltas.
+     * @return the number of products written
+     */
+    public synchronized int flush() {
+        flushRequested.set(false);
+        Map<String, Long> drained = new HashMap<>();
+        long boundary;
+        lock.writeLock().lock();
+        try {
+            boundary = journal == null ? 0 : journal.rotate();
+            for (String productId : new ArrayList<>(counters.keySet())) {
+                long delta = counters.remove(productId).sum();
+                if (delta != 0) {
+                    drained.put(productId, delta);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to rotate the inventory delta journal", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (drained.isEmpty()) {
+            deleteSegmentsBefore(boundary);
+            return 0;
+        }
+
+        Map<String, Long> retained = new HashMap<>();
+        Set<String> written = new HashSet<>();
+        Set<String> rejected = new HashSet<>();
+        try {
+            Map<String, Integer> chunk = new LinkedHashMap<>();
+            for (Map.Entry<String, Long> entry : drained.entrySet()) {
+                int delta = toInt(entry.getValue());
+                if (delta != entry.getValue()) {
+                    retained.put(entry.getKey(), entry.getValue() - delta);
+                }
+                chunk.put(entry.getKey(), delta);
+                if (chunk.size() >= batchSize) {
+                    writeChunk(chunk, retained, written, rejected);
+                    chunk = new LinkedHashMap<>();
+                }
+            }
+            writeChunk(chunk, retained, written, rejected);
+        } catch (RuntimeException e) {
+            // only the deltas not yet written are journaled again, the segments also hold the written chunks
+            log.error("Unable to flush the inventory deltas, retrying with the next flush", e);
+            Map<String, Long> unwritten = new HashMap<>();
+            drained.forEach((productId, delta) -> {
+                long rest = rejected.contains(productId) ? 0 : written.contains(productId) ? delta - toInt(delta) : delta;
+                if (rest != 0) {
+                    unwritten.put(productId, rest);
+                }
+            });
+            restore(unwritten, true);
+            deleteSegmentsBefore(boundary);
+            return written.size();
+        }
+        restore(retained, true);
+        deleteSegmentsBefore(boundary);
+        log.debug("Flushed the inventory deltas of " + written.size() + " products, " + retained.size() + " retained, "
+                + rejected.size() + " rejected");
+        return written.size();
+    }
+
+    /**
+     * @return the net pending delta of every product
+     */
+    Map<String, Long> pending() {
+        Map<String, Long> pending = new HashMap<>();
+        counters.forEach((productId, delta) -> pending.put(productId, delta.sum()));
+        return pending;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Method to write a chunk of net deltas and announce the changed products.
+     * @param chunk product id -> delta
+     * @param retained collects the failed deltas
+     * @param written collects the written product ids
+     * @param rejected collects the ids of the products whose units could not be removed
+     */
+    private void writeChunk(Map<String, Integer> chunk, Map<String, Long> retained, Set<String> written,
+                            Set<String> rejected) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        InventoryIncrement result = productRepository.incrementInventory(chunk);
+        List<String> changed = new ArrayList<>(chunk.size());
+        chunk.forEach((productId, delta) -> {
+            if (result.failed().contains(productId)) {
+                retained.merge(productId, (long) delta, Long::sum);
+            } else if (result.rejected().contains(productId)) {
+                // the rest of a delta larger than an int is dropped with it
+                retained.remove(productId);
+                rejected.add(productId);
+            } else {
+                changed.add(productId);
+            }
+        });
+        if (!result.rejected().isEmpty()) {
+            log.warn("Rejected the inventory deltas of the products " + result.rejected()
+                    + ", they would leave fewer available than reserved units");
+            rejectedDeltas.increment(result.rejected().size());
+        }
+        written.addAll(changed);
+        List<ProductChangedEvent> changes = new ArrayList<>(changed.size());
+        for (Product product : productRepository.findByIds(changed, null)) {
+            Set<String> categoryNames = product.getCategory() == null || product.getCategory().getName() == null
+                    ? Set.of() : Set.of(product.getCategory().getName());
+            changes.add(new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, product.getId(), product,
+                    categoryNames));
+        }
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new ProductsChangedEvent(changes));
+        }
+    }
+
+    /**
+     * Method to put back deltas not written by a flush.
+     * @param retained product id -> delta
+     * @param journaled whether the deltas must be journaled again, because their segments are deleted
+     */
+    private void restore(Map<String, Long> retained, boolean journaled) {
+        if (retained.isEmpty()) {
+            return;
+        }
+        try {
+            long sequence;
+            lock.readLock().lock();
+            try {
+                sequence = journaled && journal != null ? journal.append(retained) : 0;
+                retained.forEach((productId, delta) -> counters.computeIfAbsent(productId, id -> new LongAdder()).add(delta));
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (sequence > 0) {
+                journal.sync(sequence);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to journal the retained inventory deltas", e);
+        }
+    }
+
+    private void deleteSegmentsBefore(long boundary) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.deleteBefore(boundary);
+        } catch (IOException e) {
+            // replayed at the next startup: at least once
+            log.warn("Unable to delete the flushed inventory delta journal segments", e);
+        }
+    }
+
+    // an int per $inc, the rest waits for the next flush
+    private static int toInt(long delta) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, delta));
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Unable to flush the inventory deltas", e);
+        }
+    }
+
+    /**
+     * Method to validate the deltas of a request and sum them per product.
+     * @param deltas
+     * @return product id -> net delta, in request order
+     */
+    private static Map<String, Long> coalesce(List<InventoryDeltaDTO> deltas) {
+        if (deltas == null || deltas.isEmpty()) {
+            throw new CustomException("At least one inventory delta is mandatory");
+        }
+        Map<String, Long> coalesced = new LinkedHashMap<>();
+        for (InventoryDeltaDTO delta : deltas) {
+            if (delta == null || delta.getProductId() == null || delta.getProductId().isBlank()
+                    || delta.getProductId().chars().anyMatch(Character::isWhitespace)) {
+                throw new CustomException("productId is mandatory and must not contain spaces");
+            }
+            if (delta.getDelta() == 0 || Math.abs(delta.getDelta()) > MAX_DELTA) {
+                throw new CustomException("delta must be different from 0 and between -" + MAX_DELTA + " and " + MAX_DELTA);
+            }
+            coalesced.merge(delta.getProductId(), (long) delta.getDelta(), Long::sum);
+        }
+        return coalesced;
+    }
+}
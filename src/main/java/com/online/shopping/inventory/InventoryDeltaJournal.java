@@ -0,0 +1,242 @@
+package com.online.shopping.inventory;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only journal of the received inventory deltas, so the deltas not yet written to MongoDB survive a crash.
+ * <p>
+ * 1. The journal is a sequence of numbered segment files holding one "productId delta" line per delta.
+ * 2. A flush rotates to a new segment before draining the counters, and deletes the older segments once their
+ * deltas are stored. The segments left at startup are replayed; a torn last line (crash during a write) is skipped.
+ * 3. The directory is locked, so two application instances never replay the same deltas.
+ * 4. The fsync is a group commit: an append only writes its lines and gets a sequence number, then {@link #sync}
+ * forces the segment once for every append written so far, while the concurrent appenders wait for that force instead
+ * of forcing the disk one after the other.
+ */
+@Slf4j
+final class InventoryDeltaJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "inventory-deltas-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String LOCK_FILE = "journal.lock";
+
+    private final Path directory;
+
+    private final boolean fsync;
+
+    private final FileChannel lockChannel;
+
+    private final FileLock lock;
+
+    private FileChannel segment;
+
+    private long segmentNumber;
+
+    // sequence of the last append written, and of the last one forced to the disk
+    private long appended;
+
+    private long synced;
+
+    private boolean syncing;
+
+    /**
+     * Method to open the journal, in a new segment after the existing ones.
+     * @param directory created when missing
+     * @param fsync whether every append is forced to the disk by {@link #sync}
+     * @throws IOException
+     */
+    InventoryDeltaJournal(Path directory, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.fsync = fsync;
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), CREATE, WRITE);
+        FileLock fileLock;
+        try {
+            fileLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            fileLock = null;
+        }
+        if (fileLock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("The inventory delta journal " + directory + " is used by another instance");
+        }
+        lock = fileLock;
+        segmentNumber = segmentNumbers().stream().mapToLong(Long::longValue).max().orElse(0) + 1;
+        segment = open(segmentNumber);
+    }
+
+    /**
+     * Method to sum the deltas of the segments written before this journal was opened.
+     * @return product id -> net delta
+     * @throws IOException
+     */
+    Map<String, Long> replay() throws IOException {
+        Map<String, Long> deltas = new HashMap<>();
+        for (long number : segmentNumbers()) {
+            if (number >= segmentNumber) {
+                continue;
+            }
+            String content = Files.readString(segmentPath(number), StandardCharsets.UTF_8);
+            int end = content.lastIndexOf('\n');
+            if (end < content.length() - 1) {
+                log.warn("Skipping the torn last line of the inventory delta journal segment " + number);
+            }
+            for (String line : content.substring(0, end + 1).split("\n")) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                int separator = line.lastIndexOf(' ');
+                try {
+                    deltas.merge(line.substring(0, separator), Long.parseLong(line.substring(separator + 1)), Long::sum);
+                } catch (RuntimeException e) {
+                    log.warn("Skipping the invalid line '" + line + "' of the inventory delta journal segment " + number);
+                }
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * Method to append deltas to the current segment, in one write not yet forced to the disk.
+     * @param deltas product id -> delta
+     * @return the sequence number of the append, to pass to {@link #sync}
+     * @throws IOException
+     */
+    long append(Map<String, ? extends Number> deltas) throws IOException {
+        StringBuilder lines = new StringBuilder(deltas.size() * 40);
+        deltas.forEach((productId, delta) -> lines.append(productId).append(' ').append(delta).append('\n'));
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(lines.toString());
+        synchronized (this) {
+            while (buffer.hasRemaining()) {
+                segment.write(buffer);
+            }
+            return ++appended;
+        }
+    }
+
+    /**
+     * Method to wait until an append is forced to the disk, forcing the segment when no other thread is doing it.
+     * A single force covers every append written before it started.
+     * @param sequence returned by {@link #append}
+     * @throws IOException
+     */
+    void sync(long sequence) throws IOException {
+        if (!fsync) {
+            return;
+        }
+        FileChannel forced;
+        long target;
+        synchronized (this) {
+            awaitSync(sequence);
+            if (synced >= sequence) {
+                return;
+            }
+            syncing = true;
+            forced = segment;
+            target = appended;
+        }
+        boolean done = false;
+        try {
+            forced.force(false);
+            done = true;
+        } finally {
+            synchronized (this) {
+                syncing = false;
+                if (done) {
+                    synced = Math.max(synced, target);
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Method to continue the journal in a new segment, the current one is forced to the disk before it is closed.
+     * @return the number of the new segment, every delta appended before is in a lower segment
+     * @throws IOException
+     */
+    synchronized long rotate() throws IOException {
+        closeSegment();
+        segment = open(++segmentNumber);
+        return segmentNumber;
+    }
+
+    /**
+     * Method to delete the segments whose deltas are stored.
+     * @param number first segment to keep
+     * @throws IOException
+     */
+    synchronized void deleteBefore(long number) throws IOException {
+        for (long existing : segmentNumbers()) {
+            if (existing < number) {
+                Files.deleteIfExists(segmentPath(existing));
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closeSegment();
+        lock.release();
+        lockChannel.close();
+    }
+
+    // the caller holds the monitor; waits for the force in progress, which would fail on a closed segment
+    private void closeSegment() throws IOException {
+        awaitSync(Long.MAX_VALUE);
+        if (fsync && synced < appended) {
+            segment.force(false);
+            synced = appended;
+        }
+        segment.close();
+    }
+
+    // the caller holds the monitor
+    private void awaitSync(long sequence) throws InterruptedIOException {
+        while (syncing && synced < sequence) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the inventory delta journal sync");
+            }
+        }
+    }
+
+    private FileChannel open(long number) throws IOException {
+        return FileChannel.open(segmentPath(number), CREATE, WRITE, APPEND);
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(SEGMENT_PREFIX + String.format("%019d", number) + SEGMENT_SUFFIX);
+    }
+
+    private List<Long> segmentNumbers() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.online.shopping.metrics;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the number of documents returned or written by every MongoDB command, per command and per collection
+ * (mongodb.driver.commands.documents). The command latency per command and collection is recorded next to it by
+ * the Spring Boot MongoDB command listener (mongodb.driver.commands).
+ * <p>
+ * 1. Reads (find, aggregate, getMore) count the documents of the returned cursor batch.
+ * 2. Writes and counts (insert, update, delete, count) count the n of the reply, findAndModify counts 0 or 1.
+ */
+public class MongoCommandDocumentsListener implements CommandListener {
+
+    public static final String METRIC_NAME = "mongodb.driver.commands.documents";
+
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry meterRegistry;
+
+    // collection of the commands in flight, by request id (getMore does not repeat it in the reply)
+    private final Map<Integer, String> collections = new ConcurrentHashMap<>();
+
+    public MongoCommandDocumentsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        collections.put(event.getRequestId(), collection(event.getCommandName(), event.getCommand()));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        String collection = collections.remove(event.getRequestId());
+        long documents = documents(event.getCommandName(), event.getResponse());
+        if (documents < 0) {
+            return;
+        }
+        DistributionSummary.builder(METRIC_NAME)
+                .description("Documents returned or written by the MongoDB commands")
+                .baseUnit("documents")
+                .tag("command", event.getCommandName())
+                .tag("collection", collection == null ? UNKNOWN : collection)
+                .register(meterRegistry)
+                .record(documents);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        collections.remove(event.getRequestId());
+    }
+
+    static String collection(String commandName, BsonDocument command) {
+        BsonValue value = command.get("getMore".equals(commandName) ? "collection" : commandName);
+        return value != null && value.isString() ? value.asString().getValue() : UNKNOWN;
+    }
+
+    /**
+     * @return number of documents of the reply, -1 for the commands that do not read or write documents
+     */
+    static long documents(String commandName, BsonDocument response) {
+        if (response == null) {
+            return -1;
+        }
+        BsonValue cursor = response.get("cursor");
+        if (cursor != null && cursor.isDocument()) {
+            BsonValue batch = cursor.asDocument().containsKey("firstBatch")
+                    ? cursor.asDocument().get("firstBatch") : cursor.asDocument().get("nextBatch");
+            return batch instanceof BsonArray array ? array.size() : 0;
+        }
+        if ("findAndModify".equals(commandName)) {
+            BsonValue value = response.get("value");
+            return value == null || value.isNull() ? 0 : 1;
+        }
+        BsonValue n = response.get("n");
+        return n != null && n.isNumber() ? n.asNumber().longValue() : -1;
+    }
+}
@@ -0,0 +1,120 @@
+package com.online.shopping.repository;
+
+import com.online.shopping.entity.Category;
+import com.online.shopping.entity.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Background backfill of the normalized category key (category.key) of the products stored before it existed.
+ * <p>
+ * 1. Once the application is ready, the products having a category name but no key are read in batches of
+ * batch-size (id and category name only) and updated with one unordered bulk write per batch, pausing between
+ * batches so the migration does not compete with the traffic.
+ * 2. An update only applies while the category name is still the one read, a renamed product is picked up again
+ * by the next batch.
+ * 3. Until no product is left without a key, the category queries keep matching the category name with the
+ * case-insensitive collation; afterwards they are equality seeks on the key indexes.
+ * 4. The products written by the application always carry the key (see {@link Category#getKey()}).
+ * Not started with the in-memory repositories (profile "inmemory"), which always match the key.
+ */
+@Component
+@Profile("!inmemory")
+@Slf4j
+public class CategoryKeyMigration {
+
+    static final String CATEGORY_KEY = "category.key";
+    static final String CATEGORY_NAME = "category.name";
+
+    private final MongoTemplate mongoTemplate;
+
+    private final int batchSize;
+
+    private final Duration pause;
+
+    private volatile boolean complete;
+
+    /**
+     * Constructor Injection - All Argument Constructor
+     * @param mongoTemplate
+     * @param batchSize
+     * @param pause
+     */
+    public CategoryKeyMigration(MongoTemplate mongoTemplate,
+                                @Value("${app.categories.key-migration.batch-size:500}") int batchSize,
+                                @Value("${app.categories.key-migration.pause:PT0.1S}") Duration pause) {
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = batchSize;
+        this.pause = pause;
+    }
+
+    /**
+     * @return whether every product has its category key, so the category queries can use it
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread thread = new Thread(this::migrateQuietly, "category-key-migration");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Method to backfill the category key of every product without one.
+     * @return the number of updated products
+     * @throws InterruptedException
+     */
+    public long migrate() throws InterruptedException {
+        long start = System.nanoTime();
+        long migrated = 0;
+        List<Product> batch = findBatch();
+        while (!batch.isEmpty()) {
+            BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+            for (Product product : batch) {
+                String name = product.getCategory().getName();
+                operations.updateOne(new Query(Criteria.where("id").is(product.getId()).and(CATEGORY_NAME).is(name)),
+                        new Update().set(CATEGORY_KEY, Category.keyOf(name)));
+            }
+            migrated += operations.execute().getModifiedCount();
+            log.debug("Backfilled the category key of " + migrated + " products");
+            Thread.sleep(pause.toMillis());
+            batch = findBatch();
+        }
+        complete = true;
+        log.info("Category keys backfilled on " + migrated + " products in " + (System.nanoTime() - start) / 1_000_000
+                + " ms, the category queries now use the category key");
+        return migrated;
+    }
+
+    private void migrateQuietly() {
+        try {
+            migrate();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Could not backfill the category keys, the category queries keep using the category name", e);
+        }
+    }
+
+    // products with a category name and no key: the key index seek on null, then a filter on the name
+    private List<Product> findBatch() {
+        Query query = new Query(Criteria.where(CATEGORY_KEY).is(null).and(CATEGORY_NAME).ne(null)).limit(batchSize);
+        query.fields().include("id").include(CATEGORY_NAME);
+        return mongoTemplate.find(query, Product.class);
+    }
+}
@@ -0,0 +1,63 @@
+package com.online.shopping.repository;
+
+import com.online.shopping.entity.Category;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+/**
+ * Unique index on the category name of the categories collection, so concurrent creations of a category (by several
+ * requests or instances) keep a single document, the others fail with a DuplicateKeyException.
+ * <p>
+ * 1. Declared here rather than with @Indexed on {@link Category#getName()}: an annotation would also index the category
+ * embedded in every product, where the name is not unique.
+ * 2. Ensured before the application serves requests. The former non-unique product_category_index on the name is
+ * dropped first, MongoDB refuses two indexes on the same key.
+ * 3. When the collection already holds duplicate names the index cannot be built: the failure is logged and the
+ * application starts without it, the duplicates have to be removed by hand.
+ * Not started with the in-memory repositories (profile "inmemory"), which declare the index themselves.
+ */
+@Component
+@Profile("!inmemory")
+@Slf4j
+public class CategoryNameIndex implements SmartInitializingSingleton {
+
+    static final String INDEX_NAME = "category_name_unique_index";
+    static final String LEGACY_INDEX_NAME = "product_category_index";
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Constructor Injection - All Argument Constructor
+     * @param mongoTemplate
+     */
+    public CategoryNameIndex(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            ensureIndex();
+        } catch (RuntimeException e) {
+            log.warn("Could not create the unique index on the category name, duplicate categories are not prevented", e);
+        }
+    }
+
+    /**
+     * Method to create the unique index on the category name, replacing the former non-unique one.
+     */
+    public void ensureIndex() {
+        IndexOperations indexOperations = mongoTemplate.indexOps(Category.class);
+        if (indexOperations.getIndexInfo().stream().anyMatch(index -> LEGACY_INDEX_NAME.equals(index.getName()))) {
+            indexOperations.dropIndex(LEGACY_INDEX_NAME);
+            log.info("Dropped the non-unique index " + LEGACY_INDEX_NAME + " of the categories");
+        }
+        indexOperations.ensureIndex(new Index("name", Sort.Direction.ASC).named(INDEX_NAME).unique());
+    }
+}
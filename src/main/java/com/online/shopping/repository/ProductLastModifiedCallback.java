@@ -0,0 +1,26 @@
+package com.online.shopping.repository;
+
+import com.online.shopping.entity.Product;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveCallback;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+/**
+ * Stamps the time of the write on every product document saved or inserted (including the bulk inserts), so the
+ * products changed since a point in time can be found with the last_modified index, see
+ * {@link ProductRepositoryCustom#streamModifiedSince}. The updates of {@link ProductRepositoryCustomImpl} set it
+ * themselves. The field is not mapped on {@link Product}: it is never read back into the entity.
+ */
+@Component
+public class ProductLastModifiedCallback implements BeforeSaveCallback<Product> {
+
+    public static final String LAST_MODIFIED = "last_modified";
+
+    @Override
+    public Product onBeforeSave(Product product, Document document, String collection) {
+        document.put(LAST_MODIFIED, new Date());
+        return product;
+    }
+}
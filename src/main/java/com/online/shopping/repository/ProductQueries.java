@@ -0,0 +1,185 @@
+package com.online.shopping.repository;
+
+import com.online.shopping.entity.Category;
+import com.online.shopping.entity.Product;
+import com.online.shopping.entity.ProjectedProduct;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static com.online.shopping.util.OnlineShoppingAppConstants.SORT_BY_INVENTORY;
+import static com.online.shopping.util.OnlineShoppingAppConstants.SORT_BY_PRICE;
+import static com.online.shopping.util.OnlineShoppingAppConstants.SORT_ORDER_DESC;
+
+/**
+ * Product queries shared by the blocking ({@link ProductRepositoryCustomImpl}) and the reactive
+ * ({@link ReactiveProductRepositoryCustomImpl}) repositories, so both stacks read exactly the same documents.
+ * The category queries match the normalized category key (byKey, once {@link CategoryKeyMigration} is complete) or
+ * else the category name with the same case-insensitive collation as the category name indexes declared on
+ * {@link Product}: either way the category match is an index seek and the sort is read in index order.
+ */
+final class ProductQueries {
+
+    static final Collation CATEGORY_COLLATION = Collation.of("en").strength(Collation.ComparisonLevel.secondary());
+
+    private ProductQueries() {
+    }
+
+    static Query sellableByCategory(String categoryName, String sortBy, String sortOrder, long offset, int limit,
+                                    Collection<String> fields, boolean byKey) {
+        return sellableByCategory(categoryName, Map.of(), sortBy, sortOrder, offset, limit, fields, byKey);
+    }
+
+    /**
+     * The sellable products of a category having, for every filtered attribute, one of its accepted values.
+     */
+    static Query sellableByCategory(String categoryName, Map<String, List<String>> attributeFilters, String sortBy,
+                                    String sortOrder, long offset, int limit, Collection<String> fields, boolean byKey) {
+        List<Criteria> conditions = new ArrayList<>();
+        conditions.add(Criteria.expr(ComparisonOperators.valueOf("inventory.available").greaterThan("inventory.reserved")));
+        conditions.addAll(attributeCriteria(attributeFilters));
+        Query query = categoryQuery(categoryName, conditions, byKey)
+                .skip(offset)
+                .limit(limit);
+        Sort sort = toSort(sortBy, sortOrder);
+        if (sort.isSorted()) {
+            query.with(sort);
+        }
+        return project(query, fields);
+    }
+
+    static Query byCategory(String categoryName, Collection<String> fields, boolean byKey) {
+        return project(categoryQuery(categoryName, List.of(), byKey), fields);
+    }
+
+    static Query byFilter(String categoryName, Map<String, List<String>> attributeFilters, Collection<String> fields,
+                          boolean byKey) {
+        List<Criteria> conditions = attributeCriteria(attributeFilters);
+        if (categoryName == null) {
+            return project(new Query(conditions.isEmpty() ? new Criteria() : new Criteria().andOperator(conditions)), fields);
+        }
+        return project(categoryQuery(categoryName, conditions, byKey), fields);
+    }
+
+    static Query byIds(Collection<String> ids, Collection<String> fields) {
+        return project(new Query(Criteria.where("id").in(ids)), fields);
+    }
+
+    static Query sellableByIds(Collection<String> ids, Collection<String> fields) {
+        return project(new Query(new Criteria().andOperator(Criteria.where("id").in(ids),
+                Criteria.expr(ComparisonOperators.valueOf("inventory.available").greaterThan("inventory.reserved")))), fields);
+    }
+
+    static Query page(Pageable pageable, Collection<String> fields) {
+        return project(new Query().with(pageable), fields);
+    }
+
+    static Query pageAfter(String sortField, Sort.Direction direction, Object lastValue, String lastId, int limit,
+                           Collection<String> fields) {
+        Query query = new Query().with(Sort.by(direction, sortField).and(Sort.by(direction, "id"))).limit(limit);
+        if (lastId != null) {
+            query.addCriteria(keysetCriteria(sortField, direction, lastValue, lastId));
+        }
+        return project(query, fields);
+    }
+
+    /**
+     * The products of a category (whatever the case of the name) meeting the other conditions.
+     * @param categoryName
+     * @param conditions
+     * @param byKey match the normalized category key, else the category name with the case-insensitive collation
+     * @return
+     */
+    private static Query categoryQuery(String categoryName, List<Criteria> conditions, boolean byKey) {
+        Criteria criteria = byKey
+                ? Criteria.where(CategoryKeyMigration.CATEGORY_KEY).is(Category.keyOf(categoryName))
+                : Criteria.where(CategoryKeyMigration.CATEGORY_NAME).is(categoryName);
+        Query query = new Query(conditions.isEmpty() ? criteria : criteria.andOperator(conditions));
+        return byKey ? query : query.collation(CATEGORY_COLLATION);
+    }
+
+    // for every filtered attribute, an element with its name and one of the accepted values
+    private static List<Criteria> attributeCriteria(Map<String, List<String>> attributeFilters) {
+        return attributeFilters.entrySet().stream()
+                .map(filter -> Criteria.where("attributes")
+                        .elemMatch(Criteria.where("name").is(filter.getKey()).and("value").in(filter.getValue())))
+                .toList();
+    }
+
+    /**
+     * The class the documents read are mapped to: {@link ProjectedProduct} when only some properties are read, so that
+     * the properties not read are left out of the JSON, {@link Product} for the whole document.
+     * @param fields null when the whole document is read
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    static Class<Product> resultType(Collection<String> fields) {
+        return (Class<Product>) (fields == null ? Product.class : ProjectedProduct.class);
+    }
+
+    /**
+     * Restrict the documents read to the given properties, the property names are mapped to the document field names.
+     * @param query
+     * @param fields null to read the whole document
+     * @return
+     */
+    static Query project(Query query, Collection<String> fields) {
+        if (fields != null) {
+            fields.forEach(query.fields()::include);
+        }
+        return query;
+    }
+
+    /**
+     * Build the "strictly after (lastValue, lastId)" condition for the keyset pagination.
+     * MongoDB orders missing/null values before every other value, which is mirrored here.
+     * @param sortField
+     * @param direction
+     * @param lastValue
+     * @param lastId
+     * @return
+     */
+    private static Criteria keysetCriteria(String sortField, Sort.Direction direction, Object lastValue, String lastId) {
+        boolean ascending = direction.isAscending();
+        Criteria afterId = ascending ? Criteria.where("id").gt(lastId) : Criteria.where("id").lt(lastId);
+        if ("id".equals(sortField)) {
+            return afterId;
+        }
+        Criteria sameValue = new Criteria().andOperator(Criteria.where(sortField).is(lastValue), afterId);
+        Criteria nextValue;
+        if (lastValue == null) {
+            if (!ascending) {
+                return sameValue;
+            }
+            nextValue = Criteria.where(sortField).ne(null);
+        } else {
+            nextValue = ascending ? Criteria.where(sortField).gt(lastValue) : Criteria.where(sortField).lt(lastValue);
+        }
+        return new Criteria().orOperator(nextValue, sameValue);
+    }
+
+    /**
+     * Map the category page sort options to the indexed document fields. The id is appended as a tie-breaker so
+     * consecutive pages never overlap when several products share the same price or availability.
+     * @param sortBy
+     * @param sortOrder
+     * @return
+     */
+    private static Sort toSort(String sortBy, String sortOrder) {
+        Sort.Direction direction = SORT_ORDER_DESC.equalsIgnoreCase(sortOrder) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        if (SORT_BY_PRICE.equalsIgnoreCase(sortBy)) {
+            return Sort.by(direction, "price.amount", "id");
+        } else if (SORT_BY_INVENTORY.equalsIgnoreCase(sortBy)) {
+            return Sort.by(direction, "inventory.available", "id");
+        }
+        return Sort.unsorted();
+    }
+}
@@ -1,12 +1,17 @@
 package com.online.shopping.repository;
 
 import com.online.shopping.entity.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-
 @Repository
-public interface ProductRepository extends MongoRepository<Product, String> {
-    List<Product> findByCategoryNameIgnoreCase(String category);
+public interface ProductRepository extends MongoRepository<Product, String>, ProductRepositoryCustom {
+    /**
+     * Offset page without the count query issued by findAll(Pageable)
+     * @param pageable
+     * @return
+     */
+    Slice<Product> findAllBy(Pageable pageable);
 }
@@ -0,0 +1,220 @@
+package com.online.shopping.repository;
+
+import com.online.shopping.entity.Price;
+import com.online.shopping.entity.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Custom queries on the product collection which cannot be expressed as derived repository methods.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Inventory changes applied atomically on a single product document.
+     * RESERVE : reserved += qty, allowed when available - reserved >= qty
+     * RELEASE : reserved -= qty, allowed when reserved >= qty
+     * COMMIT  : the reserved units are sold, available/reserved/total -= qty, allowed when reserved >= qty
+     */
+    enum InventoryOperation {
+        RESERVE, RELEASE, COMMIT
+    }
+
+    /**
+     * Retrieve one page of the sellable products (available > reserved) of a category. Filtering, sorting and
+     * skip/limit are all executed by MongoDB.
+     * @param categoryName
+     * @param sortBy
+     * @param sortOrder
+     * @param offset
+     * @param limit
+     * @param fields Product properties to read, null for the whole document
+     * @return
+     */
+    List<Product> findSellableByCategory(String categoryName, String sortBy, String sortOrder, long offset, int limit,
+                                         Collection<String> fields);
+
+    /**
+     * Retrieve one page of the sellable products of a category having, for every filtered attribute, one of its
+     * accepted values. Filtering, sorting and skip/limit are all executed by MongoDB.
+     * @param categoryName
+     * @param attributeFilters attribute name -> accepted values
+     * @param sortBy
+     * @param sortOrder
+     * @param offset
+     * @param limit
+     * @param fields Product properties to read, null for the whole document
+     * @return
+     */
+    List<Product> findSellableByCategory(String categoryName, Map<String, List<String>> attributeFilters, String sortBy,
+                                         String sortOrder, long offset, int limit, Collection<String> fields);
+
+    /**
+     * Retrieve the products of a category, the category name is matched case-insensitively.
+     * @param categoryName
+     * @param fields Product properties to read, null for the whole document
+     * @return
+     */
+    List<Product> findByCategory(String categoryName, Collection<String> fields);
+
+    /**
+     * Retrieve one page of products with skip/limit.
+     * @param pageable
+     * @param fields Product properties to read, null for the whole document
+     * @return
+     */
+    List<Product> findPage(Pageable pageable, Collection<String> fields);
+
+    /**
+     * Check whether the category contains at least one product, regardless of its inventory.
+     * @param categoryName
+     * @return
+     */
+    boolean existsByCategory(String categoryName);
+
+    /**
+     * Retrieve the products following the given keyset position, ordered by the sort field and then by id.
+     * The position is a direct index range seek, so deep pages cost the same as the first one.
+     * @param sortField property to sort on, null/absent values are ordered first
+     * @param direction
+     * @param lastValue sort value of the last product of the previous page
+     * @param lastId id of the last product of the previous page, null for the first page
+     * @param limit
+     * @param fields Product properties to read, null for the whole document
+     * @return
+     */
+    List<Product> findPageAfter(String sortField, Sort.Direction direction, Object lastValue, String lastId, int limit,
+                                Collection<String> fields);
+
+    /**
+     * Insert the products with one unordered bulk write. A failing document does not stop the others.
+     * @param products
+     * @return error message of every product which was not inserted, keyed by its position in the list
+     */
+    Map<Integer, String> insertAll(List<Product> products);
+
+    /**
+     * Open a cursor over the whole product collection in _id order. Documents are fetched from the server
+     * batchSize at a time, so only the current batch is held in memory. The caller must close the stream.
+     */
+    Stream<Product> streamAll(int batchSize);
+
+    /**
+     * Same as {@link #streamAll(int)} reading only the given properties.
+     * @param batchSize
+     * @param fields Product properties to read, null for the whole document
+     * @return
+     */
+    Stream<Product> streamAll(int batchSize, Collection<String> fields);
+
+    /**
+     * Retrieve the products with the given ids with a single _id index lookup.
+     * @param ids
+     * @param fields Product properties to read, null for the whole document
+     * @return the products found, in the order of the ids
+     */
+    List<Product> findByIds(List<String> ids, Collection<String> fields);
+
+    /**
+     * Retrieve the products with the given ids which are still sellable (available > reserved), with a single _id
+     * index lookup. The ids of a page found by an in-memory index are read with it, so a product sold out since the
+     * index last saw it is left out.
+     * @param ids
+     * @param fields Product properties to read, null for the whole document
+     * @return the sellable products found, in the order of the ids
+     */
+    List<Product> findSellableByIds(List<String> ids, Collection<String> fields);
+
+    /**
+     * Apply an inventory operation with a single conditional findAndModify, the guard and the $inc are evaluated
+     * atomically by MongoDB so concurrent operations never lose an update.
+     * @param productId
+     * @param operation
+     * @param quantity
+     * @return the product after the change, null when the product does not exist or the guard is not satisfied
+     */
+    Product modifyInventory(String productId, InventoryOperation operation, int quantity);
+
+    /**
+     * Undo an inventory operation previously applied by {@link #modifyInventory}, without any guard.
+     * @param productId
+     * @param operation
+     * @param quantity
+     */
+    void revertInventory(String productId, InventoryOperation operation, int quantity);
+
+    /**
+     * Stream the products of a category and/or having, for every filtered attribute, one of its accepted values,
+     * in _id order.
+     * @param categoryName matched case-insensitively, null for all the categories
+     * @param attributeFilters attribute name -> accepted values
+     * @param batchSize number of documents per cursor batch
+     * @param fields Product properties to read, null for the whole document
+     * @return to be closed by the caller
+     */
+    Stream<Product> streamByFilter(String categoryName, Map<String, List<String>> attributeFilters, int batchSize,
+                                   Collection<String> fields);
+
+    /**
+     * Write new prices with one unordered bulk write. A product is only updated while its price is still the price
+     * it was read with, so a concurrent price change is never overwritten.
+     * @param products the products with the price they were read with
+     * @param prices the new price of every product, in the same order
+     * @return number of modified documents
+     */
+    long updatePrices(List<Product> products, List<Price> prices);
+
+    /**
+     * Stream the products of a category from a cursor, in index order.
+     * @param categoryName matched case-insensitively
+     * @param batchSize number of documents fetched per cursor batch
+     * @param fields Product properties to read, null for the whole product
+     * @return to be closed by the caller
+     */
+    Stream<Product> streamByCategory(String categoryName, int batchSize, Collection<String> fields);
+
+    /**
+     * Stream an offset page of products from a cursor.
+     * @param pageable
+     * @param batchSize number of documents fetched per cursor batch
+     * @param fields Product properties to read, null for the whole product
+     * @return to be closed by the caller
+     */
+    Stream<Product> streamPage(Pageable pageable, int batchSize, Collection<String> fields);
+
+    /**
+     * Outcome of {@link #incrementInventory}.
+     * @param failed products whose update failed, to be retried
+     * @param rejected products left unchanged because removing the units would leave fewer available than reserved
+     * units, not to be retried
+     */
+    record InventoryIncrement(Set<String> failed, Set<String> rejected) {
+    }
+
+    /**
+     * Add a net inventory change to the total and available quantities of every given product. The added units are
+     * written with one unordered bulk write of $inc updates. The removed units are written with one conditional update
+     * per product, applied only while available + delta >= reserved, so the reserved units always stay covered.
+     * Unknown products are ignored.
+     * @param deltas product id -> units to add, negative to remove units
+     * @return the products whose update failed and the products whose units could not be removed
+     */
+    InventoryIncrement incrementInventory(Map<String, Integer> deltas);
+
+    /**
+     * Stream the products written since the given time, from the last_modified index. Deleted products are not
+     * returned: compare with the ids of {@link #streamAll(int, Collection)} to find them.
+     * @param since included
+     * @param batchSize number of documents fetched per cursor batch
+     * @param fields Product properties to read, null for the whole product
+     * @return to be closed by the caller
+     */
+    Stream<Product> streamModifiedSince(Instant since, int batchSize, Collection<String> fields);
+}
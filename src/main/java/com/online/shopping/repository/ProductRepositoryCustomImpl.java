@@ -0,0 +1,256 @@
+package com.online.shopping.repository;
+
+import com.online.shopping.entity.Price;
+import com.online.shopping.entity.Product;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static com.online.shopping.repository.ProductLastModifiedCallback.LAST_MODIFIED;
+
+/**
+ * MongoTemplate backed implementation of {@link ProductRepositoryCustom}, the queries are built by {@link ProductQueries}.
+ */
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    private final CategoryKeyMigration categoryKeyMigration;
+
+    public ProductRepositoryCustomImpl(MongoTemplate mongoTemplate, CategoryKeyMigration categoryKeyMigration) {
+        this.mongoTemplate = mongoTemplate;
+        this.categoryKeyMigration = categoryKeyMigration;
+    }
+
+    @Override
+    public List<Product> findSellableByCategory(String categoryName, String sortBy, String sortOrder, long offset, int limit,
+                                                Collection<String> fields) {
+        return mongoTemplate.find(ProductQueries.sellableByCategory(categoryName, sortBy, sortOrder, offset, limit, fields,
+                byKey()), ProductQueries.resultType(fields));
+    }
+
+    @Override
+    public List<Product> findSellableByCategory(String categoryName, Map<String, List<String>> attributeFilters, String sortBy,
+                                                String sortOrder, long offset, int limit, Collection<String> fields) {
+        return mongoTemplate.find(ProductQueries.sellableByCategory(categoryName, attributeFilters, sortBy, sortOrder,
+                offset, limit, fields, byKey()), ProductQueries.resultType(fields));
+    }
+
+    @Override
+    public List<Product> findByCategory(String categoryName, Collection<String> fields) {
+        return mongoTemplate.find(ProductQueries.byCategory(categoryName, fields, byKey()),
+                ProductQueries.resultType(fields));
+    }
+
+    @Override
+    public List<Product> findPage(Pageable pageable, Collection<String> fields) {
+        return mongoTemplate.find(ProductQueries.page(pageable, fields), ProductQueries.resultType(fields));
+    }
+
+    @Override
+    public boolean existsByCategory(String categoryName) {
+        return mongoTemplate.exists(ProductQueries.byCategory(categoryName, null, byKey()), Product.class);
+    }
+
+    @Override
+    public List<Product> findPageAfter(String sortField, Sort.Direction direction, Object lastValue, String lastId, int limit,
+                                       Collection<String> fields) {
+        return mongoTemplate.find(ProductQueries.pageAfter(sortField, direction, lastValue, lastId, limit, fields),
+                ProductQueries.resultType(fields));
+    }
+
+    @Override
+    public Map<Integer, String> insertAll(List<Product> products) {
+        Map<Integer, String> errors = new HashMap<>();
+        if (products.isEmpty()) {
+            return errors;
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class).insert(products).execute();
+        } catch (BulkOperationException e) {
+            e.getErrors().forEach(error -> errors.put(error.getIndex(), error.getMessage()));
+        }
+        return errors;
+    }
+
+    @Override
+    public Stream<Product> streamAll(int batchSize) {
+        return streamAll(batchSize, null);
+    }
+
+    @Override
+    public Stream<Product> streamAll(int batchSize, Collection<String> fields) {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).cursorBatchSize(batchSize);
+        return mongoTemplate.stream(ProductQueries.project(query, fields), ProductQueries.resultType(fields));
+    }
+
+    @Override
+    public Stream<Product> streamByCategory(String categoryName, int batchSize, Collection<String> fields) {
+        return mongoTemplate.stream(ProductQueries.byCategory(categoryName, fields, byKey()).cursorBatchSize(batchSize),
+                ProductQueries.resultType(fields));
+    }
+
+    @Override
+    public Stream<Product> streamPage(Pageable pageable, int batchSize, Collection<String> fields) {
+        return mongoTemplate.stream(ProductQueries.page(pageable, fields).cursorBatchSize(batchSize),
+                ProductQueries.resultType(fields));
+    }
+
+    @Override
+    public List<Product> findByIds(List<String> ids, Collection<String> fields) {
+        return ids.isEmpty() ? List.of() : inIdOrder(ids, ProductQueries.byIds(ids, fields), fields);
+    }
+
+    @Override
+    public List<Product> findSellableByIds(List<String> ids, Collection<String> fields) {
+        return ids.isEmpty() ? List.of() : inIdOrder(ids, ProductQueries.sellableByIds(ids, fields), fields);
+    }
+
+    private List<Product> inIdOrder(List<String> ids, Query query, Collection<String> fields) {
+        Map<String, Product> found = new HashMap<>();
+        for (Product product : mongoTemplate.find(query, ProductQueries.resultType(fields))) {
+            found.put(product.getId(), product);
+        }
+        List<Product> products = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Product product = found.get(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    @Override
+    public Product modifyInventory(String productId, InventoryOperation operation, int quantity) {
+        Criteria guard = switch (operation) {
+            case RESERVE -> Criteria.expr(ComparisonOperators.valueOf(
+                    ArithmeticOperators.valueOf("inventory.available").subtract("inventory.reserved"))
+                    .greaterThanEqualToValue(quantity));
+            case RELEASE, COMMIT -> Criteria.where("inventory.reserved").gte(quantity);
+        };
+        Query query = new Query(Criteria.where("id").is(productId).andOperator(guard));
+        return mongoTemplate.findAndModify(query, inventoryUpdate(operation, quantity),
+                FindAndModifyOptions.options().returnNew(true), Product.class);
+    }
+
+    @Override
+    public void revertInventory(String productId, InventoryOperation operation, int quantity) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(productId)), inventoryUpdate(operation, -quantity),
+                Product.class);
+    }
+
+    @Override
+    public Stream<Product> streamByFilter(String categoryName, Map<String, List<String>> attributeFilters, int batchSize,
+                                          Collection<String> fields) {
+        Query query = ProductQueries.byFilter(categoryName, attributeFilters, fields, byKey())
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .cursorBatchSize(batchSize);
+        return mongoTemplate.stream(query, ProductQueries.resultType(fields));
+    }
+
+    @Override
+    public long updatePrices(List<Product> products, List<Price> prices) {
+        if (products.isEmpty()) {
+            return 0;
+        }
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            Price current = product.getPrice() == null ? new Price() : product.getPrice();
+            Query query = new Query(Criteria.where("id").is(product.getId())
+                    .and("price.amount").is(current.getAmount())
+                    .and("price.currency").is(current.getCurrency()));
+            operations.updateOne(query, new Update()
+                    .set("price.amount", prices.get(i).getAmount())
+                    .set("price.currency", prices.get(i).getCurrency())
+                    .set(LAST_MODIFIED, new Date()));
+        }
+        return operations.execute().getModifiedCount();
+    }
+
+    @Override
+    public InventoryIncrement incrementInventory(Map<String, Integer> deltas) {
+        Set<String> failed = new HashSet<>();
+        Set<String> rejected = new HashSet<>();
+        List<String> added = deltas.keySet().stream().filter(id -> deltas.get(id) >= 0).toList();
+        if (!added.isEmpty()) {
+            BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+            for (String id : added) {
+                operations.updateOne(new Query(Criteria.where("id").is(id)), inventoryIncrement(deltas.get(id)));
+            }
+            try {
+                operations.execute();
+            } catch (BulkOperationException e) {
+                e.getErrors().forEach(error -> failed.add(added.get(error.getIndex())));
+            }
+        }
+        for (Map.Entry<String, Integer> removed : deltas.entrySet()) {
+            if (removed.getValue() >= 0) {
+                continue;
+            }
+            Criteria guard = Criteria.expr(ComparisonOperators.valueOf(
+                    ArithmeticOperators.valueOf("inventory.available").subtract("inventory.reserved"))
+                    .greaterThanEqualToValue(-(long) removed.getValue()));
+            Query query = new Query(Criteria.where("id").is(removed.getKey()).andOperator(guard));
+            try {
+                // not matched: unknown product, or the guard is not satisfied
+                if (mongoTemplate.updateFirst(query, inventoryIncrement(removed.getValue()), Product.class).getMatchedCount() == 0
+                        && mongoTemplate.exists(new Query(Criteria.where("id").is(removed.getKey())), Product.class)) {
+                    rejected.add(removed.getKey());
+                }
+            } catch (DataAccessException e) {
+                failed.add(removed.getKey());
+            }
+        }
+        return new InventoryIncrement(failed, rejected);
+    }
+
+    private static Update inventoryIncrement(int delta) {
+        return new Update()
+                .inc("inventory.total", delta)
+                .inc("inventory.available", delta)
+                .set(LAST_MODIFIED, new Date());
+    }
+
+    @Override
+    public Stream<Product> streamModifiedSince(Instant since, int batchSize, Collection<String> fields) {
+        Query query = new Query(Criteria.where(LAST_MODIFIED).gte(Date.from(since))).cursorBatchSize(batchSize);
+        return mongoTemplate.stream(ProductQueries.project(query, fields), ProductQueries.resultType(fields));
+    }
+
+    private static Update inventoryUpdate(InventoryOperation operation, int quantity) {
+        Update update = switch (operation) {
+            case RESERVE -> new Update().inc("inventory.reserved", quantity);
+            case RELEASE -> new Update().inc("inventory.reserved", -quantity);
+            case COMMIT -> new Update().inc("inventory.reserved", -quantity)
+                    .inc("inventory.available", -quantity)
+                    .inc("inventory.total", -quantity);
+        };
+        return update.set(LAST_MODIFIED, new Date());
+    }
+
+    private boolean byKey() {
+        return categoryKeyMigration.isComplete();
+    }
+}
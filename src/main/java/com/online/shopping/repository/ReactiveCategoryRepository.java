@@ -0,0 +1,15 @@
+package com.online.shopping.repository;
+
+import com.online.shopping.entity.Category;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking access to the categories collection, used by the reactive read stack ('reactive' profile).
+ */
+@Repository
+public interface ReactiveCategoryRepository extends ReactiveMongoRepository<Category, String> {
+
+    Mono<Category> findByName(String categoryName);
+}
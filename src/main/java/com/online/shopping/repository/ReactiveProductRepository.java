@@ -0,0 +1,12 @@
+package com.online.shopping.repository;
+
+import com.online.shopping.entity.Product;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Non-blocking access to the product collection, used by the reactive read stack ('reactive' profile).
+ */
+@Repository
+public interface ReactiveProductRepository extends ReactiveMongoRepository<Product, String>, ReactiveProductRepositoryCustom {
+}
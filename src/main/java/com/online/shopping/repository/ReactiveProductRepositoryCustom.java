@@ -0,0 +1,43 @@
+package com.online.shopping.repository;
+
+import com.online.shopping.entity.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Reactive variants of the {@link ProductRepositoryCustom} read queries. The products are emitted as they are read
+ * from the cursor, following the demand of the subscriber.
+ */
+public interface ReactiveProductRepositoryCustom {
+
+    /**
+     * @see ProductRepositoryCustom#findSellableByCategory(String, String, String, long, int, Collection)
+     */
+    Flux<Product> findSellableByCategory(String categoryName, String sortBy, String sortOrder, long offset, int limit,
+                                         Collection<String> fields);
+
+    /**
+     * @see ProductRepositoryCustom#existsByCategory(String)
+     */
+    Mono<Boolean> existsByCategory(String categoryName);
+
+    /**
+     * @see ProductRepositoryCustom#findByCategory(String, Collection)
+     */
+    Flux<Product> findByCategory(String categoryName, Collection<String> fields);
+
+    /**
+     * @see ProductRepositoryCustom#findPage(Pageable, Collection)
+     */
+    Flux<Product> findPage(Pageable pageable, Collection<String> fields);
+
+    /**
+     * @see ProductRepositoryCustom#findPageAfter(String, Sort.Direction, Object, String, int, Collection)
+     */
+    Flux<Product> findPageAfter(String sortField, Sort.Direction direction, Object lastValue, String lastId, int limit,
+                                Collection<String> fields);
+}
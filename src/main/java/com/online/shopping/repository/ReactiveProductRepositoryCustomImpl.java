@@ -0,0 +1,60 @@
+package com.online.shopping.repository;
+
+import com.online.shopping.entity.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * ReactiveMongoTemplate backed implementation of {@link ReactiveProductRepositoryCustom}, the queries are built by
+ * {@link ProductQueries}.
+ */
+public class ReactiveProductRepositoryCustomImpl implements ReactiveProductRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    private final CategoryKeyMigration categoryKeyMigration;
+
+    public ReactiveProductRepositoryCustomImpl(ReactiveMongoTemplate reactiveMongoTemplate, CategoryKeyMigration categoryKeyMigration) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.categoryKeyMigration = categoryKeyMigration;
+    }
+
+    @Override
+    public Flux<Product> findSellableByCategory(String categoryName, String sortBy, String sortOrder, long offset, int limit,
+                                                Collection<String> fields) {
+        return reactiveMongoTemplate.find(ProductQueries.sellableByCategory(categoryName, sortBy, sortOrder, offset, limit,
+                fields, byKey()), ProductQueries.resultType(fields));
+    }
+
+    @Override
+    public Mono<Boolean> existsByCategory(String categoryName) {
+        return reactiveMongoTemplate.exists(ProductQueries.byCategory(categoryName, null, byKey()), Product.class);
+    }
+
+    @Override
+    public Flux<Product> findByCategory(String categoryName, Collection<String> fields) {
+        return reactiveMongoTemplate.find(ProductQueries.byCategory(categoryName, fields, byKey()),
+                ProductQueries.resultType(fields));
+    }
+
+    @Override
+    public Flux<Product> findPage(Pageable pageable, Collection<String> fields) {
+        return reactiveMongoTemplate.find(ProductQueries.page(pageable, fields), ProductQueries.resultType(fields));
+    }
+
+    @Override
+    public Flux<Product> findPageAfter(String sortField, Sort.Direction direction, Object lastValue, String lastId, int limit,
+                                       Collection<String> fields) {
+        return reactiveMongoTemplate.find(ProductQueries.pageAfter(sortField, direction, lastValue, lastId, limit, fields),
+                ProductQueries.resultType(fields));
+    }
+
+    private boolean byKey() {
+        return categoryKeyMigration.isComplete();
+    }
+}
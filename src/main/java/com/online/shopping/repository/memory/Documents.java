@@ -0,0 +1,240 @@
+package com.online.shopping.repository.memory;
+
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.Decimal128;
+import org.bson.types.MaxKey;
+import org.bson.types.MinKey;
+import org.bson.types.ObjectId;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Operations on the stored documents with the MongoDB semantics: dotted field paths, the BSON comparison order
+ * (MinKey, null/missing, numbers, strings, documents, arrays, binary, ObjectId, booleans, dates, MaxKey), projections
+ * and copy-on-write updates, so a stored document is never changed once visible to the readers.
+ */
+final class Documents {
+
+    static final Comparator<Object> BSON_ORDER = Documents::compareValues;
+
+    private Documents() {
+    }
+
+    /**
+     * @param document
+     * @param path dotted field path, e.g. price.amount
+     * @return the value, null when a field of the path is missing or not a document
+     */
+    static Object value(Document document, String path) {
+        Object value = document;
+        int start = 0;
+        while (value instanceof Map<?, ?> map) {
+            int end = path.indexOf('.', start);
+            String field = end < 0 ? path.substring(start) : path.substring(start, end);
+            value = map.get(field);
+            if (end < 0) {
+                return value;
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    /**
+     * @param document
+     * @param path
+     * @param value
+     * @return a copy of the document with the field set, the documents of the path are copied
+     */
+    static Document with(Document document, String path, Object value) {
+        Document copy = new Document(document);
+        int dot = path.indexOf('.');
+        if (dot < 0) {
+            copy.put(path, value);
+            return copy;
+        }
+        String field = path.substring(0, dot);
+        Document nested = copy.get(field) instanceof Document existing ? existing : new Document();
+        copy.put(field, with(nested, path.substring(dot + 1), value));
+        return copy;
+    }
+
+    /**
+     * MongoDB $inc: a missing field is set to the increment, an int overflowing 32 bits becomes a long.
+     * @param current
+     * @param increment
+     * @return the incremented value
+     * @throws IllegalArgumentException when the current value is not a number
+     */
+    static Number increment(Object current, int increment) {
+        if (current == null) {
+            return increment;
+        }
+        if (current instanceof Integer value) {
+            long sum = (long) value + increment;
+            return sum == (int) sum ? (Number) (int) sum : (Number) sum;
+        }
+        if (current instanceof Long value) {
+            return value + increment;
+        }
+        if (current instanceof Double value) {
+            return value + increment;
+        }
+        throw new IllegalArgumentException("Cannot apply $inc to a value of non-numeric type " + current.getClass().getSimpleName());
+    }
+
+    /**
+     * @param document
+     * @param paths dotted paths to keep, the _id is always kept
+     * @return a copy with only the given fields
+     */
+    static Document project(Document document, Collection<String> paths) {
+        Document projected = new Document();
+        if (document.containsKey("_id")) {
+            projected.put("_id", document.get("_id"));
+        }
+        for (String path : paths) {
+            copyPath(document, projected, path);
+        }
+        return projected;
+    }
+
+    private static void copyPath(Document source, Document target, String path) {
+        int dot = path.indexOf('.');
+        if (dot < 0) {
+            if (source.containsKey(path)) {
+                target.put(path, source.get(path));
+            }
+            return;
+        }
+        String field = path.substring(0, dot);
+        if (source.get(field) instanceof Document nested) {
+            Document nestedTarget = target.get(field) instanceof Document existing ? existing : new Document();
+            copyPath(nested, nestedTarget, path.substring(dot + 1));
+            target.put(field, nestedTarget);
+        }
+    }
+
+    /**
+     * Equality of the MongoDB queries: numbers are compared by value, null matches a missing field.
+     */
+    static boolean equal(Object left, Object right) {
+        return compareValues(left, right) == 0;
+    }
+
+    static int compareValues(Object left, Object right) {
+        int rank = Integer.compare(rank(left), rank(right));
+        if (rank != 0) {
+            return rank;
+        }
+        if (left == null || left instanceof MinKey || left instanceof MaxKey) {
+            return 0;
+        }
+        if (left instanceof Number leftNumber) {
+            return compareNumbers(leftNumber, (Number) right);
+        }
+        if (left instanceof String leftString) {
+            return leftString.compareTo((String) right);
+        }
+        if (left instanceof Map<?, ?> leftMap) {
+            return compareDocuments(leftMap, (Map<?, ?>) right);
+        }
+        if (left instanceof List<?> leftList) {
+            return compareLists(leftList, (List<?>) right);
+        }
+        if (left instanceof ObjectId leftId) {
+            return leftId.compareTo((ObjectId) right);
+        }
+        if (left instanceof Boolean leftBoolean) {
+            return leftBoolean.compareTo((Boolean) right);
+        }
+        if (left instanceof Date leftDate) {
+            return leftDate.compareTo((Date) right);
+        }
+        return left.toString().compareTo(right.toString());
+    }
+
+    private static int rank(Object value) {
+        if (value instanceof MinKey) {
+            return 0;
+        } else if (value == null) {
+            return 1;
+        } else if (value instanceof Number || value instanceof Decimal128) {
+            return 2;
+        } else if (value instanceof String) {
+            return 3;
+        } else if (value instanceof Map) {
+            return 4;
+        } else if (value instanceof List) {
+            return 5;
+        } else if (value instanceof Binary || value instanceof byte[]) {
+            return 6;
+        } else if (value instanceof ObjectId) {
+            return 7;
+        } else if (value instanceof Boolean) {
+            return 8;
+        } else if (value instanceof Date) {
+            return 9;
+        } else if (value instanceof MaxKey) {
+            return 11;
+        }
+        return 10;
+    }
+
+    private static int compareNumbers(Number left, Number right) {
+        if (isIntegral(left) && isIntegral(right)) {
+            return Long.compare(left.longValue(), right.longValue());
+        }
+        if (left instanceof Decimal128 || right instanceof Decimal128 || left instanceof BigDecimal || right instanceof BigDecimal) {
+            return decimal(left).compareTo(decimal(right));
+        }
+        return Double.compare(left.doubleValue(), right.doubleValue());
+    }
+
+    private static boolean isIntegral(Number number) {
+        return number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte;
+    }
+
+    private static BigDecimal decimal(Number number) {
+        if (number instanceof Decimal128 decimal128) {
+            return decimal128.bigDecimalValue();
+        }
+        return number instanceof BigDecimal decimal ? decimal : new BigDecimal(number.toString());
+    }
+
+    private static int compareDocuments(Map<?, ?> left, Map<?, ?> right) {
+        Iterator<? extends Map.Entry<?, ?>> rightEntries = right.entrySet().iterator();
+        for (Map.Entry<?, ?> leftEntry : left.entrySet()) {
+            if (!rightEntries.hasNext()) {
+                return 1;
+            }
+            Map.Entry<?, ?> rightEntry = rightEntries.next();
+            int value = compareValues(leftEntry.getValue(), rightEntry.getValue());
+            if (value != 0) {
+                return value;
+            }
+            int key = leftEntry.getKey().toString().compareTo(rightEntry.getKey().toString());
+            if (key != 0) {
+                return key;
+            }
+        }
+        return rightEntries.hasNext() ? -1 : 0;
+    }
+
+    private static int compareLists(List<?> left, List<?> right) {
+        for (int i = 0; i < Math.min(left.size(), right.size()); i++) {
+            int value = compareValues(left.get(i), right.get(i));
+            if (value != 0) {
+                return value;
+            }
+        }
+        return Integer.compare(left.size(), right.size());
+    }
+}
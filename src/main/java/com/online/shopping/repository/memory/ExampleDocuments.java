@@ -0,0 +1,86 @@
+package com.online.shopping.repository.memory;
+
+import org.bson.Document;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.mongodb.core.query.SerializationUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Query by example on the stored documents, with the semantics of the MongoDB example mapper.
+ * <p>
+ * 1. The probe is written to its document, flattened to its dotted field paths; the type key, a null _id and the
+ * ignored paths are left out. The null properties are not written, so they never restrict the match.
+ * 2. A string field is matched with the string matcher and the case of its property specifier, else of the matcher
+ * (exact, starting, ending, containing or regex); any other field is matched by equality, a list or an embedded
+ * document by its whole value.
+ * 3. All the fields must match, any of them with a matchAny matcher. The property value transformers are not applied.
+ */
+final class ExampleDocuments {
+
+    private ExampleDocuments() {
+    }
+
+    /**
+     * @param store
+     * @param example
+     * @return the predicate matching the documents of the example
+     */
+    static Predicate<Document> predicate(InMemoryStore store, Example<?> example) {
+        ExampleMatcher matcher = example.getMatcher();
+        Class<?> type = example.getProbeType();
+        Map<String, Object> reference = new LinkedHashMap<>(SerializationUtils.flattenMap(store.write(example.getProbe())));
+        reference.remove("_class");
+        if (reference.get("_id") == null) {
+            reference.remove("_id");
+        }
+        for (String path : store.fieldPaths(type, matcher.getIgnoredPaths())) {
+            reference.keySet().removeIf(field -> field.equals(path) || field.startsWith(path + "."));
+        }
+        Map<String, ExampleMatcher.PropertySpecifier> specifiers = new LinkedHashMap<>();
+        for (ExampleMatcher.PropertySpecifier specifier : matcher.getPropertySpecifiers().getSpecifiers()) {
+            store.fieldPaths(type, List.of(specifier.getPath())).forEach(path -> specifiers.put(path, specifier));
+        }
+
+        List<Predicate<Document>> fields = new ArrayList<>(reference.size());
+        reference.forEach((path, expected) -> {
+            if (expected instanceof String string) {
+                Predicate<String> matches = matches(string, matcher, specifiers.get(path));
+                fields.add(document -> Documents.value(document, path) instanceof String actual && matches.test(actual));
+            } else {
+                fields.add(document -> Documents.equal(expected, Documents.value(document, path)));
+            }
+        });
+        return matcher.isAnyMatching()
+                ? document -> fields.stream().anyMatch(field -> field.test(document))
+                : document -> fields.stream().allMatch(field -> field.test(document));
+    }
+
+    private static Predicate<String> matches(String expected, ExampleMatcher matcher,
+                                             ExampleMatcher.PropertySpecifier specifier) {
+        ExampleMatcher.StringMatcher stringMatcher = specifier == null || specifier.getStringMatcher() == null
+                ? matcher.getDefaultStringMatcher() : specifier.getStringMatcher();
+        boolean ignoreCase = specifier == null || specifier.getIgnoreCase() == null
+                ? matcher.isIgnoreCaseEnabled() : specifier.getIgnoreCase();
+        if (stringMatcher == ExampleMatcher.StringMatcher.REGEX) {
+            Pattern pattern = Pattern.compile(expected, ignoreCase ? Pattern.CASE_INSENSITIVE : 0);
+            return actual -> pattern.matcher(actual).find();
+        }
+        String value = ignoreCase ? expected.toLowerCase() : expected;
+        return actual -> {
+            String candidate = ignoreCase ? actual.toLowerCase() : actual;
+            return switch (stringMatcher) {
+                case STARTING -> candidate.startsWith(value);
+                case ENDING -> candidate.endsWith(value);
+                case CONTAINING -> candidate.contains(value);
+                default -> candidate.equals(value);
+            };
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package com.online.shopping.repository.memory;
+
+import com.online.shopping.dto.CategoryResponseDTO;
+import com.online.shopping.entity.Category;
+import com.online.shopping.repository.CategoryRepository;
+import org.bson.Document;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * In-memory {@link CategoryRepository} (profile "inmemory"), the derived queries are answered from the unique index on
+ * the category name.
+ */
+@Repository
+@Profile(InMemoryStore.PROFILE)
+public class InMemoryCategoryRepository extends InMemoryMongoRepository<Category> implements CategoryRepository {
+
+    private final SortedIndex nameIndex;
+
+    /**
+     * Constructor Injection - All Argument Constructor
+     * @param store
+     */
+    public InMemoryCategoryRepository(InMemoryStore store) {
+        super(store, Category.class);
+        this.nameIndex = collection.addUniqueIndex("category_name_unique_index", "name");
+    }
+
+    /**
+     * Like the derived MongoDB query, the whole category collection is scanned with a case-insensitive match and
+     * the result is mapped to the DTO by property name, so its categoryName is not set.
+     */
+    @Override
+    public CategoryResponseDTO findByNameAllIgnoreCase(String category) {
+        List<Document> found = collection.documents().values().stream()
+                .filter(document -> document.get("name") instanceof String name && name.equalsIgnoreCase(category))
+                .limit(2)
+                .toList();
+        return single(found).map(document -> store.read(CategoryResponseDTO.class, document)).orElse(null);
+    }
+
+    @Override
+    public Optional<Category> findByName(String categoryName) {
+        return single(indexed(nameIndex, nameIndex.range(true, categoryName)).limit(2).toList()).map(this::read);
+    }
+
+    private static Optional<Document> single(List<Document> found) {
+        if (found.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException("Query returned non unique result", 1);
+        }
+        return found.stream().findFirst();
+    }
+}
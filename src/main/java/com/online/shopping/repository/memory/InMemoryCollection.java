@@ -0,0 +1,245 @@
+package com.online.shopping.repository.memory;
+
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Documents of one collection, in _id order, with their secondary indexes.
+ * <p>
+ * 1. The documents are stored in their MongoDB form (see {@link InMemoryStore}) and never changed once stored: an
+ * update stores a changed copy, so the readers never lock and never see a half-applied change.
+ * 2. The writes are serialized by a lock and update the indexes, a single document write is atomic like in MongoDB.
+ * 3. A unique index rejects a write giving a document the indexed values of another one with a
+ * {@link DuplicateKeyException}, nothing is stored.
+ * 4. Reads are weakly consistent, a query running during writes sees every document either before or after a write.
+ */
+final class InMemoryCollection {
+
+    private final String name;
+
+    private final NavigableMap<String, Document> documents = new ConcurrentSkipListMap<>();
+
+    private final List<SortedIndex> indexes = new CopyOnWriteArrayList<>();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    InMemoryCollection(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    /**
+     * Method to add a secondary index, built from the stored documents.
+     * @param indexName
+     * @param paths dotted paths of the indexed fields
+     * @return
+     */
+    SortedIndex addIndex(String indexName, String... paths) {
+        return addIndex(new SortedIndex(indexName, paths));
+    }
+
+    /**
+     * Method to add a unique secondary index, built from the stored documents.
+     * @param indexName
+     * @param paths dotted paths of the indexed fields
+     * @return
+     */
+    SortedIndex addUniqueIndex(String indexName, String... paths) {
+        return addIndex(new SortedIndex(indexName, true, paths));
+    }
+
+    private SortedIndex addIndex(SortedIndex index) {
+        writeLock.lock();
+        try {
+            documents.forEach(index::add);
+            indexes.add(index);
+            return index;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @param path dotted path of a field
+     * @return the index whose only field is the path, null when there is none
+     */
+    SortedIndex indexOn(String path) {
+        for (SortedIndex index : indexes) {
+            if (index.paths().length == 1 && index.paths()[0].equals(path)) {
+                return index;
+            }
+        }
+        return null;
+    }
+
+    Document get(String id) {
+        return documents.get(id);
+    }
+
+    /**
+     * @return the documents in _id order, a live view
+     */
+    NavigableMap<String, Document> documents() {
+        return documents;
+    }
+
+    long count() {
+        return documents.size();
+    }
+
+    /**
+     * @param id
+     * @param document
+     * @return false when a document with the same id exists, nothing is stored
+     */
+    boolean insert(String id, Document document) {
+        writeLock.lock();
+        try {
+            if (documents.containsKey(id)) {
+                return false;
+            }
+            checkUnique(id, document);
+            store(id, null, document);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Method to insert or replace a document.
+     * @param id
+     * @param document
+     * @return the replaced document, null when inserted
+     */
+    Document put(String id, Document document) {
+        writeLock.lock();
+        try {
+            Document previous = documents.get(id);
+            checkUnique(id, document);
+            store(id, previous, document);
+            return previous;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Method to change a document atomically.
+     * @param id
+     * @param change returns the changed copy of the current document, or null to leave it unchanged
+     * @return the changed document, null when the document does not exist or is unchanged
+     */
+    Document update(String id, UnaryOperator<Document> change) {
+        writeLock.lock();
+        try {
+            Document current = documents.get(id);
+            if (current == null) {
+                return null;
+            }
+            Document changed = change.apply(current);
+            if (changed == null) {
+                return null;
+            }
+            checkUnique(id, changed);
+            store(id, current, changed);
+            return changed;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @param id
+     * @return the removed document, null when there was none
+     */
+    Document remove(String id) {
+        writeLock.lock();
+        try {
+            Document removed = documents.remove(id);
+            if (removed != null) {
+                indexes.forEach(index -> index.remove(id, removed));
+            }
+            return removed;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    void clear() {
+        writeLock.lock();
+        try {
+            documents.clear();
+            indexes.forEach(SortedIndex::clear);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @return a point-in-time copy of the documents, in _id order
+     */
+    Map<String, Document> snapshot() {
+        writeLock.lock();
+        try {
+            return new LinkedHashMap<>(documents);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Method to replace every document, e.g. with a restored snapshot.
+     * @param restored id -> document
+     */
+    void replaceAll(Map<String, Document> restored) {
+        writeLock.lock();
+        try {
+            clear();
+            restored.forEach((id, document) -> store(id, null, document));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @param ids
+     * @return the documents with the given ids, absent ones are skipped
+     */
+    List<Document> getAll(Collection<String> ids) {
+        return ids.stream().map(documents::get).filter(Objects::nonNull).toList();
+    }
+
+    // caller holds the write lock
+    private void checkUnique(String id, Document document) {
+        for (SortedIndex index : indexes) {
+            if (index.isUnique() && index.duplicateOf(id, document) != null) {
+                throw new DuplicateKeyException("E11000 duplicate key error collection: " + name + " index: "
+                        + index.name() + " dup key: " + Documents.project(document, List.of(index.paths())).toJson());
+            }
+        }
+    }
+
+    // caller holds the write lock: the old index entries are removed before the document is replaced
+    private void store(String id, Document previous, Document document) {
+        if (previous != null) {
+            indexes.forEach(index -> index.remove(id, previous));
+        }
+        documents.put(id, document);
+        indexes.forEach(index -> index.add(id, document));
+    }
+}
@@ -0,0 +1,375 @@
+package com.online.shopping.repository.memory;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link MongoRepository} of the in-memory backend (profile "inmemory"), storing the entities in a collection of the
+ * {@link InMemoryStore}.
+ * <p>
+ * 1. Like MongoDB, save inserts or replaces the document and generates an ObjectId when the id is not set, insert
+ * fails with a {@link DuplicateKeyException} when the id exists, an unsorted read returns the documents in _id order.
+ * 2. Every read maps a new entity from the stored document, callers never share an instance with the store.
+ * 3. A query by example matches the fields of the document the probe is written to, see {@link ExampleDocuments}.
+ * @param <T> entity
+ */
+public abstract class InMemoryMongoRepository<T> implements MongoRepository<T, String> {
+
+    protected final InMemoryStore store;
+
+    protected final InMemoryCollection collection;
+
+    protected final Class<T> type;
+
+    protected InMemoryMongoRepository(InMemoryStore store, Class<T> type) {
+        this.store = store;
+        this.type = type;
+        this.collection = store.collection(type);
+    }
+
+    @Override
+    public <S extends T> S save(S entity) {
+        String id = idOf(entity);
+        collection.put(id, toDocument(entity));
+        return entity;
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    @Override
+    public <S extends T> S insert(S entity) {
+        String id = idOf(entity);
+        if (!collection.insert(id, toDocument(entity))) {
+            throw new DuplicateKeyException(duplicateKeyMessage(id));
+        }
+        return entity;
+    }
+
+    /**
+     * Ordered insert, like MongoDB the entities before a duplicate id are inserted and the following ones are not.
+     */
+    @Override
+    public <S extends T> List<S> insert(Iterable<S> entities) {
+        List<S> inserted = new ArrayList<>();
+        entities.forEach(entity -> inserted.add(insert(entity)));
+        return inserted;
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        return Optional.ofNullable(collection.get(id)).map(this::read);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return collection.get(id) != null;
+    }
+
+    @Override
+    public List<T> findAll() {
+        return collection.documents().values().stream().map(this::read).toList();
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<String> ids) {
+        List<String> keys = new ArrayList<>();
+        ids.forEach(keys::add);
+        return collection.getAll(keys.stream().distinct().sorted().toList()).stream().map(this::read).toList();
+    }
+
+    @Override
+    public long count() {
+        return collection.count();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        collection.remove(id);
+    }
+
+    @Override
+    public void delete(T entity) {
+        String id = store.id(entity);
+        if (id != null) {
+            collection.remove(id);
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(collection::remove);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        collection.clear();
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        return sorted(sort).map(this::read).toList();
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        Stream<Document> documents = sorted(pageable.getSort());
+        if (pageable.isPaged()) {
+            documents = documents.skip(pageable.getOffset()).limit(pageable.getPageSize());
+        }
+        return new PageImpl<>(documents.map(this::read).toList(), pageable, collection.count());
+    }
+
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        return matching(example, Sort.unsorted()).findFirst().map(document -> store.read(example.getProbeType(), document));
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example) {
+        return findAll(example, Sort.unsorted());
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        return matching(example, sort).map(document -> store.read(example.getProbeType(), document)).toList();
+    }
+
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return findBy(example, query -> query.page(pageable));
+    }
+
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        return matching(example, Sort.unsorted()).count();
+    }
+
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        return matching(example, Sort.unsorted()).findAny().isPresent();
+    }
+
+    @Override
+    public <S extends T, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        return queryFunction.apply(new ExampleQuery<>(example, Sort.unsorted(), 0, example.getProbeType(), null));
+    }
+
+    /**
+     * @param entity
+     * @return the document stored for the entity
+     */
+    protected Document toDocument(T entity) {
+        return store.write(entity);
+    }
+
+    protected T read(Document document) {
+        return store.read(type, document);
+    }
+
+    /**
+     * The properties are mapped to their field paths once, when the reader is created, not for every document read.
+     * @param fields entity properties to read, null for the whole document
+     * @return the reader of the entities with only the given properties
+     */
+    protected Function<Document, T> reader(Collection<String> fields) {
+        List<String> paths = store.fieldPaths(type, fields);
+        return paths == null ? this::read : document -> read(Documents.project(document, paths));
+    }
+
+    /**
+     * @param sort
+     * @return the documents in sort order then in _id order, read in index order when an index matches the sort
+     */
+    protected Stream<Document> sorted(Sort sort) {
+        if (sort.isUnsorted()) {
+            return collection.documents().values().stream();
+        }
+        Map<String, Integer> paths = store.sortPaths(type, sort);
+        if (paths.size() == 1) {
+            Map.Entry<String, Integer> path = paths.entrySet().iterator().next();
+            boolean ascending = path.getValue() > 0;
+            if ("_id".equals(path.getKey())) {
+                return (ascending ? collection.documents() : collection.documents().descendingMap()).values().stream();
+            }
+            SortedIndex index = collection.indexOn(path.getKey());
+            if (index != null) {
+                return indexed(index, index.range(ascending));
+            }
+        }
+        Comparator<Document> order = null;
+        for (Map.Entry<String, Integer> path : paths.entrySet()) {
+            Comparator<Document> field = Comparator.comparing(document -> Documents.value(document, path.getKey()),
+                    Documents.BSON_ORDER);
+            field = path.getValue() > 0 ? field : field.reversed();
+            order = order == null ? field : order.thenComparing(field);
+        }
+        Comparator<Document> byId = Comparator.comparing(document -> document.get("_id").toString());
+        return collection.documents().values().stream().sorted(order == null ? byId : order.thenComparing(byId));
+    }
+
+    /**
+     * @param index
+     * @param entries range of the index
+     * @return the current documents of the entries, skipping the entries changed since they were read
+     */
+    protected Stream<Document> indexed(SortedIndex index, Iterable<SortedIndex.Entry> entries) {
+        return StreamSupport.stream(entries.spliterator(), false)
+                .map(entry -> {
+                    Document document = collection.get(entry.id());
+                    return index.matches(entry, document) ? document : null;
+                })
+                .filter(document -> document != null);
+    }
+
+    /**
+     * @param entity
+     * @return the id of the entity, a new ObjectId set on the entity when it has none
+     */
+    private String idOf(T entity) {
+        String id = store.id(entity);
+        if (id == null) {
+            id = new ObjectId().toHexString();
+            store.setId(entity, id);
+        }
+        return id;
+    }
+
+    private String duplicateKeyMessage(String id) {
+        return "E11000 duplicate key error collection: " + collection.name() + " index: _id_ dup key: { _id: \"" + id + "\" }";
+    }
+
+    /**
+     * @param example
+     * @param sort
+     * @return the stored documents matching the example, in sort order
+     */
+    private Stream<Document> matching(Example<?> example, Sort sort) {
+        return sorted(sort).filter(ExampleDocuments.predicate(store, example));
+    }
+
+    /**
+     * Fluent query by example, the documents are matched, sorted, limited and mapped to the result type when fetched.
+     * @param <S> probe type
+     * @param <R> result type
+     */
+    private class ExampleQuery<S extends T, R> implements FluentQuery.FetchableFluentQuery<R> {
+
+        private final Example<S> example;
+
+        private final Sort sort;
+
+        private final int limit;
+
+        private final Class<R> resultType;
+
+        private final Collection<String> fields;
+
+        private final List<String> paths;
+
+        ExampleQuery(Example<S> example, Sort sort, int limit, Class<R> resultType, Collection<String> fields) {
+            this.example = example;
+            this.sort = sort;
+            this.limit = limit;
+            this.resultType = resultType;
+            this.fields = fields;
+            this.paths = store.fieldPaths(example.getProbeType(), fields);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> sortBy(Sort sort) {
+            return new ExampleQuery<>(example, this.sort.and(sort), limit, resultType, fields);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> limit(int limit) {
+            return new ExampleQuery<>(example, sort, limit, resultType, fields);
+        }
+
+        @Override
+        public <N> FluentQuery.FetchableFluentQuery<N> as(Class<N> resultType) {
+            return new ExampleQuery<>(example, sort, limit, resultType, fields);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> project(Collection<String> properties) {
+            return new ExampleQuery<>(example, sort, limit, resultType, List.copyOf(properties));
+        }
+
+        @Override
+        public R oneValue() {
+            List<R> found = stream().limit(2).toList();
+            if (found.size() > 1) {
+                throw new IncorrectResultSizeDataAccessException(1);
+            }
+            return found.isEmpty() ? null : found.get(0);
+        }
+
+        @Override
+        public R firstValue() {
+            return stream().findFirst().orElse(null);
+        }
+
+        @Override
+        public List<R> all() {
+            return stream().toList();
+        }
+
+        @Override
+        public Page<R> page(Pageable pageable) {
+            Stream<Document> documents = matching(example, sort.and(pageable.getSort()));
+            if (pageable.isPaged()) {
+                documents = documents.skip(pageable.getOffset()).limit(pageable.getPageSize());
+            }
+            return new PageImpl<>(documents.map(this::read).toList(), pageable, count());
+        }
+
+        @Override
+        public Stream<R> stream() {
+            Stream<Document> documents = matching(example, sort);
+            return (limit > 0 ? documents.limit(limit) : documents).map(this::read);
+        }
+
+        @Override
+        public long count() {
+            return matching(example, Sort.unsorted()).count();
+        }
+
+        @Override
+        public boolean exists() {
+            return matching(example, Sort.unsorted()).findAny().isPresent();
+        }
+
+        private R read(Document document) {
+            return store.read(resultType, paths == null ? document : Documents.project(document, paths));
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.online.shopping.repository.memory;
+
+import com.online.shopping.entity.Category;
+import com.online.shopping.entity.Price;
+import com.online.shopping.entity.Product;
+import com.online.shopping.entity.ProjectedProduct;
+import com.online.shopping.repository.ProductRepository;
+import org.bson.Document;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static com.online.shopping.repository.ProductLastModifiedCallback.LAST_MODIFIED;
+import static com.online.shopping.util.OnlineShoppingAppConstants.SORT_BY_INVENTORY;
+import static com.online.shopping.util.OnlineShoppingAppConstants.SORT_BY_PRICE;
+import static com.online.shopping.util.OnlineShoppingAppConstants.SORT_ORDER_DESC;
+
+/**
+ * In-memory {@link ProductRepository} (profile "inmemory"), answering the same queries as
+ * {@link com.online.shopping.repository.ProductRepositoryCustomImpl} on the documents of the {@link InMemoryStore}.
+ * <p>
+ * 1. The secondary indexes mirror the MongoDB ones declared on {@link Product}, under the same names: the category key
+ * with the _id (category queries in _id order), the category key with the price or the available inventory (sorted
+ * category pages), the price, the name and the brand (keyset pages). Every entry ends with the _id, so an index range
+ * is read forward or backward like a MongoDB index scan. A category page reads its index range in sort order and stops
+ * at offset + limit sellable products.
+ * 2. The categories are matched on the normalized category key, the equivalent of the case-insensitive collation.
+ * 3. The inventory operations check their guard and apply their $inc atomically under the collection write lock.
+ */
+@Repository
+@Profile(InMemoryStore.PROFILE)
+public class InMemoryProductRepository extends InMemoryMongoRepository<Product> implements ProductRepository {
+
+    private static final String CATEGORY_KEY = "category.key";
+    private static final String PRICE = "price.amount";
+    private static final String CURRENCY = "price.currency";
+    private static final String AVAILABLE = "inventory.available";
+    private static final String RESERVED = "inventory.reserved";
+    private static final String TOTAL = "inventory.total";
+
+    private final SortedIndex categoryIndex;
+
+    private final SortedIndex categoryPriceIndex;
+
+    private final SortedIndex categoryInventoryIndex;
+
+    private final SortedIndex lastModifiedIndex;
+
+    /**
+     * Constructor Injection - All Argument Constructor
+     * @param store
+     */
+    public InMemoryProductRepository(InMemoryStore store) {
+        super(store, Product.class);
+        this.categoryIndex = collection.addIndex("category_key_id_index", CATEGORY_KEY);
+        this.categoryPriceIndex = collection.addIndex("category_key_price_index", CATEGORY_KEY, PRICE);
+        this.categoryInventoryIndex = collection.addIndex("category_key_inventory_index", CATEGORY_KEY, AVAILABLE);
+        collection.addIndex("price_id_index", PRICE);
+        collection.addIndex("name_id_index", "product_name");
+        collection.addIndex("brand_id_index", "brand");
+        this.lastModifiedIndex = collection.addIndex("last_modified_index", LAST_MODIFIED);
+    }
+
+    /**
+     * A projected read is mapped to a {@link ProjectedProduct}, like the MongoDB repository does.
+     * @param fields Product properties to read, null for the whole document
+     * @return
+     */
+    @Override
+    protected Function<Document, Product> reader(Collection<String> fields) {
+        if (fields == null) {
+            return this::read;
+        }
+        List<String> paths = store.fieldPaths(Product.class, fields);
+        return document -> store.read(ProjectedProduct.class, Documents.project(document, paths));
+    }
+
+    @Override
+    public Slice<Product> findAllBy(Pageable pageable) {
+        Stream<Document> documents = sorted(pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(documents.map(this::read).toList(), pageable, false);
+        }
+        List<Product> products = new ArrayList<>(documents.skip(pageable.getOffset()).limit(pageable.getPageSize() + 1L)
+                .map(this::read).toList());
+        boolean hasNext = products.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? products.subList(0, pageable.getPageSize()) : products, pageable, hasNext);
+    }
+
+    @Override
+    public List<Product> findSellableByCategory(String categoryName, String sortBy, String sortOrder, long offset, int limit,
+                                                Collection<String> fields) {
+        return findSellableByCategory(categoryName, Map.of(), sortBy, sortOrder, offset, limit, fields);
+    }
+
+    @Override
+    public List<Product> findSellableByCategory(String categoryName, Map<String, List<String>> attributeFilters, String sortBy,
+                                                String sortOrder, long offset, int limit, Collection<String> fields) {
+        boolean ascending = !SORT_ORDER_DESC.equalsIgnoreCase(sortOrder);
+        SortedIndex index;
+        if (SORT_BY_PRICE.equalsIgnoreCase(sortBy)) {
+            index = categoryPriceIndex;
+        } else if (SORT_BY_INVENTORY.equalsIgnoreCase(sortBy)) {
+            index = categoryInventoryIndex;
+        } else {
+            index = categoryIndex;
+            ascending = true;
+        }
+        return indexed(index, index.range(ascending, Category.keyOf(categoryName)))
+                .filter(InMemoryProductRepository::isSellable)
+                .filter(document -> hasAttributes(document, attributeFilters))
+                .skip(offset)
+                .limit(limit)
+                .map(reader(fields))
+                .toList();
+    }
+
+    @Override
+    public List<Product> findByCategory(String categoryName, Collection<String> fields) {
+        return byCategory(categoryName).map(reader(fields)).toList();
+    }
+
+    @Override
+    public List<Product> findPage(Pageable pageable, Collection<String> fields) {
+        return page(pageable).map(reader(fields)).toList();
+    }
+
+    @Override
+    public boolean existsByCategory(String categoryName) {
+        return byCategory(categoryName).findAny().isPresent();
+    }
+
+    @Override
+    public List<Product> findPageAfter(String sortField, Sort.Direction direction, Object lastValue, String lastId, int limit,
+                                       Collection<String> fields) {
+        boolean ascending = direction.isAscending();
+        String path = store.sortPaths(Product.class, Sort.by(sortField)).keySet().iterator().next();
+        Stream<Document> documents;
+        if ("_id".equals(path)) {
+            var byId = ascending ? collection.documents() : collection.documents().descendingMap();
+            documents = (lastId == null ? byId : byId.tailMap(lastId, false)).values().stream();
+        } else if (collection.indexOn(path) != null) {
+            SortedIndex index = collection.indexOn(path);
+            documents = indexed(index, lastId == null
+                    ? index.range(ascending)
+                    : index.after(new Object[0], new Object[]{lastValue}, lastId, ascending));
+        } else {
+            documents = sortedAfter(path, ascending, lastValue, lastId);
+        }
+        return documents.limit(limit).map(reader(fields)).toList();
+    }
+
+    @Override
+    public Map<Integer, String> insertAll(List<Product> products) {
+        Map<Integer, String> errors = new HashMap<>();
+        for (int i = 0; i < products.size(); i++) {
+            try {
+                insert(products.get(i));
+            } catch (DuplicateKeyException e) {
+                errors.put(i, e.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    @Override
+    public Stream<Product> streamAll(int batchSize) {
+        return streamAll(batchSize, null);
+    }
+
+    @Override
+    public Stream<Product> streamAll(int batchSize, Collection<String> fields) {
+        return collection.documents().values().stream().map(reader(fields));
+    }
+
+    @Override
+    public List<Product> findByIds(List<String> ids, Collection<String> fields) {
+        return collection.getAll(ids).stream().map(reader(fields)).toList();
+    }
+
+    @Override
+    public List<Product> findSellableByIds(List<String> ids, Collection<String> fields) {
+        return collection.getAll(ids).stream()
+                .filter(InMemoryProductRepository::isSellable)
+                .map(reader(fields))
+                .toList();
+    }
+
+    @Override
+    public Product modifyInventory(String productId, InventoryOperation operation, int quantity) {
+        Document changed = collection.update(productId, document -> {
+            Object available = Documents.value(document, AVAILABLE);
+            Object reserved = Documents.value(document, RESERVED);
+            boolean allowed = switch (operation) {
+                case RESERVE -> available instanceof Number availableUnits && reserved instanceof Number reservedUnits
+                        && availableUnits.longValue() - reservedUnits.longValue() >= quantity;
+                case RELEASE, COMMIT -> reserved instanceof Number reservedUnits && reservedUnits.longValue() >= quantity;
+            };
+            return allowed ? applyInventory(document, operation, quantity) : null;
+        });
+        return changed == null ? null : read(changed);
+    }
+
+    @Override
+    public void revertInventory(String productId, InventoryOperation operation, int quantity) {
+        collection.update(productId, document -> applyInventory(document, operation, -quantity));
+    }
+
+    @Override
+    public Stream<Product> streamByFilter(String categoryName, Map<String, List<String>> attributeFilters, int batchSize,
+                                          Collection<String> fields) {
+        Stream<Document> documents = categoryName == null ? collection.documents().values().stream() : byCategory(categoryName);
+        return documents.filter(document -> hasAttributes(document, attributeFilters)).map(reader(fields));
+    }
+
+    @Override
+    public long updatePrices(List<Product> products, List<Price> prices) {
+        long modified = 0;
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            Price current = product.getPrice() == null ? new Price() : product.getPrice();
+            Price price = prices.get(i);
+            Document changed = collection.update(product.getId(), document -> {
+                if (!Documents.equal(Documents.value(document, PRICE), current.getAmount())
+                        || !Documents.equal(Documents.value(document, CURRENCY), current.getCurrency())) {
+                    return null;
+                }
+                if (Documents.equal(current.getAmount(), price.getAmount())
+                        && Documents.equal(current.getCurrency(), price.getCurrency())) {
+                    // matched but not modified, like a MongoDB $set of the same values
+                    return null;
+                }
+                return touched(Documents.with(Documents.with(document, PRICE, price.getAmount()), CURRENCY, price.getCurrency()));
+            });
+            if (changed != null) {
+                modified++;
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public Stream<Product> streamByCategory(String categoryName, int batchSize, Collection<String> fields) {
+        return byCategory(categoryName).map(reader(fields));
+    }
+
+    @Override
+    public Stream<Product> streamPage(Pageable pageable, int batchSize, Collection<String> fields) {
+        return page(pageable).map(reader(fields));
+    }
+
+    @Override
+    public InventoryIncrement incrementInventory(Map<String, Integer> deltas) {
+        Set<String> failed = new HashSet<>();
+        Set<String> rejected = new HashSet<>();
+        deltas.forEach((id, delta) -> {
+            try {
+                collection.update(id, document -> {
+                    Object available = Documents.value(document, AVAILABLE);
+                    Object reserved = Documents.value(document, RESERVED);
+                    if (delta < 0 && !(available instanceof Number availableUnits && reserved instanceof Number reservedUnits
+                            && availableUnits.longValue() + delta >= reservedUnits.longValue())) {
+                        rejected.add(id);
+                        return null;
+                    }
+                    return touched(Documents.with(
+                            Documents.with(document, TOTAL, Documents.increment(Documents.value(document, TOTAL), delta)),
+                            AVAILABLE, Documents.increment(available, delta)));
+                });
+            } catch (IllegalArgumentException e) {
+                failed.add(id);
+            }
+        });
+        return new InventoryIncrement(failed, rejected);
+    }
+
+    @Override
+    public Stream<Product> streamModifiedSince(Instant since, int batchSize, Collection<String> fields) {
+        return indexed(lastModifiedIndex, lastModifiedIndex.after(new Object[0], new Object[]{Date.from(since)}, null, true))
+                .map(reader(fields));
+    }
+
+    // like ProductLastModifiedCallback, every stored product carries the time of its last write
+    @Override
+    protected Document toDocument(Product product) {
+        return touched(super.toDocument(product));
+    }
+
+    // the products of the category in _id order
+    private Stream<Document> byCategory(String categoryName) {
+        return indexed(categoryIndex, categoryIndex.range(true, Category.keyOf(categoryName)));
+    }
+
+    private Stream<Document> page(Pageable pageable) {
+        Stream<Document> documents = sorted(pageable.getSort());
+        return pageable.isPaged() ? documents.skip(pageable.getOffset()).limit(pageable.getPageSize()) : documents;
+    }
+
+    // the documents strictly after (lastValue, lastId) in (path, _id) order, without an index on the path
+    private Stream<Document> sortedAfter(String path, boolean ascending, Object lastValue, String lastId) {
+        return collection.documents().values().stream()
+                .sorted((left, right) -> {
+                    int value = Documents.compareValues(Documents.value(left, path), Documents.value(right, path));
+                    int order = value != 0 ? value : left.get("_id").toString().compareTo(right.get("_id").toString());
+                    return ascending ? order : -order;
+                })
+                .filter(document -> {
+                    if (lastId == null) {
+                        return true;
+                    }
+                    int value = Documents.compareValues(Documents.value(document, path), lastValue);
+                    int order = value != 0 ? value : document.get("_id").toString().compareTo(lastId);
+                    return ascending ? order > 0 : order < 0;
+                });
+    }
+
+    private static Document applyInventory(Document document, InventoryOperation operation, int quantity) {
+        Document changed = Documents.with(document, RESERVED,
+                Documents.increment(Documents.value(document, RESERVED), operation == InventoryOperation.RESERVE ? quantity : -quantity));
+        if (operation == InventoryOperation.COMMIT) {
+            changed = Documents.with(changed, AVAILABLE, Documents.increment(Documents.value(changed, AVAILABLE), -quantity));
+            changed = Documents.with(changed, TOTAL, Documents.increment(Documents.value(changed, TOTAL), -quantity));
+        }
+        return touched(changed);
+    }
+
+    private static Document touched(Document document) {
+        return Documents.with(document, LAST_MODIFIED, new Date());
+    }
+
+    // available > reserved
+    private static boolean isSellable(Document document) {
+        return Documents.compareValues(Documents.value(document, AVAILABLE), Documents.value(document, RESERVED)) > 0;
+    }
+
+    // for every filtered attribute, an element with its name and one of the accepted values
+    private static boolean hasAttributes(Document document, Map<String, List<String>> attributeFilters) {
+        if (attributeFilters.isEmpty()) {
+            return true;
+        }
+        if (!(document.get("attributes") instanceof List<?> attributes)) {
+            return false;
+        }
+        return attributeFilters.entrySet().stream().allMatch(filter -> attributes.stream()
+                .anyMatch(attribute -> attribute instanceof Document element
+                        && filter.getKey().equals(element.get("name"))
+                        && filter.getValue().contains(element.get("value"))));
+    }
+}
@@ -0,0 +1,267 @@
+package com.online.shopping.repository.memory;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Storage of the in-memory repositories (profile "inmemory"): the MongoDB collections held in the heap.
+ * <p>
+ * 1. The entities are stored as the documents MongoDB would store, written and read by a {@link MappingMongoConverter}
+ * with the mapping of the entities (field names, ids, derived properties such as the category key). Property names of
+ * the sorts and projections are mapped to field names the same way as for the MongoDB queries.
+ * 2. The collections are written to a snapshot file (BSON documents) every snapshot interval and at shutdown, and
+ * restored from it at startup: a node restarts with its data without any MongoDB.
+ * 3. Snapshot file : magic, format version, time taken, collection count, then per collection its name, its document
+ * count and its documents (each BSON document starts with its length).
+ */
+@Component
+@Profile(InMemoryStore.PROFILE)
+@Slf4j
+public class InMemoryStore {
+
+    public static final String PROFILE = "inmemory";
+
+    private static final int SNAPSHOT_MAGIC = 0x4F534D53;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final MongoMappingContext mappingContext;
+
+    private final MappingMongoConverter converter;
+
+    private final QueryMapper queryMapper;
+
+    private final Map<String, InMemoryCollection> collections = new ConcurrentHashMap<>();
+
+    private final Path snapshotPath;
+
+    private volatile long lastSnapshotMillis;
+
+    /**
+     * Constructor Injection - All Argument Constructor
+     * @param snapshotPath snapshot file, restored at startup when it exists, none when blank
+     */
+    public InMemoryStore(@Value("${app.storage.memory.snapshot.path:data/memory-store.snapshot}") Path snapshotPath) {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        this.mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        this.converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        this.queryMapper = new QueryMapper(converter);
+        this.snapshotPath = snapshotPath == null || snapshotPath.toString().isBlank() ? null : snapshotPath;
+        if (this.snapshotPath != null && Files.exists(this.snapshotPath)) {
+            try {
+                restore(this.snapshotPath);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to restore the in-memory store from " + this.snapshotPath, e);
+            }
+        }
+    }
+
+    /**
+     * @param type entity class
+     * @return the collection of the entity, created empty the first time
+     */
+    InMemoryCollection collection(Class<?> type) {
+        return collections.computeIfAbsent(entity(type).getCollection(), InMemoryCollection::new);
+    }
+
+    /**
+     * @return collection name -> number of documents
+     */
+    public Map<String, Long> counts() {
+        Map<String, Long> counts = new TreeMap<>();
+        collections.forEach((name, collection) -> counts.put(name, collection.count()));
+        return counts;
+    }
+
+    public long lastSnapshotMillis() {
+        return lastSnapshotMillis;
+    }
+
+    Document write(Object entity) {
+        Document document = new Document();
+        converter.write(entity, document);
+        return document;
+    }
+
+    <T> T read(Class<T> type, Document document) {
+        return converter.read(type, document);
+    }
+
+    /**
+     * @param entity
+     * @return the id of the entity, null when not set yet
+     */
+    String id(Object entity) {
+        Object id = entity(entity.getClass()).getIdentifierAccessor(entity).getIdentifier();
+        return id == null ? null : id.toString();
+    }
+
+    void setId(Object entity, String id) {
+        MongoPersistentEntity<?> persistentEntity = entity(entity.getClass());
+        PersistentPropertyAccessor<Object> accessor = persistentEntity.getPropertyAccessor(entity);
+        accessor.setProperty(persistentEntity.getRequiredIdProperty(), id);
+    }
+
+    /**
+     * @param type entity class
+     * @param properties property names, possibly dotted
+     * @return the document field paths of the properties, null for null properties (the whole document)
+     */
+    List<String> fieldPaths(Class<?> type, Collection<String> properties) {
+        if (properties == null) {
+            return null;
+        }
+        Document fields = new Document();
+        properties.forEach(property -> fields.put(property, 1));
+        return new ArrayList<>(queryMapper.getMappedFields(fields, entity(type)).keySet());
+    }
+
+    /**
+     * @param type entity class
+     * @param sort
+     * @return field path -> 1 (ascending) or -1 (descending), in sort order
+     */
+    Map<String, Integer> sortPaths(Class<?> type, Sort sort) {
+        Document sortDocument = new Document();
+        sort.forEach(order -> sortDocument.put(order.getProperty(), order.isAscending() ? 1 : -1));
+        Map<String, Integer> paths = new LinkedHashMap<>();
+        queryMapper.getMappedSort(sortDocument, entity(type))
+                .forEach((path, direction) -> paths.put(path, ((Number) direction).intValue()));
+        return paths;
+    }
+
+    @Scheduled(fixedDelayString = "${app.storage.memory.snapshot.interval:PT5M}",
+            initialDelayString = "${app.storage.memory.snapshot.interval:PT5M}")
+    public void scheduledSnapshot() {
+        snapshotQuietly();
+    }
+
+    @PreDestroy
+    public void close() {
+        snapshotQuietly();
+    }
+
+    /**
+     * Method to write every collection to the snapshot file, replaced atomically once complete.
+     * @return the number of documents written
+     * @throws IOException
+     */
+    public long snapshot() throws IOException {
+        if (snapshotPath == null) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        Map<String, Map<String, Document>> copies = new TreeMap<>();
+        collections.forEach((name, collection) -> copies.put(name, collection.snapshot()));
+        if (snapshotPath.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(snapshotPath.toAbsolutePath().getParent());
+        }
+        Path temporary = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        long written = 0;
+        DocumentCodec codec = new DocumentCodec();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(copies.size());
+            for (Map.Entry<String, Map<String, Document>> collection : copies.entrySet()) {
+                out.writeUTF(collection.getKey());
+                out.writeInt(collection.getValue().size());
+                for (Document document : collection.getValue().values()) {
+                    ByteBuffer bson = new RawBsonDocument(document, codec).getByteBuffer().asNIO();
+                    out.write(bson.array(), bson.arrayOffset() + bson.position(), bson.remaining());
+                    written++;
+                }
+            }
+        }
+        Files.move(temporary, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        lastSnapshotMillis = System.currentTimeMillis();
+        log.info("Wrote " + written + " documents to the in-memory store snapshot " + snapshotPath + " in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return written;
+    }
+
+    /**
+     * Method to replace the collections with the ones of a snapshot file.
+     * @param path
+     * @throws IOException
+     */
+    void restore(Path path) throws IOException {
+        long start = System.nanoTime();
+        long restored = 0;
+        DocumentCodec codec = new DocumentCodec();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException(path + " is not an in-memory store snapshot of version " + SNAPSHOT_VERSION);
+            }
+            lastSnapshotMillis = in.readLong();
+            int collectionCount = in.readInt();
+            for (int i = 0; i < collectionCount; i++) {
+                String name = in.readUTF();
+                int count = in.readInt();
+                Map<String, Document> documents = new LinkedHashMap<>(count * 2);
+                for (int j = 0; j < count; j++) {
+                    byte[] length = in.readNBytes(4);
+                    byte[] bson = new byte[ByteBuffer.wrap(length).order(ByteOrder.LITTLE_ENDIAN).getInt()];
+                    System.arraycopy(length, 0, bson, 0, 4);
+                    in.readFully(bson, 4, bson.length - 4);
+                    Document document = new RawBsonDocument(bson).decode(codec);
+                    documents.put(document.get("_id").toString(), document);
+                }
+                collections.computeIfAbsent(name, InMemoryCollection::new).replaceAll(documents);
+                restored += count;
+            }
+        }
+        log.info("Restored " + restored + " documents from the in-memory store snapshot " + path + " in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.error("Unable to write the in-memory store snapshot " + snapshotPath, e);
+        }
+    }
+
+    private MongoPersistentEntity<?> entity(Class<?> type) {
+        return mappingContext.getRequiredPersistentEntity(type);
+    }
+}
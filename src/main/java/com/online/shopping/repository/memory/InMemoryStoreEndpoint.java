@@ -0,0 +1,41 @@
+package com.online.shopping.repository.memory;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint /actuator/memorystore reporting the number of documents of every collection of the
+ * {@link InMemoryStore} and the time of its last snapshot; a POST writes a snapshot now.
+ */
+@Component
+@Profile(InMemoryStore.PROFILE)
+@Endpoint(id = "memorystore")
+public class InMemoryStoreEndpoint {
+
+    private final InMemoryStore store;
+
+    public InMemoryStoreEndpoint(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @ReadOperation
+    public Map<String, Object> store() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("collections", store.counts());
+        report.put("lastSnapshot", store.lastSnapshotMillis() == 0 ? null : Instant.ofEpochMilli(store.lastSnapshotMillis()));
+        return report;
+    }
+
+    @WriteOperation
+    public Map<String, Object> snapshot() throws IOException {
+        return Map.of("documents", store.snapshot());
+    }
+}
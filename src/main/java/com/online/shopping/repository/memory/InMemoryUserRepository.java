@@ -0,0 +1,22 @@
+package com.online.shopping.repository.memory;
+
+import com.online.shopping.entity.UserInfo;
+import com.online.shopping.repository.UserRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+/**
+ * In-memory {@link UserRepository} (profile "inmemory").
+ */
+@Repository
+@Profile(InMemoryStore.PROFILE)
+public class InMemoryUserRepository extends InMemoryMongoRepository<UserInfo> implements UserRepository {
+
+    /**
+     * Constructor Injection - All Argument Constructor
+     * @param store
+     */
+    public InMemoryUserRepository(InMemoryStore store) {
+        super(store, UserInfo.class);
+    }
+}
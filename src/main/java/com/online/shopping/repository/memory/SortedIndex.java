@@ -0,0 +1,138 @@
+package com.online.shopping.repository.memory;
+
+import org.bson.Document;
+import org.bson.types.MaxKey;
+import org.bson.types.MinKey;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Secondary index of an {@link InMemoryCollection}: the values of some document fields then the id, in the BSON
+ * order, like a MongoDB compound index {field1: 1, field2: 1, _id: 1}. It is read without locking while the
+ * collection is changed, so a reader checks with {@link #matches} that the document still has the indexed values.
+ */
+final class SortedIndex {
+
+    /**
+     * @param key values of the indexed fields
+     * @param id
+     */
+    record Entry(Object[] key, String id) {
+    }
+
+    private static final Comparator<Entry> ORDER = (left, right) -> {
+        for (int i = 0; i < left.key.length; i++) {
+            int value = Documents.compareValues(left.key[i], right.key[i]);
+            if (value != 0) {
+                return value;
+            }
+        }
+        if (left.id == null || right.id == null) {
+            return left.id == null ? (right.id == null ? 0 : -1) : 1;
+        }
+        return left.id.compareTo(right.id);
+    };
+
+    private final String name;
+
+    private final String[] paths;
+
+    private final boolean unique;
+
+    private final NavigableSet<Entry> entries = new ConcurrentSkipListSet<>(ORDER);
+
+    SortedIndex(String name, String... paths) {
+        this(name, false, paths);
+    }
+
+    SortedIndex(String name, boolean unique, String... paths) {
+        this.name = name;
+        this.unique = unique;
+        this.paths = paths;
+    }
+
+    String name() {
+        return name;
+    }
+
+    String[] paths() {
+        return paths;
+    }
+
+    boolean isUnique() {
+        return unique;
+    }
+
+    /**
+     * @param id
+     * @param document
+     * @return the id of another document with the same indexed values (a missing field being null, like in
+     * MongoDB), null when there is none
+     */
+    String duplicateOf(String id, Document document) {
+        return range(true, key(document)).stream()
+                .map(Entry::id)
+                .filter(other -> !other.equals(id))
+                .findFirst()
+                .orElse(null);
+    }
+
+    void add(String id, Document document) {
+        entries.add(new Entry(key(document), id));
+    }
+
+    void remove(String id, Document document) {
+        entries.remove(new Entry(key(document), id));
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @param prefix values of the leading indexed fields
+     * @param ascending
+     * @return the entries starting with the prefix, in index order or in reverse order
+     */
+    NavigableSet<Entry> range(boolean ascending, Object... prefix) {
+        NavigableSet<Entry> range = entries.subSet(bound(prefix, new MinKey()), true, bound(prefix, new MaxKey()), true);
+        return ascending ? range : range.descendingSet();
+    }
+
+    /**
+     * @param prefix values of the leading indexed fields
+     * @param last values of all the indexed fields of the last entry read
+     * @param lastId id of the last entry read
+     * @param ascending
+     * @return the entries starting with the prefix strictly after the last one, in the read direction
+     */
+    NavigableSet<Entry> after(Object[] prefix, Object[] last, String lastId, boolean ascending) {
+        return range(ascending, prefix).tailSet(new Entry(last, lastId), false);
+    }
+
+    /**
+     * @param entry
+     * @param document current version of the indexed document, null when deleted
+     * @return whether the document still has the values of the entry
+     */
+    boolean matches(Entry entry, Document document) {
+        return document != null && ORDER.compare(entry, new Entry(key(document), entry.id)) == 0;
+    }
+
+    private Object[] key(Document document) {
+        Object[] key = new Object[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            key[i] = Documents.value(document, paths[i]);
+        }
+        return key;
+    }
+
+    private Entry bound(Object[] prefix, Object fill) {
+        Object[] key = Arrays.copyOf(prefix, paths.length);
+        Arrays.fill(key, prefix.length, paths.length, fill);
+        return new Entry(key, fill instanceof MinKey ? null : "\uffff");
+    }
+}
@@ -0,0 +1,384 @@
+package com.online.shopping.search;
+
+import com.online.shopping.entity.Attributes;
+import com.online.shopping.entity.Product;
+import com.online.shopping.event.ProductChangedEvent;
+import com.online.shopping.event.ProductsChangedEvent;
+import com.online.shopping.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-process inverted index over the product name, brand, description and attribute values, so the product search
+ * never queries MongoDB.
+ * <p>
+ * 1. The text is lower-cased, stripped of accents and split on every character that is not a letter or a digit.
+ * 2. Every query token must match (AND), either a whole indexed term or, for tokens of 2 characters or more, the
+ * prefix of a term ("lap" matches "laptop") with a lower weight.
+ * 3. A product scores the sum, over the query tokens, of its best matching term weight times the term rarity (idf).
+ * The term weight adds up the weight of every field the term appears in: name 3, brand 2, attribute 1.5, description 1.
+ * 4. The index is rebuilt in parallel from the products collection at startup and then every
+ * app.search.refresh-interval, and kept up to date by the product write events in between, so the writes of the other
+ * nodes show up within one interval. Writes received during a rebuild win over the loaded copy. After a warm start
+ * from the catalog snapshot (see {@link com.online.shopping.snapshot.CatalogWarmStart}), the snapshot replaces the
+ * first rebuild.
+ * 5. Searches share a read lock, the (short) index updates take the write lock.
+ */
+@Component
+@Slf4j
+public class ProductSearchIndex {
+
+    public enum SortBy {
+        RELEVANCE, PRICE
+    }
+
+    static final float NAME_WEIGHT = 3f;
+    static final float BRAND_WEIGHT = 2f;
+    static final float ATTRIBUTE_WEIGHT = 1.5f;
+    static final float DESCRIPTION_WEIGHT = 1f;
+    static final float PREFIX_MATCH_WEIGHT = 0.5f;
+    static final int MIN_PREFIX_LENGTH = 2;
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final ProductRepository productRepository;
+
+    private final int loadBatchSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, IndexedProduct> products = new HashMap<>();
+
+    private NavigableMap<String, Map<String, Float>> postings = new TreeMap<>();
+
+    // ids written while a rebuild is loading the collection, null when no rebuild is running
+    private volatile Set<String> writtenDuringRebuild;
+
+    private volatile boolean loaded;
+
+    private final AtomicBoolean warmStarted = new AtomicBoolean();
+
+    public ProductSearchIndex(ProductRepository productRepository,
+                              @Value("${app.search.load-batch-size:1000}") int loadBatchSize) {
+        this.productRepository = productRepository;
+        this.loadBatchSize = loadBatchSize;
+    }
+
+    /**
+     * Method to search the products matching every token of the query.
+     * @param query free text
+     * @param inStockOnly keep only the products with available inventory (available greater than reserved)
+     * @param sortBy relevance (best match first) or price
+     * @param ascending price order, ignored for the relevance order
+     * @param offset number of matching products to skip
+     * @param limit maximum number of products returned
+     * @return the page of matching products, in the requested order
+     */
+    public List<Product> search(String query, boolean inStockOnly, SortBy sortBy, boolean ascending, long offset, int limit) {
+        List<String> queryTokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (queryTokens.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<String, Float> scores = null;
+            for (String token : queryTokens) {
+                Map<String, Float> tokenScores = match(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<ScoredProduct> hits = new ArrayList<>(scores.size());
+            for (Map.Entry<String, Float> score : scores.entrySet()) {
+                IndexedProduct indexed = products.get(score.getKey());
+                if (!inStockOnly || indexed.inStock) {
+                    hits.add(new ScoredProduct(indexed, score.getValue()));
+                }
+            }
+            return hits.stream()
+                    .sorted(order(sortBy, ascending))
+                    .skip(offset)
+                    .limit(limit)
+                    .map(hit -> hit.indexed.product)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of indexed products
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return products.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return whether the index has been built once
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Keep the index in line with the product writes.
+     * @param event
+     */
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        onProductsChanged(new ProductsChangedEvent(List.of(event)));
+    }
+
+    /**
+     * Keep the index in line with a batch of product writes, applied under a single write lock.
+     * @param event
+     */
+    @EventListener
+    public void onProductsChanged(ProductsChangedEvent event) {
+        List<IndexedProduct> indexed = new ArrayList<>(event.getChanges().size());
+        for (ProductChangedEvent change : event.getChanges()) {
+            indexed.add(change.getProduct() == null ? null : index(change.getProduct()));
+        }
+        lock.writeLock().lock();
+        try {
+            Set<String> written = writtenDuringRebuild;
+            for (int i = 0; i < indexed.size(); i++) {
+                String productId = event.getChanges().get(i).getProductId();
+                remove(productId);
+                if (indexed.get(i) != null) {
+                    add(indexed.get(i));
+                }
+                if (written != null) {
+                    written.add(productId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuild the index from the DB, runs at startup (unless warm started) and then every app.search.refresh-interval.
+     * A failed rebuild keeps the current index.
+     */
+    @Scheduled(fixedDelayString = "${app.search.refresh-interval:PT5M}")
+    public void refresh() {
+        if (warmStarted.getAndSet(false)) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Could not build the product search index, keeping " + size() + " products", e);
+        }
+    }
+
+    /**
+     * Reload the whole index from the DB. The products are tokenized in parallel and swapped in at once, the
+     * searches keep using the current index meanwhile.
+     */
+    public void rebuild() {
+        rebuild(() -> productRepository.streamAll(loadBatchSize));
+    }
+
+    /**
+     * Method to build the index from the products of the catalog snapshot, in place of the first rebuild from the DB.
+     * @param products
+     */
+    public void warmStart(Collection<Product> products) {
+        rebuild(products::stream);
+        warmStarted.set(true);
+    }
+
+    private synchronized void rebuild(Supplier<Stream<Product>> source) {
+        long start = System.nanoTime();
+        writtenDuringRebuild = ConcurrentHashMap.newKeySet();
+        try {
+            List<Product> read;
+            try (Stream<Product> stream = source.get()) {
+                read = stream.toList();
+            }
+            List<IndexedProduct> indexed = read.parallelStream().map(ProductSearchIndex::index).toList();
+
+            lock.writeLock().lock();
+            try {
+                Map<String, IndexedProduct> current = products;
+                products = new HashMap<>(indexed.size() * 2);
+                postings = new TreeMap<>();
+                Set<String> written = writtenDuringRebuild;
+                for (IndexedProduct product : indexed) {
+                    if (!written.contains(product.product.getId())) {
+                        add(product);
+                    }
+                }
+                for (String id : written) {
+                    IndexedProduct product = current.get(id);
+                    if (product != null) {
+                        add(product);
+                    }
+                }
+                loaded = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Indexed " + indexed.size() + " products for search in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } finally {
+            writtenDuringRebuild = null;
+        }
+    }
+
+    /**
+     * Method to split a text into index terms.
+     * @param text
+     * @return the terms in text order, with duplicates
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private Map<String, Float> match(String token) {
+        Map<String, Float> scores = new HashMap<>();
+        addMatches(scores, postings.get(token), 1f);
+        if (token.length() >= MIN_PREFIX_LENGTH) {
+            for (Map<String, Float> posting : postings.subMap(token, false, token + Character.MAX_VALUE, false).values()) {
+                addMatches(scores, posting, PREFIX_MATCH_WEIGHT);
+            }
+        }
+        return scores;
+    }
+
+    private void addMatches(Map<String, Float> scores, Map<String, Float> posting, float matchWeight) {
+        if (posting == null) {
+            return;
+        }
+        float idf = (float) Math.log(1 + (double) products.size() / posting.size());
+        for (Map.Entry<String, Float> entry : posting.entrySet()) {
+            scores.merge(entry.getKey(), entry.getValue() * matchWeight * idf, Math::max);
+        }
+    }
+
+    private static Comparator<ScoredProduct> order(SortBy sortBy, boolean ascending) {
+        Comparator<ScoredProduct> byRelevance = Comparator.comparingDouble((ScoredProduct hit) -> hit.score).reversed();
+        Comparator<ScoredProduct> byId = Comparator.comparing(hit -> hit.indexed.product.getId());
+        if (sortBy == SortBy.PRICE) {
+            Comparator<ScoredProduct> byPrice = Comparator.comparingDouble(hit -> hit.indexed.price);
+            return (ascending ? byPrice : byPrice.reversed()).thenComparing(byRelevance).thenComparing(byId);
+        }
+        return byRelevance.thenComparing(byId);
+    }
+
+    private void add(IndexedProduct indexed) {
+        products.put(indexed.product.getId(), indexed);
+        indexed.terms.forEach((term, weight) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(indexed.product.getId(), weight));
+    }
+
+    private void remove(String productId) {
+        IndexedProduct indexed = products.remove(productId);
+        if (indexed == null) {
+            return;
+        }
+        for (String term : indexed.terms.keySet()) {
+            Map<String, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(productId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static IndexedProduct index(Product product) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, product.getName(), NAME_WEIGHT);
+        addTerms(terms, product.getBrand(), BRAND_WEIGHT);
+        addTerms(terms, product.getDescription(), DESCRIPTION_WEIGHT);
+        if (product.getAttributes() != null) {
+            for (Attributes attribute : product.getAttributes()) {
+                addTerms(terms, attribute.getValue(), ATTRIBUTE_WEIGHT);
+            }
+        }
+        boolean inStock = product.getInventory() != null
+                && product.getInventory().getAvailable() > product.getInventory().getReserved();
+        double price = product.getPrice() == null || product.getPrice().getAmount() == null ? 0 : product.getPrice().getAmount();
+        return new IndexedProduct(product, Map.copyOf(terms), inStock, price);
+    }
+
+    private static void addTerms(Map<String, Float> terms, String text, float weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Float::sum);
+        }
+    }
+
+    private static final class IndexedProduct {
+        private final Product product;
+        private final Map<String, Float> terms;
+        private final boolean inStock;
+        private final double price;
+
+        private IndexedProduct(Product product, Map<String, Float> terms, boolean inStock, double price) {
+            this.product = product;
+            this.terms = terms;
+            this.inStock = inStock;
+            this.price = price;
+        }
+    }
+
+    private static final class ScoredProduct {
+        private final IndexedProduct indexed;
+        private final float score;
+
+        private ScoredProduct(IndexedProduct indexed, float score) {
+            this.indexed = indexed;
+            this.score = score;
+        }
+    }
+}
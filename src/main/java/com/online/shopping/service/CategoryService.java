@@ -1,26 +1,38 @@
 package com.online.shopping.service;
 
+import com.online.shopping.cache.CategoryColumnIndex;
+import com.online.shopping.cache.CategoryRegistry;
 import com.online.shopping.dto.CategoryResponseDTO;
 import com.online.shopping.dto.ProductResponseDTO;
 import com.online.shopping.dto.ResponseModalDTO;
 import com.online.shopping.entity.Category;
 import com.online.shopping.entity.Product;
+import com.online.shopping.exception.CustomException;
 import com.online.shopping.exception.ProductNotAvailableException;
 import com.online.shopping.exception.ResourceNotFoundException;
 import com.online.shopping.repository.CategoryRepository;
 import com.online.shopping.repository.ProductRepository;
-import com.online.shopping.util.OnlineShoppingAppUtility;
+import com.online.shopping.util.IdGenerator;
+import com.online.shopping.util.ProductFields;
 import jakarta.validation.constraints.Min;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+
+import static com.online.shopping.config.CacheConfiguration.CATEGORY_PRODUCTS_CACHE;
+import static com.online.shopping.config.MetricsConfiguration.SERVICE_TIMER;
 
 
 /**
@@ -31,87 +43,129 @@ import java.util.stream.Collectors;
 
 @Service
 @Slf4j
+@Timed(SERVICE_TIMER)
 public class CategoryService {
     private Logger logger = LoggerFactory.getLogger(CategoryService.class);
     private CategoryRepository categoryRepository;
 
     private ProductRepository productRepository;
 
+    private IdGenerator idGenerator;
+
+    private CategoryRegistry categoryRegistry;
+
+    private CategoryColumnIndex categoryColumnIndex;
+
+    // size of the category pages read from MongoDB (cache misses): requested page size vs products found
+    private DistributionSummary requestedProducts;
+
+    private DistributionSummary fetchedProducts;
+
     /**
      * Constructor Injection - All Argument Constructor
      * @param categoryRepository
      * @param productRepository
+     * @param idGenerator
+     * @param categoryRegistry
+     * @param categoryColumnIndex
+     * @param meterRegistry
      */
-    public CategoryService(CategoryRepository categoryRepository, ProductRepository productRepository) {
+    public CategoryService(CategoryRepository categoryRepository, ProductRepository productRepository,
+                           IdGenerator idGenerator, CategoryRegistry categoryRegistry,
+                           CategoryColumnIndex categoryColumnIndex, MeterRegistry meterRegistry) {
         this.categoryRepository = categoryRepository;
         this.productRepository = productRepository;
+        this.idGenerator = idGenerator;
+        this.categoryRegistry = categoryRegistry;
+        this.categoryColumnIndex = categoryColumnIndex;
+        this.requestedProducts = DistributionSummary.builder("category.products.requested")
+                .description("Page size requested for the category pages read from the DB")
+                .baseUnit("products")
+                .register(meterRegistry);
+        this.fetchedProducts = DistributionSummary.builder("category.products.fetched")
+                .description("Sellable products found for the category pages read from the DB")
+                .baseUnit("products")
+                .register(meterRegistry);
     }
 
     /**
      * 1. Method to retrieve the List of products using the category name with the specified sorting order
      * 2. Sort the List of products based on inventory availability or Price.
+     * 3. The inventory filter, the sorting and the pagination are answered by the in-memory category column index and
+     * the page is read by id, they are executed in MongoDB while the index is not loaded. Only the requested page is read.
+     * 4. Pages are cached per category/sort/page/fields/filters and evicted when a product of the category is written.
+     * The key carries the generation of the category (see CategoryProductCacheInvalidator), so a page read before a
+     * write is never served after it.
+     * 5. Only the requested product fields are read and returned (sparse fieldset), all of them when fields is null.
+     * 6. Only the products having, for every filtered attribute, one of its accepted values are listed. The facet counts
+     * of the category attribute values are returned with the page once the category column index is loaded.
      * @param categoryName
      * @param sortBy
      * @param sortOrder
      * @param pageNo
      * @param pageSize
+     * @param fields comma separated Product properties, null for the whole product
+     * @param attributeFilters attribute name -> accepted values, empty for no filter
      * @return
      */
+    @Cacheable(cacheNames = CATEGORY_PRODUCTS_CACHE,
+            key = "#categoryName + '|' + @categoryProductCacheInvalidator.generation(#categoryName) + '|' + #sortBy + '|' + #sortOrder + '|' + #pageNo + '|' + #pageSize + '|' + #fields + '|' + #attributeFilters")
     public ResponseModalDTO getCategoryProduct(String categoryName, String sortBy, String sortOrder, @Min(1) int pageNo,
-                                               int pageSize) {
+                                               int pageSize, String fields, Map<String, List<String>> attributeFilters) {
         logger.info("CategoryService  getCategoryProducts() method calling..");
+        Set<String> selectedFields = ProductFields.parse(fields);
+        Map<String, List<String>> filters = attributeFilters == null ? Map.of() : attributeFilters;
         CategoryResponseDTO categoryResponseDTO = new CategoryResponseDTO();
-        Optional<Category> categoryObject = categoryRepository.findByName(categoryName);
+        Optional<Category> categoryObject = categoryRegistry.findByName(categoryName);
         if (!categoryObject.isPresent()) {
             logger.debug("category " + categoryName + "  is not available in database !");
             throw new ResourceNotFoundException("category " + categoryName + "  is not available in database !");
         }
+        if (pageNo < 1) {
+            logger.debug("Invalid page number " + pageNo + " requested for category " + categoryName);
+            throw new CustomException("Page number should be greater than or equal to 1");
+        }
 
         ResponseModalDTO responseModalDTO = new ResponseModalDTO();
 
-        List<Product> product = null;
-
-        product = productRepository.findByCategoryNameIgnoreCase(categoryName);
-
-        if (product != null && !product.isEmpty()) {
-            if (sortBy != null) {
-                if ("inventory".equalsIgnoreCase(sortBy)) {
-                    logger.debug("Sorting product based on inventary assending order ");
-                    product.sort(Comparator.comparingInt((Product p) -> p.getInventory().getAvailable()));
-                } else if ("price".equalsIgnoreCase(sortBy)) {
-                    logger.debug("Sorting product based on price ascending order");
-                    product.sort(Comparator.comparingDouble(p -> p.getPrice().getAmount()));
-                }
-            }
-            if (sortOrder != null && "desc".equalsIgnoreCase(sortOrder) && "inventory".equalsIgnoreCase(sortBy)) {
-                logger.debug("Sorting product based on inventory descending order ");
-                product.sort((p1, p2) -> Integer.compare(p2.getInventory().getAvailable(),
-                        p1.getInventory().getAvailable()));
-            }
-            if (sortOrder != null && "desc".equalsIgnoreCase(sortOrder) && "price".equalsIgnoreCase(sortBy)) {
-                logger.debug("Sorting product based on price descending order ");
-                product.sort((p1, p2) -> Double.compare(p2.getPrice().getAmount(), p1.getPrice().getAmount()));
+        List<Product> availableProductsWithPagination = Collections.emptyList();
+        if (pageSize > 0) {
+            logger.debug("Fetching page " + pageNo + " of category " + categoryName + " sorted by " + sortBy + " " + sortOrder);
+            long offset = (long) (pageNo - 1) * pageSize;
+            List<String> ids = categoryColumnIndex.findSellableIds(categoryName, sortBy, sortOrder, offset, pageSize, filters);
+            if (ids == null && filters.isEmpty()) {
+                availableProductsWithPagination = productRepository.findSellableByCategory(categoryName, sortBy, sortOrder,
+                        offset, pageSize, selectedFields);
+            } else if (ids == null) {
+                availableProductsWithPagination = productRepository.findSellableByCategory(categoryName, filters, sortBy,
+                        sortOrder, offset, pageSize, selectedFields);
+            } else if (!ids.isEmpty()) {
+                availableProductsWithPagination = productRepository.findSellableByIds(ids, selectedFields);
             }
-            List<Product> availableProducts = product.stream().filter(p -> p.getInventory().getAvailable() > p.getInventory().getReserved())
-                    .collect(Collectors.toList());
-
-            List<Product> availableProductsWithPagination = getObjectListWithPagination(availableProducts, pageNo,
-                    pageSize);
-
-            ProductResponseDTO productResponseDTO = mapToProduct(availableProductsWithPagination);
-            categoryResponseDTO.setId(categoryObject.get().getId());
-            categoryResponseDTO.setCategoryName(categoryName);
-            responseModalDTO.setProductResponseDTO(productResponseDTO);
-            responseModalDTO.setCategoryResponseDTO(categoryResponseDTO);
+        }
+        requestedProducts.record(Math.max(pageSize, 0));
+        fetchedProducts.record(availableProductsWithPagination.size());
 
-        } else {
+        if (availableProductsWithPagination.isEmpty() && !hasProducts(categoryName)) {
             logger.debug("products-service is not available!");
             throw new ProductNotAvailableException("products-service is not available, please try after some time ! ");
         }
 
+        ProductResponseDTO productResponseDTO = mapToProduct(availableProductsWithPagination);
+        categoryResponseDTO.setId(categoryObject.get().getId());
+        categoryResponseDTO.setCategoryName(categoryName);
+        responseModalDTO.setProductResponseDTO(productResponseDTO);
+        responseModalDTO.setCategoryResponseDTO(categoryResponseDTO);
+        responseModalDTO.setFacets(categoryColumnIndex.facetCounts(categoryName, filters));
+
         return responseModalDTO;
     }
 
+    private boolean hasProducts(String categoryName) {
+        Boolean indexed = categoryColumnIndex.hasProducts(categoryName);
+        return indexed != null ? indexed : productRepository.existsByCategory(categoryName);
+    }
+
     /**
      * Method to map list of products to ProductResponseDTO
      * @param products
@@ -123,23 +177,6 @@ public class CategoryService {
         return productResponseDTO;
     }
 
-    /**
-     * Method to set the list of products with the provided pagination details.
-     * @param objectList
-     * @param page
-     * @param pageSize
-     * @return
-     */
-    private List<Product> getObjectListWithPagination(List<Product> objectList, int page, int pageSize) {
-
-        int startIndex = (page - 1) * pageSize;
-        int endIndex = Math.min(startIndex + pageSize, objectList.size());
-        if (startIndex >= endIndex) {
-            return Collections.emptyList();
-        }
-        return objectList.subList(startIndex, endIndex);
-    }
-
     /**
      * Method to save a category details to the DB.
      * @param categoryName
@@ -147,13 +184,20 @@ public class CategoryService {
      */
     public Category saveCategory(String categoryName) {
         logger.info("Started CategoryService  saveCategory() method calling..");
-        Optional<Category> name = categoryRepository.findByName(categoryName);
+        Optional<Category> name = categoryRegistry.findStoredByName(categoryName);
         if (!name.isEmpty()) {
             logger.debug("category " + categoryName + "  is already available in database !");
             throw new ResourceNotFoundException("category " + categoryName + "  is already available in database !");
         }
-        Category obj = new Category(OnlineShoppingAppUtility.generateUserId(10), categoryName);
-        categoryRepository.save(obj);
+        Category obj = new Category(idGenerator.nextId(), categoryName);
+        try {
+            categoryRepository.insert(obj);
+        } catch (DuplicateKeyException e) {
+            // created meanwhile by another request or instance
+            logger.debug("category " + categoryName + "  is already available in database !");
+            throw new ResourceNotFoundException("category " + categoryName + "  is already available in database !");
+        }
+        categoryRegistry.register(obj);
         logger.debug("Category Object Successfully Saved to DB", obj);
 
         logger.info("Exiting | CategoryService  saveCategory() method calling..");
@@ -0,0 +1,140 @@
+package com.online.shopping.service;
+
+import com.online.shopping.dto.InventoryRequestDTO;
+import com.online.shopping.dto.InventoryResponseDTO;
+import com.online.shopping.entity.Product;
+import com.online.shopping.event.ProductChangedEvent;
+import com.online.shopping.event.ProductsChangedEvent;
+import com.online.shopping.exception.CustomException;
+import com.online.shopping.exception.ProductNotAvailableException;
+import com.online.shopping.exception.ResourceNotFoundException;
+import com.online.shopping.repository.ProductRepository;
+import com.online.shopping.repository.ProductRepositoryCustom.InventoryOperation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 1. Reserve, release and commit (sell the reserved units of) the inventory of a product.
+ * 2. Every operation is a single conditional update in MongoDB, there is no read-modify-write of the product.
+ * 3. A multi-line cart is applied all or nothing : when one line cannot be applied, the lines already applied
+ *    are reverted and the request fails.
+ */
+@Service
+@Slf4j
+public class InventoryService {
+
+    private ProductRepository productRepository;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Constructor Injection - All Argument Constructor
+     * @param productRepository
+     * @param eventPublisher
+     */
+    public InventoryService(ProductRepository productRepository, ApplicationEventPublisher eventPublisher) {
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Method to map the operation name of the API to the inventory operation
+     * @param operation
+     * @return
+     */
+    public static InventoryOperation toOperation(String operation) {
+        try {
+            return InventoryOperation.valueOf(operation.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new CustomException("Unknown inventory operation : " + operation + ", expected reserve, release or commit");
+        }
+    }
+
+    /**
+     * Method to apply an inventory operation on one product
+     * @param productId
+     * @param operation
+     * @param quantity
+     * @return
+     */
+    public InventoryResponseDTO updateInventory(String productId, InventoryOperation operation, int quantity) {
+        log.info("Entering in InventoryService updateInventory() method...");
+        if (quantity < 1) {
+            throw new CustomException("quantity must be greater than or equal to 1");
+        }
+        Product product = apply(productId, operation, quantity);
+        eventPublisher.publishEvent(change(product));
+        log.info("Exiting in InventoryService updateInventory() method...");
+        return new InventoryResponseDTO(product.getId(), product.getInventory());
+    }
+
+    /**
+     * Method to apply an inventory operation on all the lines of a cart in one call.
+     * Lines of the same product are merged before being applied.
+     * @param operation
+     * @param lines
+     * @return
+     */
+    public List<InventoryResponseDTO> updateInventory(InventoryOperation operation, List<InventoryRequestDTO> lines) {
+        log.info("Entering in InventoryService updateInventory() method for a cart of " + lines.size() + " lines...");
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (InventoryRequestDTO line : lines) {
+            if (line.getProductId() == null || line.getQuantity() < 1) {
+                throw new CustomException("Every cart line needs a productId and a quantity greater than or equal to 1");
+            }
+            quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+
+        List<Product> applied = new ArrayList<>();
+        try {
+            for (Map.Entry<String, Integer> line : quantities.entrySet()) {
+                applied.add(apply(line.getKey(), operation, line.getValue()));
+            }
+        } catch (RuntimeException e) {
+            log.debug("Reverting " + applied.size() + " cart lines after the failure : " + e.getMessage());
+            for (Product product : applied) {
+                productRepository.revertInventory(product.getId(), operation, quantities.get(product.getId()));
+            }
+            publishChanges(productRepository.findByIds(applied.stream().map(Product::getId).toList(), null));
+            throw e;
+        }
+        publishChanges(applied);
+        log.info("Exiting in InventoryService updateInventory() method...");
+        return applied.stream().map(p -> new InventoryResponseDTO(p.getId(), p.getInventory())).toList();
+    }
+
+    private Product apply(String productId, InventoryOperation operation, int quantity) {
+        Product product = productRepository.modifyInventory(productId, operation, quantity);
+        if (product == null) {
+            if (!productRepository.existsById(productId)) {
+                log.debug("Product is not exist with given id : " + productId);
+                throw new ResourceNotFoundException("Product is not exist with given id:" + productId);
+            }
+            log.debug("Insufficient inventory to " + operation + " " + quantity + " units of product " + productId);
+            throw new ProductNotAvailableException("Insufficient inventory to " + operation.name().toLowerCase(Locale.ROOT)
+                    + " " + quantity + " units of product " + productId);
+        }
+        return product;
+    }
+
+    // the lines of a cart are announced together, once all applied or all reverted
+    private void publishChanges(List<Product> products) {
+        if (!products.isEmpty()) {
+            eventPublisher.publishEvent(new ProductsChangedEvent(products.stream().map(InventoryService::change).toList()));
+        }
+    }
+
+    private static ProductChangedEvent change(Product product) {
+        Set<String> categoryNames = product.getCategory() == null || product.getCategory().getName() == null
+                ? Set.of() : Set.of(product.getCategory().getName());
+        return new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, product.getId(), product, categoryNames);
+    }
+}
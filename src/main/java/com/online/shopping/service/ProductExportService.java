@@ -0,0 +1,170 @@
+package com.online.shopping.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.online.shopping.entity.Product;
+import com.online.shopping.exception.ResourceNotFoundException;
+import com.online.shopping.repository.ProductRepository;
+import com.online.shopping.util.ProductFields;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 1. Admin can export the full catalog as NDJSON, one product per line.
+ * 2. Products are read from a Mongo cursor and written to the response as they arrive, only one cursor batch is held in memory.
+ * 3. The output can be gzip compressed on the fly.
+ * 4. The product listings can be streamed the same way as a JSON array (stream=true), so the time to the first byte
+ * and the memory used do not grow with the number of listed products.
+ */
+@Service
+@Slf4j
+public class ProductExportService {
+
+    private ProductRepository productRepository;
+
+    private ObjectWriter productWriter;
+
+    private int batchSize;
+
+    /**
+     * Constructor Injection - All Argument Constructor
+     * @param productRepository
+     * @param objectMapper
+     * @param batchSize
+     */
+    public ProductExportService(ProductRepository productRepository, ObjectMapper objectMapper,
+                                @Value("${app.products.export.batch-size:500}") int batchSize) {
+        this.productRepository = productRepository;
+        // the writer must not flush after every product, the stream is flushed once per batch;
+        // it serializes the runtime class, so the projected products leave out the fields not read
+        this.productWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Method to write every product to the given stream as NDJSON.
+     * The stream is flushed after every cursor batch, so the client receives data while the export is running.
+     * @param out response body
+     * @param gzip compress the output with gzip
+     * @return number of exported products
+     * @throws IOException
+     */
+    public long exportProducts(OutputStream out, boolean gzip) throws IOException {
+        log.info("Entering in ProductExportService exportProducts() method...");
+        OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+        long exported = 0;
+        try (Stream<Product> products = productRepository.streamAll(batchSize);
+             JsonGenerator generator = productWriter.createGenerator(target)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                productWriter.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (++exported % batchSize == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+        if (target instanceof GZIPOutputStream gzipOutputStream) {
+            gzipOutputStream.finish();
+        }
+        out.flush();
+        log.info("Exiting in ProductExportService exportProducts() method, exported " + exported + " products");
+        return exported;
+    }
+
+    /**
+     * Method to open a cursor on the products of a category.
+     * The first cursor batch is read here, so a missing category is reported before the response is committed.
+     * @param category
+     * @param fields comma separated Product properties to return, null for the whole product
+     * @return to be written with {@link #writeJsonArray(Stream, OutputStream)}
+     */
+    public Stream<Product> streamProductsByCategory(String category, String fields) {
+        log.info("Entering in ProductExportService streamProductsByCategory() method...");
+        Stream<Product> products = notEmpty(productRepository.streamByCategory(category, batchSize, ProductFields.parse(fields)),
+                "Product of " + category + " category is not available in database !");
+        log.info("Exiting in ProductExportService streamProductsByCategory() method...");
+        return products;
+    }
+
+    /**
+     * Method to open a cursor on an offset page of products.
+     * @param sortBy
+     * @param pageNo
+     * @param pagesize
+     * @param fields comma separated Product properties to return, null for the whole product
+     * @return to be written with {@link #writeJsonArray(Stream, OutputStream)}
+     */
+    public Stream<Product> streamProductPage(String sortBy, int pageNo, int pagesize, String fields) {
+        log.info("Entering in ProductExportService streamProductPage() method...");
+        PageRequest pageable = PageRequest.of(pageNo, pagesize, Sort.by(Sort.Direction.ASC, sortBy));
+        Stream<Product> products = notEmpty(productRepository.streamPage(pageable, batchSize, ProductFields.parse(fields)),
+                "Product is not available in database !");
+        log.info("Exiting in ProductExportService streamProductPage() method...");
+        return products;
+    }
+
+    /**
+     * Method to write products to the given stream as a JSON array, then close the products stream.
+     * The stream is flushed after every cursor batch: without a content length, every flush is sent as an HTTP chunk,
+     * and the servlet and Jackson buffers are reused for the next batch.
+     * @param products
+     * @param out response body
+     * @return number of written products
+     * @throws IOException
+     */
+    public long writeJsonArray(Stream<Product> products, OutputStream out) throws IOException {
+        log.info("Entering in ProductExportService writeJsonArray() method...");
+        long written = 0;
+        try (products; JsonGenerator generator = productWriter.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                productWriter.writeValue(generator, iterator.next());
+                if (++written % batchSize == 0) {
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+            generator.flush();
+        }
+        out.flush();
+        log.info("Exiting in ProductExportService writeJsonArray() method, written " + written + " products");
+        return written;
+    }
+
+    /**
+     * Method to read the first product of a stream.
+     * @param products
+     * @param message of the exception thrown when there is no product
+     * @return the same products
+     */
+    private static Stream<Product> notEmpty(Stream<Product> products, String message) {
+        Iterator<Product> iterator = products.iterator();
+        if (!iterator.hasNext()) {
+            products.close();
+            log.debug(message);
+            throw new ResourceNotFoundException(message);
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(products::close);
+    }
+}
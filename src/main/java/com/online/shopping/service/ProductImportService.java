@@ -0,0 +1,199 @@
+package com.online.shopping.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.online.shopping.dto.BulkImportItemDTO;
+import com.online.shopping.dto.BulkImportResponseDTO;
+import com.online.shopping.entity.Product;
+import com.online.shopping.event.ProductChangedEvent;
+import com.online.shopping.event.ProductsChangedEvent;
+import com.online.shopping.repository.ProductRepository;
+import com.online.shopping.util.IdGenerator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 1. Admin can load a large list of products in one call, as NDJSON or as a JSON array.
+ * 2. The body is parsed item by item, only one batch of products is held in memory.
+ * 3. Every category is created once per distinct name and the products are written with unordered bulk inserts.
+ */
+@Service
+@Slf4j
+public class ProductImportService {
+
+    private ProductRepository productRepository;
+
+    private ProductService productService;
+
+    private ObjectMapper objectMapper;
+
+    private Validator validator;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private IdGenerator idGenerator;
+
+    private int batchSize;
+
+    /**
+     * Constructor Injection - All Argument Constructor
+     * @param productRepository
+     * @param productService
+     * @param objectMapper
+     * @param validator
+     * @param eventPublisher
+     * @param idGenerator
+     * @param batchSize
+     */
+    public ProductImportService(ProductRepository productRepository, ProductService productService, ObjectMapper objectMapper,
+                                Validator validator, ApplicationEventPublisher eventPublisher, IdGenerator idGenerator,
+                                @Value("${app.products.bulk.batch-size:500}") int batchSize) {
+        this.productRepository = productRepository;
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.idGenerator = idGenerator;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Method to import the products read from the request body.
+     * @param body NDJSON stream or JSON array of products
+     * @return per item result summary
+     * @throws IOException
+     */
+    public BulkImportResponseDTO importProducts(InputStream body) throws IOException {
+        log.info("Entering in ProductImportService importProducts() method...");
+        BulkImportResponseDTO response = new BulkImportResponseDTO();
+        Set<String> knownCategories = new HashSet<>();
+        List<Product> batch = new ArrayList<>(batchSize);
+        List<Integer> batchIndexes = new ArrayList<>(batchSize);
+
+        try (MappingIterator<Product> iterator = objectMapper.readerFor(Product.class).readValues(body)) {
+            int index = 0;
+            while (true) {
+                try {
+                    if (!iterator.hasNextValue()) {
+                        break;
+                    }
+                    Product product = iterator.nextValue();
+                    String violations = validate(product);
+                    if (violations != null) {
+                        addResult(response, index, null, BulkImportItemDTO.Status.FAILED, violations);
+                    } else {
+                        product.setId(idGenerator.nextId());
+                        batch.add(product);
+                        batchIndexes.add(index);
+                        if (batch.size() >= batchSize) {
+                            writeBatch(batch, batchIndexes, knownCategories, response);
+                        }
+                    }
+                } catch (JsonParseException e) {
+                    // malformed JSON, the rest of the body cannot be read reliably
+                    log.debug("Stopping the product import at item " + index + " : " + e.getOriginalMessage());
+                    addResult(response, index, null, BulkImportItemDTO.Status.FAILED, "Malformed JSON : " + e.getOriginalMessage());
+                    break;
+                } catch (JsonMappingException e) {
+                    // the item could not be mapped to a product, the iterator skips to the next item. Any other
+                    // IOException (e.g. the client went away) is not about the item and ends the import.
+                    addResult(response, index, null, BulkImportItemDTO.Status.FAILED, "Invalid product : " + e.getMessage());
+                }
+                index++;
+            }
+        }
+        writeBatch(batch, batchIndexes, knownCategories, response);
+
+        response.getItems().sort((i1, i2) -> Integer.compare(i1.getIndex(), i2.getIndex()));
+        log.info("Exiting in ProductImportService importProducts() method... imported " + response.getImported()
+                + " of " + response.getReceived() + " products");
+        return response;
+    }
+
+    /**
+     * Method to write a batch of validated products and record their result.
+     * @param batch
+     * @param batchIndexes
+     * @param knownCategories
+     * @param response
+     */
+    private void writeBatch(List<Product> batch, List<Integer> batchIndexes, Set<String> knownCategories,
+                            BulkImportResponseDTO response) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (Product product : batch) {
+            if (knownCategories.add(product.getCategory().getName())) {
+                productService.saveCategory(product.getCategory());
+            }
+        }
+        Map<Integer, String> errors = productRepository.insertAll(List.copyOf(batch));
+        List<ProductChangedEvent> changes = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Product product = batch.get(i);
+            String error = errors.get(i);
+            if (error == null) {
+                addResult(response, batchIndexes.get(i), product.getId(), BulkImportItemDTO.Status.IMPORTED, null);
+                changes.add(new ProductChangedEvent(ProductChangedEvent.ChangeType.CREATED, product.getId(),
+                        product, Set.of(product.getCategory().getName())));
+            } else {
+                addResult(response, batchIndexes.get(i), product.getId(), BulkImportItemDTO.Status.FAILED, error);
+            }
+        }
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new ProductsChangedEvent(changes));
+        }
+        log.debug("Bulk inserted a batch of " + batch.size() + " products with " + errors.size() + " failures");
+        batch.clear();
+        batchIndexes.clear();
+    }
+
+    /**
+     * Method to validate a product with the bean validation constraints of the entity.
+     * @param product
+     * @return the violation messages, null when the product is valid
+     */
+    private String validate(Product product) {
+        if (product == null) {
+            return "Product should not be null";
+        }
+        Set<ConstraintViolation<Product>> violations = validator.validate(product);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(v -> v.getPropertyPath() + " : " + v.getMessage()).sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (product.getPrice() == null) {
+            return "price : Price is mandatory";
+        }
+        if (product.getCategory() == null || product.getCategory().getName() == null || product.getCategory().getName().isBlank()) {
+            return "category : category is mandatory should not be empty";
+        }
+        return null;
+    }
+
+    private static void addResult(BulkImportResponseDTO response, int index, String id, BulkImportItemDTO.Status status,
+                                  String message) {
+        response.getItems().add(new BulkImportItemDTO(index, id, status, message));
+        response.setReceived(response.getReceived() + 1);
+        if (status == BulkImportItemDTO.Status.IMPORTED) {
+            response.setImported(response.getImported() + 1);
+        } else {
+            response.setFailed(response.getFailed() + 1);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.online.shopping.service;
+
+import com.online.shopping.dto.BulkPriceUpdateDTO;
+import com.online.shopping.dto.BulkPriceUpdateDTO.PriceOperation;
+import com.online.shopping.dto.BulkPriceUpdateResponseDTO;
+import com.online.shopping.entity.Price;
+import com.online.shopping.entity.Product;
+import com.online.shopping.event.ProductChangedEvent;
+import com.online.shopping.event.ProductsChangedEvent;
+import com.online.shopping.exception.CustomException;
+import com.online.shopping.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static com.online.shopping.config.MetricsConfiguration.SERVICE_TIMER;
+import static com.online.shopping.util.OnlineShoppingAppConstants.MIN_PRICE_AMOUNT;
+
+/**
+ * 1. Admin can change the price of all the products of a category and/or having some attribute values in one call:
+ * set, add to or change by a percentage the amounts, and/or change the currency.
+ * 2. The matched products are streamed with only their id and price. The new prices are written with one unordered
+ * bulk write per batch, no product is loaded and saved one by one.
+ * 3. A product is only updated while its price is still the price it was read with, a concurrently changed product
+ * is counted as matched but not modified.
+ * 4. The changed products of a batch are read back once and announced with product change events, so the category
+ * page cache, the ETags and the in-memory indexes follow the new prices.
+ */
+@Service
+@Slf4j
+@Timed(SERVICE_TIMER)
+public class ProductPriceService {
+
+    private static final List<String> PRICE_FIELDS = List.of("id", "price");
+
+    private static final BigDecimal MIN_AMOUNT = BigDecimal.valueOf(MIN_PRICE_AMOUNT);
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private ProductRepository productRepository;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private int batchSize;
+
+    /**
+     * Constructor Injection - All Argument Constructor
+     * @param productRepository
+     * @param eventPublisher
+     * @param batchSize
+     */
+    public ProductPriceService(ProductRepository productRepository, ApplicationEventPublisher eventPublisher,
+                               @Value("${app.products.price-update.batch-size:500}") int batchSize) {
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Method to change the price of the products matching the filter of the request.
+     * @param request
+     * @return the number of matched and of modified products
+     */
+    public BulkPriceUpdateResponseDTO updatePrices(BulkPriceUpdateDTO request) {
+        log.info("Entering in ProductPriceService updatePrices() method...");
+        validate(request);
+        String category = isBlank(request.getCategory()) ? null : request.getCategory();
+        Map<String, List<String>> attributes = request.getAttributes() == null ? Map.of() : request.getAttributes();
+        String currency = isBlank(request.getCurrency()) ? null : request.getCurrency();
+
+        BulkPriceUpdateResponseDTO response = new BulkPriceUpdateResponseDTO();
+        List<Product> batch = new ArrayList<>(batchSize);
+        try (Stream<Product> products = productRepository.streamByFilter(category, attributes, batchSize, PRICE_FIELDS)) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() >= batchSize) {
+                    updateBatch(batch, request.getOperation(), request.getValue(), currency, response);
+                }
+            }
+        }
+        updateBatch(batch, request.getOperation(), request.getValue(), currency, response);
+        log.info("Exiting in ProductPriceService updatePrices() method... modified " + response.getModified()
+                + " of " + response.getMatched() + " products");
+        return response;
+    }
+
+    /**
+     * Method to change the price of a batch of products and announce the changed products.
+     * @param batch products with their id and price, cleared once written
+     * @param operation
+     * @param value
+     * @param currency
+     * @param response
+     */
+    private void updateBatch(List<Product> batch, PriceOperation operation, Double value, String currency,
+                             BulkPriceUpdateResponseDTO response) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Product> changed = new ArrayList<>(batch.size());
+        List<Price> prices = new ArrayList<>(batch.size());
+        for (Product product : batch) {
+            Price price = newPrice(product.getPrice(), operation, value, currency);
+            if (price != null && !price.equals(product.getPrice())) {
+                changed.add(product);
+                prices.add(price);
+            }
+        }
+        long modified = productRepository.updatePrices(changed, prices);
+        response.setMatched(response.getMatched() + batch.size());
+        response.setModified(response.getModified() + modified);
+        if (modified > 0) {
+            List<ProductChangedEvent> changes = new ArrayList<>(changed.size());
+            for (Product product : productRepository.findByIds(changed.stream().map(Product::getId).toList(), null)) {
+                changes.add(new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, product.getId(), product,
+                        categoryNames(product)));
+            }
+            if (!changes.isEmpty()) {
+                eventPublisher.publishEvent(new ProductsChangedEvent(changes));
+            }
+        }
+        log.debug("Updated the price of a batch of " + batch.size() + " products, " + modified + " modified");
+        batch.clear();
+    }
+
+    /**
+     * Method to compute the new price of a product.
+     * @param price current price
+     * @param operation null to keep the amount
+     * @param value
+     * @param currency null to keep the currency
+     * @return null when the price cannot be changed (no amount to add to or multiply)
+     */
+    static Price newPrice(Price price, PriceOperation operation, Double value, String currency) {
+        Double amount = price == null ? null : price.getAmount();
+        if (operation != null) {
+            if (amount == null && operation != PriceOperation.SET) {
+                return null;
+            }
+            BigDecimal newAmount = switch (operation) {
+                case SET -> BigDecimal.valueOf(value);
+                case ADD -> BigDecimal.valueOf(amount).add(BigDecimal.valueOf(value));
+                case PERCENT -> BigDecimal.valueOf(amount).multiply(HUNDRED.add(BigDecimal.valueOf(value))).divide(HUNDRED);
+            };
+            amount = newAmount.setScale(2, RoundingMode.HALF_UP).max(MIN_AMOUNT).doubleValue();
+        }
+        return new Price(currency != null ? currency : price == null ? null : price.getCurrency(), amount);
+    }
+
+    /**
+     * Method to validate the filter and the change of a price update request.
+     * @param request
+     */
+    private static void validate(BulkPriceUpdateDTO request) {
+        if (request == null) {
+            throw new CustomException("The price update request is mandatory");
+        }
+        if (isBlank(request.getCategory()) && (request.getAttributes() == null || request.getAttributes().isEmpty())) {
+            throw new CustomException("A category or an attribute filter is mandatory to update prices");
+        }
+        if (request.getOperation() == null && isBlank(request.getCurrency())) {
+            throw new CustomException("A price operation or a currency is mandatory to update prices");
+        }
+        if (request.getOperation() == null) {
+            return;
+        }
+        if (request.getValue() == null || request.getValue().isNaN() || request.getValue().isInfinite()) {
+            throw new CustomException("A value is mandatory for the price operation " + request.getOperation());
+        }
+        if (request.getOperation() == PriceOperation.SET && request.getValue() < MIN_PRICE_AMOUNT) {
+            throw new CustomException("Price must be greater than or equal to " + MIN_PRICE_AMOUNT);
+        }
+        if (request.getOperation() == PriceOperation.PERCENT && request.getValue() <= -100) {
+            throw new CustomException("A percentage price change must be greater than -100");
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static Set<String> categoryNames(Product product) {
+        Set<String> names = new HashSet<>();
+        if (product.getCategory() != null && product.getCategory().getName() != null) {
+            names.add(product.getCategory().getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,67 @@
+package com.online.shopping.service;
+
+import com.online.shopping.entity.Product;
+import com.online.shopping.exception.CustomException;
+import com.online.shopping.exception.ResourceNotFoundException;
+import com.online.shopping.search.ProductSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+
+import static com.online.shopping.util.OnlineShoppingAppConstants.SORT_ORDER_DESC;
+
+/**
+ * Full-text product search over name, brand, description and attribute values.
+ * The search is answered by the in-memory {@link ProductSearchIndex}, it never queries MongoDB.
+ */
+@Service
+@Slf4j
+public class ProductSearchService {
+
+    private ProductSearchIndex productSearchIndex;
+
+    /**
+     * Constructor Injection - All Argument Constructor
+     * @param productSearchIndex
+     */
+    public ProductSearchService(ProductSearchIndex productSearchIndex) {
+        this.productSearchIndex = productSearchIndex;
+    }
+
+    /**
+     * Method to search the products matching every word of the query (a word may be the beginning of a product word).
+     * @param query
+     * @param inStock only the products with available inventory
+     * @param sortBy relevance / price
+     * @param sortOrder price order asc / desc
+     * @param pageNo page number starting at 0
+     * @param pagesize
+     * @return
+     */
+    public List<Product> searchProducts(String query, boolean inStock, String sortBy, String sortOrder, int pageNo, int pagesize) {
+        log.info("Entering in ProductSearchService searchProducts() method...");
+        if (query == null || query.isBlank()) {
+            throw new CustomException("Search query should not be blank");
+        }
+        if (pageNo < 0 || pagesize < 1) {
+            throw new CustomException("Page number should be greater than or equal to 0 and page size greater than or equal to 1");
+        }
+        ProductSearchIndex.SortBy order;
+        try {
+            order = ProductSearchIndex.SortBy.valueOf(sortBy.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new CustomException("Search results can only be sorted by relevance or price");
+        }
+
+        List<Product> products = productSearchIndex.search(query, inStock, order, !SORT_ORDER_DESC.equalsIgnoreCase(sortOrder),
+                (long) pageNo * pagesize, pagesize);
+        if (products.isEmpty()) {
+            log.debug("No product matches the search query : " + query);
+            throw new ResourceNotFoundException("No product matches the search query : " + query);
+        }
+        log.info("Exiting in ProductSearchService searchProducts() method...");
+        return products;
+    }
+}
@@ -1,21 +1,36 @@
 package com.online.shopping.service;
 
+import com.online.shopping.cache.CategoryRegistry;
+import com.online.shopping.dto.CursorPageDTO;
 import com.online.shopping.entity.Category;
 import com.online.shopping.entity.Product;
+import com.online.shopping.event.ProductChangedEvent;
+import com.online.shopping.exception.CustomException;
 import com.online.shopping.exception.ResourceNotFoundException;
 import com.online.shopping.repository.CategoryRepository;
 import com.online.shopping.repository.ProductRepository;
+import com.online.shopping.util.IdGenerator;
+import com.online.shopping.util.PageCursor;
+import com.online.shopping.util.ProductFields;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
-import static com.online.shopping.util.OnlineShoppingAppUtility.generateUserId;
+import static com.online.shopping.config.MetricsConfiguration.SERVICE_TIMER;
+import static com.online.shopping.util.OnlineShoppingAppConstants.SORT_ORDER_DESC;
 
 /**
  * 1. Admin can add a new product or delete an existing product.
@@ -25,38 +40,66 @@ import static com.online.shopping.util.OnlineShoppingAppUtility.generateUserId;
 
 @Service
 @Slf4j
+@Timed(SERVICE_TIMER)
 public class ProductService {
 
+    private static final Map<String, String> CURSOR_SORT_FIELDS = Map.of(
+            "name", "name", "brand", "brand", "price", "price.amount", "id", "id");
+
+    private static final Map<String, Function<Product, Object>> CURSOR_SORT_VALUES = Map.of(
+            "name", Product::getName,
+            "brand", Product::getBrand,
+            "price", p -> p.getPrice() == null ? null : p.getPrice().getAmount(),
+            "id", Product::getId);
+
     private ProductRepository productRepository;
 
     private CategoryRepository categoryRepository;
 
+    private ApplicationEventPublisher eventPublisher;
+
+    private IdGenerator idGenerator;
+
+    private CategoryRegistry categoryRegistry;
+
     /**
      * Constructor Injection - All Argument Constructor
      * @param productRepository
      * @param categoryRepository
+     * @param eventPublisher
+     * @param idGenerator
+     * @param categoryRegistry
      */
-    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository) {
+    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository,
+                          ApplicationEventPublisher eventPublisher, IdGenerator idGenerator,
+                          CategoryRegistry categoryRegistry) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
+        this.eventPublisher = eventPublisher;
+        this.idGenerator = idGenerator;
+        this.categoryRegistry = categoryRegistry;
     }
 
     /**
      * Method to save the product details to DB
+     * The generated id is unique, the product is inserted without checking for an existing one first.
      * @param product
      * @return
      */
     public Product saveProduct(Product product) {
         log.info("Entering in ProductService saveProduct() method...");
-        product.setId(generateUserId(10));
-        Optional<Product> savedProduct = productRepository.findById(product.getId());
-        if (!savedProduct.isEmpty()) {
+        product.setId(idGenerator.nextId());
+        saveCategory(product.getCategory());
+        Product createdProduct;
+        try {
+            createdProduct = productRepository.insert(product);
+        } catch (DuplicateKeyException e) {
             log.debug("Product already exist with given id:" + product.getId());
             throw new ResourceNotFoundException("Product already exist with given id:" + product.getId());
         }
         log.info("Exiting in ProductServiceImpl saveProduct() method...");
-        saveCategory(product.getCategory());
-        return productRepository.save(product);
+        publishChange(ProductChangedEvent.ChangeType.CREATED, createdProduct.getId(), createdProduct, categoryNames(createdProduct));
+        return createdProduct;
     }
 
     /**
@@ -65,11 +108,18 @@ public class ProductService {
      */
     public void saveCategory(Category category) {
         log.info("Entering in ProductService saveCategory() method...");
-        Optional<Category> categoryName = categoryRepository.findByName(category.getName());
+        Optional<Category> categoryName = categoryRegistry.findStoredByName(category.getName());
         if (categoryName.isEmpty()) {
             log.debug("Category database does not contains the record with provided name. Creating a new Entry !!!");
-            Category tempCategory = new Category(generateUserId(10), category.getName());
-            categoryRepository.save(tempCategory);
+            Category tempCategory = new Category(idGenerator.nextId(), category.getName());
+            try {
+                categoryRepository.insert(tempCategory);
+                categoryRegistry.register(tempCategory);
+            } catch (DuplicateKeyException e) {
+                // created meanwhile by another request or instance, the unique name index kept a single document
+                Category stored = categoryRegistry.findStoredByName(category.getName()).orElseThrow(() -> e);
+                log.debug("Category " + category.getName() + " was created concurrently with id " + stored.getId());
+            }
         }
         log.debug("Category database already contains the record with provided name...!");
         log.info("Exiting in ProductService saveCategory() method...");
@@ -113,6 +163,7 @@ public class ProductService {
         log.info("Entering in ProductServiceImpl updateProduct() method...");
         Product savedProduct = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found for this id :: " + productId));
+        Set<String> categoryNames = categoryNames(savedProduct);
 
         savedProduct.setName(product.getName());
         savedProduct.setBrand(product.getBrand());
@@ -122,6 +173,8 @@ public class ProductService {
         savedProduct.setInventory(product.getInventory());
         savedProduct.setAttributes(product.getAttributes());
         Product updatedProduct = productRepository.save(savedProduct);
+        categoryNames.addAll(categoryNames(updatedProduct));
+        publishChange(ProductChangedEvent.ChangeType.UPDATED, productId, updatedProduct, categoryNames);
         log.info("Exiting in ProductServiceImpl updateProduct() method...");
         return updatedProduct;
     }
@@ -135,6 +188,7 @@ public class ProductService {
         Optional<Product> savedProduct = productRepository.findById(id);
         if (!savedProduct.isEmpty()) {
             productRepository.deleteById(id);
+            publishChange(ProductChangedEvent.ChangeType.DELETED, id, null, categoryNames(savedProduct.get()));
             log.debug("product deleted with the provided id : " + id);
         } else {
             log.debug("Product is not exist with given id : " + id);
@@ -146,11 +200,13 @@ public class ProductService {
     /**
      * Get all the list of products using a category name specified.
      * @param category
+     * @param fields comma separated Product properties to return, null for the whole product
      * @return
      */
-    public List<Product> getProductByCategory(String category) {
+    public List<Product> getProductByCategory(String category, String fields) {
         log.info("Entering in ProductServiceImpl getProductByCategory() method...");
-        List<Product> products = productRepository.findByCategoryNameIgnoreCase(category);
+        Set<String> selectedFields = ProductFields.parse(fields);
+        List<Product> products = productRepository.findByCategory(category, selectedFields);
 
         if (products.isEmpty()) {
             log.debug("Product of " + category + " category is not available in database !");
@@ -163,19 +219,23 @@ public class ProductService {
 
     /**
      * Get all the list of products using a category name specified with Paging.
+     * The page is read as a Slice, so no count query is issued.
      * @param sortBy
      * @param pageNo
      * @param pagesize
+     * @param fields comma separated Product properties to return, null for the whole product
      * @return
      */
-    public List<Product> getProductByCategoryWithPaging(String sortBy, int pageNo, int pagesize) {
+    public List<Product> getProductByCategoryWithPaging(String sortBy, int pageNo, int pagesize, String fields) {
         log.info("Entering in ProductServiceImpl getProductByCategoryWithPaging() method...");
+        Set<String> selectedFields = ProductFields.parse(fields);
 
         Sort sort = Sort.by(Sort.Direction.ASC, sortBy);
         Pageable pageable = PageRequest.of(pageNo, pagesize, sort);
-        Page<Product> products = productRepository.findAll(pageable);
-        List<Product> productList = products.getContent();
-        if (products.isEmpty()) {
+        List<Product> productList = selectedFields == null
+                ? productRepository.findAllBy(pageable).getContent()
+                : productRepository.findPage(pageable, selectedFields);
+        if (productList.isEmpty()) {
             log.debug("Product is not available in database !");
             throw new ResourceNotFoundException("Product is not available in database !");
         }
@@ -183,4 +243,131 @@ public class ProductService {
         return productList;
     }
 
+    /**
+     * Get a page of products using keyset (cursor) pagination.
+     * The cursor carries the sort value and the id of the last product sent, the next page is a direct index seek.
+     * @param sortBy
+     * @param sortOrder
+     * @param after cursor returned with the previous page, null for the first page
+     * @param pagesize
+     * @param fields comma separated Product properties to return, null for the whole product
+     * @return
+     */
+    public CursorPageDTO getProductsAfterCursor(String sortBy, String sortOrder, String after, int pagesize, String fields) {
+        log.info("Entering in ProductServiceImpl getProductsAfterCursor() method...");
+        String sortKey = cursorSortKey(sortBy, pagesize);
+        Sort.Direction direction = SORT_ORDER_DESC.equalsIgnoreCase(sortOrder) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Set<String> selectedFields = cursorFields(fields, sortKey);
+        PageCursor cursor = decodeCursor(after, sortKey, direction);
+
+        // read one extra product to know whether a next page exists without counting
+        List<Product> products = productRepository.findPageAfter(CURSOR_SORT_FIELDS.get(sortKey), direction,
+                cursor == null ? null : cursor.getValue(), cursor == null ? null : cursor.getId(), pagesize + 1, selectedFields);
+        if (products.isEmpty() && cursor == null) {
+            log.debug("Product is not available in database !");
+            throw new ResourceNotFoundException("Product is not available in database !");
+        }
+        log.info("Exiting in ProductServiceImpl getProductsAfterCursor() method...");
+        return toCursorPage(products, pagesize, sortKey, direction);
+    }
+
+    /**
+     * Validate the cursor pagination request and return the normalized sort key.
+     * @param sortBy
+     * @param pagesize
+     * @return
+     */
+    static String cursorSortKey(String sortBy, int pagesize) {
+        String sortKey = sortBy.toLowerCase(Locale.ROOT);
+        if (!CURSOR_SORT_FIELDS.containsKey(sortKey)) {
+            log.debug("Cursor pagination is not supported for the sort key : " + sortBy);
+            throw new CustomException("Cursor pagination supports only the sort keys " + CURSOR_SORT_FIELDS.keySet());
+        }
+        if (pagesize < 1) {
+            throw new CustomException("Page size should be greater than or equal to 1");
+        }
+        return sortKey;
+    }
+
+    /**
+     * Document field of a cursor sort key.
+     * @param sortKey
+     * @return
+     */
+    static String cursorSortField(String sortKey) {
+        return CURSOR_SORT_FIELDS.get(sortKey);
+    }
+
+    /**
+     * Parse the requested fields, the sort value is always read because the next cursor is built from it.
+     * @param fields
+     * @param sortKey
+     * @return
+     */
+    static Set<String> cursorFields(String fields, String sortKey) {
+        Set<String> selectedFields = ProductFields.parse(fields);
+        if (selectedFields != null) {
+            selectedFields.add(sortKey);
+        }
+        return selectedFields;
+    }
+
+    /**
+     * Decode the cursor of the previous page and check it was issued for the same sorting.
+     * @param after
+     * @param sortKey
+     * @param direction
+     * @return null for the first page
+     */
+    static PageCursor decodeCursor(String after, String sortKey, Sort.Direction direction) {
+        if (after == null || after.isBlank()) {
+            return null;
+        }
+        PageCursor cursor = PageCursor.decode(after);
+        if (!sortKey.equals(cursor.getSortBy()) || !direction.name().equals(cursor.getSortOrder())) {
+            log.debug("Cursor was issued for a different sorting : " + cursor.getSortBy() + " " + cursor.getSortOrder());
+            throw new CustomException("Page cursor does not match the requested sortBy/sortOrder");
+        }
+        return cursor;
+    }
+
+    /**
+     * Build the cursor page from the products read with one extra product.
+     * @param products up to pagesize + 1 products
+     * @param pagesize
+     * @param sortKey
+     * @param direction
+     * @return
+     */
+    static CursorPageDTO toCursorPage(List<Product> products, int pagesize, String sortKey, Sort.Direction direction) {
+        boolean hasNext = products.size() > pagesize;
+        List<Product> page = hasNext ? products.subList(0, pagesize) : products;
+        String nextCursor = null;
+        if (hasNext) {
+            Product last = page.get(page.size() - 1);
+            nextCursor = new PageCursor(sortKey, direction.name(), CURSOR_SORT_VALUES.get(sortKey).apply(last), last.getId()).encode();
+        }
+        return new CursorPageDTO(page, nextCursor, hasNext);
+    }
+
+    /**
+     * Notify the read caches and indexes that a product has been written.
+     * @param changeType
+     * @param productId
+     * @param product
+     * @param categoryNames
+     */
+    private void publishChange(ProductChangedEvent.ChangeType changeType, String productId, Product product,
+                               Set<String> categoryNames) {
+        eventPublisher.publishEvent(new ProductChangedEvent(changeType, productId, product, categoryNames));
+    }
+
+    private static Set<String> categoryNames(Product product) {
+        Set<String> names = new HashSet<>();
+        if (product.getCategory() != null && product.getCategory().getName() != null) {
+            names.add(product.getCategory().getName());
+        }
+        return names;
+    }
+
 }
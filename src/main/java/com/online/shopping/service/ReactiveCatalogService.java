@@ -0,0 +1,172 @@
+package com.online.shopping.service;
+
+import com.online.shopping.dto.CategoryResponseDTO;
+import com.online.shopping.dto.CursorPageDTO;
+import com.online.shopping.dto.ProductResponseDTO;
+import com.online.shopping.dto.ResponseModalDTO;
+import com.online.shopping.entity.Product;
+import com.online.shopping.exception.CustomException;
+import com.online.shopping.exception.ProductNotAvailableException;
+import com.online.shopping.exception.ResourceNotFoundException;
+import com.online.shopping.repository.ReactiveCategoryRepository;
+import com.online.shopping.repository.ReactiveProductRepository;
+import com.online.shopping.util.PageCursor;
+import com.online.shopping.util.ProductFields;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+import static com.online.shopping.util.OnlineShoppingAppConstants.SORT_ORDER_DESC;
+
+/**
+ * Non-blocking variant of the catalog reads of {@link ProductService} and {@link CategoryService}, active with the
+ * 'reactive' profile. The queries, the validation and the error semantics are the same as the blocking services, the
+ * products are streamed from the database cursor following the demand of the client.
+ * The category pages are not cached on this stack, the reads go to MongoDB every time.
+ */
+@Service
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCatalogService {
+
+    private ReactiveProductRepository productRepository;
+
+    private ReactiveCategoryRepository categoryRepository;
+
+    /**
+     * Constructor Injection - All Argument Constructor
+     * @param productRepository
+     * @param categoryRepository
+     */
+    public ReactiveCatalogService(ReactiveProductRepository productRepository, ReactiveCategoryRepository categoryRepository) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * Stream all the products of the category specified.
+     * @param category
+     * @param fields comma separated Product properties to return, null for the whole product
+     * @return
+     */
+    public Flux<Product> getProductByCategory(String category, String fields) {
+        return Flux.defer(() -> {
+            log.info("Entering in ReactiveCatalogService getProductByCategory() method...");
+            Set<String> selectedFields = ProductFields.parse(fields);
+            return productRepository.findByCategory(category, selectedFields)
+                    .switchIfEmpty(Flux.error(() -> {
+                        log.debug("Product of " + category + " category is not available in database !");
+                        return new ResourceNotFoundException("Product of " + category + " category is not available in database !");
+                    }));
+        });
+    }
+
+    /**
+     * Stream one offset page of products.
+     * @param sortBy
+     * @param pageNo
+     * @param pagesize
+     * @param fields comma separated Product properties to return, null for the whole product
+     * @return
+     */
+    public Flux<Product> getProductByCategoryWithPaging(String sortBy, int pageNo, int pagesize, String fields) {
+        return Flux.defer(() -> {
+            log.info("Entering in ReactiveCatalogService getProductByCategoryWithPaging() method...");
+            Set<String> selectedFields = ProductFields.parse(fields);
+            PageRequest pageable = PageRequest.of(pageNo, pagesize, Sort.by(Sort.Direction.ASC, sortBy));
+            return productRepository.findPage(pageable, selectedFields)
+                    .switchIfEmpty(Flux.error(() -> {
+                        log.debug("Product is not available in database !");
+                        return new ResourceNotFoundException("Product is not available in database !");
+                    }));
+        });
+    }
+
+    /**
+     * Get a page of products using keyset (cursor) pagination, see {@link ProductService#getProductsAfterCursor}.
+     * @param sortBy
+     * @param sortOrder
+     * @param after cursor returned with the previous page, null for the first page
+     * @param pagesize
+     * @param fields comma separated Product properties to return, null for the whole product
+     * @return
+     */
+    public Mono<CursorPageDTO> getProductsAfterCursor(String sortBy, String sortOrder, String after, int pagesize, String fields) {
+        return Mono.defer(() -> {
+            log.info("Entering in ReactiveCatalogService getProductsAfterCursor() method...");
+            String sortKey = ProductService.cursorSortKey(sortBy, pagesize);
+            Sort.Direction direction = SORT_ORDER_DESC.equalsIgnoreCase(sortOrder) ? Sort.Direction.DESC : Sort.Direction.ASC;
+            Set<String> selectedFields = ProductService.cursorFields(fields, sortKey);
+            PageCursor cursor = ProductService.decodeCursor(after, sortKey, direction);
+
+            // read one extra product to know whether a next page exists without counting
+            return productRepository.findPageAfter(ProductService.cursorSortField(sortKey), direction,
+                            cursor == null ? null : cursor.getValue(), cursor == null ? null : cursor.getId(), pagesize + 1,
+                            selectedFields)
+                    .collectList()
+                    .map(products -> {
+                        if (products.isEmpty() && cursor == null) {
+                            log.debug("Product is not available in database !");
+                            throw new ResourceNotFoundException("Product is not available in database !");
+                        }
+                        return ProductService.toCursorPage(products, pagesize, sortKey, direction);
+                    });
+        });
+    }
+
+    /**
+     * Category page of the products with available inventory, see {@link CategoryService#getCategoryProduct}.
+     * @param categoryName
+     * @param sortBy
+     * @param sortOrder
+     * @param pageNo
+     * @param pageSize
+     * @param fields comma separated Product properties to return, null for the whole product
+     * @return
+     */
+    public Mono<ResponseModalDTO> getCategoryProduct(String categoryName, String sortBy, String sortOrder, int pageNo,
+                                                     int pageSize, String fields) {
+        return Mono.defer(() -> {
+            log.info("Entering in ReactiveCatalogService getCategoryProduct() method...");
+            Set<String> selectedFields = ProductFields.parse(fields);
+            return categoryRepository.findByName(categoryName)
+                    .switchIfEmpty(Mono.error(() -> {
+                        log.debug("category " + categoryName + "  is not available in database !");
+                        return new ResourceNotFoundException("category " + categoryName + "  is not available in database !");
+                    }))
+                    .flatMap(category -> {
+                        if (pageNo < 1) {
+                            log.debug("Invalid page number " + pageNo + " requested for category " + categoryName);
+                            return Mono.error(new CustomException("Page number should be greater than or equal to 1"));
+                        }
+                        Flux<Product> products = pageSize > 0
+                                ? productRepository.findSellableByCategory(categoryName, sortBy, sortOrder,
+                                (long) (pageNo - 1) * pageSize, pageSize, selectedFields)
+                                : Flux.empty();
+                        return products.collectList()
+                                .filterWhen(page -> page.isEmpty() ? productRepository.existsByCategory(categoryName) : Mono.just(true))
+                                .switchIfEmpty(Mono.error(() -> {
+                                    log.debug("products-service is not available!");
+                                    return new ProductNotAvailableException("products-service is not available, please try after some time ! ");
+                                }))
+                                .map(page -> {
+                                    CategoryResponseDTO categoryResponseDTO = new CategoryResponseDTO();
+                                    categoryResponseDTO.setId(category.getId());
+                                    categoryResponseDTO.setCategoryName(categoryName);
+                                    ProductResponseDTO productResponseDTO = new ProductResponseDTO();
+                                    productResponseDTO.setProducts(page);
+                                    ResponseModalDTO responseModalDTO = new ResponseModalDTO();
+                                    responseModalDTO.setProductResponseDTO(productResponseDTO);
+                                    responseModalDTO.setCategoryResponseDTO(categoryResponseDTO);
+                                    return responseModalDTO;
+                                });
+                    });
+        });
+    }
+}
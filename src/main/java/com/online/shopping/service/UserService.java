@@ -3,27 +3,35 @@ package com.online.shopping.service;
 import com.online.shopping.entity.UserInfo;
 import com.online.shopping.exception.ResourceNotFoundException;
 import com.online.shopping.repository.UserRepository;
-import com.online.shopping.util.OnlineShoppingAppUtility;
+import com.online.shopping.util.IdGenerator;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
 
+import static com.online.shopping.config.MetricsConfiguration.SERVICE_TIMER;
 import static com.online.shopping.util.OnlineShoppingAppConstants.USER_SAVED_SUCCESSFULLY;
 
 @Service
 @Slf4j
+@Timed(SERVICE_TIMER)
 public class UserService {
 
     private UserRepository userRepository;
 
+    private IdGenerator idGenerator;
+
     /**
      * Constructor Injection - All Argument Constructor
      * @param userRepository
+     * @param idGenerator
      */
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, IdGenerator idGenerator) {
         this.userRepository = userRepository;
+        this.idGenerator = idGenerator;
     }
 
     /**
@@ -37,20 +45,21 @@ public class UserService {
 
     /**
      * Method to save user to DB
+     * The generated id is unique, the user is inserted without checking for an existing one first.
      * @param userInfo
      * @return
      */
     public Optional<String> saveUser(UserInfo userInfo) {
         log.info("Started UserService  saveUser() method calling..");
-        userInfo.setId(OnlineShoppingAppUtility.generateUserId(15));
-        Optional<UserInfo> userInfoObject = userRepository.findById(userInfo.getId());
-        if (!userInfoObject.isEmpty()) {
+        userInfo.setId(idGenerator.nextId());
+        UserInfo user = new UserInfo(userInfo.getId(), userInfo.getName(),
+                userInfo.getEmail(), userInfo.getPassword(), userInfo.getRoles());
+        try {
+            userRepository.insert(user);
+        } catch (DuplicateKeyException e) {
             log.debug("User " + userInfo.getName() + "  is already available in database !");
             throw new ResourceNotFoundException("User " + userInfo.getName() + "  is already available in database !");
         }
-        UserInfo user = new UserInfo(userInfo.getId(), userInfo.getName(),
-                userInfo.getEmail(), userInfo.getPassword(), userInfo.getRoles());
-        userRepository.save(user);
         log.debug("User Object Successfully Saved to DB", user);
 
         log.info("Exiting | UserService  saveUser() method calling..");
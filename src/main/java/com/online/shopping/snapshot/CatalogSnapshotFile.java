@@ -0,0 +1,350 @@
+package com.online.shopping.snapshot;
+
+import com.online.shopping.entity.Attributes;
+import com.online.shopping.entity.Category;
+import com.online.shopping.entity.Inventory;
+import com.online.shopping.entity.Price;
+import com.online.shopping.entity.Product;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Compact binary snapshot of the catalog (categories and products), written and read through memory-mapped regions.
+ * <p>
+ * 1. Layout : a fixed header, the category records, the product records, then the segment table holding the file
+ * offset of every segment of segment-size product records. There are no field names nor type tags: every record is
+ * its fields in a fixed order, strings as their UTF-8 length (-1 for null) and bytes, absent nested values as a 0 flag.
+ * 2. The file is written to a temporary file through mapped windows grown as the products are streamed, the header is
+ * written last, then the file replaces the previous snapshot atomically: a crash never leaves a partial snapshot.
+ * 3. The segments are mapped and decoded in parallel, each by its own mapping, so a large snapshot is not limited by
+ * the 2 GB of a single mapping and its decoding scales with the cores.
+ */
+final class CatalogSnapshotFile {
+
+    /**
+     * Content of a snapshot.
+     * @param takenAt time the reading of the catalog started, the writes after it may be missing from the snapshot
+     * @param categories
+     * @param products in the order they were written
+     */
+    record Contents(Instant takenAt, List<Category> categories, List<Product> products) {
+    }
+
+    static final int MAGIC = 0x43534E50;
+    static final int VERSION = 1;
+
+    // magic, version, takenAt, category count, product count, segment size, segment count, segment table offset
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4 + 4 + 4 + 8;
+
+    private static final int WINDOW_BYTES = 16 << 20;
+
+    private CatalogSnapshotFile() {
+    }
+
+    /**
+     * Method to write a snapshot, replacing the existing one once complete.
+     * @param path
+     * @param takenAt
+     * @param categories
+     * @param products streamed to the file, never held in memory
+     * @param segmentSize number of products per segment, the unit of the parallel decoding
+     * @return number of products written
+     * @throws IOException
+     */
+    static long write(Path path, Instant takenAt, Collection<Category> categories, Stream<Product> products,
+                      int segmentSize) throws IOException {
+        if (path.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        long productCount = 0;
+        List<Long> segments = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(temporary, CREATE, TRUNCATE_EXISTING, READ, WRITE)) {
+            MappedOutput output = new MappedOutput(channel, HEADER_BYTES);
+            RecordEncoder encoder = new RecordEncoder();
+            for (Category category : categories) {
+                output.put(encoder.category(category));
+            }
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                if (productCount % segmentSize == 0) {
+                    segments.add(output.position());
+                }
+                output.put(encoder.product(iterator.next()));
+                productCount++;
+            }
+            long segmentTable = output.position();
+            segments.add(segmentTable);
+            ByteBuffer table = ByteBuffer.allocate(segments.size() * Long.BYTES);
+            segments.forEach(table::putLong);
+            output.put(table.flip());
+            long end = output.position();
+            output.force();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(takenAt.toEpochMilli())
+                    .putInt(categories.size())
+                    .putInt(Math.toIntExact(productCount))
+                    .putInt(segmentSize)
+                    .putInt(segments.size() - 1)
+                    .putLong(segmentTable)
+                    .flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.truncate(end);
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return productCount;
+    }
+
+    /**
+     * Method to read a snapshot, the product segments are decoded in parallel.
+     * @param path
+     * @return
+     * @throws IOException when the file is not a snapshot of this version
+     */
+    static Contents read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException(path + " is not a catalog snapshot of version " + VERSION);
+            }
+            Instant takenAt = Instant.ofEpochMilli(header.getLong());
+            int categoryCount = header.getInt();
+            int productCount = header.getInt();
+            int segmentSize = header.getInt();
+            int segmentCount = header.getInt();
+            long segmentTable = header.getLong();
+            ByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, segmentTable, (segmentCount + 1L) * Long.BYTES);
+            long[] segments = new long[segmentCount + 1];
+            for (int i = 0; i <= segmentCount; i++) {
+                segments[i] = table.getLong();
+            }
+
+            long categoriesEnd = segmentCount == 0 ? segmentTable : segments[0];
+            RecordDecoder categoryDecoder = new RecordDecoder(
+                    channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, categoriesEnd - HEADER_BYTES));
+            List<Category> categories = new ArrayList<>(categoryCount);
+            for (int i = 0; i < categoryCount; i++) {
+                categories.add(categoryDecoder.category());
+            }
+
+            List<List<Product>> decoded = IntStream.range(0, segmentCount).parallel()
+                    .mapToObj(segment -> {
+                        int count = Math.min(segmentSize, productCount - segment * segmentSize);
+                        try {
+                            RecordDecoder decoder = new RecordDecoder(channel.map(FileChannel.MapMode.READ_ONLY,
+                                    segments[segment], segments[segment + 1] - segments[segment]));
+                            List<Product> products = new ArrayList<>(count);
+                            for (int i = 0; i < count; i++) {
+                                products.add(decoder.product());
+                            }
+                            return products;
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .toList();
+            List<Product> products = new ArrayList<>(productCount);
+            decoded.forEach(products::addAll);
+            return new Contents(takenAt, categories, products);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Sequential writer over mapped windows of the file, a new window is mapped when a record does not fit.
+     */
+    private static final class MappedOutput {
+
+        private final FileChannel channel;
+
+        private MappedByteBuffer window;
+
+        private long windowStart;
+
+        private MappedOutput(FileChannel channel, long start) throws IOException {
+            this.channel = channel;
+            map(start, WINDOW_BYTES);
+        }
+
+        long position() {
+            return windowStart + window.position();
+        }
+
+        void put(ByteBuffer record) throws IOException {
+            if (record.remaining() > window.remaining()) {
+                window.force();
+                map(position(), Math.max(WINDOW_BYTES, record.remaining()));
+            }
+            window.put(record);
+        }
+
+        void force() {
+            window.force();
+        }
+
+        private void map(long start, int size) throws IOException {
+            windowStart = start;
+            window = channel.map(FileChannel.MapMode.READ_WRITE, start, size);
+        }
+    }
+
+    /**
+     * Encodes one record at a time in a reused buffer, grown when a record does not fit.
+     */
+    private static final class RecordEncoder {
+
+        private ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+        ByteBuffer category(Category category) {
+            while (true) {
+                try {
+                    buffer.clear();
+                    putString(category.getId());
+                    putString(category.getName());
+                    return buffer.flip();
+                } catch (BufferOverflowException e) {
+                    buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+                }
+            }
+        }
+
+        ByteBuffer product(Product product) {
+            while (true) {
+                try {
+                    buffer.clear();
+                    putProduct(product);
+                    return buffer.flip();
+                } catch (BufferOverflowException e) {
+                    buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+                }
+            }
+        }
+
+        private void putProduct(Product product) {
+            putString(product.getId());
+            putString(product.getName());
+            putString(product.getBrand());
+            putString(product.getDescription());
+            Price price = product.getPrice();
+            buffer.put((byte) (price == null ? 0 : 1));
+            if (price != null) {
+                putString(price.getCurrency());
+                buffer.put((byte) (price.getAmount() == null ? 0 : 1));
+                if (price.getAmount() != null) {
+                    buffer.putDouble(price.getAmount());
+                }
+            }
+            Inventory inventory = product.getInventory();
+            buffer.put((byte) (inventory == null ? 0 : 1));
+            if (inventory != null) {
+                buffer.putInt(inventory.getTotal()).putInt(inventory.getAvailable()).putInt(inventory.getReserved());
+            }
+            Collection<Attributes> attributes = product.getAttributes();
+            buffer.putInt(attributes == null ? -1 : attributes.size());
+            if (attributes != null) {
+                for (Attributes attribute : attributes) {
+                    putString(attribute.getName());
+                    putString(attribute.getValue());
+                }
+            }
+            Category category = product.getCategory();
+            buffer.put((byte) (category == null ? 0 : 1));
+            if (category != null) {
+                putString(category.getId());
+                putString(category.getName());
+            }
+        }
+
+        private void putString(String value) {
+            if (value == null) {
+                buffer.putInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            buffer.putInt(bytes.length).put(bytes);
+        }
+    }
+
+    /**
+     * Decodes the records of one mapped region, in the order they were written.
+     */
+    private static final class RecordDecoder {
+
+        private final ByteBuffer buffer;
+
+        private RecordDecoder(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        Category category() {
+            return new Category(getString(), getString());
+        }
+
+        Product product() {
+            Product product = new Product();
+            product.setId(getString());
+            product.setName(getString());
+            product.setBrand(getString());
+            product.setDescription(getString());
+            if (buffer.get() != 0) {
+                String currency = getString();
+                product.setPrice(new Price(currency, buffer.get() != 0 ? buffer.getDouble() : null));
+            }
+            if (buffer.get() != 0) {
+                product.setInventory(new Inventory(buffer.getInt(), buffer.getInt(), buffer.getInt()));
+            }
+            int attributeCount = buffer.getInt();
+            if (attributeCount >= 0) {
+                List<Attributes> attributes = new ArrayList<>(attributeCount);
+                for (int i = 0; i < attributeCount; i++) {
+                    attributes.add(new Attributes(getString(), getString()));
+                }
+                product.setAttributes(attributes);
+            } else {
+                product.setAttributes(null);
+            }
+            if (buffer.get() != 0) {
+                product.setCategory(new Category(getString(), getString()));
+            }
+            return product;
+        }
+
+        private String getString() {
+            int length = buffer.getInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.online.shopping.snapshot;
+
+import com.online.shopping.cache.CategoryColumnIndex;
+import com.online.shopping.cache.CategoryRegistry;
+import com.online.shopping.entity.Category;
+import com.online.shopping.entity.Product;
+import com.online.shopping.repository.CategoryRepository;
+import com.online.shopping.repository.ProductRepository;
+import com.online.shopping.search.ProductSearchIndex;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Warm start of the read caches (category registry, category column index, product search index) from a catalog
+ * snapshot file, instead of reading the whole products collection at every start.
+ * <p>
+ * 1. When app.catalog.snapshot.path is set, the catalog is written to the snapshot file every
+ * app.catalog.snapshot.interval and at shutdown, see {@link CatalogSnapshotFile}.
+ * 2. At startup, once the beans are created and before the web server and the scheduled reloads start, the snapshot
+ * is read, then caught up with the products modified since it was taken (minus the catch-up margin, for the clock skew
+ * between the nodes) and without the products deleted since (ids missing from an id-only scan). The few categories
+ * are read again from the DB, so the categories created since the snapshot are known. The three caches are then
+ * loaded in parallel from the merged catalog, and skip their own first load from the DB.
+ * 3. Without a snapshot, or when it cannot be read, the caches load from the DB as before (cold start).
+ */
+@Component
+@Slf4j
+public class CatalogWarmStart implements SmartInitializingSingleton {
+
+    private static final List<String> ID_FIELDS = List.of("id");
+
+    private final ProductRepository productRepository;
+
+    private final CategoryRepository categoryRepository;
+
+    private final CategoryRegistry categoryRegistry;
+
+    private final CategoryColumnIndex categoryColumnIndex;
+
+    private final ProductSearchIndex productSearchIndex;
+
+    private final Path path;
+
+    private final boolean enabled;
+
+    private final Duration catchUpMargin;
+
+    private final int segmentSize;
+
+    private final int loadBatchSize;
+
+    private volatile boolean warmStarted;
+
+    /**
+     * Constructor Injection - All Argument Constructor
+     * @param productRepository
+     * @param categoryRepository
+     * @param categoryRegistry
+     * @param categoryColumnIndex
+     * @param productSearchIndex
+     * @param path snapshot file, none when blank
+     * @param enabled whether the caches are loaded from the snapshot at startup
+     * @param catchUpMargin
+     * @param segmentSize
+     * @param loadBatchSize
+     */
+    public CatalogWarmStart(ProductRepository productRepository, CategoryRepository categoryRepository,
+                            CategoryRegistry categoryRegistry, CategoryColumnIndex categoryColumnIndex,
+                            ProductSearchIndex productSearchIndex,
+                            @Value("${app.catalog.snapshot.path:}") Path path,
+                            @Value("${app.catalog.snapshot.enabled:true}") boolean enabled,
+                            @Value("${app.catalog.snapshot.catch-up-margin:PT30S}") Duration catchUpMargin,
+                            @Value("${app.catalog.snapshot.segment-size:4096}") int segmentSize,
+                            @Value("${app.catalog.snapshot.load-batch-size:1000}") int loadBatchSize) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.categoryRegistry = categoryRegistry;
+        this.categoryColumnIndex = categoryColumnIndex;
+        this.productSearchIndex = productSearchIndex;
+        this.path = path == null || path.toString().isBlank() ? null : path;
+        this.enabled = enabled;
+        this.catchUpMargin = catchUpMargin;
+        this.segmentSize = segmentSize;
+        this.loadBatchSize = loadBatchSize;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled || path == null || !Files.exists(path)) {
+            log.info("No catalog snapshot to load, the caches load from the DB");
+            return;
+        }
+        try {
+            warmStart();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not load the catalog snapshot " + path + ", the caches load from the DB", e);
+        }
+    }
+
+    /**
+     * @return whether the caches were loaded from the catalog snapshot at startup
+     */
+    public boolean isWarmStarted() {
+        return warmStarted;
+    }
+
+    /**
+     * @return whether every cache has been loaded once, from the snapshot or from the DB
+     */
+    public boolean isWarm() {
+        return categoryRegistry.isLoaded() && categoryColumnIndex.isLoaded() && productSearchIndex.isLoaded();
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.snapshot.interval:PT10M}",
+            initialDelayString = "${app.catalog.snapshot.interval:PT10M}")
+    public void scheduledSnapshot() {
+        snapshotQuietly();
+    }
+
+    @PreDestroy
+    public void close() {
+        snapshotQuietly();
+    }
+
+    /**
+     * Method to write the catalog to the snapshot file, replaced atomically once complete.
+     * @return the number of products written
+     * @throws IOException
+     */
+    public long snapshot() throws IOException {
+        if (path == null) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        Instant takenAt = Instant.now();
+        List<Category> categories = categoryRepository.findAll();
+        long written;
+        try (Stream<Product> products = productRepository.streamAll(loadBatchSize)) {
+            written = CatalogSnapshotFile.write(path, takenAt, categories, products, segmentSize);
+        }
+        log.info("Wrote " + categories.size() + " categories and " + written + " products to the catalog snapshot "
+                + path + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return written;
+    }
+
+    private void warmStart() throws IOException {
+        long start = System.nanoTime();
+        CatalogSnapshotFile.Contents snapshot = CatalogSnapshotFile.read(path);
+        long read = System.nanoTime();
+
+        Set<String> ids;
+        try (Stream<Product> stream = productRepository.streamAll(loadBatchSize, ID_FIELDS)) {
+            ids = stream.map(Product::getId).collect(Collectors.toSet());
+        }
+        Map<String, Product> productsById = new LinkedHashMap<>(snapshot.products().size() * 2);
+        snapshot.products().forEach(product -> productsById.put(product.getId(), product));
+        int deleted = productsById.size();
+        productsById.keySet().retainAll(ids);
+        deleted -= productsById.size();
+        int modified = 0;
+        try (Stream<Product> stream = productRepository.streamModifiedSince(
+                snapshot.takenAt().minus(catchUpMargin), loadBatchSize, null)) {
+            for (Product product : (Iterable<Product>) stream::iterator) {
+                productsById.put(product.getId(), product);
+                modified++;
+            }
+        }
+        List<Product> products = new ArrayList<>(productsById.values());
+        List<Category> categories = categoryRepository.findAll();
+        long caughtUp = System.nanoTime();
+
+        try {
+            CompletableFuture.allOf(
+                    CompletableFuture.runAsync(() -> categoryRegistry.warmStart(categories)),
+                    CompletableFuture.runAsync(() -> categoryColumnIndex.warmStart(products)),
+                    CompletableFuture.runAsync(() -> productSearchIndex.warmStart(products))).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        warmStarted = true;
+        log.info("Warm start from the catalog snapshot " + path + " taken at " + snapshot.takenAt() + ": read "
+                + snapshot.products().size() + " products in " + (read - start) / 1_000_000 + " ms, caught up "
+                + modified + " modified and " + deleted + " deleted products and " + categories.size()
+                + " categories in " + (caughtUp - read) / 1_000_000
+                + " ms, loaded the caches in " + (System.nanoTime() - caughtUp) / 1_000_000 + " ms");
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.error("Unable to write the catalog snapshot " + path, e);
+        }
+    }
+}
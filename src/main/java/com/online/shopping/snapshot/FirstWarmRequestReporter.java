@@ -0,0 +1,59 @@
+package com.online.shopping.snapshot;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reports the startup time to the first warm request: the time from the JVM start to the end of the first request
+ * handled once every read cache is loaded, logged once and published as the app.startup.first.warm.request gauge
+ * (NaN until then).
+ * <p>
+ * 1. The requests are seen through the {@link ServletRequestHandledEvent} the DispatcherServlet publishes at the end
+ * of every request, so only the servlet stack is reported.
+ * 2. Once reported, a request costs a volatile read.
+ */
+@Component
+@Slf4j
+public class FirstWarmRequestReporter {
+
+    private final CatalogWarmStart catalogWarmStart;
+
+    private final AtomicLong firstWarmRequestMillis = new AtomicLong(-1);
+
+    private volatile boolean reported;
+
+    /**
+     * Constructor Injection - All Argument Constructor
+     * @param catalogWarmStart
+     * @param meterRegistry
+     */
+    public FirstWarmRequestReporter(CatalogWarmStart catalogWarmStart, MeterRegistry meterRegistry) {
+        this.catalogWarmStart = catalogWarmStart;
+        TimeGauge.builder("app.startup.first.warm.request", firstWarmRequestMillis, TimeUnit.MILLISECONDS,
+                        millis -> millis.get() < 0 ? Double.NaN : millis.get())
+                .description("Time from the JVM start to the end of the first request handled with warm caches")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onRequestHandled(ServletRequestHandledEvent event) {
+        if (reported || !catalogWarmStart.isWarm()) {
+            return;
+        }
+        long millis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        if (firstWarmRequestMillis.compareAndSet(-1, millis)) {
+            reported = true;
+            log.info("First warm request (" + event.getMethod() + " " + event.getRequestUrl() + ") handled " + millis
+                    + " ms after the JVM start, " + (catalogWarmStart.isWarmStarted()
+                    ? "warm start from the catalog snapshot" : "cold start from the DB"));
+        }
+    }
+}
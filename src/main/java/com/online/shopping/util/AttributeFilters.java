@@ -0,0 +1,55 @@
+package com.online.shopping.util;
+
+import com.online.shopping.exception.CustomException;
+import org.springframework.util.MultiValueMap;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Parser of the attribute filters of the category listing, e.g. attr.color=red&attr.color=blue&attr.size=M: every
+ * request parameter named attr.&lt;attribute name&gt; is a filter, its values are the accepted attribute values. The
+ * other request parameters (cache busters, tracking parameters, misspelled listing parameters) are not filters, so
+ * they neither empty the listing nor create new cache and ETag keys.
+ * The filters are sorted by name and value, so the same filters always give the same cache and ETag key.
+ */
+public final class AttributeFilters {
+
+    public static final String ATTRIBUTE_PREFIX = "attr.";
+
+    private AttributeFilters() {
+    }
+
+    /**
+     * Method to extract the attribute filters from the request parameters.
+     * @param parameters all request parameters
+     * @return attribute name -> accepted values, empty when no attribute is filtered
+     */
+    public static SortedMap<String, List<String>> parse(MultiValueMap<String, String> parameters) {
+        SortedMap<String, List<String>> filters = new TreeMap<>();
+        if (parameters == null) {
+            return filters;
+        }
+        for (Map.Entry<String, List<String>> parameter : parameters.entrySet()) {
+            if (!parameter.getKey().startsWith(ATTRIBUTE_PREFIX) || parameter.getValue() == null) {
+                continue;
+            }
+            String name = parameter.getKey().substring(ATTRIBUTE_PREFIX.length());
+            if (name.isBlank()) {
+                throw new CustomException("Attribute filter parameter '" + parameter.getKey()
+                        + "' has no attribute name, e.g. " + ATTRIBUTE_PREFIX + "color=red");
+            }
+            List<String> values = parameter.getValue().stream()
+                    .filter(value -> value != null && !value.isBlank())
+                    .distinct()
+                    .sorted()
+                    .toList();
+            if (!values.isEmpty()) {
+                filters.put(name, values);
+            }
+        }
+        return filters;
+    }
+}
@@ -0,0 +1,11 @@
+package com.online.shopping.util;
+
+/**
+ * Source of the ids assigned to new documents (products, categories, users).
+ * Implementations must be thread safe and must never return the same id twice, callers insert without
+ * checking for an existing document first.
+ */
+public interface IdGenerator {
+
+    String nextId();
+}
@@ -7,6 +7,13 @@ public class OnlineShoppingAppConstants {
     public static final String PRODUCT = "product";
     public static final String USERINFO = "user_info";
 
+    public static final String SORT_BY_PRICE = "price";
+    public static final String SORT_BY_INVENTORY = "inventory";
+    public static final String SORT_ORDER_DESC = "desc";
+
+    // same minimum as the @DecimalMin of Price.amount
+    public static final double MIN_PRICE_AMOUNT = 1.00;
+
     public static final String USER_SAVED_SUCCESSFULLY = "USER SAVED SUCCESSFULLY";
 
     public static final String USER_ALREADY_EXIST = "User Already Exist. Please Login with Mail and password..!!!";
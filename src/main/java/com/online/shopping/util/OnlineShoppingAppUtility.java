@@ -38,7 +38,6 @@ public class OnlineShoppingAppUtility {
         String number = "0123456789";
 
         String randomString = upperChar + number;
-        SecureRandom random = new SecureRandom();
 
         if (length < 1)
             throw new IllegalArgumentException();
@@ -46,7 +45,7 @@ public class OnlineShoppingAppUtility {
         StringBuilder sb = new StringBuilder(length);
 
         for (int i = 0; i < length; i++) {
-            int rndCharAt = random.nextInt(randomString.length());
+            int rndCharAt = RANDOM.nextInt(randomString.length());
             char rndChar = randomString.charAt(rndCharAt);
             sb.append(rndChar);
         }
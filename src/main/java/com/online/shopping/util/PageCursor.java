@@ -0,0 +1,56 @@
+package com.online.shopping.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.online.shopping.exception.CustomException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * Position of a keyset (cursor) page: the sort key and direction of the listing plus the sort value and id of the
+ * last product returned. It is handed to the clients as an opaque url-safe token.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageCursor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private String sortBy;
+    private String sortOrder;
+    private Object value;
+    private String id;
+
+    /**
+     * Method to encode the cursor to the opaque token sent to the clients
+     * @return
+     */
+    public String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(this));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to encode the page cursor", e);
+        }
+    }
+
+    /**
+     * Method to decode a token received from a client
+     * @param token
+     * @return
+     */
+    public static PageCursor decode(String token) {
+        try {
+            PageCursor cursor = MAPPER.readValue(Base64.getUrlDecoder().decode(token), PageCursor.class);
+            if (cursor.getSortBy() == null || cursor.getId() == null) {
+                throw new CustomException("Invalid page cursor : " + token);
+            }
+            return cursor;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new CustomException("Invalid page cursor : " + token);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.online.shopping.util;
+
+import com.online.shopping.exception.CustomException;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parser of the fields= request parameter (sparse fieldsets) of the product listings, e.g. fields=name,price,inventory.
+ * The selected Product properties become a MongoDB projection, the other properties are neither read from the
+ * database nor serialized. The id is always returned.
+ */
+public final class ProductFields {
+
+    public static final List<String> SELECTABLE_FIELDS = List.of(
+            "id", "name", "brand", "description", "price", "inventory", "attributes", "category");
+
+    private ProductFields() {
+    }
+
+    /**
+     * Method to parse a comma separated list of Product properties.
+     * @param fields request parameter value
+     * @return the selected properties including id, null when no selection was requested (whole product)
+     */
+    public static Set<String> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!SELECTABLE_FIELDS.contains(name)) {
+                throw new CustomException("Unknown product field '" + name + "', the supported fields are " + SELECTABLE_FIELDS);
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
+}
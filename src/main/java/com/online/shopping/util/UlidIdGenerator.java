@@ -0,0 +1,84 @@
+package com.online.shopping.util;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.Random;
+
+/**
+ * Monotonic ULID generator: 26 Crockford base32 characters, a 48 bit millisecond timestamp followed by
+ * 80 random bits (https://github.com/ulid/spec).
+ * <p>
+ * Ids sort in creation order, so new documents are appended at the right edge of the _id index instead of
+ * being scattered across it. Within the same millisecond (or if the clock moves backwards) the random part of the
+ * previous id is incremented, so the ids of one generator are strictly increasing and never repeat.
+ */
+public class UlidIdGenerator implements IdGenerator {
+
+    private static final char[] ENCODING = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private static final int ID_LENGTH = 26;
+
+    private static final long MAX_TIMESTAMP = (1L << 48) - 1;
+
+    private final Clock clock;
+
+    private final Random random;
+
+    private long lastTimestamp = -1;
+
+    // 80 random bits, 16 high bits and 64 low bits
+    private long randomHigh;
+
+    private long randomLow;
+
+    public UlidIdGenerator() {
+        this(Clock.systemUTC(), new SecureRandom());
+    }
+
+    public UlidIdGenerator(Clock clock, Random random) {
+        this.clock = clock;
+        this.random = random;
+    }
+
+    @Override
+    public String nextId() {
+        long timestamp;
+        long high;
+        long low;
+        synchronized (this) {
+            long now = clock.millis();
+            if (now > lastTimestamp) {
+                lastTimestamp = now;
+                randomHigh = random.nextInt() & 0xFFFFL;
+                randomLow = random.nextLong();
+            } else if (++randomLow == 0) {
+                randomHigh = (randomHigh + 1) & 0xFFFFL;
+                if (randomHigh == 0) {
+                    // 80 bit overflow within one millisecond, borrow the next millisecond
+                    lastTimestamp++;
+                }
+            }
+            if (lastTimestamp > MAX_TIMESTAMP) {
+                throw new IllegalStateException("ULID timestamp overflow");
+            }
+            timestamp = lastTimestamp;
+            high = randomHigh;
+            low = randomLow;
+        }
+        return encode(timestamp, high, low);
+    }
+
+    private static String encode(long timestamp, long high, long low) {
+        char[] chars = new char[ID_LENGTH];
+        for (int i = ID_LENGTH - 1; i >= 10; i--) {
+            chars[i] = ENCODING[(int) (low & 31)];
+            low = (low >>> 5) | (high << 59);
+            high >>>= 5;
+        }
+        for (int i = 9; i >= 0; i--) {
+            chars[i] = ENCODING[(int) (timestamp & 31)];
+            timestamp >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,66 @@
+package com.online.shopping.advice;
+
+import com.online.shopping.repository.ProductRepositoryCustomImpl;
+import com.online.shopping.service.ProductService;
+import com.online.shopping.util.OnlineShoppingAppUtility;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.ClassFilter;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AOPLoggingAdviceTest {
+
+    @DisplayName("Junit Test case for advisor method - only the classes of the configured packages are advised")
+    @Test
+    void givenPackages_whenAdvisor_thenOnlyPackagesMatched() {
+        // given - precondition or setup
+        AOPLoggingAdvice advice = new AOPLoggingAdvice(AOPLoggingAdvice.Mode.TIMING,
+                List.of("com.online.shopping.controller", " com.online.shopping.service"), 1.0, 2048);
+
+        // when -  action or the behaviour that we are going test
+        ClassFilter classFilter = advice.advisor().getPointcut().getClassFilter();
+
+        // then - verify the output
+        assertThat(classFilter.matches(ProductService.class)).isTrue();
+        assertThat(classFilter.matches(ProductRepositoryCustomImpl.class)).isFalse();
+        assertThat(classFilter.matches(OnlineShoppingAppUtility.class)).isFalse();
+    }
+
+    @DisplayName("Junit Test case for toJson method - stops the serialization once the payload limit is reached")
+    @Test
+    void givenLargePayload_whenToJson_thenTruncatedEarly() {
+        // given - precondition or setup
+        AtomicInteger serialized = new AtomicInteger();
+        List<Item> items = IntStream.range(0, 10_000).mapToObj(i -> new Item(i, serialized)).toList();
+        AOPLoggingAdvice advice = new AOPLoggingAdvice(AOPLoggingAdvice.Mode.FULL, List.of("com.online.shopping"), 1.0, 200);
+
+        // when -  action or the behaviour that we are going test
+        String json = advice.toJson(items);
+
+        // then - verify the output
+        assertThat(json).endsWith("...(truncated)");
+        assertThat(json).hasSize(200 + "...(truncated)".length());
+        assertThat(serialized.get()).isLessThan(20);
+    }
+
+    public static final class Item {
+
+        private final int number;
+        private final AtomicInteger serialized;
+
+        Item(int number, AtomicInteger serialized) {
+            this.number = number;
+            this.serialized = serialized;
+        }
+
+        public String getName() {
+            serialized.incrementAndGet();
+            return "item " + number;
+        }
+    }
+}
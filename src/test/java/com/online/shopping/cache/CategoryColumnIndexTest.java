@@ -0,0 +1,158 @@
+package com.online.shopping.cache;
+
+import com.online.shopping.entity.Attributes;
+import com.online.shopping.entity.Category;
+import com.online.shopping.entity.Inventory;
+import com.online.shopping.entity.Price;
+import com.online.shopping.entity.Product;
+import com.online.shopping.event.ProductChangedEvent;
+import com.online.shopping.event.ProductsChangedEvent;
+import com.online.shopping.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+
+@SpringBootTest
+class CategoryColumnIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private CategoryColumnIndex categoryColumnIndex;
+
+    private Category category;
+
+    @BeforeEach
+    public void setup() {
+        categoryColumnIndex = new CategoryColumnIndex(productRepository, 1000);
+        category = new Category("testCategId", "Electronics");
+    }
+
+    private Product product(String id, double price, int available, int reserved) {
+        return new Product(id, "name" + id, "brand", "description", new Price("USD", price),
+                new Inventory(available + reserved, available, reserved), List.of(), category);
+    }
+
+    @DisplayName("Junit Test case for findSellableIds method - does not answer before the index is loaded")
+    @Test
+    void givenIndexNotLoaded_whenFindSellableIds_thenReturnNull() {
+        // when -  action or the behaviour that we are going test
+        List<String> ids = categoryColumnIndex.findSellableIds("Electronics", "price", "asc", 0, 10, Map.of());
+
+        // then - verify the output
+        assertThat(ids).isNull();
+        assertThat(categoryColumnIndex.hasProducts("Electronics")).isNull();
+    }
+
+    @DisplayName("Junit Test case for findSellableIds method - pages sellable products by price and inventory")
+    @Test
+    void givenLoadedIndex_whenFindSellableIds_thenReturnSortedSellablePage() {
+        // given - precondition or setup
+        given(productRepository.streamAll(anyInt(), any())).willReturn(Stream.of(
+                product("a", 30.0, 5, 1), product("b", 10.0, 50, 1), product("c", 20.0, 2, 2), product("d", 20.0, 8, 0)));
+        categoryColumnIndex.refresh();
+
+        // when -  action or the behaviour that we are going test
+        List<String> byPrice = categoryColumnIndex.findSellableIds("electronics", "price", "asc", 0, 10, Map.of());
+        List<String> byInventoryDesc = categoryColumnIndex.findSellableIds("ELECTRONICS", "inventory", "desc", 1, 2, Map.of());
+        List<String> byName = categoryColumnIndex.findSellableIds("Electronics", "name", "asc", 0, 10, Map.of());
+
+        // then - verify the output
+        assertThat(byPrice).containsExactly("b", "d", "a");
+        assertThat(byInventoryDesc).containsExactly("d", "a");
+        assertThat(byName).isNull();
+        assertThat(categoryColumnIndex.hasProducts("Electronics")).isTrue();
+        assertThat(categoryColumnIndex.memoryReport().get("electronics")).containsEntry("products", 4L);
+    }
+
+    @DisplayName("Junit Test case for onProductChanged method - applies product writes and category moves")
+    @Test
+    void givenProductWrites_whenFindSellableIds_thenReflectWrites() {
+        // given - precondition or setup
+        Product moved = product("a", 30.0, 5, 1);
+        given(productRepository.streamAll(anyInt(), any())).willReturn(Stream.of(moved, product("b", 10.0, 50, 1)));
+        categoryColumnIndex.refresh();
+
+        // when -  action or the behaviour that we are going test
+        Product cheaper = product("b", 40.0, 50, 1);
+        categoryColumnIndex.onProductChanged(new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED,
+                "b", cheaper, Set.of("Electronics")));
+        moved.setCategory(new Category("otherId", "Laptops"));
+        categoryColumnIndex.onProductChanged(new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED,
+                "a", moved, Set.of("Electronics", "Laptops")));
+
+        // then - verify the output
+        assertThat(categoryColumnIndex.findSellableIds("Electronics", "price", "asc", 0, 10, Map.of())).containsExactly("b");
+        assertThat(categoryColumnIndex.findSellableIds("Laptops", "price", "asc", 0, 10, Map.of())).containsExactly("a");
+
+        categoryColumnIndex.onProductChanged(new ProductChangedEvent(ProductChangedEvent.ChangeType.DELETED,
+                "b", null, Set.of("Electronics")));
+        assertThat(categoryColumnIndex.hasProducts("Electronics")).isFalse();
+    }
+
+    @DisplayName("Junit Test case for onProductsChanged method - merges a batch of writes, the last change of a product wins")
+    @Test
+    void givenBatchOfWrites_whenOnProductsChanged_thenMergedOnce() {
+        // given - precondition or setup
+        given(productRepository.streamAll(anyInt(), any())).willReturn(Stream.of(product("a", 30.0, 5, 1),
+                product("b", 10.0, 50, 1), product("c", 20.0, 8, 0)));
+        categoryColumnIndex.refresh();
+
+        // when -  action or the behaviour that we are going test
+        categoryColumnIndex.onProductsChanged(new ProductsChangedEvent(List.of(
+                new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, "b", product("b", 50.0, 50, 1), Set.of("Electronics")),
+                new ProductChangedEvent(ProductChangedEvent.ChangeType.CREATED, "d", product("d", 5.0, 3, 0), Set.of("Electronics")),
+                new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, "b", product("b", 25.0, 50, 1), Set.of("Electronics")),
+                new ProductChangedEvent(ProductChangedEvent.ChangeType.DELETED, "a", null, Set.of("Electronics")),
+                new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, "c", product("c", 20.0, 8, 8), Set.of("Electronics")))));
+
+        // then - verify the output
+        assertThat(categoryColumnIndex.findSellableIds("Electronics", "price", "asc", 0, 10, Map.of())).containsExactly("d", "b");
+        assertThat(categoryColumnIndex.findSellableIds("Electronics", "inventory", "desc", 0, 10, Map.of())).containsExactly("b", "d");
+        assertThat(categoryColumnIndex.memoryReport().get("electronics")).containsEntry("products", 3L);
+    }
+
+    @DisplayName("Junit Test case for facetCounts method - filters on attributes and counts the other values")
+    @Test
+    void givenAttributeFilters_whenFindSellableIdsAndFacetCounts_thenFilterAndCount() {
+        // given - precondition or setup
+        Product redSmall = product("a", 30.0, 5, 1);
+        redSmall.setAttributes(List.of(new Attributes("color", "red"), new Attributes("size", "S")));
+        Product redMedium = product("b", 10.0, 5, 1);
+        redMedium.setAttributes(List.of(new Attributes("color", "red"), new Attributes("size", "M")));
+        Product blueMedium = product("c", 20.0, 5, 1);
+        blueMedium.setAttributes(List.of(new Attributes("color", "blue"), new Attributes("size", "M")));
+        Product soldOutBlue = product("d", 5.0, 1, 1);
+        soldOutBlue.setAttributes(List.of(new Attributes("color", "blue"), new Attributes("size", "S")));
+        given(productRepository.streamAll(anyInt(), any())).willReturn(Stream.of(redSmall, redMedium, blueMedium, soldOutBlue));
+        categoryColumnIndex.refresh();
+        Map<String, List<String>> mediumOnly = Map.of("size", List.of("M"));
+
+        // when -  action or the behaviour that we are going test
+        List<String> medium = categoryColumnIndex.findSellableIds("Electronics", "price", "desc", 0, 10, mediumOnly);
+        List<String> redOrBlueMedium = categoryColumnIndex.findSellableIds("Electronics", "price", "asc", 0, 10,
+                Map.of("color", List.of("red", "blue"), "size", List.of("M")));
+        List<String> green = categoryColumnIndex.findSellableIds("Electronics", "price", "asc", 0, 10,
+                Map.of("color", List.of("green")));
+        Map<String, Map<String, Integer>> facets = categoryColumnIndex.facetCounts("Electronics", mediumOnly);
+
+        // then - verify the output
+        assertThat(medium).containsExactly("c", "b");
+        assertThat(redOrBlueMedium).containsExactly("b", "c");
+        assertThat(green).isEmpty();
+        assertThat(facets.get("color")).isEqualTo(Map.of("red", 1, "blue", 1));
+        assertThat(facets.get("size")).isEqualTo(Map.of("S", 1, "M", 2));
+    }
+}
@@ -0,0 +1,47 @@
+package com.online.shopping.cache;
+
+import com.online.shopping.event.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.Set;
+
+import static com.online.shopping.config.CacheConfiguration.CATEGORY_PRODUCTS_CACHE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategoryProductCacheInvalidatorTest {
+
+    private CaffeineCacheManager cacheManager;
+
+    private CategoryProductCacheInvalidator invalidator;
+
+    @BeforeEach
+    public void setup() {
+        cacheManager = new CaffeineCacheManager(CATEGORY_PRODUCTS_CACHE);
+        invalidator = new CategoryProductCacheInvalidator(cacheManager);
+    }
+
+    @DisplayName("Junit Test case for onProductChanged method - a page read before the write is cached under the previous generation")
+    @Test
+    void givenPageReadBeforeWrite_whenOnProductChanged_thenNewGenerationMisses() {
+        // given - precondition or setup
+        Cache cache = cacheManager.getCache(CATEGORY_PRODUCTS_CACHE);
+        String staleKey = "Electronics|" + invalidator.generation("Electronics") + "|price|asc|1|10|null|{}";
+        cache.put("laptops|0|price|asc|1|10|null|{}", "laptops page");
+
+        // when -  action or the behaviour that we are going test
+        invalidator.onProductChanged(new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, "1", null,
+                Set.of("electronics")));
+        cache.put(staleKey, "page read before the write");
+        String currentKey = "Electronics|" + invalidator.generation("ELECTRONICS") + "|price|asc|1|10|null|{}";
+
+        // then - verify the output
+        assertThat(currentKey).isNotEqualTo(staleKey);
+        assertThat(cache.get(currentKey)).isNull();
+        assertThat(invalidator.generation("laptops")).isZero();
+        assertThat(cache.get("laptops|0|price|asc|1|10|null|{}")).isNotNull();
+    }
+}
@@ -0,0 +1,135 @@
+package com.online.shopping.cache;
+
+import com.online.shopping.entity.Category;
+import com.online.shopping.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class CategoryRegistryTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private CategoryRegistry categoryRegistry;
+
+    private Category category;
+
+    @BeforeEach
+    public void setup() {
+        categoryRegistry = new CategoryRegistry(categoryRepository, Duration.ofMinutes(1));
+        category = new Category("testCategId", "electronics");
+    }
+
+    @DisplayName("Junit Test case for FindByName method - answers loaded categories without a DB round trip")
+    @Test
+    void givenLoadedRegistry_whenFindByName_thenReturnCategoryWithoutDbHit() {
+        // given - precondition or setup
+        given(categoryRepository.findAll()).willReturn(List.of(category));
+        categoryRegistry.refresh();
+
+        // when -  action or the behaviour that we are going test
+        Optional<Category> found = categoryRegistry.findByName("electronics");
+
+        // then - verify the output
+        assertThat(found).contains(category);
+        verify(categoryRepository, never()).findByName("electronics");
+    }
+
+    @DisplayName("Junit Test case for FindByName method - unknown names hit the DB once within the negative TTL")
+    @Test
+    void givenUnknownName_whenFindByNameTwice_thenHitDbOnce() {
+        // given - precondition or setup
+        given(categoryRepository.findByName("unknown")).willReturn(Optional.empty());
+
+        // when -  action or the behaviour that we are going test
+        Optional<Category> first = categoryRegistry.findByName("unknown");
+        Optional<Category> second = categoryRegistry.findByName("unknown");
+
+        // then - verify the output
+        assertThat(first).isEmpty();
+        assertThat(second).isEmpty();
+        verify(categoryRepository, times(1)).findByName("unknown");
+    }
+
+    @DisplayName("Junit Test case for FindByName method - once loaded, a name missing from the snapshot is found in the DB")
+    @Test
+    void givenLoadedRegistry_whenFindNameCreatedElsewhere_thenFoundInDb() {
+        // given - precondition or setup
+        given(categoryRepository.findAll()).willReturn(List.of(category));
+        categoryRegistry.refresh();
+        Category created = new Category("otherId", "laptops");
+        given(categoryRepository.findByName("laptops")).willReturn(Optional.of(created));
+        given(categoryRepository.findByName("unknown")).willReturn(Optional.empty());
+
+        // when -  action or the behaviour that we are going test
+        Optional<Category> found = categoryRegistry.findByName("laptops");
+        categoryRegistry.findByName("laptops");
+        categoryRegistry.findByName("unknown");
+        Optional<Category> unknown = categoryRegistry.findByName("unknown");
+
+        // then - verify the output
+        assertThat(found).contains(created);
+        assertThat(unknown).isEmpty();
+        verify(categoryRepository, times(1)).findByName("laptops");
+        verify(categoryRepository, times(1)).findByName("unknown");
+    }
+
+    @DisplayName("Junit Test case for FindStoredByName method - the write path ignores the negative cache")
+    @Test
+    void givenUnknownName_whenFindStoredByName_thenHitDb() {
+        // given - precondition or setup
+        given(categoryRepository.findByName("electronics")).willReturn(Optional.empty()).willReturn(Optional.of(category));
+        categoryRegistry.findByName("electronics");
+
+        // when -  action or the behaviour that we are going test
+        Optional<Category> stored = categoryRegistry.findStoredByName("electronics");
+
+        // then - verify the output
+        assertThat(stored).contains(category);
+        assertThat(categoryRegistry.findByName("electronics")).contains(category);
+        verify(categoryRepository, times(2)).findByName("electronics");
+    }
+
+    @DisplayName("Junit Test case for Register method - a saved category replaces the unknown name entry")
+    @Test
+    void givenUnknownName_whenRegister_thenFindByNameReturnsCategory() {
+        // given - precondition or setup
+        given(categoryRepository.findByName("electronics")).willReturn(Optional.empty());
+        categoryRegistry.findByName("electronics");
+
+        // when -  action or the behaviour that we are going test
+        categoryRegistry.register(category);
+
+        // then - verify the output
+        assertThat(categoryRegistry.findByName("electronics")).contains(category);
+        verify(categoryRepository, times(1)).findByName("electronics");
+    }
+
+    @DisplayName("Junit Test case for Refresh method - keeps the current categories when the DB fails (negative scenario)")
+    @Test
+    void givenDbFailure_whenRefresh_thenKeepSnapshot() {
+        // given - precondition or setup
+        categoryRegistry.register(category);
+        given(categoryRepository.findAll()).willThrow(new IllegalStateException("connection refused"));
+
+        // when -  action or the behaviour that we are going test
+        categoryRegistry.refresh();
+
+        // then - verify the output
+        assertThat(categoryRegistry.findByName("electronics")).contains(category);
+    }
+}
@@ -0,0 +1,70 @@
+package com.online.shopping.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.online.shopping.entity.Category;
+import com.online.shopping.entity.Inventory;
+import com.online.shopping.entity.Price;
+import com.online.shopping.entity.Product;
+import com.online.shopping.event.ProductChangedEvent;
+import com.online.shopping.util.UlidIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EtagRegistryTest {
+
+    private EtagRegistry etagRegistry;
+
+    private Product product;
+
+    @BeforeEach
+    public void setup() {
+        etagRegistry = new EtagRegistry(new ObjectMapper(), new UlidIdGenerator(), Duration.ofSeconds(60));
+        product = new Product("1", "laptop", "Acme", "description", new Price("USD", 900.0),
+                new Inventory(10, 5, 0), List.of(), new Category("C1", "electronics"));
+    }
+
+    @DisplayName("Junit Test case for productEtag method - a read overtaken by a write does not remember its ETag")
+    @Test
+    void givenWriteDuringRead_whenProductEtag_thenNotRemembered() {
+        // given - precondition or setup
+        long readStamp = etagRegistry.readStamp();
+        etagRegistry.onProductChanged(new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, "1", product,
+                Set.of("electronics")));
+
+        // when -  action or the behaviour that we are going test
+        String stale = etagRegistry.productEtag(product, readStamp);
+
+        // then - verify the output
+        assertThat(stale).isNotNull();
+        assertThat(etagRegistry.findProductEtag("1")).isNull();
+        String current = etagRegistry.productEtag(product, etagRegistry.readStamp());
+        assertThat(etagRegistry.findProductEtag("1")).isEqualTo(current);
+    }
+
+    @DisplayName("Junit Test case for isNotModified method - the wildcard is not matched without a read (negative scenario)")
+    @Test
+    void givenWildcard_whenIsNotModified_thenFalse() {
+        // given - precondition or setup
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/api/products/1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "*");
+        MockHttpServletRequest listed = new MockHttpServletRequest("GET", "/v1/api/products/1");
+        listed.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/\"abc\"");
+
+        // when -  action or the behaviour that we are going test
+        boolean wildcard = EtagRegistry.isNotModified(new ServletWebRequest(request), "abc");
+
+        // then - verify the output
+        assertThat(wildcard).isFalse();
+        assertThat(EtagRegistry.isNotModified(new ServletWebRequest(listed), "abc")).isTrue();
+    }
+}
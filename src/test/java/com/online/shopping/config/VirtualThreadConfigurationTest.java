@@ -0,0 +1,52 @@
+package com.online.shopping.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(TaskExecutionAutoConfiguration.class))
+            .withUserConfiguration(VirtualThreadConfiguration.class);
+
+    @DisplayName("Junit Test case for VirtualThreadConfiguration - platform threads unless the mode is enabled")
+    @Test
+    void givenPropertyNotSet_whenContextStarts_thenKeepPlatformThreads() {
+        contextRunner.run(context -> {
+            assertThat(context).doesNotHaveBean(TomcatProtocolHandlerCustomizer.class);
+            assertThat(context).doesNotHaveBean(VirtualThreadConfiguration.class);
+        });
+    }
+
+    @DisplayName("Junit Test case for VirtualThreadConfiguration - tasks run on virtual threads (Java 21+)")
+    @Test
+    void givenPropertyEnabled_whenSubmitTask_thenRunOnVirtualThread() {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need Java 21");
+        contextRunner.withPropertyValues("app.threads.virtual.enabled=true").run(context -> {
+            assertThat(context).hasSingleBean(TomcatProtocolHandlerCustomizer.class);
+            Future<Boolean> virtual = context.getBean(AsyncTaskExecutor.class)
+                    .submit(() -> (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()));
+            assertThat(virtual.get()).isTrue();
+        });
+    }
+
+    @DisplayName("Junit Test case for VirtualThreadConfiguration - fails fast before Java 21 (negative scenario)")
+    @Test
+    void givenPropertyEnabledBeforeJava21_whenContextStarts_thenFail() {
+        assumeTrue(Runtime.version().feature() < 21, "virtual threads are available");
+        contextRunner.withPropertyValues("app.threads.virtual.enabled=true").run(context -> {
+            assertThat(context).hasFailed();
+            assertThat(context.getStartupFailure()).hasStackTraceContaining("requires Java 21 or newer");
+        });
+    }
+}
@@ -1,31 +1,46 @@
 package com.online.shopping.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.online.shopping.cache.EtagRegistry;
 import com.online.shopping.dto.CategoryResponseDTO;
 import com.online.shopping.dto.ProductResponseDTO;
 import com.online.shopping.dto.ResponseModalDTO;
 import com.online.shopping.entity.*;
+import com.online.shopping.event.ProductChangedEvent;
 import com.online.shopping.repository.CategoryRepository;
 import com.online.shopping.service.CategoryService;
+import com.online.shopping.util.IdGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(CategoryController.class)
+@Import(EtagRegistry.class)
 public class CategoryControllerTest {
 
     @InjectMocks
@@ -40,13 +55,20 @@ public class CategoryControllerTest {
     @MockBean
     private CategoryRepository categoryRepository;
 
+    @MockBean
+    private IdGenerator idGenerator;
+
+    @Autowired
+    private EtagRegistry etagRegistry;
+
     private Category category;
 
     private Product product;
 
     @BeforeEach
     public void setup() {
-        categoryController = new CategoryController(categoryService);
+        given(idGenerator.nextId()).willReturn("stamp");
+        categoryController = new CategoryController(categoryService, etagRegistry);
         product = new Product("1234567890", "laptop", "apple", "very good", new Price("USD", 12.99),
                 new Inventory(35, 20, 5), List.of(new Attributes("colour", "white")), new Category("1234", "electronics"));
         category = new Category("1234567890", "electronics");
@@ -63,7 +85,7 @@ public class CategoryControllerTest {
         responseModalDTO.setCategoryResponseDTO(categoryResponseDTO);
         responseModalDTO.setProductResponseDTO(productResponseDTO);
 
-        given(categoryService.getCategoryProduct("electronics", "inventory", "asc", 1, 10))
+        given(categoryService.getCategoryProduct("electronics", "inventory", "asc", 1, 10, null, Map.of()))
                 .willReturn(responseModalDTO);
 
         // when -  action or the behaviour that we are going test
@@ -75,6 +97,61 @@ public class CategoryControllerTest {
 
     }
 
+    @Test
+    public void getCategoryProductsNotModifiedAPITest() throws Exception {
+        // given - precondition or setup
+        given(idGenerator.nextId()).willReturn("stamp1", "stamp2");
+        given(categoryService.getCategoryProduct("electronics", "inventory", "asc", 1, 10, null, Map.of()))
+                .willReturn(new ResponseModalDTO());
+        String etag = mvc.perform(get("/v1/categories/{categoryName}/products/", "electronics"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when -  action or the behaviour that we are going test
+        ResultActions notModified = mvc.perform(get("/v1/categories/{categoryName}/products/", "electronics")
+                .header(HttpHeaders.IF_NONE_MATCH, etag));
+        etagRegistry.onProductChanged(new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, "1234567890", product, Set.of("Electronics")));
+        ResultActions modified = mvc.perform(get("/v1/categories/{categoryName}/products/", "electronics")
+                .header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        // then - verify the output
+        notModified.andExpect(status().isNotModified());
+        modified.andExpect(status().isOk());
+        verify(categoryService, times(2)).getCategoryProduct("electronics", "inventory", "asc", 1, 10, null, Map.of());
+    }
+
+    @Test
+    public void getCategoryProductsWithAttributeFiltersAPITest() throws Exception {
+        // given - precondition or setup
+        ResponseModalDTO responseModalDTO = new ResponseModalDTO();
+        responseModalDTO.setFacets(Map.of("color", Map.of("red", 2, "white", 1)));
+        given(categoryService.getCategoryProduct("electronics", "price", "asc", 1, 10, null,
+                Map.of("color", List.of("red", "white"), "size", List.of("M"))))
+                .willReturn(responseModalDTO);
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mvc.perform(get("/v1/categories/{categoryName}/products/", "electronics")
+                .param("sortBy", "price")
+                .param("attr.size", "M")
+                .param("attr.color", "white", "red")
+                .param("_", "1718000000000")
+                .param("utm_source", "newsletter"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.facets.color.red", is(2)));
+    }
+
+    @Test
+    public void getCategoryProductsWithBlankAttributeNameAPITest() throws Exception {
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mvc.perform(get("/v1/categories/{categoryName}/products/", "electronics")
+                .param("attr.", "red"));
+
+        // then - verify the output
+        response.andExpect(status().isBadRequest());
+        verify(categoryService, never()).getCategoryProduct(any(), any(), any(), anyInt(), anyInt(), any(), any());
+    }
+
     @Test
     public void createCategoryAPITest() throws Exception {
 
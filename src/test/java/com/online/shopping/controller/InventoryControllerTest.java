@@ -0,0 +1,91 @@
+package com.online.shopping.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.online.shopping.dto.InventoryDeltaDTO;
+import com.online.shopping.dto.InventoryDeltaResponseDTO;
+import com.online.shopping.dto.InventoryRequestDTO;
+import com.online.shopping.dto.InventoryResponseDTO;
+import com.online.shopping.entity.Inventory;
+import com.online.shopping.inventory.InventoryDeltaBuffer;
+import com.online.shopping.repository.ProductRepositoryCustom.InventoryOperation;
+import com.online.shopping.service.InventoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(InventoryController.class)
+public class InventoryControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private InventoryService inventoryService;
+
+    @MockBean
+    private InventoryDeltaBuffer inventoryDeltaBuffer;
+
+    @Test
+    public void reserveProductInventoryAPITest() throws Exception {
+
+        given(inventoryService.updateInventory("1234567890", InventoryOperation.RESERVE, 2))
+                .willReturn(new InventoryResponseDTO("1234567890", new Inventory(35, 20, 7)));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mvc.perform(post("/v1/api/inventory/products/{id}/{operation}", "1234567890", "RESERVE")
+                .param("quantity", "2"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.inventory.reserved", is(7)));
+    }
+
+    @Test
+    public void reserveCartInventoryAPITest() throws Exception {
+
+        List<InventoryRequestDTO> cart = List.of(new InventoryRequestDTO("1234567890", 2));
+        given(inventoryService.updateInventory(InventoryOperation.RESERVE, cart))
+                .willReturn(List.of(new InventoryResponseDTO("1234567890", new Inventory(35, 20, 7))));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mvc.perform(post("/v1/api/inventory/{operation}", "reserve")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(cart)));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(1)));
+    }
+
+    @Test
+    public void addInventoryDeltasAPITest() throws Exception {
+
+        List<InventoryDeltaDTO> deltas = List.of(new InventoryDeltaDTO("1234567890", 12), new InventoryDeltaDTO("1234567890", -2));
+        given(inventoryDeltaBuffer.add(deltas)).willReturn(new InventoryDeltaResponseDTO(1, 1));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mvc.perform(post("/v1/api/inventory/deltas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(deltas)));
+
+        // then - verify the output
+        response.andExpect(status().isAccepted())
+                .andDo(print())
+                .andExpect(jsonPath("$.acceptedProducts", is(1)));
+    }
+}
@@ -1,9 +1,20 @@
 package com.online.shopping.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.online.shopping.cache.EtagRegistry;
+import com.online.shopping.dto.BulkImportItemDTO;
+import com.online.shopping.dto.BulkImportResponseDTO;
+import com.online.shopping.dto.BulkPriceUpdateDTO;
+import com.online.shopping.dto.BulkPriceUpdateResponseDTO;
+import com.online.shopping.dto.CursorPageDTO;
 import com.online.shopping.entity.*;
+import com.online.shopping.event.ProductChangedEvent;
 import com.online.shopping.repository.ProductRepository;
+import com.online.shopping.service.ProductExportService;
+import com.online.shopping.service.ProductImportService;
+import com.online.shopping.service.ProductPriceService;
 import com.online.shopping.service.ProductService;
+import com.online.shopping.util.IdGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.BDDMockito;
@@ -11,24 +22,37 @@ import org.mockito.InjectMocks;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ProductController.class)
+@Import(EtagRegistry.class)
 public class ProductControllerTest {
 
     @InjectMocks
@@ -39,14 +63,31 @@ public class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductImportService productImportService;
+
+    @MockBean
+    private ProductExportService productExportService;
+
+    @MockBean
+    private ProductPriceService productPriceService;
+
     @MockBean
     ProductRepository productRepository;
 
+    @MockBean
+    private IdGenerator idGenerator;
+
+    @Autowired
+    private EtagRegistry etagRegistry;
+
     private Product product;
 
     @BeforeEach
     public void setup() {
-        productController = new ProductController(productService);
+        given(idGenerator.nextId()).willReturn("stamp");
+        productController = new ProductController(productService, productImportService, productExportService, productPriceService,
+                etagRegistry);
         product = new Product("1234567890", "laptop", "apple", "very good", new Price("USD", 12.99),
                 new Inventory(35, 20, 5), List.of(new Attributes("colour", "white")), new Category("1234", "electronics"));
     }
@@ -104,7 +145,7 @@ public class ProductControllerTest {
         String category = "electronics";
         List<Product> listOfProduct = new ArrayList<>();
         listOfProduct.add(product);
-        given(productService.getProductByCategory(category)).willReturn(listOfProduct);
+        given(productService.getProductByCategory(category, null)).willReturn(listOfProduct);
 
         // when -  action or the behaviour that we are going test
         ResultActions response = mvc.perform(get("/v1/api/categories/{category}/products", category));
@@ -116,6 +157,29 @@ public class ProductControllerTest {
                         is(listOfProduct.size())));
     }
 
+    @Test
+    public void getProductByCategoryStreamingAPITest() throws Exception {
+
+        String category = "electronics";
+        Stream<Product> products = Stream.of(product);
+        given(productExportService.streamProductsByCategory(category, null)).willReturn(products);
+        given(productExportService.writeJsonArray(eq(products), any())).willAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class).write(("[" + asJsonString(product) + "]").getBytes());
+            return 1L;
+        });
+
+        // when -  action or the behaviour that we are going test
+        ResultActions started = mvc.perform(get("/v1/api/categories/{category}/products", category).param("stream", "true"))
+                .andExpect(request().asyncStarted());
+        ResultActions response = mvc.perform(asyncDispatch(started.andReturn()));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$[0].name", is("laptop")));
+        verify(productService, times(0)).getProductByCategory(category, null);
+    }
+
     @Test
     public void getProductByIdAPITest() throws Exception {
         String id = "1234567890";
@@ -129,6 +193,41 @@ public class ProductControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    public void getProductByIdNotModifiedAPITest() throws Exception {
+        // given - precondition or setup
+        String id = "1234567890";
+        BDDMockito.given(productService.getProductById(id)).willReturn(product);
+        String etag = mvc.perform(get("/v1/api/products/{id}", id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mvc.perform(get("/v1/api/products/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        // then - verify the output
+        response.andExpect(status().isNotModified());
+        verify(productService, times(1)).getProductById(id);
+    }
+
+    @Test
+    public void getProductByIdModifiedAPITest() throws Exception {
+        // given - precondition or setup
+        String id = "1234567890";
+        BDDMockito.given(productService.getProductById(id)).willReturn(product);
+        String etag = mvc.perform(get("/v1/api/products/{id}", id))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        etagRegistry.onProductChanged(new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, id, product, Set.of("electronics")));
+        product.setName("laptop pro");
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mvc.perform(get("/v1/api/products/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("laptop pro")));
+    }
+
     @Test
     public void getProductByCategoryWithPaginationAPITest() throws Exception {
 
@@ -139,7 +238,7 @@ public class ProductControllerTest {
 
         List<Product> listOfProduct = new ArrayList<>();
         listOfProduct.add(product);
-        given(productService.getProductByCategoryWithPaging("name", page, pageSize)).willReturn(listOfProduct);
+        given(productService.getProductByCategoryWithPaging("name", page, pageSize, null)).willReturn(listOfProduct);
 
         // when -  action or the behaviour that we are going test
         ResultActions response = mvc.perform(get("/v1/api/products"));
@@ -151,6 +250,59 @@ public class ProductControllerTest {
                         is(listOfProduct.size())));
     }
 
+    @Test
+    public void getProductsWithCursorPaginationAPITest() throws Exception {
+
+        List<Product> listOfProduct = new ArrayList<>();
+        listOfProduct.add(product);
+        given(productService.getProductsAfterCursor("name", "asc", null, 10, null))
+                .willReturn(new CursorPageDTO(listOfProduct, "nextToken", true));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mvc.perform(get("/v1/api/products").param("pagingMode", "cursor"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.products.size()", is(listOfProduct.size())))
+                .andExpect(jsonPath("$.nextCursor", is("nextToken")));
+    }
+    @Test
+    public void createProductsInBulkAPITest() throws Exception {
+
+        BulkImportResponseDTO summary = new BulkImportResponseDTO(1, 1, 0,
+                List.of(new BulkImportItemDTO(0, "1234567890", BulkImportItemDTO.Status.IMPORTED, null)));
+        given(productImportService.importProducts(any(InputStream.class))).willReturn(summary);
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mvc.perform(post("/v1/api/admin/products/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(asJsonString(product) + "\n"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.items[0].status", is("IMPORTED")));
+    }
+
+    @Test
+    public void updatePricesAPITest() throws Exception {
+        // given - precondition or setup
+        BulkPriceUpdateDTO request = new BulkPriceUpdateDTO("electronics", null,
+                BulkPriceUpdateDTO.PriceOperation.PERCENT, -10.0, null);
+        given(productPriceService.updatePrices(request)).willReturn(new BulkPriceUpdateResponseDTO(120, 118));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mvc.perform(patch("/v1/api/admin/products/prices")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(request)));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.matched", is(120)))
+                .andExpect(jsonPath("$.modified", is(118)));
+    }
 
     public static String asJsonString(final Object obj) {
         try {
@@ -0,0 +1,67 @@
+package com.online.shopping.controller;
+
+import com.online.shopping.entity.*;
+import com.online.shopping.exception.CustomException;
+import com.online.shopping.service.ProductSearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ProductSearchController.class)
+public class ProductSearchControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private ProductSearchService productSearchService;
+
+    private Product product;
+
+    @BeforeEach
+    public void setup() {
+        product = new Product("1234567890", "laptop", "apple", "very good", new Price("USD", 12.99),
+                new Inventory(35, 20, 5), List.of(new Attributes("colour", "white")), new Category("1234", "electronics"));
+    }
+
+    @Test
+    public void searchProductsAPITest() throws Exception {
+        // given - precondition or setup
+        given(productSearchService.searchProducts("apple lap", true, "price", "desc", 0, 10)).willReturn(List.of(product));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mvc.perform(get("/v1/api/products/search")
+                .param("q", "apple lap").param("inStock", "true").param("sortBy", "price").param("sortOrder", "desc"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$[0].name", is("laptop")));
+    }
+
+    @Test
+    public void searchProductsBlankQueryAPITest() throws Exception {
+        // given - precondition or setup
+        given(productSearchService.searchProducts(" ", false, "relevance", "asc", 0, 10))
+                .willThrow(new CustomException("Search query should not be blank"));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mvc.perform(get("/v1/api/products/search").param("q", " "));
+
+        // then - verify the output
+        response.andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,81 @@
+package com.online.shopping.controller;
+
+import com.online.shopping.entity.*;
+import com.online.shopping.exception.ResourceNotFoundException;
+import com.online.shopping.service.ReactiveCatalogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.mockito.BDDMockito.given;
+
+@WebFluxTest(ReactiveProductController.class)
+public class ReactiveProductControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveCatalogService catalogService;
+
+    private Product product;
+
+    @BeforeEach
+    public void setup() {
+        product = new Product("1234567890", "laptop", "apple", "very good", new Price("USD", 12.99),
+                new Inventory(35, 20, 5), List.of(new Attributes("colour", "white")), new Category("1234", "electronics"));
+    }
+
+    @Test
+    public void getProductByCategoryAPITest() {
+        // given - precondition or setup
+        given(catalogService.getProductByCategory("electronics", null)).willReturn(Flux.just(product));
+
+        // when -  action or the behaviour that we are going test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/v1/api/categories/{category}/products", "electronics")
+                .exchange();
+
+        // then - verify the output
+        response.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo("1234567890")
+                .jsonPath("$[0].name").isEqualTo("laptop");
+    }
+
+    @Test
+    public void getProductByCategoryAsNdjsonAPITest() {
+        // given - precondition or setup
+        given(catalogService.getProductByCategory("electronics", null)).willReturn(Flux.just(product, product));
+
+        // when -  action or the behaviour that we are going test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/v1/api/categories/{category}/products", "electronics")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange();
+
+        // then - verify the output
+        response.expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(Product.class).hasSize(2);
+    }
+
+    @Test
+    public void getProductByCategoryNotFoundAPITest() {
+        // given - precondition or setup
+        given(catalogService.getProductByCategory("electronics", null))
+                .willReturn(Flux.error(new ResourceNotFoundException("Product of electronics category is not available in database !")));
+
+        // when -  action or the behaviour that we are going test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/v1/api/categories/{category}/products", "electronics")
+                .exchange();
+
+        // then - verify the output
+        response.expectStatus().isBadRequest();
+    }
+}
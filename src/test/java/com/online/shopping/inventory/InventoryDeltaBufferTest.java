@@ -0,0 +1,234 @@
+package com.online.shopping.inventory;
+
+import com.online.shopping.dto.InventoryDeltaDTO;
+import com.online.shopping.dto.InventoryDeltaResponseDTO;
+import com.online.shopping.event.ProductsChangedEvent;
+import com.online.shopping.exception.CustomException;
+import com.online.shopping.repository.ProductRepository;
+import com.online.shopping.repository.ProductRepositoryCustom.InventoryIncrement;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class InventoryDeltaBufferTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @TempDir
+    Path journalDirectory;
+
+    private InventoryDeltaBuffer inventoryDeltaBuffer;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        inventoryDeltaBuffer = newBuffer();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (inventoryDeltaBuffer != null) {
+            inventoryDeltaBuffer.close();
+        }
+    }
+
+    // flushed by the tests only
+    private InventoryDeltaBuffer newBuffer() throws IOException {
+        return newBuffer(false);
+    }
+
+    private InventoryDeltaBuffer newBuffer(boolean fsync) throws IOException {
+        return new InventoryDeltaBuffer(productRepository, eventPublisher, new SimpleMeterRegistry(),
+                Duration.ofHours(1), 500, journalDirectory, fsync);
+    }
+
+    @DisplayName("Junit Test case for add and flush methods - writes the net change of every product once")
+    @Test
+    void givenManyDeltasOfTheSameProducts_whenFlush_thenIncrementNetChangeOnce() {
+        // given - precondition or setup
+        given(productRepository.incrementInventory(anyMap())).willReturn(new InventoryIncrement(Set.of(), Set.of()));
+        InventoryDeltaResponseDTO response = inventoryDeltaBuffer.add(List.of(new InventoryDeltaDTO("1", 5),
+                new InventoryDeltaDTO("2", 3), new InventoryDeltaDTO("1", -2)));
+        inventoryDeltaBuffer.add(List.of(new InventoryDeltaDTO("1", 4), new InventoryDeltaDTO("3", 2),
+                new InventoryDeltaDTO("3", -2)));
+
+        // when -  action or the behaviour that we are going test
+        int flushed = inventoryDeltaBuffer.flush();
+
+        // then - verify the output
+        assertThat(response.getAcceptedProducts()).isEqualTo(2);
+        assertThat(flushed).isEqualTo(2);
+        verify(productRepository).incrementInventory(Map.of("1", 7, "2", 3));
+        verify(productRepository).findByIds(any(), any());
+        assertThat(inventoryDeltaBuffer.pending()).isEmpty();
+        assertThat(inventoryDeltaBuffer.flush()).isZero();
+    }
+
+    @DisplayName("Junit Test case for add method - replays the journaled deltas after a crash")
+    @Test
+    void givenUnflushedDeltas_whenRestarted_thenReplayJournal() throws IOException {
+        // given - precondition or setup
+        given(productRepository.incrementInventory(anyMap())).willThrow(new IllegalStateException("primary unavailable"));
+        inventoryDeltaBuffer.add(List.of(new InventoryDeltaDTO("1", 5), new InventoryDeltaDTO("2", -3)));
+        inventoryDeltaBuffer.add(List.of(new InventoryDeltaDTO("1", 1)));
+        Path segment;
+        try (var files = Files.list(journalDirectory)) {
+            segment = files.filter(file -> file.getFileName().toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+        Files.writeString(segment, Files.readString(segment) + "3 4");  // torn last line
+
+        // when -  action or the behaviour that we are going test
+        inventoryDeltaBuffer.close();  // simulated crash: the final flush fails, the journal is kept
+        inventoryDeltaBuffer = newBuffer();
+
+        // then - verify the output
+        assertThat(inventoryDeltaBuffer.pending()).isEqualTo(Map.of("1", 6L, "2", -3L));
+    }
+
+    @DisplayName("Junit Test case for add method - concurrent requests share the journal force and are all replayed")
+    @Test
+    void givenConcurrentDeltasWithFsync_whenRestarted_thenEveryDeltaReplayed() throws Exception {
+        // given - precondition or setup
+        given(productRepository.incrementInventory(anyMap())).willThrow(new IllegalStateException("primary unavailable"));
+        inventoryDeltaBuffer.close();
+        inventoryDeltaBuffer = newBuffer(true);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> requests = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String productId = String.valueOf(i % 4);
+            requests.add(executor.submit(() -> inventoryDeltaBuffer.add(List.of(new InventoryDeltaDTO(productId, 1)))));
+        }
+
+        // when -  action or the behaviour that we are going test
+        for (Future<?> request : requests) {
+            request.get();
+        }
+        executor.shutdown();
+        inventoryDeltaBuffer.close();  // simulated crash: the final flush fails, the journal is kept
+        inventoryDeltaBuffer = newBuffer();
+
+        // then - verify the output
+        assertThat(inventoryDeltaBuffer.pending()).isEqualTo(Map.of("0", 50L, "1", 50L, "2", 50L, "3", 50L));
+    }
+
+    @DisplayName("Junit Test case for flush method - keeps the failed deltas for the next flush")
+    @Test
+    void givenFailedWrite_whenFlush_thenRetryWithNextFlush() throws IOException {
+        // given - precondition or setup
+        given(productRepository.incrementInventory(anyMap()))
+                .willThrow(new IllegalStateException("primary unavailable"))
+                .willReturn(new InventoryIncrement(Set.of("2"), Set.of()))
+                .willReturn(new InventoryIncrement(Set.of(), Set.of()));
+        inventoryDeltaBuffer.add(List.of(new InventoryDeltaDTO("1", 5), new InventoryDeltaDTO("2", -3)));
+
+        // when -  action or the behaviour that we are going test
+        int failed = inventoryDeltaBuffer.flush();
+        inventoryDeltaBuffer.add(List.of(new InventoryDeltaDTO("1", 1)));
+        int partial = inventoryDeltaBuffer.flush();
+
+        // then - verify the output
+        assertThat(failed).isZero();
+        assertThat(partial).isEqualTo(1);
+        verify(productRepository).incrementInventory(Map.of("1", 6, "2", -3));
+        assertThat(inventoryDeltaBuffer.pending()).isEqualTo(Map.of("2", -3L));
+        verify(eventPublisher, never()).publishEvent(any(ProductsChangedEvent.class));
+        given(productRepository.incrementInventory(anyMap())).willThrow(new IllegalStateException("primary unavailable"));
+        inventoryDeltaBuffer.close();
+        inventoryDeltaBuffer = newBuffer();
+        assertThat(inventoryDeltaBuffer.pending()).isEqualTo(Map.of("2", -3L));
+    }
+
+    @DisplayName("Junit Test case for flush method - journals again only the deltas not written before the error")
+    @Test
+    void givenErrorAfterFirstChunk_whenFlush_thenOnlyUnwrittenDeltasKept() throws IOException {
+        // given - precondition or setup
+        inventoryDeltaBuffer.close();
+        inventoryDeltaBuffer = new InventoryDeltaBuffer(productRepository, eventPublisher, new SimpleMeterRegistry(),
+                Duration.ofHours(1), 2, journalDirectory, false);
+        Map<String, Integer> firstChunk = new HashMap<>();
+        given(productRepository.incrementInventory(anyMap())).willAnswer(invocation -> {
+            if (firstChunk.isEmpty()) {
+                firstChunk.putAll(invocation.getArgument(0));
+                return new InventoryIncrement(Set.of(), Set.of());
+            }
+            throw new IllegalStateException("primary unavailable");
+        });
+        Map<String, Long> deltas = Map.of("1", 5L, "2", -3L, "3", 7L);
+
+        // when -  action or the behaviour that we are going test
+        inventoryDeltaBuffer.add(deltas.entrySet().stream()
+                .map(delta -> new InventoryDeltaDTO(delta.getKey(), delta.getValue().intValue())).toList());
+        inventoryDeltaBuffer.flush();
+        inventoryDeltaBuffer.close();  // the final flush fails too, the journal is kept
+        inventoryDeltaBuffer = newBuffer();
+
+        // then - verify the output
+        Map<String, Long> unwritten = new HashMap<>(deltas);
+        unwritten.keySet().removeAll(firstChunk.keySet());
+        assertThat(firstChunk).hasSize(2);
+        assertThat(inventoryDeltaBuffer.pending()).isEqualTo(unwritten);
+    }
+
+    @DisplayName("Junit Test case for flush method - drops the deltas rejected by the inventory guard (negative scenario)")
+    @Test
+    void givenRejectedDelta_whenFlush_thenDroppedNotRetried() throws IOException {
+        // given - precondition or setup
+        given(productRepository.incrementInventory(anyMap())).willReturn(new InventoryIncrement(Set.of(), Set.of("2")));
+        inventoryDeltaBuffer.add(List.of(new InventoryDeltaDTO("1", 5), new InventoryDeltaDTO("2", -3)));
+
+        // when -  action or the behaviour that we are going test
+        int flushed = inventoryDeltaBuffer.flush();
+
+        // then - verify the output
+        assertThat(flushed).isEqualTo(1);
+        verify(productRepository).findByIds(List.of("1"), null);
+        assertThat(inventoryDeltaBuffer.pending()).isEmpty();
+        inventoryDeltaBuffer.close();
+        inventoryDeltaBuffer = newBuffer();
+        assertThat(inventoryDeltaBuffer.pending()).isEmpty();
+    }
+
+    @DisplayName("Junit Test case for add method - rejects an empty delta or a missing product id")
+    @Test
+    void givenInvalidDeltas_whenAdd_thenThrowCustomException() {
+        // when -  action or the behaviour that we are going test
+        assertThrows(CustomException.class, () -> inventoryDeltaBuffer.add(List.of()));
+        assertThrows(CustomException.class, () -> inventoryDeltaBuffer.add(List.of(new InventoryDeltaDTO(" ", 2))));
+        assertThrows(CustomException.class, () -> inventoryDeltaBuffer.add(List.of(new InventoryDeltaDTO("1", 0))));
+        assertThrows(CustomException.class, () -> inventoryDeltaBuffer.add(
+                List.of(new InventoryDeltaDTO("1", InventoryDeltaBuffer.MAX_DELTA + 1))));
+
+        // then - verify the output
+        assertThat(inventoryDeltaBuffer.pending()).isEmpty();
+    }
+}
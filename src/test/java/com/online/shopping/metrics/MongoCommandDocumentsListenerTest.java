@@ -0,0 +1,68 @@
+package com.online.shopping.metrics;
+
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class MongoCommandDocumentsListenerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private MongoCommandDocumentsListener listener;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new MongoCommandDocumentsListener(meterRegistry);
+    }
+
+    @DisplayName("Junit Test case for commandSucceeded method - records the documents of a cursor batch per collection")
+    @Test
+    void givenFindAndGetMore_whenCommandSucceeded_thenRecordDocumentsPerCollection() {
+        // given - precondition or setup
+        run(1, "find", "{find: 'products', filter: {}}", "{cursor: {id: 5, firstBatch: [{}, {}, {}]}, ok: 1}");
+        run(2, "getMore", "{getMore: 5, collection: 'products'}", "{cursor: {id: 0, nextBatch: [{}]}, ok: 1}");
+
+        // when -  action or the behaviour that we are going test
+        DistributionSummary find = meterRegistry.get(MongoCommandDocumentsListener.METRIC_NAME)
+                .tags("command", "find", "collection", "products").summary();
+        DistributionSummary getMore = meterRegistry.get(MongoCommandDocumentsListener.METRIC_NAME)
+                .tags("command", "getMore", "collection", "products").summary();
+
+        // then - verify the output
+        assertThat(find.totalAmount()).isEqualTo(3);
+        assertThat(getMore.totalAmount()).isEqualTo(1);
+    }
+
+    @DisplayName("Junit Test case for documents method - counts the written documents and skips the other commands")
+    @Test
+    void givenReplies_whenDocuments_thenCountWrittenDocuments() {
+        // then - verify the output
+        assertThat(MongoCommandDocumentsListener.documents("insert", BsonDocument.parse("{n: 4, ok: 1}"))).isEqualTo(4);
+        assertThat(MongoCommandDocumentsListener.documents("findAndModify", BsonDocument.parse("{value: null, ok: 1}"))).isZero();
+        assertThat(MongoCommandDocumentsListener.documents("findAndModify", BsonDocument.parse("{value: {_id: 1}, ok: 1}"))).isEqualTo(1);
+        assertThat(MongoCommandDocumentsListener.documents("ping", BsonDocument.parse("{ok: 1}"))).isEqualTo(-1);
+    }
+
+    private void run(int requestId, String commandName, String command, String response) {
+        CommandStartedEvent started = mock(CommandStartedEvent.class);
+        given(started.getRequestId()).willReturn(requestId);
+        given(started.getCommandName()).willReturn(commandName);
+        given(started.getCommand()).willReturn(BsonDocument.parse(command));
+        CommandSucceededEvent succeeded = mock(CommandSucceededEvent.class);
+        given(succeeded.getRequestId()).willReturn(requestId);
+        given(succeeded.getCommandName()).willReturn(commandName);
+        given(succeeded.getResponse()).willReturn(BsonDocument.parse(response));
+        listener.commandStarted(started);
+        listener.commandSucceeded(succeeded);
+    }
+}
@@ -0,0 +1,46 @@
+package com.online.shopping.repository;
+
+import com.online.shopping.entity.Product;
+import com.online.shopping.repository.memory.InMemoryProductRepository;
+import com.online.shopping.repository.memory.InMemoryStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles({"dev", InMemoryStore.PROFILE})
+class InMemoryRepositoryContractTest extends RepositoryContractTest {
+
+    @Autowired
+    private InMemoryStore store;
+
+    @Value("${app.storage.memory.snapshot.path}")
+    private Path snapshotPath;
+
+    @DisplayName("Junit Test case for InMemoryStore snapshot method - a new store restores the documents and their indexes")
+    @Test
+    void givenProducts_whenSnapshotAndRestore_thenSameProducts() throws IOException {
+        // given - precondition or setup
+        productRepository.insert(List.of(product(1, 10.0, 5, 0, "red"), product(2, 20.0, 5, 0, "red")));
+        List<Product> products = productRepository.findByCategory(categoryName, null);
+
+        // when -  action or the behaviour that we are going test
+        long written = store.snapshot();
+        InMemoryProductRepository restored = new InMemoryProductRepository(new InMemoryStore(snapshotPath));
+
+        // then - verify the output
+        assertThat(written).isGreaterThanOrEqualTo(2);
+        assertThat(restored.findByCategory(categoryName.toUpperCase(), null)).isEqualTo(products);
+        assertThat(restored.findSellableByCategory(categoryName, "price", "desc", 0, 10, null))
+                .extracting(Product::getId).containsExactly(id(2), id(1));
+    }
+}
@@ -0,0 +1,7 @@
+package com.online.shopping.repository;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class MongoRepositoryContractTest extends RepositoryContractTest {
+}
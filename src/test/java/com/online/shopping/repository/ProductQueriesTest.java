@@ -0,0 +1,142 @@
+package com.online.shopping.repository;
+
+import com.mongodb.MongoCommandException;
+import com.online.shopping.entity.Attributes;
+import com.online.shopping.entity.Category;
+import com.online.shopping.entity.Inventory;
+import com.online.shopping.entity.Price;
+import com.online.shopping.entity.Product;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@SpringBootTest
+class ProductQueriesTest {
+
+    private static final String MIGRATED_PRODUCT_ID = "CATEGORY-KEY-MIGRATION-TEST";
+
+    // error code of an unknown command, e.g. explain on an embedded test server
+    private static final int COMMAND_NOT_FOUND = 59;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CategoryKeyMigration categoryKeyMigration;
+
+    @AfterEach
+    public void tearDown() {
+        mongoTemplate.remove(new Query(Criteria.where("id").is(MIGRATED_PRODUCT_ID)), Product.class);
+    }
+
+    @DisplayName("Junit Test case for Category key - stores the lower-cased category name with the product")
+    @Test
+    void givenProduct_whenWrite_thenStoreNormalizedCategoryKey() {
+        // given - precondition or setup
+        Product product = new Product("1", "laptop", "apple", "very good", new Price("USD", 12.99),
+                new Inventory(35, 20, 5), List.of(new Attributes("colour", "white")), new Category("1234", "Home & Kitchen"));
+        Document document = new Document();
+
+        // when -  action or the behaviour that we are going test
+        mongoTemplate.getConverter().write(product, document);
+        Product read = mongoTemplate.getConverter().read(Product.class,
+                new Document("_id", "1").append("category", new Document("name", "Garden").append("key", "stale")));
+
+        // then - verify the output
+        assertThat(document.get("category", Document.class).getString("key")).isEqualTo("home & kitchen");
+        assertThat(read.getCategory().getKey()).isEqualTo("garden");
+    }
+
+    @DisplayName("Junit Test case for CategoryKeyMigration migrate method - backfills the key of the existing products")
+    @Test
+    void givenProductWithoutCategoryKey_whenMigrate_thenBackfillKey() throws InterruptedException {
+        // given - precondition or setup
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Product.class)).insertOne(
+                new Document("_id", MIGRATED_PRODUCT_ID).append("category", new Document("name", "Key Migration TEST")));
+
+        // when -  action or the behaviour that we are going test
+        categoryKeyMigration.migrate();
+
+        // then - verify the output
+        Document migrated = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Product.class))
+                .find(new Document("_id", MIGRATED_PRODUCT_ID)).first();
+        assertThat(migrated.get("category", Document.class).getString("key")).isEqualTo("key migration test");
+        assertThat(categoryKeyMigration.isComplete()).isTrue();
+        assertThat(mongoTemplate.find(ProductQueries.byCategory("KEY MIGRATION test", null, true), Product.class))
+                .extracting(Product::getId).containsExactly(MIGRATED_PRODUCT_ID);
+    }
+
+    @DisplayName("Junit Test case for ProductQueries byCategory method - is an index seek on the category key")
+    @Test
+    void givenCategoryKeyQuery_whenExplain_thenIndexSeek() {
+        // when -  action or the behaviour that we are going test
+        String plan = winningPlan(ProductQueries.byCategory("Electronics", null, true));
+
+        // then - verify the output
+        assertThat(plan).contains("IXSCAN").contains("category_key_").doesNotContain("COLLSCAN");
+    }
+
+    @DisplayName("Junit Test case for ProductQueries sellableByCategory method - reads the price order from the category key index")
+    @Test
+    void givenSellableByPriceQuery_whenExplain_thenIndexSeekWithoutSort() {
+        // when -  action or the behaviour that we are going test
+        String byPrice = winningPlan(ProductQueries.sellableByCategory("Electronics", Map.of("colour", List.of("white")),
+                "price", "desc", 0, 10, null, true));
+        String byInventory = winningPlan(ProductQueries.sellableByCategory("Electronics", "inventory", "asc", 20, 10,
+                null, true));
+
+        // then - verify the output
+        assertThat(byPrice).contains("category_key_price_index").doesNotContain("COLLSCAN").doesNotContain("\"SORT\"");
+        assertThat(byInventory).contains("category_key_inventory_index").doesNotContain("COLLSCAN")
+                .doesNotContain("\"SORT\"");
+    }
+
+    @DisplayName("Junit Test case for ProductQueries byFilter method - reads the _id order of a category from the category key index")
+    @Test
+    void givenCategoryFilterInIdOrder_whenExplain_thenIndexSeekWithoutSort() {
+        // when -  action or the behaviour that we are going test
+        String plan = winningPlan(ProductQueries.byFilter("Electronics", Map.of(), List.of("price"), true)
+                .with(Sort.by(Sort.Direction.ASC, "_id")));
+
+        // then - verify the output
+        assertThat(plan).contains("category_key_id_index").doesNotContain("COLLSCAN").doesNotContain("\"SORT\"");
+    }
+
+    /**
+     * @param query
+     * @return the winning plan of the query as JSON, the test is skipped when the server does not explain queries
+     */
+    private String winningPlan(Query query) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(Product.class);
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        Document find = new Document("find", mongoTemplate.getCollectionName(Product.class))
+                .append("filter", queryMapper.getMappedObject(query.getQueryObject(), entity))
+                .append("sort", queryMapper.getMappedSort(query.getSortObject(), entity))
+                .append("skip", query.getSkip())
+                .append("limit", query.getLimit());
+        query.getCollation().ifPresent(collation -> find.append("collation", collation.toDocument()));
+        Document explain;
+        try {
+            explain = mongoTemplate.getDb().runCommand(new Document("explain", find).append("verbosity", "queryPlanner"));
+        } catch (MongoCommandException e) {
+            assumeTrue(e.getErrorCode() != COMMAND_NOT_FOUND, "The MongoDB server does not support explain");
+            throw e;
+        }
+        return explain.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+    }
+}
@@ -0,0 +1,422 @@
+package com.online.shopping.repository;
+
+import com.online.shopping.entity.Attributes;
+import com.online.shopping.entity.Category;
+import com.online.shopping.entity.Inventory;
+import com.online.shopping.entity.Price;
+import com.online.shopping.entity.Product;
+import com.online.shopping.entity.ProjectedProduct;
+import com.online.shopping.entity.UserInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Behaviour shared by every storage backend of the repositories, run against MongoDB
+ * ({@link MongoRepositoryContractTest}) and against the in-memory backend ({@link InMemoryRepositoryContractTest}).
+ * Every run writes its own category and ids, so it does not depend on the other data of the database.
+ */
+abstract class RepositoryContractTest {
+
+    // unusual prices, so the keyset pages over the whole collection only meet the products of the test
+    private static final double BASE_PRICE = 987_650.0;
+
+    @Autowired
+    protected ProductRepository productRepository;
+
+    @Autowired
+    protected CategoryRepository categoryRepository;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    private final String run = UUID.randomUUID().toString().substring(0, 8);
+
+    protected final String categoryName = "Contract " + run;
+
+    private final List<String> productIds = new ArrayList<>();
+
+    private final List<String> categoryIds = new ArrayList<>();
+
+    private final List<String> userIds = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        productRepository.deleteAllById(productIds);
+        categoryRepository.deleteAllById(categoryIds);
+        userRepository.deleteAllById(userIds);
+    }
+
+    @DisplayName("Junit Test case for ProductRepository insert method - fails on a duplicate id, save replaces (negative scenario)")
+    @Test
+    void givenProduct_whenInsertTwice_thenDuplicateKeyAndSaveReplaces() {
+        // given - precondition or setup
+        Product product = product(1, 10.0, 5, 0, "red");
+        productRepository.insert(product);
+
+        // when -  action or the behaviour that we are going test
+        assertThrows(DuplicateKeyException.class, () -> productRepository.insert(product(1, 11.0, 5, 0, "red")));
+        productRepository.save(product(1, 12.0, 5, 0, "blue"));
+
+        // then - verify the output
+        Product read = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(read.getPrice().getAmount()).isEqualTo(12.0);
+        assertThat(read.getAttributes()).extracting(Attributes::getValue).containsExactly("blue");
+        assertThat(read.getCategory().getName()).isEqualTo(categoryName);
+        assertThat(productRepository.existsById(product.getId())).isTrue();
+    }
+
+    @DisplayName("Junit Test case for ProductRepository insertAll method - reports the position of the failed products")
+    @Test
+    void givenDuplicateInBatch_whenInsertAll_thenOthersInserted() {
+        // given - precondition or setup
+        productRepository.insert(product(2, 10.0, 5, 0, "red"));
+
+        // when -  action or the behaviour that we are going test
+        Map<Integer, String> errors = productRepository.insertAll(List.of(product(1, 10.0, 5, 0, "red"),
+                product(2, 10.0, 5, 0, "red"), product(3, 10.0, 5, 0, "red")));
+
+        // then - verify the output
+        assertThat(errors).containsOnlyKeys(1);
+        assertThat(productRepository.findByIds(List.of(id(3), id(1), id(9)), null))
+                .extracting(Product::getId).containsExactly(id(3), id(1));
+    }
+
+    @DisplayName("Junit Test case for ProductRepository findByCategory method - matches the category whatever its case")
+    @Test
+    void givenProducts_whenFindByCategory_thenCaseInsensitiveMatch() {
+        // given - precondition or setup
+        productRepository.insert(List.of(product(2, 20.0, 5, 0, "red"), product(1, 10.0, 5, 0, "blue")));
+
+        // when -  action or the behaviour that we are going test
+        List<Product> products = productRepository.findByCategory(categoryName.toUpperCase(), List.of("name"));
+
+        // then - verify the output
+        assertThat(products).extracting(Product::getId).containsExactlyInAnyOrder(id(1), id(2));
+        assertThat(products).allSatisfy(product -> {
+            assertThat(product.getName()).startsWith("product");
+            assertThat(product.getBrand()).isNull();
+        });
+        assertThat(productRepository.existsByCategory(categoryName.toLowerCase())).isTrue();
+        assertThat(productRepository.existsByCategory(categoryName + " none")).isFalse();
+    }
+
+    @DisplayName("Junit Test case for ProductRepository findByCategory method - only a projected product leaves the fields not read out of its JSON")
+    @Test
+    void givenProducts_whenFindByCategoryWithFields_thenProjectedJsonWithoutFieldsNotRead() throws Exception {
+        // given - precondition or setup
+        productRepository.insert(product(1, 10.0, 5, 0, "red"));
+        ObjectMapper mapper = new ObjectMapper();
+
+        // when -  action or the behaviour that we are going test
+        Product projected = productRepository.findByCategory(categoryName, List.of("name")).get(0);
+        Product whole = productRepository.findByCategory(categoryName, null).get(0);
+        whole.setDescription(null);
+
+        // then - verify the output
+        assertThat(projected).isInstanceOf(ProjectedProduct.class);
+        assertThat(mapper.readTree(mapper.writeValueAsString(projected)).fieldNames())
+                .toIterable().containsExactlyInAnyOrder("id", "name");
+        assertThat(whole).isNotInstanceOf(ProjectedProduct.class);
+        assertThat(mapper.readTree(mapper.writeValueAsString(whole)).get("description").isNull()).isTrue();
+    }
+
+    @DisplayName("Junit Test case for ProductRepository findSellableByIds method - leaves out the products sold out since")
+    @Test
+    void givenSoldOutProduct_whenFindSellableByIds_thenLeftOut() {
+        // given - precondition or setup
+        productRepository.insert(List.of(product(1, 10.0, 5, 0, "red"), product(2, 20.0, 5, 5, "red"),
+                product(3, 30.0, 5, 0, "red")));
+
+        // when -  action or the behaviour that we are going test
+        List<Product> products = productRepository.findSellableByIds(List.of(id(3), id(2), id(1), id(9)), List.of("name"));
+
+        // then - verify the output
+        assertThat(products).extracting(Product::getId).containsExactly(id(3), id(1));
+    }
+
+    @DisplayName("Junit Test case for ProductRepository findSellableByCategory method - filters, sorts and pages the sellable products")
+    @Test
+    void givenProducts_whenFindSellableByCategory_thenSortedPage() {
+        // given - precondition or setup
+        productRepository.insert(List.of(product(1, 10.0, 5, 0, "red"), product(2, 40.0, 5, 0, "red"),
+                product(3, 30.0, 5, 5, "red"), product(4, 20.0, 5, 1, "red"), product(5, 50.0, 5, 0, "blue")));
+
+        // when -  action or the behaviour that we are going test
+        List<Product> byPrice = productRepository.findSellableByCategory(categoryName.toLowerCase(),
+                Map.of("colour", List.of("red", "green")), "price", "desc", 1, 2, null);
+        List<Product> byInventory = productRepository.findSellableByCategory(categoryName, "inventory",
+                "asc", 0, 10, List.of("inventory"));
+
+        // then - verify the output
+        assertThat(byPrice).extracting(Product::getId).containsExactly(id(4), id(1));
+        assertThat(byInventory).extracting(Product::getId).containsExactly(id(1), id(2), id(4), id(5));
+    }
+
+    @DisplayName("Junit Test case for ProductRepository findPageAfter method - keyset pages in price then id order")
+    @Test
+    void givenProducts_whenFindPageAfter_thenNextPages() {
+        // given - precondition or setup
+        productRepository.insert(List.of(product(1, BASE_PRICE + 2, 5, 0, "red"), product(2, BASE_PRICE + 1, 5, 0, "red"),
+                product(3, BASE_PRICE + 1, 5, 0, "red")));
+
+        // when -  action or the behaviour that we are going test
+        List<Product> first = productRepository.findPageAfter("price.amount", Sort.Direction.ASC, BASE_PRICE, "", 2, null);
+        Product last = first.get(first.size() - 1);
+        List<Product> second = productRepository.findPageAfter("price.amount", Sort.Direction.ASC,
+                last.getPrice().getAmount(), last.getId(), 1, null);
+        List<Product> descending = productRepository.findPageAfter("price.amount", Sort.Direction.DESC, BASE_PRICE + 2,
+                id(1), 2, null);
+
+        // then - verify the output
+        assertThat(first).extracting(Product::getId).containsExactly(id(2), id(3));
+        assertThat(second).extracting(Product::getId).containsExactly(id(1));
+        assertThat(descending).extracting(Product::getId).containsExactly(id(3), id(2));
+    }
+
+    @DisplayName("Junit Test case for ProductRepository modifyInventory method - applies the operations within their guard")
+    @Test
+    void givenInventory_whenModifyInventory_thenGuardedChanges() {
+        // given - precondition or setup
+        productRepository.insert(product(1, 10.0, 3, 0, "red"));
+
+        // when -  action or the behaviour that we are going test
+        Product reserved = productRepository.modifyInventory(id(1), ProductRepositoryCustom.InventoryOperation.RESERVE, 2);
+        Product refused = productRepository.modifyInventory(id(1), ProductRepositoryCustom.InventoryOperation.RESERVE, 2);
+        Product committed = productRepository.modifyInventory(id(1), ProductRepositoryCustom.InventoryOperation.COMMIT, 1);
+        Product overReleased = productRepository.modifyInventory(id(1), ProductRepositoryCustom.InventoryOperation.RELEASE, 2);
+        productRepository.revertInventory(id(1), ProductRepositoryCustom.InventoryOperation.COMMIT, 1);
+
+        // then - verify the output
+        assertThat(reserved.getInventory()).isEqualTo(new Inventory(3, 3, 2));
+        assertThat(refused).isNull();
+        assertThat(committed.getInventory()).isEqualTo(new Inventory(2, 2, 1));
+        assertThat(overReleased).isNull();
+        assertThat(productRepository.findById(id(1)).orElseThrow().getInventory()).isEqualTo(new Inventory(3, 3, 2));
+        assertThat(productRepository.modifyInventory(id(9), ProductRepositoryCustom.InventoryOperation.RELEASE, 1)).isNull();
+    }
+
+    @DisplayName("Junit Test case for ProductRepository updatePrices method - only changes the products still at their read price")
+    @Test
+    void givenReadPrices_whenUpdatePrices_thenConcurrentChangeKept() {
+        // given - precondition or setup
+        productRepository.insert(List.of(product(1, 10.0, 5, 0, "red"), product(2, 20.0, 5, 0, "red")));
+        List<Product> read = productRepository.findByIds(List.of(id(1), id(2)), null);
+        productRepository.save(product(2, 25.0, 5, 0, "red"));
+
+        // when -  action or the behaviour that we are going test
+        long modified = productRepository.updatePrices(read, List.of(new Price("USD", 11.0), new Price("USD", 21.0)));
+
+        // then - verify the output
+        assertThat(modified).isEqualTo(1);
+        assertThat(productRepository.findById(id(1)).orElseThrow().getPrice().getAmount()).isEqualTo(11.0);
+        assertThat(productRepository.findById(id(2)).orElseThrow().getPrice().getAmount()).isEqualTo(25.0);
+    }
+
+    @DisplayName("Junit Test case for ProductRepository incrementInventory method - adds the deltas and ignores unknown products")
+    @Test
+    void givenDeltas_whenIncrementInventory_thenTotalsChanged() {
+        // given - precondition or setup
+        productRepository.insert(List.of(product(1, 10.0, 5, 1, "red"), product(2, 20.0, 5, 0, "red"),
+                product(3, 30.0, 5, 2, "red")));
+
+        // when -  action or the behaviour that we are going test
+        var result = productRepository.incrementInventory(Map.of(id(1), 3, id(2), -2, id(3), -3, id(9), 4, id(8), -1));
+
+        // then - verify the output
+        assertThat(result.failed()).isEmpty();
+        assertThat(result.rejected()).isEmpty();
+        assertThat(productRepository.findById(id(1)).orElseThrow().getInventory()).isEqualTo(new Inventory(8, 8, 1));
+        assertThat(productRepository.findById(id(2)).orElseThrow().getInventory()).isEqualTo(new Inventory(3, 3, 0));
+        assertThat(productRepository.findById(id(3)).orElseThrow().getInventory()).isEqualTo(new Inventory(2, 2, 2));
+        assertThat(productRepository.existsById(id(9))).isFalse();
+        assertThat(productRepository.existsById(id(8))).isFalse();
+    }
+
+    @DisplayName("Junit Test case for ProductRepository incrementInventory method - rejects a removal below the reserved units (negative scenario)")
+    @Test
+    void givenRemovalBelowReserved_whenIncrementInventory_thenRejected() {
+        // given - precondition or setup
+        productRepository.insert(List.of(product(1, 10.0, 5, 2, "red"), product(2, 20.0, 5, 0, "red")));
+
+        // when -  action or the behaviour that we are going test
+        var result = productRepository.incrementInventory(Map.of(id(1), -4, id(2), 1));
+
+        // then - verify the output
+        assertThat(result.failed()).isEmpty();
+        assertThat(result.rejected()).containsExactly(id(1));
+        assertThat(productRepository.findById(id(1)).orElseThrow().getInventory()).isEqualTo(new Inventory(5, 5, 2));
+        assertThat(productRepository.findById(id(2)).orElseThrow().getInventory()).isEqualTo(new Inventory(6, 6, 0));
+    }
+
+    @DisplayName("Junit Test case for ProductRepository streamByFilter method - streams the matching products in id order")
+    @Test
+    void givenProducts_whenStreamByFilter_thenMatchingInIdOrder() {
+        // given - precondition or setup
+        productRepository.insert(List.of(product(3, 10.0, 5, 0, "red"), product(1, 10.0, 5, 0, "blue"),
+                product(2, 10.0, 0, 0, "red")));
+
+        // when -  action or the behaviour that we are going test
+        List<String> streamed;
+        try (Stream<Product> products = productRepository.streamByFilter(categoryName.toUpperCase(),
+                Map.of("colour", List.of("red")), 100, List.of("name"))) {
+            streamed = products.map(Product::getId).toList();
+        }
+
+        // then - verify the output
+        assertThat(streamed).containsExactly(id(2), id(3));
+    }
+
+    @DisplayName("Junit Test case for ProductRepository streamModifiedSince method - streams the products written after the given time")
+    @Test
+    void givenWrites_whenStreamModifiedSince_thenOnlyModifiedProducts() throws InterruptedException {
+        // given - precondition or setup
+        productRepository.insert(List.of(product(1, 10.0, 5, 0, "red"), product(2, 20.0, 5, 0, "red"),
+                product(3, 30.0, 5, 0, "red")));
+        Thread.sleep(20);
+        Instant since = Instant.now();
+        Thread.sleep(20);
+        productRepository.incrementInventory(Map.of(id(2), 1));
+        productRepository.save(product(4, 40.0, 5, 0, "red"));
+
+        // when -  action or the behaviour that we are going test
+        List<String> streamed;
+        try (Stream<Product> products = productRepository.streamModifiedSince(since, 100, List.of("name"))) {
+            streamed = products.map(Product::getId).filter(productIds::contains).sorted().toList();
+        }
+
+        // then - verify the output
+        assertThat(streamed).containsExactly(id(2), id(4));
+    }
+
+    @DisplayName("Junit Test case for CategoryRepository findByName method - matches the exact category name")
+    @Test
+    void givenCategory_whenFindByName_thenExactMatch() {
+        // given - precondition or setup
+        Category category = categoryRepository.save(new Category(null, categoryName));
+        categoryIds.add(category.getId());
+
+        // when -  action or the behaviour that we are going test
+        var found = categoryRepository.findByName(categoryName);
+
+        // then - verify the output
+        assertThat(category.getId()).isNotNull();
+        assertThat(found).map(Category::getId).contains(category.getId());
+        assertThat(categoryRepository.findByName(categoryName.toUpperCase())).isEmpty();
+        assertThat(categoryRepository.findByNameAllIgnoreCase(categoryName.toUpperCase()).getId()).isEqualTo(category.getId());
+    }
+
+    @DisplayName("Junit Test case for CategoryRepository insert method - fails on a duplicate name (negative scenario)")
+    @Test
+    void givenCategory_whenInsertSameName_thenDuplicateKey() {
+        // given - precondition or setup
+        Category category = categoryRepository.insert(new Category(null, categoryName));
+        categoryIds.add(category.getId());
+
+        // when -  action or the behaviour that we are going test
+        Category duplicate = new Category(null, categoryName);
+        assertThrows(DuplicateKeyException.class, () -> categoryRepository.insert(duplicate));
+        if (duplicate.getId() != null) {
+            categoryIds.add(duplicate.getId());
+        }
+
+        // then - verify the output
+        assertThat(categoryRepository.findByName(categoryName)).map(Category::getId).contains(category.getId());
+    }
+
+    @DisplayName("Junit Test case for ProductRepository findAll method - matches the fields of the example")
+    @Test
+    void givenProducts_whenFindAllByExample_thenMatchingProducts() {
+        // given - precondition or setup
+        productRepository.insert(List.of(product(1, 10.0, 5, 0, "red"), product(2, 20.0, 5, 0, "blue"),
+                product(3, 30.0, 5, 0, "red")));
+        Product probe = new Product();
+        probe.setBrand("BRAND");
+        probe.setAttributes(null);
+        probe.setCategory(new Category(null, categoryName.toUpperCase()));
+        Example<Product> example = Example.of(probe, ExampleMatcher.matching().withIgnoreCase()
+                .withMatcher("brand", ExampleMatcher.GenericPropertyMatchers.startsWith()));
+
+        // when -  action or the behaviour that we are going test
+        List<Product> products = productRepository.findAll(example, Sort.by(Sort.Direction.DESC, "price.amount"));
+        Page<Product> page = productRepository.findAll(example, PageRequest.of(1, 2, Sort.by("id")));
+        List<Product> names = productRepository.findBy(example,
+                query -> query.sortBy(Sort.by("id")).project("name").all());
+
+        // then - verify the output
+        assertThat(products).extracting(Product::getId).containsExactly(id(3), id(2), id(1));
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(Product::getId).containsExactly(id(3));
+        assertThat(names).extracting(Product::getName).containsExactly("product 1", "product 2", "product 3");
+        assertThat(names).extracting(Product::getBrand).containsOnlyNulls();
+        assertThat(productRepository.count(example)).isEqualTo(3);
+        probe.setBrand("brand 2");
+        assertThat(productRepository.findOne(example)).map(Product::getId).contains(id(2));
+        probe.setBrand("Brand 2");
+        assertThat(productRepository.exists(Example.of(probe))).isFalse();
+    }
+
+    @DisplayName("Junit Test case for CategoryRepository findOne method - matches the exact name of the example")
+    @Test
+    void givenCategory_whenFindOneByExample_thenExactMatch() {
+        // given - precondition or setup
+        Category category = categoryRepository.save(new Category(null, categoryName));
+        categoryIds.add(category.getId());
+
+        // when -  action or the behaviour that we are going test
+        var found = categoryRepository.findOne(Example.of(new Category(null, categoryName)));
+
+        // then - verify the output
+        assertThat(found).map(Category::getId).contains(category.getId());
+        assertThat(categoryRepository.findOne(Example.of(new Category(null, categoryName.toUpperCase())))).isEmpty();
+        assertThat(categoryRepository.findAll(Example.of(new Category(null, categoryName.toUpperCase()),
+                ExampleMatcher.matching().withIgnoreCase()))).extracting(Category::getId).containsExactly(category.getId());
+    }
+
+    @DisplayName("Junit Test case for UserRepository insert method - generates the id")
+    @Test
+    void givenUser_whenInsert_thenIdGenerated() {
+        // given - precondition or setup
+        UserInfo user = new UserInfo(null, "contract " + run, "contract@test.com", "secret", "ROLE_USER");
+
+        // when -  action or the behaviour that we are going test
+        UserInfo inserted = userRepository.insert(user);
+        userIds.add(inserted.getId());
+
+        // then - verify the output
+        assertThat(inserted.getId()).isNotNull();
+        assertThat(userRepository.findById(inserted.getId())).map(UserInfo::getName).contains("contract " + run);
+    }
+
+    protected String id(int number) {
+        return "CONTRACT-" + run + "-" + number;
+    }
+
+    protected Product product(int number, double price, int available, int reserved, String colour) {
+        String id = id(number);
+        if (!productIds.contains(id)) {
+            productIds.add(id);
+        }
+        return new Product(id, "product " + number, "brand " + number, "description", new Price("USD", price),
+                new Inventory(available, available, reserved), List.of(new Attributes("colour", colour)),
+                new Category(null, categoryName));
+    }
+}
@@ -0,0 +1,140 @@
+package com.online.shopping.search;
+
+import com.online.shopping.entity.*;
+import com.online.shopping.event.ProductChangedEvent;
+import com.online.shopping.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@SpringBootTest
+class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductSearchIndex productSearchIndex;
+
+    private Product laptop;
+    private Product laptopBag;
+    private Product phone;
+
+    @BeforeEach
+    public void setup() {
+        productSearchIndex = new ProductSearchIndex(productRepository, 100);
+        Category category = new Category("1234", "electronics");
+        laptop = new Product("1", "MacBook Laptop", "Apple", "Thin and light laptop",
+                new Price("USD", 1299.0), new Inventory(10, 5, 1), List.of(new Attributes("colour", "silver")), category);
+        laptopBag = new Product("2", "Laptop bag", "Targus", "Fits a 15 inch Apple laptop",
+                new Price("USD", 49.0), new Inventory(10, 2, 2), List.of(new Attributes("colour", "black")), category);
+        phone = new Product("3", "iPhone", "Apple", "Smart phone with a café grade camera",
+                new Price("USD", 999.0), new Inventory(10, 8, 0), List.of(new Attributes("colour", "silver")), category);
+        given(productRepository.streamAll(100)).willReturn(Stream.of(laptop, laptopBag, phone));
+        productSearchIndex.rebuild();
+    }
+
+    @DisplayName("Junit Test case for tokenize method - lower cases, strips accents and splits on punctuation")
+    @Test
+    void givenText_whenTokenize_thenReturnFoldedTerms() {
+        // when -  action or the behaviour that we are going test
+        List<String> tokens = ProductSearchIndex.tokenize("Café-Grade, 15\" USB-C");
+
+        // then - verify the output
+        assertThat(tokens).containsExactly("cafe", "grade", "15", "usb", "c");
+    }
+
+    @DisplayName("Junit Test case for search method - ranks name matches before description matches")
+    @Test
+    void givenQuery_whenSearch_thenRankByRelevance() {
+        // when -  action or the behaviour that we are going test
+        List<Product> products = productSearchIndex.search("apple laptop", false, ProductSearchIndex.SortBy.RELEVANCE, true, 0, 10);
+
+        // then - verify the output
+        assertThat(products).containsExactly(laptop, laptopBag);
+    }
+
+    @DisplayName("Junit Test case for search method - matches the beginning of a word and attribute values")
+    @Test
+    void givenPrefixQuery_whenSearch_thenMatchPrefixAndAttributes() {
+        // when -  action or the behaviour that we are going test
+        List<Product> products = productSearchIndex.search("silv CAFE", false, ProductSearchIndex.SortBy.RELEVANCE, true, 0, 10);
+
+        // then - verify the output
+        assertThat(products).containsExactly(phone);
+    }
+
+    @DisplayName("Junit Test case for search method - combines the in stock filter with the price order and paging")
+    @Test
+    void givenInStockAndPriceSort_whenSearch_thenFilterAndSort() {
+        // when -  action or the behaviour that we are going test
+        List<Product> inStock = productSearchIndex.search("apple", true, ProductSearchIndex.SortBy.PRICE, false, 0, 10);
+        List<Product> secondPage = productSearchIndex.search("apple", false, ProductSearchIndex.SortBy.PRICE, true, 1, 1);
+
+        // then - verify the output
+        assertThat(inStock).containsExactly(laptop, phone);
+        assertThat(secondPage).containsExactly(phone);
+    }
+
+    @DisplayName("Junit Test case for onProductChanged method - updates and deletes are searchable right away")
+    @Test
+    void givenProductEvents_whenSearch_thenReflectChanges() {
+        // given - precondition or setup
+        Product renamed = new Product("3", "Galaxy", "Samsung", "Smart phone",
+                new Price("USD", 899.0), new Inventory(10, 8, 0), List.of(new Attributes("colour", "black")), null);
+
+        // when -  action or the behaviour that we are going test
+        productSearchIndex.onProductChanged(new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, "3", renamed, Set.of()));
+        productSearchIndex.onProductChanged(new ProductChangedEvent(ProductChangedEvent.ChangeType.DELETED, "2", null, Set.of()));
+
+        // then - verify the output
+        assertThat(productSearchIndex.search("iphone", false, ProductSearchIndex.SortBy.RELEVANCE, true, 0, 10)).isEmpty();
+        assertThat(productSearchIndex.search("galaxy", false, ProductSearchIndex.SortBy.RELEVANCE, true, 0, 10)).containsExactly(renamed);
+        assertThat(productSearchIndex.search("black", false, ProductSearchIndex.SortBy.RELEVANCE, true, 0, 10)).containsExactly(renamed);
+        assertThat(productSearchIndex.size()).isEqualTo(2);
+    }
+
+    @DisplayName("Junit Test case for refresh method - picks up the products written on another node, keeps the index on failure")
+    @Test
+    void givenProductsWrittenElsewhere_whenRefresh_thenSearchable() {
+        // given - precondition or setup
+        Product tablet = new Product("4", "iPad", "Apple", "Tablet",
+                new Price("USD", 599.0), new Inventory(10, 3, 0), List.of(new Attributes("colour", "silver")), null);
+        given(productRepository.streamAll(100)).willReturn(Stream.of(laptop, tablet))
+                .willThrow(new IllegalStateException("database unavailable"));
+
+        // when -  action or the behaviour that we are going test
+        productSearchIndex.refresh();
+        productSearchIndex.refresh();
+
+        // then - verify the output
+        assertThat(productSearchIndex.search("ipad", false, ProductSearchIndex.SortBy.RELEVANCE, true, 0, 10)).containsExactly(tablet);
+        assertThat(productSearchIndex.search("iphone", false, ProductSearchIndex.SortBy.RELEVANCE, true, 0, 10)).isEmpty();
+        assertThat(productSearchIndex.size()).isEqualTo(2);
+    }
+
+    @DisplayName("Junit Test case for refresh method - the first refresh after a warm start is skipped")
+    @Test
+    void givenWarmStart_whenRefresh_thenFirstRefreshSkipped() {
+        // given - precondition or setup
+        productSearchIndex.warmStart(List.of(phone));
+        given(productRepository.streamAll(100)).willReturn(Stream.of(laptop, laptopBag, phone));
+
+        // when -  action or the behaviour that we are going test
+        productSearchIndex.refresh();
+        int afterFirstRefresh = productSearchIndex.size();
+        productSearchIndex.refresh();
+
+        // then - verify the output
+        assertThat(afterFirstRefresh).isEqualTo(1);
+        assertThat(productSearchIndex.size()).isEqualTo(3);
+    }
+}
@@ -1,24 +1,37 @@
 package com.online.shopping.service;
 
+import com.online.shopping.cache.CategoryColumnIndex;
+import com.online.shopping.cache.CategoryRegistry;
 import com.online.shopping.dto.ResponseModalDTO;
 import com.online.shopping.entity.*;
+import com.online.shopping.event.ProductChangedEvent;
+import com.online.shopping.exception.ProductNotAvailableException;
 import com.online.shopping.exception.ResourceNotFoundException;
 import com.online.shopping.repository.CategoryRepository;
 import com.online.shopping.repository.ProductRepository;
+import com.online.shopping.util.IdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -31,16 +44,22 @@ class CatogoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
-    @InjectMocks
+    @Mock
+    private IdGenerator idGenerator;
+
     private CategoryService CategoryService;
 
+    private CategoryColumnIndex categoryColumnIndex;
+
     private Product product;
     private Category category;
     private List<Product> productList = new ArrayList<Product>();
 
     @BeforeEach
     public void setup() {
-
+        categoryColumnIndex = new CategoryColumnIndex(productRepository, 1000);
+        CategoryService = new CategoryService(categoryRepository, productRepository, idGenerator,
+                new CategoryRegistry(categoryRepository, Duration.ofSeconds(5)), categoryColumnIndex, new SimpleMeterRegistry());
         category = new Category("22334ID", "Dummy");
         product = new Product("1122ID", "ABC",
                 "XYZ", "Great product",
@@ -92,17 +111,33 @@ class CatogoryServiceTest {
         given(categoryRepository.findByName("Dummy"))
                 .willReturn(Optional.of(category));
 
-        given(productRepository.findByCategoryNameIgnoreCase("Dummy"))
+        given(productRepository.findSellableByCategory("Dummy", "inventory", "asc", 0, 10, null))
                 .willReturn(productList);
 
         //given(productRepository.save(product)).willReturn(product);
 
         // when -  action or the behaviour that we are going test
-        ResponseModalDTO savedProduct = CategoryService.getCategoryProduct("Dummy", "inventory", "asc", 1, 10);
+        ResponseModalDTO savedProduct = CategoryService.getCategoryProduct("Dummy", "inventory", "asc", 1, 10, null, Map.of());
         // then - verify the output
         assertThat(savedProduct).isNotNull();
     }
 
+    @DisplayName("Junit Test case for getCategoryProduct method - reads only the requested fields")
+    @Test
+    void givenFields_whenGetCategoryProduct_thenProjectRequestedFields() {
+
+        given(categoryRepository.findByName("Dummy"))
+                .willReturn(Optional.of(category));
+
+        given(productRepository.findSellableByCategory("Dummy", "price", "asc", 0, 10, Set.of("id", "name", "inventory")))
+                .willReturn(productList);
+
+        // when -  action or the behaviour that we are going test
+        ResponseModalDTO savedProduct = CategoryService.getCategoryProduct("Dummy", "price", "asc", 1, 10, "name,inventory", Map.of());
+        // then - verify the output
+        assertThat(savedProduct.getProductResponseDTO().getProducts()).isEqualTo(productList);
+    }
+
     @DisplayName("Junit Test case for getCategoryProduct method - throws exception (negative scenario) ")
     @Test
     void givenCategoryObject_whenGetCategoryProduct_thenThrowsException() {
@@ -112,11 +147,11 @@ class CatogoryServiceTest {
 
         // when -  action or the behaviour that we are going test
         assertThrows(ResourceNotFoundException.class, () -> {
-            ResponseModalDTO responseModel = CategoryService.getCategoryProduct("Dummy", "inventory", "asc", 1, 10);
+            ResponseModalDTO responseModel = CategoryService.getCategoryProduct("Dummy", "inventory", "asc", 1, 10, null, Map.of());
         });
 
         // then - verify the output
-        verify(productRepository, never()).findByCategoryNameIgnoreCase(category.getName());
+        verify(productRepository, never()).findSellableByCategory(anyString(), anyString(), anyString(), anyLong(), anyInt(), any());
     }
 
     @DisplayName("Junit Test case for getCategoryProduct method - should retrun list of products")
@@ -126,13 +161,13 @@ class CatogoryServiceTest {
         given(categoryRepository.findByName("Dummy"))
                 .willReturn(Optional.of(category));
 
-        given(productRepository.findByCategoryNameIgnoreCase("Dummy"))
+        given(productRepository.findSellableByCategory("Dummy", "price", "asc", 0, 10, null))
                 .willReturn(productList);
 
         //given(productRepository.save(product)).willReturn(product);
 
         // when -  action or the behaviour that we are going test
-        ResponseModalDTO savedProduct = CategoryService.getCategoryProduct("Dummy", "price", "asc", 1, 10);
+        ResponseModalDTO savedProduct = CategoryService.getCategoryProduct("Dummy", "price", "asc", 1, 10, null, Map.of());
         // then - verify the output
         assertThat(savedProduct).isNotNull();
     }
@@ -144,13 +179,13 @@ class CatogoryServiceTest {
         given(categoryRepository.findByName("Dummy"))
                 .willReturn(Optional.of(category));
 
-        given(productRepository.findByCategoryNameIgnoreCase("Dummy"))
+        given(productRepository.findSellableByCategory("Dummy", "price", "desc", 0, 10, null))
                 .willReturn(productList);
 
         //given(productRepository.save(product)).willReturn(product);
 
         // when -  action or the behaviour that we are going test
-        ResponseModalDTO savedProduct = CategoryService.getCategoryProduct("Dummy", "price", "desc", 1, 10);
+        ResponseModalDTO savedProduct = CategoryService.getCategoryProduct("Dummy", "price", "desc", 1, 10, null, Map.of());
         // then - verify the output
         assertThat(savedProduct).isNotNull();
     }
@@ -162,14 +197,95 @@ class CatogoryServiceTest {
         given(categoryRepository.findByName("Dummy"))
                 .willReturn(Optional.of(category));
 
-        given(productRepository.findByCategoryNameIgnoreCase("Dummy"))
+        given(productRepository.findSellableByCategory("Dummy", "inventory", "desc", 0, 10, null))
                 .willReturn(productList);
 
         //given(productRepository.save(product)).willReturn(product);
 
         // when -  action or the behaviour that we are going test
-        ResponseModalDTO savedProduct = CategoryService.getCategoryProduct("Dummy", "inventory", "desc", 1, 10);
+        ResponseModalDTO savedProduct = CategoryService.getCategoryProduct("Dummy", "inventory", "desc", 1, 10, null, Map.of());
         // then - verify the output
         assertThat(savedProduct).isNotNull();
     }
-}
\ No newline at end of file
+
+    @DisplayName("Junit Test case for getCategoryProduct method - requests only the asked page from the DB")
+    @Test
+    void givenPageNumber_whenGetCategoryProduct_thenQueriesOffsetAndLimit() {
+
+        given(categoryRepository.findByName("Dummy"))
+                .willReturn(Optional.of(category));
+
+        given(productRepository.findSellableByCategory("Dummy", "price", "asc", 20, 10, null))
+                .willReturn(productList);
+
+        // when -  action or the behaviour that we are going test
+        ResponseModalDTO savedProduct = CategoryService.getCategoryProduct("Dummy", "price", "asc", 3, 10, null, Map.of());
+
+        // then - verify the output
+        assertThat(savedProduct.getProductResponseDTO().getProducts()).containsExactly(product);
+        verify(productRepository, never()).existsByCategory("Dummy");
+    }
+
+    @DisplayName("Junit Test case for getCategoryProduct method - throws exception when the category has no products (negative scenario) ")
+    @Test
+    void givenEmptyCategory_whenGetCategoryProduct_thenThrowsException() {
+
+        given(categoryRepository.findByName("Dummy"))
+                .willReturn(Optional.of(category));
+
+        given(productRepository.findSellableByCategory("Dummy", "price", "asc", 0, 10, null))
+                .willReturn(Collections.emptyList());
+
+        given(productRepository.existsByCategory("Dummy"))
+                .willReturn(false);
+
+        // when -  action or the behaviour that we are going test
+        assertThrows(ProductNotAvailableException.class, () -> {
+            CategoryService.getCategoryProduct("Dummy", "price", "asc", 1, 10, null, Map.of());
+        });
+    }
+
+    @DisplayName("Junit Test case for getCategoryProduct method - reads the page ids from the column index")
+    @Test
+    void givenLoadedColumnIndex_whenGetCategoryProduct_thenReadsPageByIds() {
+        // given - precondition or setup
+        Product cheaper = new Product("1133ID", "DEF", "XYZ", "Good product", new Price("INR", 500.00),
+                new Inventory(100, 50, 10), List.of(), category);
+        Product soldOut = new Product("1144ID", "GHI", "XYZ", "Sold out", new Price("INR", 100.00),
+                new Inventory(100, 10, 10), List.of(), category);
+        given(productRepository.streamAll(anyInt(), any())).willReturn(Stream.of(product, soldOut));
+        categoryColumnIndex.refresh();
+        categoryColumnIndex.onProductChanged(new ProductChangedEvent(ProductChangedEvent.ChangeType.CREATED,
+                cheaper.getId(), cheaper, Set.of("Dummy")));
+        given(categoryRepository.findByName("Dummy"))
+                .willReturn(Optional.of(category));
+        given(productRepository.findSellableByIds(List.of("1133ID", "1122ID"), null))
+                .willReturn(List.of(cheaper, product));
+
+        // when -  action or the behaviour that we are going test
+        ResponseModalDTO savedProduct = CategoryService.getCategoryProduct("Dummy", "price", "asc", 1, 10, null, Map.of());
+
+        // then - verify the output
+        assertThat(savedProduct.getProductResponseDTO().getProducts()).containsExactly(cheaper, product);
+        verify(productRepository, never()).findSellableByCategory(anyString(), anyString(), anyString(), anyLong(), anyInt(), any());
+        verify(productRepository, never()).existsByCategory("Dummy");
+    }
+
+    @DisplayName("Junit Test case for getCategoryProduct method - filters attributes in the DB until the index is loaded")
+    @Test
+    void givenAttributeFiltersAndIndexNotLoaded_whenGetCategoryProduct_thenQueriesWithFilters() {
+        // given - precondition or setup
+        Map<String, List<String>> attributeFilters = Map.of("color", List.of("multicolor"));
+        given(categoryRepository.findByName("Dummy"))
+                .willReturn(Optional.of(category));
+        given(productRepository.findSellableByCategory("Dummy", attributeFilters, "price", "asc", 0, 10, null))
+                .willReturn(productList);
+
+        // when -  action or the behaviour that we are going test
+        ResponseModalDTO savedProduct = CategoryService.getCategoryProduct("Dummy", "price", "asc", 1, 10, null, attributeFilters);
+
+        // then - verify the output
+        assertThat(savedProduct.getProductResponseDTO().getProducts()).containsExactly(product);
+        assertThat(savedProduct.getFacets()).isNull();
+    }
+}
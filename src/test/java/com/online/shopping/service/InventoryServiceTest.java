@@ -0,0 +1,135 @@
+package com.online.shopping.service;
+
+import com.online.shopping.dto.InventoryRequestDTO;
+import com.online.shopping.dto.InventoryResponseDTO;
+import com.online.shopping.entity.*;
+import com.online.shopping.event.ProductChangedEvent;
+import com.online.shopping.exception.CustomException;
+import com.online.shopping.exception.ProductNotAvailableException;
+import com.online.shopping.exception.ResourceNotFoundException;
+import com.online.shopping.repository.ProductRepository;
+import com.online.shopping.repository.ProductRepositoryCustom.InventoryOperation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class InventoryServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private InventoryService inventoryService;
+
+    private Product product;
+    private Product otherProduct;
+
+    @BeforeEach
+    public void setup() {
+        inventoryService = new InventoryService(productRepository, eventPublisher);
+        product = new Product("TestProdId", "test name", "test brand", "description for the test product",
+                new Price("INR", 1234.56), new Inventory(50, 40, 12),
+                List.of(new Attributes("color", "test color")), new Category("testCategId", "test-category"));
+        otherProduct = new Product("OtherProdId", "other name", "test brand", "description for the test product",
+                new Price("INR", 99.99), new Inventory(5, 5, 1),
+                List.of(new Attributes("color", "test color")), new Category("testCategId", "test-category"));
+    }
+
+    @DisplayName("Junit Test case for UpdateInventory method - reserves with one conditional update")
+    @Test
+    void givenEnoughInventory_whenReserve_thenReturnUpdatedInventory() {
+        // given - precondition or setup
+        given(productRepository.modifyInventory("TestProdId", InventoryOperation.RESERVE, 2)).willReturn(product);
+
+        // when -  action or the behaviour that we are going test
+        InventoryResponseDTO response = inventoryService.updateInventory("TestProdId", InventoryOperation.RESERVE, 2);
+
+        // then - verify the output
+        assertThat(response.getInventory().getReserved()).isEqualTo(12);
+        verify(productRepository, never()).findById(any());
+        verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @DisplayName("Junit Test case for UpdateInventory method - throws exception when the inventory is insufficient (negative scenario)")
+    @Test
+    void givenInsufficientInventory_whenReserve_thenThrowsException() {
+        // given - precondition or setup
+        given(productRepository.modifyInventory("TestProdId", InventoryOperation.RESERVE, 100)).willReturn(null);
+        given(productRepository.existsById("TestProdId")).willReturn(true);
+
+        // when -  action or the behaviour that we are going test
+        assertThrows(ProductNotAvailableException.class, () -> {
+            inventoryService.updateInventory("TestProdId", InventoryOperation.RESERVE, 100);
+        });
+    }
+
+    @DisplayName("Junit Test case for UpdateInventory method - throws exception for an unknown product (negative scenario)")
+    @Test
+    void givenUnknownProduct_whenCommit_thenThrowsException() {
+        // given - precondition or setup
+        given(productRepository.modifyInventory("Unknown", InventoryOperation.COMMIT, 1)).willReturn(null);
+        given(productRepository.existsById("Unknown")).willReturn(false);
+
+        // when -  action or the behaviour that we are going test
+        assertThrows(ResourceNotFoundException.class, () -> {
+            inventoryService.updateInventory("Unknown", InventoryOperation.COMMIT, 1);
+        });
+    }
+
+    @DisplayName("Junit Test case for UpdateInventory method - merges the cart lines of the same product")
+    @Test
+    void givenCart_whenReserve_thenApplyMergedLines() {
+        // given - precondition or setup
+        given(productRepository.modifyInventory("TestProdId", InventoryOperation.RESERVE, 3)).willReturn(product);
+        given(productRepository.modifyInventory("OtherProdId", InventoryOperation.RESERVE, 1)).willReturn(otherProduct);
+
+        // when -  action or the behaviour that we are going test
+        List<InventoryResponseDTO> response = inventoryService.updateInventory(InventoryOperation.RESERVE, List.of(
+                new InventoryRequestDTO("TestProdId", 1), new InventoryRequestDTO("OtherProdId", 1),
+                new InventoryRequestDTO("TestProdId", 2)));
+
+        // then - verify the output
+        assertThat(response).extracting(InventoryResponseDTO::getProductId).containsExactly("TestProdId", "OtherProdId");
+        verify(productRepository, never()).revertInventory(any(), any(), anyInt());
+    }
+
+    @DisplayName("Junit Test case for UpdateInventory method - reverts the applied lines when a cart line fails (negative scenario)")
+    @Test
+    void givenCartWithUnavailableLine_whenReserve_thenRevertAppliedLines() {
+        // given - precondition or setup
+        given(productRepository.modifyInventory("TestProdId", InventoryOperation.RESERVE, 2)).willReturn(product);
+        given(productRepository.modifyInventory("OtherProdId", InventoryOperation.RESERVE, 10)).willReturn(null);
+        given(productRepository.existsById("OtherProdId")).willReturn(true);
+
+        // when -  action or the behaviour that we are going test
+        assertThrows(ProductNotAvailableException.class, () -> {
+            inventoryService.updateInventory(InventoryOperation.RESERVE, List.of(
+                    new InventoryRequestDTO("TestProdId", 2), new InventoryRequestDTO("OtherProdId", 10)));
+        });
+
+        // then - verify the output
+        verify(productRepository).revertInventory("TestProdId", InventoryOperation.RESERVE, 2);
+    }
+
+    @DisplayName("Junit Test case for ToOperation method - throws exception for an unknown operation (negative scenario)")
+    @Test
+    void givenUnknownOperation_whenToOperation_thenThrowsException() {
+        assertThat(InventoryService.toOperation("commit")).isEqualTo(InventoryOperation.COMMIT);
+        assertThrows(CustomException.class, () -> InventoryService.toOperation("steal"));
+    }
+}
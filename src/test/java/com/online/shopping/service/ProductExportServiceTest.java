@@ -0,0 +1,192 @@
+package com.online.shopping.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.online.shopping.entity.*;
+import com.online.shopping.exception.ResourceNotFoundException;
+import com.online.shopping.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+
+@SpringBootTest
+class ProductExportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductExportService productExportService;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private Product product;
+
+    private Product otherProduct;
+
+    @BeforeEach
+    public void setup() {
+        productExportService = new ProductExportService(productRepository, mapper, 1);
+        product = new Product("TestProdId", "laptop", "apple", "very good", new Price("USD", 12.99),
+                new Inventory(35, 20, 5), List.of(new Attributes("colour", "white")), new Category("testCategId", "electronics"));
+        otherProduct = new Product("OtherProdId", "phone", "apple", "very good", new Price("USD", 9.99),
+                new Inventory(35, 20, 5), List.of(new Attributes("colour", "black")), new Category("testCategId", "electronics"));
+    }
+
+    @DisplayName("Junit Test case for ExportProducts method - writes one product per line")
+    @Test
+    void givenProducts_whenExportProducts_thenWriteNdjson() throws Exception {
+        // given - precondition or setup
+        given(productRepository.streamAll(1)).willReturn(Stream.of(product, otherProduct));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when -  action or the behaviour that we are going test
+        long exported = productExportService.exportProducts(out, false);
+
+        // then - verify the output
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exported).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).isEqualTo(mapper.writeValueAsString(product));
+        assertThat(lines[1]).isEqualTo(mapper.writeValueAsString(otherProduct));
+    }
+
+    @DisplayName("Junit Test case for ExportProducts method - flushes the response once per batch, not per product")
+    @Test
+    void givenManyProducts_whenExportProducts_thenFlushOncePerBatch() throws Exception {
+        // given - precondition or setup
+        productExportService = new ProductExportService(productRepository, mapper, 100);
+        given(productRepository.streamAll(100)).willReturn(products(1000));
+        FlushCountingOutputStream out = new FlushCountingOutputStream();
+
+        // when -  action or the behaviour that we are going test
+        long exported = productExportService.exportProducts(out, false);
+
+        // then - verify the output
+        assertThat(exported).isEqualTo(1000);
+        // 10 batches, plus the final flushes of the generator and of the response
+        assertThat(out.flushes).isBetween(10, 13);
+    }
+
+    @DisplayName("Junit Test case for ExportProducts method - writes a complete gzip body")
+    @Test
+    void givenProducts_whenExportProductsWithGzip_thenWriteCompressedNdjson() throws Exception {
+        // given - precondition or setup
+        given(productRepository.streamAll(1)).willReturn(Stream.of(product));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when -  action or the behaviour that we are going test
+        productExportService.exportProducts(out, true);
+
+        // then - verify the output
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(body).isEqualTo(mapper.writeValueAsString(product) + "\n");
+        }
+    }
+
+    @DisplayName("Junit Test case for WriteJsonArray method - streams the category products as a JSON array")
+    @Test
+    void givenCategoryProducts_whenWriteJsonArray_thenWriteArrayAndCloseCursor() throws Exception {
+        // given - precondition or setup
+        AtomicBoolean closed = new AtomicBoolean();
+        given(productRepository.streamByCategory("electronics", 1, Set.of("id", "name")))
+                .willReturn(Stream.of(product, otherProduct).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when -  action or the behaviour that we are going test
+        long written = productExportService.writeJsonArray(
+                productExportService.streamProductsByCategory("electronics", "name"), out);
+
+        // then - verify the output
+        assertThat(written).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8))
+                .isEqualTo(mapper.writeValueAsString(List.of(product, otherProduct)));
+        assertThat(closed).isTrue();
+    }
+
+    @DisplayName("Junit Test case for WriteJsonArray method - only the projected products leave out the fields not read")
+    @Test
+    void givenProjectedAndWholeProducts_whenWriteJsonArray_thenOnlyProjectedOmitNulls() throws Exception {
+        // given - precondition or setup
+        ProjectedProduct projected = new ProjectedProduct();
+        projected.setId("P1");
+        projected.setName("Laptop");
+        Product whole = new Product();
+        whole.setId("P2");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when -  action or the behaviour that we are going test
+        productExportService.writeJsonArray(Stream.of(projected, whole), out);
+
+        // then - verify the output
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("[{\"id\":\"P1\",\"name\":\"Laptop\"},"
+                + "{\"id\":\"P2\",\"name\":null,\"brand\":null,\"description\":null,\"price\":null,"
+                + "\"inventory\":null,\"attributes\":[],\"category\":null}]");
+    }
+
+    @DisplayName("Junit Test case for WriteJsonArray method - flushes one HTTP chunk per batch, not per product")
+    @Test
+    void givenManyProducts_whenWriteJsonArray_thenFlushOncePerBatch() throws Exception {
+        // given - precondition or setup
+        productExportService = new ProductExportService(productRepository, mapper, 100);
+        FlushCountingOutputStream out = new FlushCountingOutputStream();
+
+        // when -  action or the behaviour that we are going test
+        long written = productExportService.writeJsonArray(products(1000), out);
+
+        // then - verify the output
+        assertThat(written).isEqualTo(1000);
+        assertThat(mapper.readTree(out.toByteArray()).size()).isEqualTo(1000);
+        // 10 batches, plus the final flushes of the generator and of the response
+        assertThat(out.flushes).isBetween(10, 13);
+    }
+
+    @DisplayName("Junit Test case for StreamProductsByCategory method - throws ResourceNotFoundException before writing")
+    @Test
+    void givenNoCategoryProducts_whenStreamProductsByCategory_thenThrowsException() {
+        // given - precondition or setup
+        AtomicBoolean closed = new AtomicBoolean();
+        given(productRepository.streamByCategory("electronics", 1, null))
+                .willReturn(Stream.<Product>empty().onClose(() -> closed.set(true)));
+
+        // when -  action or the behaviour that we are going test
+        assertThrows(ResourceNotFoundException.class,
+                () -> productExportService.streamProductsByCategory("electronics", null));
+
+        // then - verify the output
+        assertThat(closed).isTrue();
+    }
+
+    private Stream<Product> products(int count) {
+        return IntStream.range(0, count).mapToObj(i -> new Product("P" + i, "phone " + i, "apple", "very good",
+                new Price("USD", 9.99), new Inventory(35, 20, 5), List.of(new Attributes("colour", "black")),
+                new Category("testCategId", "electronics")));
+    }
+
+    private static final class FlushCountingOutputStream extends ByteArrayOutputStream {
+
+        private int flushes;
+
+        @Override
+        public void flush() throws IOException {
+            flushes++;
+            super.flush();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.online.shopping.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.online.shopping.dto.BulkImportItemDTO;
+import com.online.shopping.dto.BulkImportResponseDTO;
+import com.online.shopping.entity.*;
+import com.online.shopping.repository.ProductRepository;
+import com.online.shopping.util.UlidIdGenerator;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class ProductImportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private ProductService productService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Captor
+    private ArgumentCaptor<List<Product>> batch;
+
+    private ProductImportService productImportService;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private Product product;
+
+    @BeforeEach
+    public void setup() {
+        productImportService = new ProductImportService(productRepository, productService, mapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), eventPublisher, new UlidIdGenerator(), 2);
+        product = new Product(null, "laptop", "apple", "very good", new Price("USD", 12.99),
+                new Inventory(35, 20, 5), List.of(new Attributes("colour", "white")), new Category(null, "electronics"));
+    }
+
+    @DisplayName("Junit Test case for ImportProducts method - imports an NDJSON body in batches")
+    @Test
+    void givenNdjsonBody_whenImportProducts_thenReturnPerItemSummary() throws Exception {
+        // given - precondition or setup
+        Product invalidProduct = new Product(null, "", "apple", "very good", new Price("USD", 12.99),
+                new Inventory(35, 20, 5), List.of(new Attributes("colour", "white")), new Category(null, "electronics"));
+        String body = mapper.writeValueAsString(product) + "\n" + mapper.writeValueAsString(invalidProduct) + "\n"
+                + mapper.writeValueAsString(product) + "\n" + mapper.writeValueAsString(product) + "\n";
+        given(productRepository.insertAll(anyList())).willReturn(Collections.emptyMap());
+
+        // when -  action or the behaviour that we are going test
+        BulkImportResponseDTO response = productImportService.importProducts(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        // then - verify the output
+        assertThat(response.getReceived()).isEqualTo(4);
+        assertThat(response.getImported()).isEqualTo(3);
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getItems().get(1).getStatus()).isEqualTo(BulkImportItemDTO.Status.FAILED);
+        assertThat(response.getItems().get(1).getMessage()).contains("name");
+        verify(productRepository, times(2)).insertAll(anyList());
+        verify(productService, times(1)).saveCategory(any(Category.class));
+    }
+
+    @DisplayName("Junit Test case for ImportProducts method - reports the products rejected by the bulk write")
+    @Test
+    void givenJsonArrayBody_whenBulkWriteFails_thenReportFailedItems() throws Exception {
+        // given - precondition or setup
+        String body = mapper.writeValueAsString(List.of(product, product));
+        given(productRepository.insertAll(anyList())).willReturn(Map.of(1, "E11000 duplicate key error"));
+
+        // when -  action or the behaviour that we are going test
+        BulkImportResponseDTO response = productImportService.importProducts(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        // then - verify the output
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getItems().get(1).getMessage()).contains("duplicate key");
+        verify(productRepository).insertAll(batch.capture());
+        assertThat(batch.getValue()).hasSize(2);
+    }
+
+    @DisplayName("Junit Test case for ImportProducts method - stops at malformed JSON (negative scenario)")
+    @Test
+    void givenMalformedBody_whenImportProducts_thenReportParseFailure() throws Exception {
+        // given - precondition or setup
+        String body = mapper.writeValueAsString(product) + "\n{\"name\": ";
+        given(productRepository.insertAll(anyList())).willReturn(Collections.emptyMap());
+
+        // when -  action or the behaviour that we are going test
+        BulkImportResponseDTO response = productImportService.importProducts(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        // then - verify the output
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getItems().get(1).getMessage()).startsWith("Malformed JSON");
+    }
+
+    @DisplayName("Junit Test case for ImportProducts method - ends the import when the body cannot be read (negative scenario)")
+    @Test
+    void givenBrokenBody_whenImportProducts_thenThrowIOException() throws Exception {
+        // given - precondition or setup
+        InputStream broken = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new EOFException("client went away");
+            }
+        };
+        InputStream body = new SequenceInputStream(new ByteArrayInputStream(
+                (mapper.writeValueAsString(product) + "\n").getBytes(StandardCharsets.UTF_8)), broken);
+
+        // when -  action or the behaviour that we are going test
+        IOException exception = assertThrows(IOException.class, () -> productImportService.importProducts(body));
+
+        // then - verify the output
+        assertThat(exception).isInstanceOf(EOFException.class);
+        verify(productRepository, never()).insertAll(anyList());
+    }
+}
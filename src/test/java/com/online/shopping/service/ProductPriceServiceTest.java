@@ -0,0 +1,131 @@
+package com.online.shopping.service;
+
+import com.online.shopping.dto.BulkPriceUpdateDTO;
+import com.online.shopping.dto.BulkPriceUpdateDTO.PriceOperation;
+import com.online.shopping.dto.BulkPriceUpdateResponseDTO;
+import com.online.shopping.entity.*;
+import com.online.shopping.event.ProductChangedEvent;
+import com.online.shopping.event.ProductsChangedEvent;
+import com.online.shopping.exception.CustomException;
+import com.online.shopping.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class ProductPriceServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ProductPriceService productPriceService;
+
+    private Product product;
+
+    @BeforeEach
+    public void setup() {
+        productPriceService = new ProductPriceService(productRepository, eventPublisher, 2);
+        product = new Product("1", "laptop", "apple", "very good", new Price("USD", 11.69),
+                new Inventory(35, 20, 5), List.of(new Attributes("colour", "white")), new Category("1234", "electronics"));
+    }
+
+    private static Product withPrice(String id, double amount) {
+        Product product = new Product();
+        product.setId(id);
+        product.setPrice(new Price("USD", amount));
+        return product;
+    }
+
+    @DisplayName("Junit Test case for UpdatePrices method - updates the matched products in batches and announces them")
+    @Test
+    void givenCategoryAndPercentChange_whenUpdatePrices_thenUpdateInBatches() {
+        // given - precondition or setup
+        BulkPriceUpdateDTO request = new BulkPriceUpdateDTO("electronics", null, PriceOperation.PERCENT, -10.0, null);
+        Product first = withPrice("1", 12.99);
+        Product second = withPrice("2", 20.00);
+        Product third = withPrice("3", 1.00);
+        given(productRepository.streamByFilter(eq("electronics"), eq(Map.of()), anyInt(), any()))
+                .willReturn(Stream.of(first, second, third));
+        given(productRepository.updatePrices(List.of(first, second), List.of(new Price("USD", 11.69), new Price("USD", 18.00))))
+                .willReturn(2L);
+        given(productRepository.updatePrices(List.of(), List.of())).willReturn(0L);
+        given(productRepository.findByIds(List.of("1", "2"), null)).willReturn(List.of(product, product));
+
+        // when -  action or the behaviour that we are going test
+        BulkPriceUpdateResponseDTO response = productPriceService.updatePrices(request);
+
+        // then - verify the output
+        assertThat(response.getMatched()).isEqualTo(3);
+        assertThat(response.getModified()).isEqualTo(2);
+        ArgumentCaptor<ProductsChangedEvent> event = ArgumentCaptor.forClass(ProductsChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertThat(event.getValue().getChanges()).extracting(ProductChangedEvent::getChangeType)
+                .containsExactly(ProductChangedEvent.ChangeType.UPDATED, ProductChangedEvent.ChangeType.UPDATED);
+        verify(productRepository, never()).findByIds(eq(List.of("3")), isNull());
+    }
+
+    @DisplayName("Junit Test case for NewPrice method - rounds half up to cents and keeps the minimum amount")
+    @Test
+    void givenPriceOperations_whenNewPrice_thenRoundAndClamp() {
+        // given - precondition or setup
+        Price price = new Price("USD", 10.05);
+
+        // when -  action or the behaviour that we are going test
+        Price discounted = ProductPriceService.newPrice(price, PriceOperation.PERCENT, -50.0, null);
+        Price reduced = ProductPriceService.newPrice(price, PriceOperation.ADD, -20.0, "EUR");
+        Price currencyOnly = ProductPriceService.newPrice(price, null, null, "EUR");
+
+        // then - verify the output
+        assertThat(discounted).isEqualTo(new Price("USD", 5.03));
+        assertThat(reduced).isEqualTo(new Price("EUR", 1.00));
+        assertThat(currencyOnly).isEqualTo(new Price("EUR", 10.05));
+    }
+
+    @DisplayName("Junit Test case for UpdatePrices method - rejects a request without filter (negative scenario)")
+    @Test
+    void givenNoFilter_whenUpdatePrices_thenThrowsException() {
+        // given - precondition or setup
+        BulkPriceUpdateDTO request = new BulkPriceUpdateDTO(" ", Map.of(), null, null, "EUR");
+
+        // when -  action or the behaviour that we are going test
+        assertThrows(CustomException.class, () -> productPriceService.updatePrices(request));
+
+        // then - verify the output
+        verify(productRepository, never()).streamByFilter(any(), any(), anyInt(), any());
+    }
+
+    @DisplayName("Junit Test case for UpdatePrices method - rejects a price below the minimum (negative scenario)")
+    @Test
+    void givenSetBelowMinimum_whenUpdatePrices_thenThrowsException() {
+        // given - precondition or setup
+        BulkPriceUpdateDTO request = new BulkPriceUpdateDTO(null, Map.of("colour", List.of("white")),
+                PriceOperation.SET, 0.5, null);
+
+        // when -  action or the behaviour that we are going test
+        assertThrows(CustomException.class, () -> productPriceService.updatePrices(request));
+
+        // then - verify the output
+        verify(productRepository, never()).updatePrices(any(), any());
+    }
+}
@@ -1,26 +1,37 @@
 package com.online.shopping.service;
 
+import com.online.shopping.cache.CategoryRegistry;
+import com.online.shopping.dto.CursorPageDTO;
 import com.online.shopping.entity.*;
+import com.online.shopping.event.ProductChangedEvent;
+import com.online.shopping.exception.CustomException;
 import com.online.shopping.exception.ResourceNotFoundException;
 import com.online.shopping.repository.CategoryRepository;
 import com.online.shopping.repository.ProductRepository;
-import com.online.shopping.util.OnlineShoppingAppUtility;
+import com.online.shopping.util.IdGenerator;
+import com.online.shopping.util.PageCursor;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.Mockito.*;
@@ -31,6 +42,10 @@ class ProductServiceTest {
     private ProductRepository productRepository;
     @Mock
     private CategoryRepository categoryRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private IdGenerator idGenerator;
 
     @InjectMocks
     private ProductService productService;
@@ -40,7 +55,8 @@ class ProductServiceTest {
 
     @BeforeEach
     public void setup() {
-        productService = new ProductService(productRepository, categoryRepository);
+        productService = new ProductService(productRepository, categoryRepository, eventPublisher, idGenerator,
+                new CategoryRegistry(categoryRepository, Duration.ofSeconds(5)));
         category = new Category("testCategId", "test-category");
         product = new Product("TestProdId", "test name",
                 "test brand", "description for the test product",
@@ -88,23 +104,41 @@ class ProductServiceTest {
         assertThat(savedCategory).isNull();
     }
 
+    @DisplayName("Junit Test case for SaveCategory method - keeps the category created concurrently (negative scenario)")
+    @Test
+    void givenConcurrentCreation_whenSaveCategory_thenKeepStoredCategory() {
+        // given - precondition or setup
+        given(idGenerator.nextId()).willReturn("otherCategId");
+        given(categoryRepository.findByName(category.getName()))
+                .willReturn(Optional.empty())
+                .willReturn(Optional.of(category));
+        given(categoryRepository.insert(any(Category.class)))
+                .willThrow(new DuplicateKeyException("E11000 duplicate key error"));
+
+        // when -  action or the behaviour that we are going test
+        productService.saveCategory(new Category(null, category.getName()));
+
+        // then - verify the output
+        verify(categoryRepository, times(2)).findByName(category.getName());
+        verify(categoryRepository, never()).save(any(Category.class));
+    }
+
     @DisplayName("Junit Test case for SaveProduct method - should create a Product object")
     @Test
     void givenProductObject_whenSaveProduct_thenReturnProductObject() {
         // given - precondition or setup
-        ProductService productServiceSpy = spy(new ProductService(productRepository, categoryRepository));
-        willDoNothing().given(productServiceSpy).saveCategory(category);
-
-        given(productRepository.findById(product.getId()))
-                .willReturn(Optional.empty());
+        given(idGenerator.nextId()).willReturn("01HF7Y5M3Q8Z6V2N4K9T0R1B3C");
+        given(categoryRepository.findByName(category.getName()))
+                .willReturn(Optional.of(category));
 
-        given(productRepository.save(product)).willReturn(product);
+        given(productRepository.insert(product)).willReturn(product);
 
         // when -  action or the behaviour that we are going test
-        Product savedProduct = productRepository.save(product);
+        Product savedProduct = productService.saveProduct(product);
 
         // then - verify the output
-        assertThat(savedProduct).isNotNull();
+        assertThat(savedProduct.getId()).isEqualTo("01HF7Y5M3Q8Z6V2N4K9T0R1B3C");
+        verify(productRepository, never()).findById(any());
     }
 
     @DisplayName("Junit Test case for SaveProduct method - throws exception (negative scenario) ")
@@ -114,11 +148,10 @@ class ProductServiceTest {
         given(categoryRepository.findByName(category.getName()))
                 .willReturn(Optional.of(category));
 
-        MockedStatic<OnlineShoppingAppUtility> mockedStatic = mockStatic(OnlineShoppingAppUtility.class);
-        mockedStatic.when(() -> OnlineShoppingAppUtility.generateUserId(10)).thenReturn("TestProdId");
+        given(idGenerator.nextId()).willReturn("TestProdId");
 
-        given(productRepository.findById(product.getId()))
-                .willReturn(Optional.of(product));
+        given(productRepository.insert(product))
+                .willThrow(new DuplicateKeyException("E11000 duplicate key error"));
 
         // when -  action or the behaviour that we are going test
         assertThrows(ResourceNotFoundException.class, () -> {
@@ -236,6 +269,29 @@ class ProductServiceTest {
         verify(productRepository, times(1)).deleteById("TestProdId");
     }
 
+    @DisplayName("Junit Test case for UpdateProduct method - publishes the change for the old and new category")
+    @Test
+    void givenCategoryChange_whenUpdateProduct_thenPublishBothCategories() {
+        // given - precondition or setup
+        Product storedProduct = new Product("TestProdId", "test name",
+                "test brand", "description for the test product",
+                new Price("INR", 1234.56),
+                new Inventory(50, 40, 10),
+                List.of(new Attributes("color", "test color")),
+                new Category("oldCategId", "old-category"));
+        given(productRepository.findById("TestProdId")).willReturn(Optional.of(storedProduct));
+        given(productRepository.save(storedProduct)).willReturn(storedProduct);
+
+        // when -  action or the behaviour that we are going test
+        productService.updateProduct("TestProdId", product);
+
+        // then - verify the output
+        ArgumentCaptor<ProductChangedEvent> event = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getChangeType()).isEqualTo(ProductChangedEvent.ChangeType.UPDATED);
+        assertThat(event.getValue().getCategoryNames()).containsExactlyInAnyOrder("old-category", "test-category");
+    }
+
     @DisplayName("Junit Test case for DeleteProduct method - throws exception (negative scenario) ")
     @Test
     void givenProductId_whenDeleteProduct_thenThrowsException() {
@@ -255,10 +311,10 @@ class ProductServiceTest {
     @Test
     void givenCategoryName_whenGetProductListByCategoryName_thenReturnProductList() {
         // given - precondition or setup
-        given(productRepository.findByCategoryNameIgnoreCase(category.getName())).willReturn(List.of(product));
+        given(productRepository.findByCategory(category.getName(), null)).willReturn(List.of(product));
 
         // when -  action or the behaviour that we are going test
-        List<Product> productList = productService.getProductByCategory(category.getName());
+        List<Product> productList = productService.getProductByCategory(category.getName(), null);
 
         // then - verify the output
         assertThat(productList).isNotNull();
@@ -269,15 +325,112 @@ class ProductServiceTest {
     @Test
     void givenCategoryName_whenGetProductListByCategoryName_thenThrowsException() {
         // given - precondition or setup
-        given(productRepository.findByCategoryNameIgnoreCase(category.getName())).willReturn(Collections.emptyList());
+        given(productRepository.findByCategory(category.getName(), null)).willReturn(Collections.emptyList());
 
         // when -  action or the behaviour that we are going test
         assertThrows(ResourceNotFoundException.class, () -> {
-            productService.getProductByCategory(category.getName());
+            productService.getProductByCategory(category.getName(), null);
         });
 
         // then - verify the output
-        verify(productRepository, times(1)).findByCategoryNameIgnoreCase(category.getName());
+        verify(productRepository, times(1)).findByCategory(category.getName(), null);
+    }
+
+    @DisplayName("Junit Test case for ProductListByCategoryName method - reads only the requested fields")
+    @Test
+    void givenFields_whenGetProductListByCategoryName_thenProjectRequestedFields() {
+        // given - precondition or setup
+        given(productRepository.findByCategory(category.getName(), Set.of("id", "name", "price")))
+                .willReturn(List.of(product));
+
+        // when -  action or the behaviour that we are going test
+        List<Product> productList = productService.getProductByCategory(category.getName(), "name, price");
+
+        // then - verify the output
+        assertThat(productList).containsExactly(product);
+        verify(productRepository, never()).findByCategory(category.getName(), null);
     }
 
-}
\ No newline at end of file
+    @DisplayName("Junit Test case for ProductListByCategoryName method - throws exception for an unknown field (negative scenario)")
+    @Test
+    void givenUnknownField_whenGetProductListByCategoryName_thenThrowsException() {
+        // when -  action or the behaviour that we are going test
+        assertThrows(CustomException.class, () -> {
+            productService.getProductByCategory(category.getName(), "name,password");
+        });
+
+        // then - verify the output
+        verify(productRepository, never()).findByCategory(any(), any());
+    }
+
+    @DisplayName("Junit Test case for GetProductsAfterCursor method - projects the sort field needed by the next cursor")
+    @Test
+    void givenFields_whenGetProductsAfterCursor_thenProjectSortField() {
+        // given - precondition or setup
+        given(productRepository.findPageAfter("price.amount", Sort.Direction.ASC, null, null, 11, Set.of("id", "name", "price")))
+                .willReturn(List.of(product));
+
+        // when -  action or the behaviour that we are going test
+        CursorPageDTO page = productService.getProductsAfterCursor("price", "asc", null, 10, "name");
+
+        // then - verify the output
+        assertThat(page.getProducts()).containsExactly(product);
+    }
+
+
+    @DisplayName("Junit Test case for GetProductsAfterCursor method - returns a page with the next cursor")
+    @Test
+    void givenMoreProductsThanPageSize_whenGetProductsAfterCursor_thenReturnNextCursor() {
+        // given - precondition or setup
+        Product nextProduct = new Product("TestProdId2", "test name 2",
+                "test brand", "description for the test product",
+                new Price("INR", 1300.00),
+                new Inventory(50, 40, 10),
+                List.of(new Attributes("color", "test color")),
+                category);
+        given(productRepository.findPageAfter("price.amount", Sort.Direction.ASC, null, null, 2, null))
+                .willReturn(List.of(product, nextProduct));
+
+        // when -  action or the behaviour that we are going test
+        CursorPageDTO page = productService.getProductsAfterCursor("price", "asc", null, 1, null);
+
+        // then - verify the output
+        assertThat(page.getProducts()).containsExactly(product);
+        assertThat(page.isHasNext()).isTrue();
+        PageCursor cursor = PageCursor.decode(page.getNextCursor());
+        assertThat(cursor.getValue()).isEqualTo(1234.56);
+        assertThat(cursor.getId()).isEqualTo("TestProdId");
+    }
+
+    @DisplayName("Junit Test case for GetProductsAfterCursor method - seeks after the cursor position")
+    @Test
+    void givenCursor_whenGetProductsAfterCursor_thenSeekAfterLastProduct() {
+        // given - precondition or setup
+        String after = new PageCursor("price", "ASC", 1234.56, "TestProdId").encode();
+        given(productRepository.findPageAfter("price.amount", Sort.Direction.ASC, 1234.56, "TestProdId", 11, null))
+                .willReturn(List.of(product));
+
+        // when -  action or the behaviour that we are going test
+        CursorPageDTO page = productService.getProductsAfterCursor("price", "asc", after, 10, null);
+
+        // then - verify the output
+        assertThat(page.getProducts()).containsExactly(product);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @DisplayName("Junit Test case for GetProductsAfterCursor method - throws exception for a cursor of another sort (negative scenario) ")
+    @Test
+    void givenCursorOfOtherSort_whenGetProductsAfterCursor_thenThrowsException() {
+        // given - precondition or setup
+        String after = new PageCursor("name", "ASC", "test name", "TestProdId").encode();
+
+        // when -  action or the behaviour that we are going test
+        assertThrows(CustomException.class, () -> {
+            productService.getProductsAfterCursor("price", "asc", after, 10, null);
+        });
+
+        // then - verify the output
+        verify(productRepository, never()).findPageAfter(any(), any(), any(), any(), anyInt(), any());
+    }
+}
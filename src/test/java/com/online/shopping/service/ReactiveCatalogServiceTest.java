@@ -0,0 +1,165 @@
+package com.online.shopping.service;
+
+import com.online.shopping.dto.CursorPageDTO;
+import com.online.shopping.entity.*;
+import com.online.shopping.exception.CustomException;
+import com.online.shopping.exception.ProductNotAvailableException;
+import com.online.shopping.exception.ResourceNotFoundException;
+import com.online.shopping.repository.ReactiveCategoryRepository;
+import com.online.shopping.repository.ReactiveProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class ReactiveCatalogServiceTest {
+
+    @Mock
+    private ReactiveProductRepository productRepository;
+
+    @Mock
+    private ReactiveCategoryRepository categoryRepository;
+
+    private ReactiveCatalogService catalogService;
+
+    private Product product;
+    private Product secondProduct;
+    private Category category;
+
+    @BeforeEach
+    public void setup() {
+        catalogService = new ReactiveCatalogService(productRepository, categoryRepository);
+        category = new Category("22334ID", "Dummy");
+        product = new Product("1122ID", "ABC",
+                "XYZ", "Great product",
+                new Price("INR", 9000.00),
+                new Inventory(100, 90, 10),
+                List.of(new Attributes("color", "multicolor")),
+                category);
+        secondProduct = new Product("3344ID", "DEF",
+                "XYZ", "Great product",
+                new Price("INR", 500.00),
+                new Inventory(100, 90, 10),
+                List.of(new Attributes("color", "black")),
+                category);
+    }
+
+    @DisplayName("Junit Test case for getProductByCategory method - should stream the products of the category")
+    @Test
+    void givenCategory_whenGetProductByCategory_thenStreamProducts() {
+        // given - precondition or setup
+        given(productRepository.findByCategory("Dummy", Set.of("id", "name")))
+                .willReturn(Flux.just(product, secondProduct));
+
+        // when -  action or the behaviour that we are going test
+        Flux<Product> products = catalogService.getProductByCategory("Dummy", "name");
+
+        // then - verify the output
+        StepVerifier.create(products)
+                .expectNext(product, secondProduct)
+                .verifyComplete();
+    }
+
+    @DisplayName("Junit Test case for getProductByCategory method - signals an error for an empty category (negative scenario)")
+    @Test
+    void givenEmptyCategory_whenGetProductByCategory_thenSignalsException() {
+        // given - precondition or setup
+        given(productRepository.findByCategory("Dummy", null)).willReturn(Flux.empty());
+
+        // when -  action or the behaviour that we are going test
+        Flux<Product> products = catalogService.getProductByCategory("Dummy", null);
+
+        // then - verify the output
+        StepVerifier.create(products)
+                .verifyError(ResourceNotFoundException.class);
+    }
+
+    @DisplayName("Junit Test case for getProductByCategory method - signals an error for an unknown field (negative scenario)")
+    @Test
+    void givenUnknownField_whenGetProductByCategory_thenSignalsException() {
+        // when -  action or the behaviour that we are going test
+        Flux<Product> products = catalogService.getProductByCategory("Dummy", "bogus");
+
+        // then - verify the output
+        StepVerifier.create(products)
+                .verifyError(CustomException.class);
+        verify(productRepository, never()).findByCategory(anyString(), any());
+    }
+
+    @DisplayName("Junit Test case for getProductsAfterCursor method - should return the page and the next cursor")
+    @Test
+    void givenPageSize_whenGetProductsAfterCursor_thenReturnNextCursor() {
+        // given - precondition or setup
+        given(productRepository.findPageAfter("name", Sort.Direction.ASC, null, null, 2, null))
+                .willReturn(Flux.just(product, secondProduct));
+
+        // when -  action or the behaviour that we are going test
+        Mono<CursorPageDTO> page = catalogService.getProductsAfterCursor("name", "asc", null, 1, null);
+
+        // then - verify the output
+        StepVerifier.create(page)
+                .expectNextMatches(p -> p.isHasNext() && p.getNextCursor() != null && p.getProducts().equals(List.of(product)))
+                .verifyComplete();
+    }
+
+    @DisplayName("Junit Test case for getCategoryProduct method - should return the sellable products of the page")
+    @Test
+    void givenCategory_whenGetCategoryProduct_thenReturnPage() {
+        // given - precondition or setup
+        given(categoryRepository.findByName("Dummy")).willReturn(Mono.just(category));
+        given(productRepository.findSellableByCategory("Dummy", "price", "asc", 10, 10, null))
+                .willReturn(Flux.just(product));
+
+        // when -  action or the behaviour that we are going test
+        StepVerifier.create(catalogService.getCategoryProduct("Dummy", "price", "asc", 2, 10, null))
+                // then - verify the output
+                .expectNextMatches(r -> r.getProductResponseDTO().getProducts().equals(List.of(product))
+                        && "22334ID".equals(r.getCategoryResponseDTO().getId()))
+                .verifyComplete();
+        verify(productRepository, never()).existsByCategory("Dummy");
+    }
+
+    @DisplayName("Junit Test case for getCategoryProduct method - signals an error for an unknown category (negative scenario)")
+    @Test
+    void givenUnknownCategory_whenGetCategoryProduct_thenSignalsException() {
+        // given - precondition or setup
+        given(categoryRepository.findByName("Dummy")).willReturn(Mono.empty());
+
+        // when -  action or the behaviour that we are going test
+        StepVerifier.create(catalogService.getCategoryProduct("Dummy", "price", "asc", 1, 10, null))
+                // then - verify the output
+                .verifyError(ResourceNotFoundException.class);
+        verify(productRepository, never()).findSellableByCategory(anyString(), anyString(), anyString(), any(Long.class), anyInt(), any());
+    }
+
+    @DisplayName("Junit Test case for getCategoryProduct method - signals an error when the category has no products (negative scenario)")
+    @Test
+    void givenEmptyCategory_whenGetCategoryProduct_thenSignalsException() {
+        // given - precondition or setup
+        given(categoryRepository.findByName("Dummy")).willReturn(Mono.just(category));
+        given(productRepository.findSellableByCategory("Dummy", "price", "asc", 0, 10, null))
+                .willReturn(Flux.empty());
+        given(productRepository.existsByCategory("Dummy")).willReturn(Mono.just(false));
+
+        // when -  action or the behaviour that we are going test
+        StepVerifier.create(catalogService.getCategoryProduct("Dummy", "price", "asc", 1, 10, null))
+                // then - verify the output
+                .verifyError(ProductNotAvailableException.class);
+    }
+}
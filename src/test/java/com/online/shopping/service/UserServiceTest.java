@@ -3,14 +3,14 @@ package com.online.shopping.service;
 import com.online.shopping.entity.UserInfo;
 import com.online.shopping.exception.ResourceNotFoundException;
 import com.online.shopping.repository.UserRepository;
-import com.online.shopping.util.OnlineShoppingAppUtility;
+import com.online.shopping.util.IdGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
 
 import java.util.Collections;
 import java.util.List;
@@ -27,6 +27,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private IdGenerator idGenerator;
+
     @InjectMocks
     private UserService userService;
 
@@ -34,7 +37,7 @@ class UserServiceTest {
 
     @BeforeEach
     public void setup() {
-        userService = new UserService(userRepository);
+        userService = new UserService(userRepository, idGenerator);
         userInfo = new UserInfo("testUserInfoId", "testName", "test.email@gmail.com", "testPassword", "test-user");
     }
 
@@ -42,26 +45,25 @@ class UserServiceTest {
     @Test
     void givenUserObject_whenSaveUser_thenReturnSuccessMessageString() {
         // given - precondition or setup
-        given(userRepository.findById("testUserInfoId"))
-                .willReturn(Optional.empty());
+        given(idGenerator.nextId()).willReturn("testUserInfoId");
 
         // when -  action or the behaviour that we are going test
-        userRepository.save(userInfo);
+        Optional<String> response = userService.saveUser(userInfo);
 
         // then - verify the output
-        verify(userRepository, times(1)).save(userInfo);
+        assertThat(response).isPresent();
+        verify(userRepository, times(1)).insert(userInfo);
+        verify(userRepository, never()).findById(any());
     }
 
     @DisplayName("Junit Test case for SaveUser method - throws Exception (negative scenario)")
-//    @Test
+    @Test
     void givenUserObject_whenSaveUser_thenThrowsException() {
         // given - precondition or setup
+        given(idGenerator.nextId()).willReturn("testUserInfoId");
 
-        MockedStatic<OnlineShoppingAppUtility> mockedStatic = mockStatic(OnlineShoppingAppUtility.class);
-        mockedStatic.when(() -> OnlineShoppingAppUtility.generateUserId(15)).thenReturn("testUserInfoId");
-
-        given(userRepository.findById(userInfo.getId()))
-                .willReturn(Optional.of(userInfo));
+        given(userRepository.insert(userInfo))
+                .willThrow(new DuplicateKeyException("E11000 duplicate key error"));
 
         // when -  action or the behaviour that we are going test
         assertThrows(ResourceNotFoundException.class, () -> {
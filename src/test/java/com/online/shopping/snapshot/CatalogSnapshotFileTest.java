@@ -0,0 +1,94 @@
+package com.online.shopping.snapshot;
+
+import com.online.shopping.entity.Attributes;
+import com.online.shopping.entity.Category;
+import com.online.shopping.entity.Inventory;
+import com.online.shopping.entity.Price;
+import com.online.shopping.entity.Product;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CatalogSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    @DisplayName("Junit Test case for CatalogSnapshotFile write method - read returns the written catalog, segment after segment")
+    @Test
+    void givenCatalog_whenWriteThenRead_thenSameCatalog() throws IOException {
+        // given - precondition or setup
+        Path path = directory.resolve("catalog.snapshot");
+        Instant takenAt = Instant.parse("2026-01-15T10:00:00Z");
+        List<Category> categories = List.of(new Category("C1", "Mobiles"), new Category("C2", null));
+        List<Product> products = IntStream.range(0, 25).mapToObj(CatalogSnapshotFileTest::product).toList();
+
+        // when -  action or the behaviour that we are going test
+        long written = CatalogSnapshotFile.write(path, takenAt, categories, products.stream(), 4);
+        CatalogSnapshotFile.Contents contents = CatalogSnapshotFile.read(path);
+
+        // then - verify the output
+        assertThat(written).isEqualTo(25);
+        assertThat(contents.takenAt()).isEqualTo(takenAt);
+        assertThat(contents.categories()).isEqualTo(categories);
+        assertThat(contents.products()).isEqualTo(products);
+        assertThat(Files.exists(directory.resolve("catalog.snapshot.tmp"))).isFalse();
+    }
+
+    @DisplayName("Junit Test case for CatalogSnapshotFile write method - an empty catalog is read back empty")
+    @Test
+    void givenEmptyCatalog_whenWriteThenRead_thenEmpty() throws IOException {
+        // given - precondition or setup
+        Path path = directory.resolve("empty.snapshot");
+
+        // when -  action or the behaviour that we are going test
+        CatalogSnapshotFile.write(path, Instant.EPOCH, List.of(), Stream.empty(), 4);
+        CatalogSnapshotFile.Contents contents = CatalogSnapshotFile.read(path);
+
+        // then - verify the output
+        assertThat(contents.categories()).isEmpty();
+        assertThat(contents.products()).isEmpty();
+    }
+
+    @DisplayName("Junit Test case for CatalogSnapshotFile read method - rejects a file that is not a snapshot (negative scenario)")
+    @Test
+    void givenOtherFile_whenRead_thenIOException() throws IOException {
+        // given - precondition or setup
+        Path path = Files.write(directory.resolve("other.snapshot"), new byte[64]);
+
+        // when -  action or the behaviour that we are going test
+        IOException exception = assertThrows(IOException.class, () -> CatalogSnapshotFile.read(path));
+
+        // then - verify the output
+        assertThat(exception.getMessage()).contains("is not a catalog snapshot");
+    }
+
+    // every third product has its optional fields unset, one has a long description to grow the record buffer
+    private static Product product(int number) {
+        Product product = new Product();
+        product.setId("P" + number);
+        product.setName("product é " + number);
+        if (number % 3 != 0) {
+            product.setBrand("brand " + number);
+            product.setDescription(number == 7 ? "x".repeat(10_000) : "description " + number);
+            product.setPrice(new Price("USD", 10.0 + number));
+            product.setInventory(new Inventory(number, number, number / 2));
+            product.setAttributes(List.of(new Attributes("colour", "red"), new Attributes("size", null)));
+            product.setCategory(new Category("C1", "Mobiles"));
+        } else {
+            product.setAttributes(number == 0 ? List.of() : null);
+        }
+        return product;
+    }
+}
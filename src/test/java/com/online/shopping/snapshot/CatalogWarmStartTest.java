@@ -0,0 +1,129 @@
+package com.online.shopping.snapshot;
+
+import com.online.shopping.cache.CategoryColumnIndex;
+import com.online.shopping.cache.CategoryRegistry;
+import com.online.shopping.entity.Attributes;
+import com.online.shopping.entity.Category;
+import com.online.shopping.entity.Inventory;
+import com.online.shopping.entity.Price;
+import com.online.shopping.entity.Product;
+import com.online.shopping.repository.CategoryRepository;
+import com.online.shopping.repository.ProductRepository;
+import com.online.shopping.search.ProductSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static com.online.shopping.util.OnlineShoppingAppConstants.SORT_BY_PRICE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class CatalogWarmStartTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @TempDir
+    Path directory;
+
+    private CategoryRegistry categoryRegistry;
+
+    private CategoryColumnIndex categoryColumnIndex;
+
+    private ProductSearchIndex productSearchIndex;
+
+    private CatalogWarmStart catalogWarmStart;
+
+    private final Category category = new Category("C1", "electronics");
+
+    @BeforeEach
+    public void setup() {
+        categoryRegistry = new CategoryRegistry(categoryRepository, Duration.ofSeconds(5));
+        categoryColumnIndex = new CategoryColumnIndex(productRepository, 100);
+        productSearchIndex = new ProductSearchIndex(productRepository, 100);
+        catalogWarmStart = new CatalogWarmStart(productRepository, categoryRepository, categoryRegistry,
+                categoryColumnIndex, productSearchIndex, directory.resolve("catalog.snapshot"), true,
+                Duration.ofSeconds(30), 2, 100);
+    }
+
+    @DisplayName("Junit Test case for afterSingletonsInstantiated method - loads the caches from the snapshot caught up with the DB")
+    @Test
+    void givenSnapshot_whenAfterSingletonsInstantiated_thenCachesWarmAndCaughtUp() throws IOException {
+        // given - precondition or setup
+        given(categoryRepository.findAll()).willReturn(List.of(category));
+        given(productRepository.streamAll(100)).willReturn(Stream.of(product("1", "Laptop", 900.0),
+                product("2", "Phone", 500.0), product("3", "Tablet", 300.0)));
+        catalogWarmStart.snapshot();
+        Category created = new Category("C2", "cameras");
+        given(categoryRepository.findAll()).willReturn(List.of(category, created));
+        given(productRepository.streamAll(eq(100), any())).willReturn(Stream.of(id("1"), id("2"), id("4")));
+        given(productRepository.streamModifiedSince(any(), anyInt(), any()))
+                .willReturn(Stream.of(product("2", "Smart phone", 550.0), product("4", "Camera", 200.0)));
+
+        // when -  action or the behaviour that we are going test
+        catalogWarmStart.afterSingletonsInstantiated();
+
+        // then - verify the output
+        assertThat(catalogWarmStart.isWarmStarted()).isTrue();
+        assertThat(catalogWarmStart.isWarm()).isTrue();
+        assertThat(categoryRegistry.findByName("electronics")).contains(category);
+        assertThat(categoryRegistry.findByName("cameras")).contains(created);
+        assertThat(categoryColumnIndex.findSellableIds("electronics", SORT_BY_PRICE, "asc", 0, 10, Map.of()))
+                .containsExactly("4", "2", "1");
+        assertThat(productSearchIndex.search("smart", false, ProductSearchIndex.SortBy.RELEVANCE, true, 0, 10))
+                .extracting(Product::getId).containsExactly("2");
+        assertThat(productSearchIndex.search("tablet", false, ProductSearchIndex.SortBy.RELEVANCE, true, 0, 10))
+                .isEmpty();
+
+        // the first reloads from the DB are skipped, the next ones are not
+        categoryRegistry.refresh();
+        categoryColumnIndex.refresh();
+        verify(categoryRepository, times(2)).findAll();
+        verify(productRepository, times(1)).streamAll(eq(100), any());
+        categoryRegistry.refresh();
+        verify(categoryRepository, times(3)).findAll();
+    }
+
+    @DisplayName("Junit Test case for afterSingletonsInstantiated method - without a snapshot the caches load from the DB (negative scenario)")
+    @Test
+    void givenNoSnapshot_whenAfterSingletonsInstantiated_thenColdStart() {
+        // when -  action or the behaviour that we are going test
+        catalogWarmStart.afterSingletonsInstantiated();
+
+        // then - verify the output
+        assertThat(catalogWarmStart.isWarmStarted()).isFalse();
+        assertThat(catalogWarmStart.isWarm()).isFalse();
+        verify(productRepository, never()).streamModifiedSince(any(), anyInt(), any());
+    }
+
+    private Product product(String id, String name, double price) {
+        return new Product(id, name, "Acme", "description of " + name, new Price("USD", price),
+                new Inventory(10, 5, 0), List.of(new Attributes("colour", "black")), category);
+    }
+
+    private static Product id(String id) {
+        Product product = new Product();
+        product.setId(id);
+        return product;
+    }
+}
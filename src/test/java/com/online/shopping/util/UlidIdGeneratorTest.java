@@ -0,0 +1,135 @@
+package com.online.shopping.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UlidIdGeneratorTest {
+
+    private static final Instant NOW = Instant.parse("2023-11-14T10:15:30.123Z");
+
+    @DisplayName("Junit Test case for NextId method - encodes the timestamp in the first 10 characters")
+    @Test
+    void givenFixedClock_whenNextId_thenReturnTimestampPrefixedUlid() {
+        // given - precondition or setup
+        UlidIdGenerator idGenerator = new UlidIdGenerator(Clock.fixed(NOW, ZoneOffset.UTC), new Random(1));
+
+        // when -  action or the behaviour that we are going test
+        String id = idGenerator.nextId();
+
+        // then - verify the output
+        assertThat(id).hasSize(26).matches("[0-9A-HJKMNP-TV-Z]{26}");
+        assertThat(decodeTimestamp(id)).isEqualTo(NOW.toEpochMilli());
+    }
+
+    @DisplayName("Junit Test case for NextId method - ids of the same millisecond are strictly increasing")
+    @Test
+    void givenSameMillisecond_whenNextId_thenReturnIncreasingIds() {
+        // given - precondition or setup
+        UlidIdGenerator idGenerator = new UlidIdGenerator(Clock.fixed(NOW, ZoneOffset.UTC), new Random(1));
+
+        // when -  action or the behaviour that we are going test
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(idGenerator.nextId());
+        }
+
+        // then - verify the output
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+    }
+
+    @DisplayName("Junit Test case for NextId method - ids stay increasing when the clock moves backwards")
+    @Test
+    void givenClockMovingBackwards_whenNextId_thenReturnIncreasingIds() {
+        // given - precondition or setup
+        MutableClock clock = new MutableClock(NOW.toEpochMilli());
+        UlidIdGenerator idGenerator = new UlidIdGenerator(clock, new Random(1));
+
+        // when -  action or the behaviour that we are going test
+        String first = idGenerator.nextId();
+        clock.millis -= 5_000;
+        String second = idGenerator.nextId();
+        clock.millis += 10_000;
+        String third = idGenerator.nextId();
+
+        // then - verify the output
+        assertThat(List.of(first, second, third)).isSorted().doesNotHaveDuplicates();
+    }
+
+    @DisplayName("Junit Test case for NextId method - shared generator never returns the same id to concurrent callers")
+    @Test
+    void givenConcurrentCallers_whenNextId_thenReturnUniqueIds() throws Exception {
+        // given - precondition or setup
+        UlidIdGenerator idGenerator = new UlidIdGenerator();
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // when -  action or the behaviour that we are going test
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    ids.add(idGenerator.nextId());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then - verify the output
+        assertThat(ids).hasSize(8 * 20_000);
+    }
+
+    private static long decodeTimestamp(String id) {
+        String alphabet = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+        long timestamp = 0;
+        for (int i = 0; i < 10; i++) {
+            timestamp = (timestamp << 5) | alphabet.indexOf(id.charAt(i));
+        }
+        return timestamp;
+    }
+
+    private static class MutableClock extends Clock {
+
+        private long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public java.time.ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+    }
+}